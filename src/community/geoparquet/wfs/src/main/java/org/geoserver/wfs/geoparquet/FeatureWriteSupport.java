@@ -0,0 +1,398 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.referencing.CRS;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.WKBWriter;
+
+/**
+ * Maps {@link SimpleFeature} to Parquet records, following the GeoParquet 1.1 specification:
+ * geometries are written as WKB, the primary geometry gets a "bbox" covering column, and the "geo"
+ * file metadata, with the geometry types and bounds, is computed while writing and added to the
+ * footer.
+ */
+class FeatureWriteSupport extends WriteSupport<SimpleFeature> {
+
+    static final Logger LOGGER = Logging.getLogger(FeatureWriteSupport.class);
+
+    static final String GEOPARQUET_VERSION = "1.1.0";
+
+    static final String GEO_METADATA_KEY = "geo";
+
+    static final String[] BBOX_FIELDS = {"xmin", "ymin", "xmax", "ymax"};
+
+    enum Kind {
+        STRING,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        BOOLEAN,
+        DATE,
+        TIMESTAMP,
+        GEOMETRY
+    }
+
+    /** A Parquet column, along with the attribute it's sourced from */
+    static class Column {
+        String name;
+
+        int attribute;
+
+        Kind kind;
+
+        // geometry columns only
+        boolean flipAxes;
+
+        Integer epsgCode;
+
+        boolean undefinedCrs;
+
+        Envelope bounds = new Envelope();
+
+        Set<String> geometryTypes = new TreeSet<>();
+
+        Column(String name, int attribute, Kind kind) {
+            this.name = name;
+            this.attribute = attribute;
+            this.kind = kind;
+        }
+    }
+
+    SimpleFeatureType featureType;
+
+    List<Column> columns = new ArrayList<>();
+
+    Column primary;
+
+    String bboxColumn;
+
+    MessageType schema;
+
+    RecordConsumer consumer;
+
+    WKBWriter wkbWriter = new WKBWriter(2, ByteOrderValues.LITTLE_ENDIAN);
+
+    FeatureWriteSupport(SimpleFeatureType featureType) {
+        this.featureType = featureType;
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        Set<String> names = new HashSet<>();
+        GeometryDescriptor defaultGeometry = featureType.getGeometryDescriptor();
+        for (int i = 0; i < featureType.getAttributeCount(); i++) {
+            AttributeDescriptor ad = featureType.getDescriptor(i);
+            Column column = new Column(ad.getLocalName(), i, getKind(ad.getType().getBinding()));
+            addField(builder, column);
+            if (ad instanceof GeometryDescriptor) {
+                setupCrs(column, ((GeometryDescriptor) ad).getCoordinateReferenceSystem());
+                if (ad == defaultGeometry) {
+                    primary = column;
+                }
+            }
+            columns.add(column);
+            names.add(column.name);
+        }
+        if (primary != null) {
+            bboxColumn = "bbox";
+            while (names.contains(bboxColumn)) {
+                bboxColumn = "_" + bboxColumn;
+            }
+            Types.GroupBuilder<Types.MessageTypeBuilder> bbox = builder.optionalGroup();
+            for (String field : BBOX_FIELDS) {
+                bbox.required(PrimitiveTypeName.DOUBLE).named(field);
+            }
+            bbox.named(bboxColumn);
+        }
+        this.schema = builder.named(featureType.getTypeName());
+    }
+
+    static Kind getKind(Class<?> binding) {
+        if (Geometry.class.isAssignableFrom(binding)) {
+            return Kind.GEOMETRY;
+        } else if (Integer.class.equals(binding)
+                || Short.class.equals(binding)
+                || Byte.class.equals(binding)) {
+            return Kind.INT;
+        } else if (Long.class.equals(binding)) {
+            return Kind.LONG;
+        } else if (Float.class.equals(binding)) {
+            return Kind.FLOAT;
+        } else if (Double.class.equals(binding) || java.math.BigDecimal.class.equals(binding)) {
+            return Kind.DOUBLE;
+        } else if (Boolean.class.equals(binding)) {
+            return Kind.BOOLEAN;
+        } else if (java.sql.Date.class.equals(binding)) {
+            return Kind.DATE;
+        } else if (java.sql.Time.class.equals(binding) || BigInteger.class.equals(binding)) {
+            // no lossless mapping, keep the text representation
+            return Kind.STRING;
+        } else if (java.util.Date.class.isAssignableFrom(binding)) {
+            return Kind.TIMESTAMP;
+        }
+        return Kind.STRING;
+    }
+
+    private void addField(Types.MessageTypeBuilder builder, Column column) {
+        switch (column.kind) {
+            case GEOMETRY:
+                builder.optional(PrimitiveTypeName.BINARY).named(column.name);
+                break;
+            case INT:
+                builder.optional(PrimitiveTypeName.INT32).named(column.name);
+                break;
+            case LONG:
+                builder.optional(PrimitiveTypeName.INT64).named(column.name);
+                break;
+            case FLOAT:
+                builder.optional(PrimitiveTypeName.FLOAT).named(column.name);
+                break;
+            case DOUBLE:
+                builder.optional(PrimitiveTypeName.DOUBLE).named(column.name);
+                break;
+            case BOOLEAN:
+                builder.optional(PrimitiveTypeName.BOOLEAN).named(column.name);
+                break;
+            case DATE:
+                builder.optional(PrimitiveTypeName.INT32)
+                        .as(LogicalTypeAnnotation.dateType())
+                        .named(column.name);
+                break;
+            case TIMESTAMP:
+                builder.optional(PrimitiveTypeName.INT64)
+                        .as(
+                                LogicalTypeAnnotation.timestampType(
+                                        true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                        .named(column.name);
+                break;
+            default:
+                builder.optional(PrimitiveTypeName.BINARY)
+                        .as(LogicalTypeAnnotation.stringType())
+                        .named(column.name);
+        }
+    }
+
+    /**
+     * GeoParquet mandates east/north axis order, and defaults to OGC:CRS84 when no CRS is
+     * specified
+     */
+    private void setupCrs(Column column, CoordinateReferenceSystem crs) {
+        if (crs == null) {
+            column.undefinedCrs = true;
+            return;
+        }
+        column.flipAxes = CRS.getAxisOrder(crs) == CRS.AxisOrder.NORTH_EAST;
+        try {
+            column.epsgCode = CRS.lookupEpsgCode(crs, false);
+        } catch (FactoryException e) {
+            LOGGER.log(Level.FINE, "Could not lookup the EPSG code of " + crs, e);
+        }
+        if (column.epsgCode == null) {
+            column.undefinedCrs = true;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "geoserver-geoparquet";
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(schema, Collections.emptyMap());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.consumer = recordConsumer;
+    }
+
+    @Override
+    public void write(SimpleFeature feature) {
+        consumer.startMessage();
+        Envelope primaryBounds = null;
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            Object value = feature.getAttribute(column.attribute);
+            if (value == null) {
+                continue;
+            }
+            consumer.startField(column.name, i);
+            switch (column.kind) {
+                case GEOMETRY:
+                    Geometry geometry = prepareGeometry(column, (Geometry) value);
+                    consumer.addBinary(Binary.fromConstantByteArray(wkbWriter.write(geometry)));
+                    if (column == primary && !geometry.isEmpty()) {
+                        primaryBounds = geometry.getEnvelopeInternal();
+                    }
+                    break;
+                case INT:
+                    consumer.addInteger(((Number) value).intValue());
+                    break;
+                case LONG:
+                    consumer.addLong(((Number) value).longValue());
+                    break;
+                case FLOAT:
+                    consumer.addFloat(((Number) value).floatValue());
+                    break;
+                case DOUBLE:
+                    consumer.addDouble(((Number) value).doubleValue());
+                    break;
+                case BOOLEAN:
+                    consumer.addBoolean((Boolean) value);
+                    break;
+                case DATE:
+                    consumer.addInteger((int) ((java.sql.Date) value).toLocalDate().toEpochDay());
+                    break;
+                case TIMESTAMP:
+                    consumer.addLong(((java.util.Date) value).getTime());
+                    break;
+                default:
+                    consumer.addBinary(Binary.fromString(value.toString()));
+            }
+            consumer.endField(column.name, i);
+        }
+        if (primaryBounds != null) {
+            int index = columns.size();
+            consumer.startField(bboxColumn, index);
+            consumer.startGroup();
+            double[] values = {
+                primaryBounds.getMinX(),
+                primaryBounds.getMinY(),
+                primaryBounds.getMaxX(),
+                primaryBounds.getMaxY()
+            };
+            for (int i = 0; i < BBOX_FIELDS.length; i++) {
+                consumer.startField(BBOX_FIELDS[i], i);
+                consumer.addDouble(values[i]);
+                consumer.endField(BBOX_FIELDS[i], i);
+            }
+            consumer.endGroup();
+            consumer.endField(bboxColumn, index);
+        }
+        consumer.endMessage();
+    }
+
+    private Geometry prepareGeometry(Column column, Geometry geometry) {
+        if (column.flipAxes) {
+            geometry = geometry.copy();
+            geometry.apply(new AxisFlipper());
+        }
+        if (!geometry.isEmpty()) {
+            column.geometryTypes.add(geometry.getGeometryType());
+            column.bounds.expandToInclude(geometry.getEnvelopeInternal());
+        }
+        return geometry;
+    }
+
+    @Override
+    public FinalizedWriteContext finalizeWrite() {
+        Map<String, Object> geo = new LinkedHashMap<>();
+        geo.put("version", GEOPARQUET_VERSION);
+        if (primary != null) {
+            geo.put("primary_column", primary.name);
+        }
+        Map<String, Object> geometryColumns = new LinkedHashMap<>();
+        for (Column column : columns) {
+            if (column.kind == Kind.GEOMETRY) {
+                geometryColumns.put(column.name, getColumnMetadata(column));
+            }
+        }
+        geo.put("columns", geometryColumns);
+
+        try {
+            String json = new ObjectMapper().writeValueAsString(geo);
+            return new FinalizedWriteContext(Collections.singletonMap(GEO_METADATA_KEY, json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode the GeoParquet metadata", e);
+        }
+    }
+
+    private Map<String, Object> getColumnMetadata(Column column) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("encoding", "WKB");
+        metadata.put("geometry_types", new ArrayList<>(column.geometryTypes));
+        if (column.undefinedCrs) {
+            metadata.put("crs", null);
+        } else if (column.epsgCode != 4326) {
+            // a PROJJSON identifier, the full definition is not available in GeoTools
+            Map<String, Object> id = new LinkedHashMap<>();
+            id.put("authority", "EPSG");
+            id.put("code", column.epsgCode);
+            metadata.put("crs", Collections.singletonMap("id", id));
+        }
+        // else, OGC:CRS84 is the default, as long as the axes are in east/north order
+        if (!column.bounds.isNull()) {
+            metadata.put(
+                    "bbox",
+                    Arrays.asList(
+                            column.bounds.getMinX(),
+                            column.bounds.getMinY(),
+                            column.bounds.getMaxX(),
+                            column.bounds.getMaxY()));
+        }
+        if (column == primary) {
+            Map<String, Object> bbox = new LinkedHashMap<>();
+            for (String field : BBOX_FIELDS) {
+                bbox.put(field, Arrays.asList(bboxColumn, field));
+            }
+            metadata.put("covering", Collections.singletonMap("bbox", bbox));
+        }
+        return metadata;
+    }
+
+    /** Swaps the ordinates, turning north/east coordinates into east/north ones */
+    static class AxisFlipper implements CoordinateSequenceFilter {
+
+        @Override
+        public void filter(CoordinateSequence seq, int i) {
+            double x = seq.getOrdinate(i, CoordinateSequence.X);
+            seq.setOrdinate(i, CoordinateSequence.X, seq.getOrdinate(i, CoordinateSequence.Y));
+            seq.setOrdinate(i, CoordinateSequence.Y, x);
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public boolean isGeometryChanged() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.geoserver.config.GeoServer;
+import org.geoserver.feature.FlatteningFeatureCollection;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.wfs.WFSGetFeatureOutputFormat;
+import org.geoserver.wfs.request.FeatureCollectionResponse;
+import org.geoserver.wfs.request.GetFeatureRequest;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.feature.FeatureCollection;
+
+/**
+ * WFS GetFeature output format producing GeoParquet, a columnar format well suited for analytics
+ * on large exports. Supports the following format options:
+ *
+ * <ul>
+ *   <li>{@code COMPRESSION}: the Parquet compression codec, e.g., UNCOMPRESSED, SNAPPY (default),
+ *       GZIP, ZSTD
+ *   <li>{@code ROW_GROUP_SIZE}: the row group size in bytes, which is also the amount of memory
+ *       used to buffer features before they are sent to the client
+ * </ul>
+ */
+public class GeoParquetOutputFormat extends WFSGetFeatureOutputFormat {
+
+    public static final String COMPRESSION = "COMPRESSION";
+
+    public static final String ROW_GROUP_SIZE = "ROW_GROUP_SIZE";
+
+    public GeoParquetOutputFormat(GeoServer gs) {
+        super(
+                gs,
+                new LinkedHashSet<>(
+                        Arrays.asList(GeoParquetWriter.MIME_TYPE, "geoparquet", "parquet")));
+    }
+
+    @Override
+    public String getMimeType(Object value, Operation operation) throws ServiceException {
+        return GeoParquetWriter.MIME_TYPE;
+    }
+
+    @Override
+    public String getCapabilitiesElementName() {
+        return "GeoParquet";
+    }
+
+    @Override
+    protected String getExtension(FeatureCollectionResponse response) {
+        return "parquet";
+    }
+
+    @Override
+    public String getPreferredDisposition(Object value, Operation operation) {
+        return DISPOSITION_ATTACH;
+    }
+
+    @Override
+    protected void write(
+            FeatureCollectionResponse featureCollection, OutputStream output, Operation operation)
+            throws IOException, ServiceException {
+        if (featureCollection.getFeature().size() != 1) {
+            throw new ServiceException(
+                    "GeoParquet output supports a single feature type per request",
+                    ServiceException.INVALID_PARAMETER_VALUE,
+                    "typeName");
+        }
+        FeatureCollection<?, ?> fc = featureCollection.getFeature().get(0);
+        if (!(fc.getSchema() instanceof SimpleFeatureType)) {
+            throw new ServiceException("GeoParquet output does not support complex features");
+        }
+        // flatten the joining GetFeature results
+        SimpleFeatureCollection features =
+                FlatteningFeatureCollection.flatten((SimpleFeatureCollection) fc);
+
+        GeoParquetWriter writer = new GeoParquetWriter();
+        GetFeatureRequest request = GetFeatureRequest.adapt(operation.getParameters()[0]);
+        if (request != null && request.getFormatOptions() != null) {
+            configure(writer, request.getFormatOptions());
+        }
+        writer.write(features, output);
+    }
+
+    private void configure(GeoParquetWriter writer, Map<String, ?> formatOptions) {
+        Object compression = formatOptions.get(COMPRESSION);
+        if (compression != null) {
+            try {
+                writer.setCompression(
+                        CompressionCodecName.valueOf(
+                                compression.toString().toUpperCase(Locale.ENGLISH)));
+            } catch (IllegalArgumentException e) {
+                throw new ServiceException(
+                        "Unsupported compression " + compression,
+                        ServiceException.INVALID_PARAMETER_VALUE,
+                        "format_options");
+            }
+        }
+        Object rowGroupSize = formatOptions.get(ROW_GROUP_SIZE);
+        if (rowGroupSize != null) {
+            try {
+                long size = Long.parseLong(rowGroupSize.toString());
+                if (size <= 0) {
+                    throw new NumberFormatException();
+                }
+                writer.setRowGroupSize(size);
+            } catch (NumberFormatException e) {
+                throw new ServiceException(
+                        "Invalid row group size " + rowGroupSize,
+                        ServiceException.INVALID_PARAMETER_VALUE,
+                        "format_options");
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+
+/**
+ * Writes a feature collection as GeoParquet into an output stream. Features are buffered in memory
+ * only up to the row group size, full row groups are flushed to the output as they are completed.
+ * Columns are dictionary encoded whenever the dictionary stays within the page limits, which is
+ * typically the case for low cardinality attributes.
+ */
+public class GeoParquetWriter {
+
+    /** Registered mime type for Apache Parquet */
+    public static final String MIME_TYPE = "application/vnd.apache.parquet";
+
+    /** Default row group size, smaller than the Parquet one to limit the memory used per request */
+    public static final long DEFAULT_ROW_GROUP_SIZE = 32 * 1024 * 1024;
+
+    long rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+
+    CompressionCodecName compression = CompressionCodecName.SNAPPY;
+
+    public long getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    /** Sets the size of the row groups, in bytes */
+    public void setRowGroupSize(long rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    public CompressionCodecName getCompression() {
+        return compression;
+    }
+
+    public void setCompression(CompressionCodecName compression) {
+        this.compression = compression;
+    }
+
+    /** Writes the features in the output stream, which is not closed */
+    public void write(SimpleFeatureCollection collection, OutputStream output) throws IOException {
+        FeatureWriteSupport writeSupport = new FeatureWriteSupport(collection.getSchema());
+        try (ParquetWriter<SimpleFeature> writer =
+                        new Builder(new StreamOutputFile(output), writeSupport)
+                                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                                .withRowGroupSize(rowGroupSize)
+                                .withCompressionCodec(compression)
+                                .withDictionaryEncoding(true)
+                                .build();
+                SimpleFeatureIterator it = collection.features()) {
+            while (it.hasNext()) {
+                writer.write(it.next());
+            }
+        }
+    }
+
+    static class Builder extends ParquetWriter.Builder<SimpleFeature, Builder> {
+
+        FeatureWriteSupport writeSupport;
+
+        Builder(OutputFile file, FeatureWriteSupport writeSupport) {
+            super(file);
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<SimpleFeature> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+
+        @Override
+        protected WriteSupport<SimpleFeature> getWriteSupport(ParquetConfiguration conf) {
+            return writeSupport;
+        }
+    }
+}
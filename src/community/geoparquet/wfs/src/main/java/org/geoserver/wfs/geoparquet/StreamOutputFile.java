@@ -0,0 +1,75 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+/**
+ * A Parquet {@link OutputFile} writing to an output stream. Parquet files are written strictly
+ * sequentially, row group after row group, with the footer at the end, so no seeking is needed and
+ * each row group reaches the output as soon as it's complete. Closing the file does not close the
+ * wrapped stream.
+ */
+class StreamOutputFile implements OutputFile {
+
+    OutputStream out;
+
+    StreamOutputFile(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) throws IOException {
+        return new PositionOutputStream() {
+
+            long position;
+
+            @Override
+            public long getPos() throws IOException {
+                return position;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                position++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                position += len;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+        return create(blockSizeHint);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+        return 0;
+    }
+}
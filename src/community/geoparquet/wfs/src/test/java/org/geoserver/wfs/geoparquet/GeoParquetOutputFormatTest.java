@@ -0,0 +1,176 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.geoparquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.wfs.WFSTestSupport;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBReader;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.w3c.dom.Document;
+
+public class GeoParquetOutputFormatTest extends WFSTestSupport {
+
+    /** The contents of a GeoParquet file */
+    static class ParquetContents {
+        FileMetaData metadata;
+
+        JsonNode geo;
+
+        List<Group> records = new ArrayList<>();
+    }
+
+    private ParquetContents getParquet(String request) throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(request);
+        assertEquals(GeoParquetWriter.MIME_TYPE, response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").contains(".parquet"));
+
+        File file = File.createTempFile("geoparquet", ".parquet");
+        try {
+            FileUtils.writeByteArrayToFile(file, getBinary(response));
+            ParquetContents result = new ParquetContents();
+            try (ParquetFileReader reader =
+                    ParquetFileReader.open(new LocalInputFile(file.toPath()))) {
+                result.metadata = reader.getFooter().getFileMetaData();
+                result.geo =
+                        new ObjectMapper()
+                                .readTree(result.metadata.getKeyValueMetaData().get("geo"));
+                MessageType schema = result.metadata.getSchema();
+                PageReadStore pages;
+                while ((pages = reader.readNextRowGroup()) != null) {
+                    RecordReader<Group> records =
+                            new ColumnIOFactory()
+                                    .getColumnIO(schema)
+                                    .getRecordReader(pages, new GroupRecordConverter(schema));
+                    for (long i = 0; i < pages.getRowCount(); i++) {
+                        result.records.add(records.read());
+                    }
+                }
+            }
+            return result;
+        } finally {
+            file.delete();
+        }
+    }
+
+    private String getTypeName(javax.xml.namespace.QName name) {
+        return name.getPrefix() + ":" + name.getLocalPart();
+    }
+
+    @Test
+    public void testBasicPolygons() throws Exception {
+        ParquetContents parquet =
+                getParquet(
+                        "wfs?request=GetFeature&version=1.0.0&typeName="
+                                + getTypeName(SystemTestData.BASIC_POLYGONS)
+                                + "&outputFormat=application/vnd.apache.parquet");
+        assertEquals(3, parquet.records.size());
+
+        JsonNode geo = parquet.geo;
+        assertEquals("1.1.0", geo.get("version").asText());
+        assertEquals("the_geom", geo.get("primary_column").asText());
+        JsonNode column = geo.get("columns").get("the_geom");
+        assertEquals("WKB", column.get("encoding").asText());
+        assertEquals("MultiPolygon", column.get("geometry_types").get(0).asText());
+        // EPSG:4326 in east/north order is the default CRS
+        assertFalse(column.has("crs"));
+        assertEquals(-2, column.get("bbox").get(0).asDouble(), 0d);
+        assertEquals(-1, column.get("bbox").get(1).asDouble(), 0d);
+        assertEquals(2, column.get("bbox").get(2).asDouble(), 0d);
+        assertEquals(6, column.get("bbox").get(3).asDouble(), 0d);
+        assertEquals("bbox", column.get("covering").get("bbox").get("xmin").get(0).asText());
+
+        // geometry and covering bbox
+        Group first = parquet.records.get(0);
+        Geometry geometry = new WKBReader().read(first.getBinary("the_geom", 0).getBytes());
+        Group bbox = first.getGroup("bbox", 0);
+        Envelope envelope = geometry.getEnvelopeInternal();
+        assertEquals(envelope.getMinX(), bbox.getDouble("xmin", 0), 0d);
+        assertEquals(envelope.getMinY(), bbox.getDouble("ymin", 0), 0d);
+        assertEquals(envelope.getMaxX(), bbox.getDouble("xmax", 0), 0d);
+        assertEquals(envelope.getMaxY(), bbox.getDouble("ymax", 0), 0d);
+    }
+
+    @Test
+    public void testAxisOrder() throws Exception {
+        // WFS 2.0 returns EPSG:4326 in north/east order, GeoParquet wants east/north
+        ParquetContents parquet =
+                getParquet(
+                        "wfs?request=GetFeature&version=2.0.0&typeNames="
+                                + getTypeName(SystemTestData.BASIC_POLYGONS)
+                                + "&outputFormat=geoparquet");
+        JsonNode bbox = parquet.geo.get("columns").get("the_geom").get("bbox");
+        assertEquals(-2, bbox.get(0).asDouble(), 0d);
+        assertEquals(-1, bbox.get(1).asDouble(), 0d);
+        assertEquals(2, bbox.get(2).asDouble(), 0d);
+        assertEquals(6, bbox.get(3).asDouble(), 0d);
+    }
+
+    @Test
+    public void testAttributeTypes() throws Exception {
+        ParquetContents parquet =
+                getParquet(
+                        "wfs?request=GetFeature&version=1.0.0&typeName="
+                                + getTypeName(SystemTestData.PRIMITIVEGEOFEATURE)
+                                + "&outputFormat=parquet&format_options=compression:gzip");
+        assertEquals(5, parquet.records.size());
+
+        // all geometry columns are described
+        JsonNode columns = parquet.geo.get("columns");
+        assertNotNull(columns.get("surfaceProperty"));
+        assertNotNull(columns.get("pointProperty"));
+        assertNotNull(columns.get("curveProperty"));
+
+        Group f001 = null;
+        for (Group record : parquet.records) {
+            if ("name-f001".equals(record.getString("name", 0))) {
+                f001 = record;
+            }
+        }
+        assertNotNull(f001);
+        // null values are not written
+        assertEquals(0, f001.getFieldRepetitionCount("surfaceProperty"));
+        assertEquals(1, f001.getFieldRepetitionCount("pointProperty"));
+        assertEquals(155, f001.getInteger("intProperty", 0));
+        assertEquals(5.03, f001.getDouble("decimalProperty", 0), 0d);
+        assertTrue(f001.getBoolean("booleanProperty", 0));
+        assertEquals(
+                LocalDate.of(2006, 10, 25).toEpochDay(), f001.getInteger("dateProperty", 0));
+        assertEquals("http://www.opengeospatial.org/", f001.getString("uriProperty", 0));
+    }
+
+    @Test
+    public void testInvalidCompression() throws Exception {
+        Document dom =
+                getAsDOM(
+                        "wfs?request=GetFeature&version=1.0.0&typeName="
+                                + getTypeName(SystemTestData.BASIC_POLYGONS)
+                                + "&outputFormat=parquet&format_options=compression:foo");
+        assertEquals("ServiceExceptionReport", dom.getDocumentElement().getNodeName());
+    }
+}
@@ -0,0 +1,45 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.geoparquet;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.geoserver.wfs.geoparquet.GeoParquetWriter;
+import org.geoserver.wps.ppio.BinaryPPIO;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.feature.FeatureCollection;
+
+/**
+ * Encodes feature collections as GeoParquet. Besides being available as a process output format,
+ * makes GeoParquet available to the vector download process, which looks up its encoders by mime
+ * type. Decoding is not supported.
+ */
+public class GeoParquetPPIO extends BinaryPPIO {
+
+    public GeoParquetPPIO() {
+        super(FeatureCollection.class, FeatureCollection.class, GeoParquetWriter.MIME_TYPE);
+    }
+
+    @Override
+    public void encode(Object value, OutputStream os) throws Exception {
+        new GeoParquetWriter().write((SimpleFeatureCollection) value, os);
+    }
+
+    @Override
+    public Object decode(InputStream input) throws Exception {
+        // ComplexPPIO requires overriding the decode method
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PPIODirection getDirection() {
+        return PPIODirection.ENCODING;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "parquet";
+    }
+}
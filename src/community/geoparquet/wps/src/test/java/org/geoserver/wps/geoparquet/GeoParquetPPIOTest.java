@@ -0,0 +1,44 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.geoparquet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.geoserver.wfs.geoparquet.GeoParquetWriter;
+import org.geoserver.wps.ppio.ProcessParameterIO.PPIODirection;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.junit.Test;
+
+public class GeoParquetPPIOTest {
+
+    @Test
+    public void testEncode() throws Exception {
+        SimpleFeatureType type =
+                DataUtilities.createType("test", "geom:Point:srid=4326,name:String,value:Integer");
+        ListFeatureCollection features = new ListFeatureCollection(type);
+        features.add(DataUtilities.createFeature(type, "test.1=POINT(1 2)|first|1"));
+        features.add(DataUtilities.createFeature(type, "test.2=POINT(3 4)|second|2"));
+
+        GeoParquetPPIO ppio = new GeoParquetPPIO();
+        assertEquals(GeoParquetWriter.MIME_TYPE, ppio.getMimeType());
+        assertEquals("parquet", ppio.getFileExtension());
+        assertEquals(PPIODirection.ENCODING, ppio.getDirection());
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ppio.encode(features, bos);
+        byte[] bytes = bos.toByteArray();
+
+        // a Parquet file starts and ends with the magic
+        byte[] magic = "PAR1".getBytes(StandardCharsets.US_ASCII);
+        assertArrayEquals(magic, Arrays.copyOfRange(bytes, 0, 4));
+        assertArrayEquals(magic, Arrays.copyOfRange(bytes, bytes.length - 4, bytes.length));
+    }
+}
@@ -4,12 +4,51 @@
  */
 package org.geoserver.flow;
 
+import java.util.Optional;
+import org.geoserver.flow.controller.AdaptiveFlowController;
+import org.geoserver.flow.controller.AdaptiveThreadBlocker;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ModuleStatusImpl;
 
-// TODO Auto-generated constructor stub
-
 public class ControlModuleStatus extends ModuleStatusImpl {
     public ControlModuleStatus() {
         super("gs-control-flow", "Flow of Control Extension");
     }
+
+    /** Reports the current state of the adaptive flow controllers, if any */
+    @Override
+    public Optional<String> getMessage() {
+        StringBuilder sb = new StringBuilder();
+        for (FlowControllerProvider provider :
+                GeoServerExtensions.extensions(FlowControllerProvider.class)) {
+            if (!(provider instanceof DefaultFlowControllerProvider)) {
+                continue;
+            }
+            for (FlowController controller :
+                    ((DefaultFlowControllerProvider) provider).getFlowControllers()) {
+                if (controller instanceof AdaptiveFlowController) {
+                    AdaptiveFlowController adaptive = (AdaptiveFlowController) controller;
+                    AdaptiveThreadBlocker blocker = adaptive.getBlocker();
+                    sb.append(adaptive.getMatcher())
+                            .append(": limit ")
+                            .append(blocker.getLimit())
+                            .append(", running ")
+                            .append(blocker.getRunningRequestsCount())
+                            .append(", waiting ")
+                            .append(blocker.getWaitingRequestsCount())
+                            .append(", queue time ")
+                            .append(Math.round(blocker.getAverageQueueTime()))
+                            .append(" ms (max ")
+                            .append(blocker.getMaxQueueTime())
+                            .append(" ms), timeouts ")
+                            .append(blocker.getTimeouts())
+                            .append("\n");
+                }
+            }
+        }
+        if (sb.length() == 0) {
+            return super.getMessage();
+        }
+        return Optional.of("Adaptive concurrency limits:\n" + sb);
+    }
 }
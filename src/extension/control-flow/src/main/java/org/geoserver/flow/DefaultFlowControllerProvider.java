@@ -59,6 +59,11 @@ public List<FlowController> getFlowControllers(Request request) throws Exception
         return controllers;
     }
 
+    /** Returns the flow controllers currently in use, without checking the configuration */
+    public List<FlowController> getFlowControllers() {
+        return controllers;
+    }
+
     @Override
     public long getTimeout(Request request) {
         return timeout;
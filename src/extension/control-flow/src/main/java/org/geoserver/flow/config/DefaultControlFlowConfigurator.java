@@ -9,7 +9,9 @@
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.StringTokenizer;
 import java.util.logging.Logger;
@@ -18,9 +20,14 @@
 import org.geoserver.config.GeoServerPluginConfigurator;
 import org.geoserver.flow.ControlFlowConfigurator;
 import org.geoserver.flow.FlowController;
+import org.geoserver.flow.controller.AIMDLimit;
+import org.geoserver.flow.controller.AdaptiveFlowController;
+import org.geoserver.flow.controller.AdaptiveLimit;
+import org.geoserver.flow.controller.AdaptiveThreadBlocker;
 import org.geoserver.flow.controller.BasicOWSController;
 import org.geoserver.flow.controller.CookieKeyGenerator;
 import org.geoserver.flow.controller.GlobalFlowController;
+import org.geoserver.flow.controller.GradientLimit;
 import org.geoserver.flow.controller.HttpHeaderPriorityProvider;
 import org.geoserver.flow.controller.IpFlowController;
 import org.geoserver.flow.controller.IpKeyGenerator;
@@ -128,7 +135,9 @@ public List<FlowController> buildFlowControllers() throws Exception {
                         || "ows.priority.http".equals(key)) {
                     continue;
                 } else {
-                    if (!key.startsWith("user.ows") && !key.startsWith("ip.ows")) {
+                    if (!key.startsWith("user.ows")
+                            && !key.startsWith("ip.ows")
+                            && !key.startsWith("adaptive.")) {
                         if (tokenizer.countTokens() == 1) {
                             queueSize = Integer.parseInt(value);
                         } else {
@@ -166,6 +175,10 @@ public List<FlowController> buildFlowControllers() throws Exception {
                 } else if (keys.length == 2) {
                     controller = new BasicOWSController(keys[1], queueSize, threadBlocker);
                 }
+            } else if ("adaptive".equals(keys[0])) {
+                if (keys.length > 1 && "ows".equals(keys[1])) {
+                    controller = buildAdaptiveController(keys, value);
+                }
             } else if ("user".equals(keys[0])) {
                 if (keys.length == 1) {
                     controller = new UserConcurrentFlowController(queueSize);
@@ -212,6 +225,60 @@ protected KeyGenerator buildKeyGenerator(
         return newControllers;
     }
 
+    /**
+     * Builds an {@link AdaptiveFlowController} out of a rule like
+     * <code>adaptive.ows[.service[.request[.format]]]=aimd|gradient[,name=value]*</code>
+     *
+     * @return the controller, or null if the rule is invalid
+     */
+    FlowController buildAdaptiveController(String[] keys, String value) {
+        String[] params = value.trim().split("\\s*,\\s*");
+        String algorithm = params[0].toLowerCase();
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < params.length; i++) {
+            String[] kv = params[i].split("\\s*=\\s*");
+            if (kv.length != 2) {
+                LOGGER.severe(
+                        "Adaptive rule options should be expressed as name=value, this one is "
+                                + "invalid: "
+                                + params[i]);
+                return null;
+            }
+            options.put(kv[0].toLowerCase(), kv[1]);
+        }
+
+        AdaptiveLimit limit;
+        try {
+            int initial = Integer.parseInt(options.getOrDefault("initial", "10"));
+            int min = Integer.parseInt(options.getOrDefault("min", "1"));
+            int max = Integer.parseInt(options.getOrDefault("max", "200"));
+            if ("aimd".equals(algorithm)) {
+                long latency = Long.parseLong(options.getOrDefault("latency", "1000"));
+                double backoff = Double.parseDouble(options.getOrDefault("backoff", "0.9"));
+                limit = new AIMDLimit(initial, min, max, latency, backoff);
+            } else if ("gradient".equals(algorithm)) {
+                double smoothing = Double.parseDouble(options.getOrDefault("smoothing", "0.2"));
+                double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "1.5"));
+                limit = new GradientLimit(initial, min, max, smoothing, tolerance);
+            } else {
+                LOGGER.severe(
+                        "Adaptive rules should use either the aimd or the gradient algorithm, "
+                                + "this one is invalid: "
+                                + value);
+                return null;
+            }
+            String service = keys.length >= 3 ? keys[2] : null;
+            String request = keys.length >= 4 ? keys[3] : null;
+            String format = keys.length >= 5 ? keys[4] : null;
+            OWSRequestMatcher matcher = new OWSRequestMatcher(service, request, format);
+            return new AdaptiveFlowController(matcher, max, new AdaptiveThreadBlocker(limit));
+        } catch (IllegalArgumentException e) {
+            // also catches NumberFormatException
+            LOGGER.severe("Invalid adaptive rule " + value + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Parses the configuration for priority providers
      *
@@ -0,0 +1,86 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase, multiplicative decrease limit: the limit grows by one for each request
+ * completing within the latency threshold, and gets multiplied by the backoff factor for each one
+ * exceeding it. The limit grows only if at least half of it is in use, so that a lightly loaded
+ * server does not build up a limit it never verified.
+ */
+public class AIMDLimit implements AdaptiveLimit {
+
+    int limit;
+
+    int minLimit;
+
+    int maxLimit;
+
+    long threshold;
+
+    double backoff;
+
+    /**
+     * @param initialLimit The limit used before any request completes
+     * @param minLimit The minimum limit
+     * @param maxLimit The maximum limit
+     * @param threshold The latency threshold, in milliseconds
+     * @param backoff The factor the limit is multiplied by when the threshold is exceeded, between
+     *     0 and 1
+     */
+    public AIMDLimit(int initialLimit, int minLimit, int maxLimit, long threshold, double backoff) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException(
+                    "Invalid limits, expected 1 <= min <= max, but got min "
+                            + minLimit
+                            + " and max "
+                            + maxLimit);
+        }
+        if (threshold <= 0) {
+            throw new IllegalArgumentException(
+                    "The latency threshold must be positive, but got " + threshold);
+        }
+        if (backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException(
+                    "The backoff factor must be between 0 and 1, but got " + backoff);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+        this.backoff = backoff;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long latency, int inFlight) {
+        if (latency > threshold) {
+            limit = Math.max(minLimit, (int) (limit * backoff));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AIMDLimit[limit="
+                + limit
+                + ", min="
+                + minLimit
+                + ", max="
+                + maxLimit
+                + ", threshold="
+                + TimeUnit.NANOSECONDS.toMillis(threshold)
+                + "ms, backoff="
+                + backoff
+                + "]";
+    }
+}
@@ -0,0 +1,34 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+/**
+ * A flow controller matching requests by service, method and output format, like the {@link
+ * BasicOWSController}, whose number of concurrent requests adapts to the latency they experience
+ *
+ * @see AdaptiveLimit
+ */
+public class AdaptiveFlowController extends SingleQueueFlowController {
+
+    public AdaptiveFlowController(
+            OWSRequestMatcher matcher, int controllerPriority, AdaptiveThreadBlocker blocker) {
+        super(matcher, controllerPriority, blocker);
+    }
+
+    @Override
+    public OWSRequestMatcher getMatcher() {
+        return (OWSRequestMatcher) matcher;
+    }
+
+    @Override
+    public AdaptiveThreadBlocker getBlocker() {
+        return (AdaptiveThreadBlocker) blocker;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveFlowController(" + matcher + "," + blocker + ")";
+    }
+}
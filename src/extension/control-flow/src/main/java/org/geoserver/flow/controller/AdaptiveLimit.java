@@ -0,0 +1,25 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+/**
+ * An algorithm estimating the number of requests that can run concurrently, from the latency of
+ * the completed ones. Implementations are not thread safe, the {@link AdaptiveThreadBlocker} calls
+ * them while holding its lock.
+ */
+public interface AdaptiveLimit {
+
+    /** Returns the current concurrency limit, at least 1 */
+    int getLimit();
+
+    /**
+     * Updates the limit with the latency of a completed request
+     *
+     * @param latency The request execution time, in nanoseconds, not including the time spent in
+     *     queue
+     * @param inFlight The number of requests running when the request completed, including it
+     */
+    void onSample(long latency, int inFlight);
+}
@@ -0,0 +1,168 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.geoserver.ows.Request;
+
+/**
+ * A blocker whose number of concurrent requests is driven by an {@link AdaptiveLimit}, fed with the
+ * execution time of the requests it let through. Requests are admitted in arrival order, and the
+ * time they spend waiting is tracked, to report how much queueing the limit causes.
+ */
+public class AdaptiveThreadBlocker implements ThreadBlocker {
+
+    /** Weight of the last sample in the average queue time */
+    static final double QUEUE_TIME_SMOOTHING = 0.1;
+
+    final AdaptiveLimit limit;
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when a request completes, stops waiting, or the limit changes */
+    final Condition changed = lock.newCondition();
+
+    /** The running requests, with the time they got admitted, in nanoseconds */
+    final Map<Request, Long> running = new IdentityHashMap<>();
+
+    /** The tickets of the waiting requests, in arrival order */
+    final ArrayDeque<Object> waiting = new ArrayDeque<>();
+
+    double averageQueueTime;
+
+    long maxQueueTime;
+
+    long timeouts;
+
+    public AdaptiveThreadBlocker(AdaptiveLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean requestIncoming(Request request, long timeout) throws InterruptedException {
+        long start = System.nanoTime();
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        Object ticket = new Object();
+        lock.lockInterruptibly();
+        try {
+            waiting.add(ticket);
+            try {
+                while (waiting.peek() != ticket || running.size() >= limit.getLimit()) {
+                    if (timeout <= 0) {
+                        changed.await();
+                    } else if (nanos <= 0) {
+                        timeouts++;
+                        return false;
+                    } else {
+                        nanos = changed.awaitNanos(nanos);
+                    }
+                }
+                long now = System.nanoTime();
+                running.put(request, now);
+                updateQueueTime(now - start);
+                return true;
+            } finally {
+                waiting.remove(ticket);
+                // the next in line might be allowed to run too
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateQueueTime(long queueTime) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(queueTime);
+        averageQueueTime =
+                averageQueueTime * (1 - QUEUE_TIME_SMOOTHING) + millis * QUEUE_TIME_SMOOTHING;
+        maxQueueTime = Math.max(maxQueueTime, millis);
+    }
+
+    @Override
+    public void requestComplete(Request request) {
+        lock.lock();
+        try {
+            // requests timing out, here or in other controllers, are completed without running
+            Long admitted = running.get(request);
+            if (admitted != null) {
+                limit.onSample(System.nanoTime() - admitted, running.size());
+                running.remove(request);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getRunningRequestsCount() {
+        lock.lock();
+        try {
+            return running.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the number of requests waiting to run */
+    public int getWaitingRequestsCount() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the current concurrency limit */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit.getLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the exponential moving average of the time spent waiting to run, in milliseconds */
+    public double getAverageQueueTime() {
+        lock.lock();
+        try {
+            return averageQueueTime;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the longest time a request waited to run, in milliseconds */
+    public long getMaxQueueTime() {
+        lock.lock();
+        try {
+            return maxQueueTime;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the number of requests that timed out waiting to run */
+    public long getTimeouts() {
+        lock.lock();
+        try {
+            return timeouts;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveThreadBlocker[" + limit + "]";
+    }
+}
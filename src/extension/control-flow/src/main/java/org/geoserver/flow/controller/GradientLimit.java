@@ -0,0 +1,112 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+/**
+ * Gradient based limit, comparing the latency of each request with the latency of the server
+ * without load. While the ratio stays within the tolerance the limit grows by its square root,
+ * allowing some requests to queue up in the server, beyond it the limit shrinks proportionally to
+ * the ratio, down to half of its value. The new limit is smoothed with the previous one to dampen
+ * the oscillations.
+ *
+ * <p>The no-load latency is a long term exponential moving average of the latencies within the
+ * tolerance, the ones of an overloaded server are left out so that the baseline does not drift up
+ * along with the load. Being an average, it's not dragged down by a few unusually fast requests
+ * (e.g., cached responses or errors), and follows the server if it gets faster.
+ *
+ * <p>When the limit reaches its minimum, the latency observed is the lowest achievable, and becomes
+ * the new no-load latency, so that the limit recovers if the server got permanently slower (e.g.,
+ * after a configuration change, or when another application started using the same resources).
+ */
+public class GradientLimit implements AdaptiveLimit {
+
+    /** The number of samples the no-load latency is averaged on */
+    static final int BASELINE_WINDOW = 600;
+
+    double limit;
+
+    int minLimit;
+
+    int maxLimit;
+
+    double smoothing;
+
+    double tolerance;
+
+    /** The no-load latency, 0 until the first sample */
+    double noLoadLatency;
+
+    /**
+     * @param initialLimit The limit used before any request completes
+     * @param minLimit The minimum limit
+     * @param maxLimit The maximum limit
+     * @param smoothing The weight of the new limit when smoothing it with the previous one,
+     *     between 0 (exclusive) and 1
+     * @param tolerance The ratio between the request latency and the no-load one beyond which the
+     *     limit shrinks, at least 1
+     */
+    public GradientLimit(
+            int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException(
+                    "Invalid limits, expected 1 <= min <= max, but got min "
+                            + minLimit
+                            + " and max "
+                            + maxLimit);
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException(
+                    "The smoothing factor must be between 0 and 1, but got " + smoothing);
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException(
+                    "The latency tolerance must be at least 1, but got " + tolerance);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long latency, int inFlight) {
+        latency = Math.max(1, latency);
+        if (noLoadLatency == 0 || limit <= minLimit) {
+            noLoadLatency = latency;
+        } else if (latency <= noLoadLatency * tolerance) {
+            noLoadLatency += (latency - noLoadLatency) / BASELINE_WINDOW;
+        }
+        // the latency says nothing about a limit that is mostly unused
+        if (inFlight * 2 < limit) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1, tolerance * noLoadLatency / latency));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    @Override
+    public String toString() {
+        return "GradientLimit[limit="
+                + getLimit()
+                + ", min="
+                + minLimit
+                + ", max="
+                + maxLimit
+                + ", smoothing="
+                + smoothing
+                + ", tolerance="
+                + tolerance
+                + "]";
+    }
+}
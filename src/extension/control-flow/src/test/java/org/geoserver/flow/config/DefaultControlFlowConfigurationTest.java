@@ -17,6 +17,7 @@
 import java.util.Properties;
 import org.geoserver.flow.ControllerPriorityComparator;
 import org.geoserver.flow.FlowController;
+import org.geoserver.flow.controller.AdaptiveFlowController;
 import org.geoserver.flow.controller.BasicOWSController;
 import org.geoserver.flow.controller.GlobalFlowController;
 import org.geoserver.flow.controller.HttpHeaderPriorityProvider;
@@ -161,6 +162,41 @@ public void testParsingPriorityWithSpaces() throws Exception {
         checkPriorityParsing(p);
     }
 
+    @Test
+    public void testParsingAdaptive() throws Exception {
+        Properties p = new Properties();
+        p.put("adaptive.ows.wms.getmap", "aimd, initial=4, min=2, max=40, latency=500, backoff=.8");
+        p.put("adaptive.ows.wfs", "gradient,max=30,tolerance=2");
+        p.put("adaptive.ows.wcs", "vegas");
+        p.put("adaptive.ows.wps", "aimd,min=10,max=5");
+        p.put("adaptive.ows.csw", "aimd,min");
+
+        DefaultControlFlowConfigurator configurator =
+                new DefaultControlFlowConfigurator(new FixedWatcher(p));
+        List<FlowController> controllers = configurator.buildFlowControllers();
+        Collections.sort(controllers, new ControllerPriorityComparator());
+
+        // the invalid rules are skipped
+        assertEquals(2, controllers.size());
+
+        AdaptiveFlowController wfs = (AdaptiveFlowController) controllers.get(0);
+        assertEquals("wfs", wfs.getMatcher().toString());
+        assertEquals(30, wfs.getPriority());
+        assertEquals(
+                "AdaptiveThreadBlocker[GradientLimit[limit=10, min=1, max=30, smoothing=0.2, "
+                        + "tolerance=2.0]]",
+                wfs.getBlocker().toString());
+
+        AdaptiveFlowController wms = (AdaptiveFlowController) controllers.get(1);
+        assertEquals("wms.getmap", wms.getMatcher().toString());
+        assertEquals(40, wms.getPriority());
+        assertEquals(4, wms.getBlocker().getLimit());
+        assertEquals(
+                "AdaptiveThreadBlocker[AIMDLimit[limit=4, min=2, max=40, threshold=500ms, "
+                        + "backoff=0.8]]",
+                wms.getBlocker().toString());
+    }
+
     private void checkPriorityParsing(Properties p) throws Exception {
         DefaultControlFlowConfigurator configurator =
                 new DefaultControlFlowConfigurator(new FixedWatcher(p));
@@ -0,0 +1,91 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.geoserver.flow.controller.FlowControllerTestingThread.ThreadState;
+import org.geoserver.ows.Request;
+import org.junit.Test;
+
+public class AdaptiveFlowControllerTest extends AbstractFlowControllerTest {
+
+    private Request request(String service) {
+        Request request = new Request();
+        request.setService(service);
+        request.setRequest("GetMap");
+        return request;
+    }
+
+    /** A controller letting a single WMS request run at a time */
+    private AdaptiveFlowController singleController() {
+        AIMDLimit limit = new AIMDLimit(1, 1, 1, 1000, 0.9);
+        return new AdaptiveFlowController(
+                new OWSRequestMatcher("WMS"), 1, new AdaptiveThreadBlocker(limit));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        AdaptiveFlowController controller = singleController();
+        AdaptiveThreadBlocker blocker = controller.getBlocker();
+        Request r1 = request("WMS");
+        Request r2 = request("WMS");
+
+        assertTrue(controller.requestIncoming(r1, 100));
+        assertFalse(controller.requestIncoming(r2, 50));
+        assertEquals(1, blocker.getTimeouts());
+        assertEquals(0, blocker.getWaitingRequestsCount());
+
+        // completing the request that timed out does not release the running one
+        controller.requestComplete(r2);
+        assertEquals(1, blocker.getRunningRequestsCount());
+        controller.requestComplete(r1);
+        assertEquals(0, blocker.getRunningRequestsCount());
+        assertTrue(controller.requestIncoming(r2, 50));
+    }
+
+    @Test
+    public void testNotMatching() throws Exception {
+        AdaptiveFlowController controller = singleController();
+        assertTrue(controller.requestIncoming(request("WMS"), 100));
+        // other services are not limited
+        assertTrue(controller.requestIncoming(request("WFS"), 50));
+        assertEquals(1, controller.getRequestsInQueue());
+    }
+
+    @Test
+    public void testQueueing() throws Exception {
+        AdaptiveFlowController controller = singleController();
+        AdaptiveThreadBlocker blocker = controller.getBlocker();
+        FlowControllerTestingThread t1 =
+                new FlowControllerTestingThread(request("WMS"), 0, Long.MAX_VALUE, controller);
+        FlowControllerTestingThread t2 =
+                new FlowControllerTestingThread(request("WMS"), 0, Long.MAX_VALUE, controller);
+        try {
+            t1.start();
+            waitState(ThreadState.PROCESSING, t1, MAX_WAIT);
+            t2.start();
+            waitBlocked(t2, MAX_WAIT);
+            assertEquals(ThreadState.STARTED, t2.state);
+            assertEquals(1, blocker.getWaitingRequestsCount());
+
+            // let t1 go, t2 runs after having waited in queue
+            Thread.sleep(20);
+            t1.interrupt();
+            waitTerminated(t1, MAX_WAIT);
+            waitState(ThreadState.PROCESSING, t2, MAX_WAIT);
+            assertEquals(0, blocker.getWaitingRequestsCount());
+            assertEquals(1, blocker.getRunningRequestsCount());
+            assertTrue(blocker.getMaxQueueTime() >= 20);
+            assertTrue(blocker.getAverageQueueTime() > 0);
+            t2.interrupt();
+        } finally {
+            waitAndKill(t1, MAX_WAIT);
+            waitAndKill(t2, MAX_WAIT);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Checks the adaptive limits converge, by simulating a server whose latency grows with the
+ * concurrent requests beyond its capacity, under a load exceeding it
+ */
+public class AdaptiveLimitTest {
+
+    static final long BASE_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * A discrete event simulation of clients sending requests in a loop to a server, through an
+     * adaptive limit. The server runs up to capacity requests at the base latency, and shares its
+     * resources beyond that, so the latency grows linearly with the concurrent requests.
+     */
+    static class Simulation {
+
+        final AdaptiveLimit limit;
+
+        final int clients;
+
+        int capacity;
+
+        long baseLatency = BASE_LATENCY;
+
+        /** Every mixedEvery requests one has its latency multiplied by mixedFactor, if positive */
+        int mixedEvery;
+
+        double mixedFactor = 1;
+
+        long now;
+
+        long sent;
+
+        /** The completion times of the running requests, with their latency */
+        final PriorityQueue<long[]> running =
+                new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+
+        Simulation(AdaptiveLimit limit, int clients, int capacity) {
+            this.limit = limit;
+            this.clients = clients;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Runs the given number of requests, and returns the average limit while they completed
+         */
+        double run(int requests) {
+            double limitSum = 0;
+            for (int i = 0; i < requests; i++) {
+                // the clients not waiting for a response send requests, as far as the limit allows
+                while (running.size() < Math.min(clients, limit.getLimit())) {
+                    int inFlight = running.size() + 1;
+                    long latency = baseLatency * Math.max(capacity, inFlight) / capacity;
+                    if (mixedEvery > 0 && ++sent % mixedEvery == 0) {
+                        latency = (long) (latency * mixedFactor);
+                    }
+                    running.add(new long[] {now + latency, latency});
+                }
+                long[] completed = running.poll();
+                now = completed[0];
+                limit.onSample(completed[1], running.size() + 1);
+                limitSum += limit.getLimit();
+            }
+            return limitSum / requests;
+        }
+    }
+
+    @Test
+    public void testAIMDConvergence() {
+        AIMDLimit limit = new AIMDLimit(10, 1, 1000, 150, 0.9);
+        Simulation simulation = new Simulation(limit, 500, 20);
+        simulation.run(10000);
+        // backs off as soon as the latency exceeds the threshold, staying around the capacity
+        double average = simulation.run(10000);
+        assertTrue("Average limit " + average, average >= 15 && average <= 35);
+
+        // the server gets slower, the limit follows
+        simulation.capacity = 10;
+        simulation.run(10000);
+        average = simulation.run(10000);
+        assertTrue("Average limit " + average, average >= 8 && average <= 18);
+    }
+
+    @Test
+    public void testGradientConvergence() {
+        GradientLimit limit = new GradientLimit(10, 1, 1000, 0.2, 1.5);
+        Simulation simulation = new Simulation(limit, 500, 20);
+        simulation.run(10000);
+        // grows until the latency exceeds the tolerance, plus some queueing allowance
+        double average = simulation.run(10000);
+        assertTrue("Average limit " + average, average >= 20 && average <= 45);
+
+        // the server gets slower, the limit follows
+        simulation.capacity = 10;
+        simulation.run(10000);
+        average = simulation.run(10000);
+        assertTrue("Average limit " + average, average >= 10 && average <= 25);
+
+        // the base latency doubles too, the limit recovers once the new one is measured
+        simulation.baseLatency = 2 * BASE_LATENCY;
+        simulation.run(10000);
+        average = simulation.run(10000);
+        assertTrue("Average limit " + average, average >= 8 && average <= 25);
+    }
+
+    @Test
+    public void testGradientMixedLatency() {
+        // a few very fast requests (e.g., cached responses) do not drag the no-load latency down
+        GradientLimit limit = new GradientLimit(10, 1, 1000, 0.2, 1.5);
+        Simulation simulation = new Simulation(limit, 500, 20);
+        simulation.mixedEvery = 100;
+        simulation.mixedFactor = 0.05;
+        simulation.run(10000);
+        double average = simulation.run(10000);
+        assertTrue("Average limit " + average, average >= 20 && average <= 45);
+
+        // a share of slow requests does not collapse the limit either
+        limit = new GradientLimit(10, 1, 1000, 0.2, 1.5);
+        simulation = new Simulation(limit, 500, 20);
+        simulation.mixedEvery = 10;
+        simulation.mixedFactor = 10;
+        simulation.run(10000);
+        average = simulation.run(10000);
+        assertTrue("Average limit " + average, average >= 20 && average <= 45);
+    }
+
+    @Test
+    public void testNoGrowthUnderLightLoad() {
+        // with few clients the limit is never used, and should not grow without bounds
+        AIMDLimit aimd = new AIMDLimit(10, 1, 1000, 150, 0.9);
+        new Simulation(aimd, 4, 20).run(10000);
+        assertEquals(10, aimd.getLimit());
+
+        GradientLimit gradient = new GradientLimit(10, 1, 1000, 0.2, 1.5);
+        new Simulation(gradient, 4, 20).run(10000);
+        assertEquals(10, gradient.getLimit());
+    }
+
+    @Test
+    public void testBounds() {
+        AIMDLimit aimd = new AIMDLimit(10, 5, 12, 150, 0.5);
+        for (int i = 0; i < 10; i++) {
+            aimd.onSample(BASE_LATENCY * 10, 10);
+        }
+        assertEquals(5, aimd.getLimit());
+        for (int i = 0; i < 100; i++) {
+            aimd.onSample(BASE_LATENCY, 10);
+        }
+        assertEquals(12, aimd.getLimit());
+
+        GradientLimit gradient = new GradientLimit(10, 5, 12, 0.5, 1.5);
+        gradient.onSample(BASE_LATENCY, 10);
+        for (int i = 0; i < 100 && gradient.getLimit() > 5; i++) {
+            gradient.onSample(BASE_LATENCY * 10, 10);
+        }
+        assertEquals(5, gradient.getLimit());
+        // at the minimum the latency is the no-load one, the limit grows back if it stays stable
+        for (int i = 0; i < 100; i++) {
+            gradient.onSample(BASE_LATENCY * 10, 10);
+        }
+        assertEquals(12, gradient.getLimit());
+    }
+}
@@ -10,21 +10,38 @@
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import org.geoserver.monitor.Query.Comparison;
 import org.geoserver.monitor.Query.SortOrder;
 import org.geoserver.ows.util.OwsUtils;
 
+/**
+ * Keeps the running requests, and the most recent completed ones, in memory. The completed
+ * requests are kept in a fixed size ring buffer, whose size can be set with the {@code
+ * memory.maxHistory} monitoring property (default 100). All completed requests are also collected
+ * in {@link RequestAggregates}, providing rolling summaries over the last hour and day.
+ */
 public class MemoryMonitorDAO implements MonitorDAO {
 
     public static final String NAME = "memory";
 
+    static final int DEFAULT_MAX_HISTORY = 100;
+
     Queue<RequestData> live = new ConcurrentLinkedQueue<>();
-    Queue<RequestData> history = new ConcurrentLinkedQueue<>();
+
+    /** Ring buffer of the completed requests */
+    volatile AtomicReferenceArray<RequestData> history =
+            new AtomicReferenceArray<>(DEFAULT_MAX_HISTORY);
+
+    /** Number of completed requests written in the history, the next one goes at this position */
+    AtomicLong historyCount = new AtomicLong();
+
+    RequestAggregates aggregates = new RequestAggregates();
 
     AtomicLong REQUEST_ID_GEN = new AtomicLong(1);
 
@@ -34,7 +51,23 @@ public String getName() {
     }
 
     @Override
-    public void init(MonitorConfig config) {}
+    public void init(MonitorConfig config) {
+        Integer maxHistory = config.getProperty(NAME, "maxHistory", Integer.class);
+        if (maxHistory != null && maxHistory > 0 && maxHistory != history.length()) {
+            history = new AtomicReferenceArray<>(maxHistory);
+            historyCount.set(0);
+        }
+    }
+
+    /** The maximum number of completed requests kept in memory */
+    public int getMaxHistory() {
+        return history.length();
+    }
+
+    /** The rolling aggregates of the completed requests */
+    public RequestAggregates getAggregates() {
+        return aggregates;
+    }
 
     @Override
     public RequestData init(RequestData data) {
@@ -53,35 +86,52 @@ public void update(RequestData data) {}
     @Override
     public void save(RequestData data) {
         live.remove(data);
-        history.add(data);
+        AtomicReferenceArray<RequestData> history = this.history;
+        long position = historyCount.getAndIncrement();
+        history.set((int) (position % history.length()), data);
+        aggregates.add(data);
+    }
 
-        if (history.size() > 100) {
-            history.poll();
+    /** Visits the running requests, then the completed ones, from the oldest to the newest */
+    private void visit(Consumer<RequestData> visitor) {
+        live.forEach(visitor);
+        AtomicReferenceArray<RequestData> history = this.history;
+        int length = history.length();
+        long end = historyCount.get();
+        for (long i = Math.max(0, end - length); i < end; i++) {
+            RequestData r = history.get((int) (i % length));
+            if (r != null) {
+                visitor.accept(r);
+            }
         }
     }
 
     @Override
     public RequestData getRequest(long id) {
-        for (RequestData r : getRequests()) {
+        for (RequestData r : live) {
             if (r.getId() == id) {
                 return r;
             }
         }
+        AtomicReferenceArray<RequestData> history = this.history;
+        for (int i = 0; i < history.length(); i++) {
+            RequestData r = history.get(i);
+            if (r != null && r.getId() == id) {
+                return r;
+            }
+        }
         return null;
     }
 
     @Override
     public List<RequestData> getRequests() {
-        List<RequestData> requests = new LinkedList<>();
-        requests.addAll(live);
-        requests.addAll(history);
+        List<RequestData> requests = new ArrayList<>();
+        visit(requests::add);
         return requests;
     }
 
     @Override
     public List<RequestData> getRequests(Query q) {
-        List<RequestData> requests = getRequests();
-
         List<Predicate> predicates = new ArrayList<>();
         if (q.getFilter() != null) {
             Filter f = q.getFilter();
@@ -91,28 +141,25 @@ public List<RequestData> getRequests(Query q) {
             predicates.add(new DateRange(q.getFromDate(), q.getToDate()));
         }
 
-        int i = 1, count = 0;
-
-        O:
-        for (Iterator<RequestData> it = requests.iterator(); it.hasNext(); ) {
-            RequestData r = it.next();
-            for (Predicate p : predicates) {
-                if (!p.matches(r)) {
-                    it.remove();
-                    continue O;
-                }
-            }
-
-            if (q.getOffset() != null && q.getOffset() >= i++) {
-                it.remove();
-                continue;
-            }
-            if (q.getCount() != null && q.getCount() <= count) {
-                it.remove();
-                continue;
-            }
-            count++;
-        }
+        // filter and page while visiting, without copying the whole history
+        List<RequestData> requests = new ArrayList<>();
+        long[] skipped = {0};
+        visit(
+                r -> {
+                    for (Predicate p : predicates) {
+                        if (!p.matches(r)) {
+                            return;
+                        }
+                    }
+                    if (q.getOffset() != null && q.getOffset() > skipped[0]) {
+                        skipped[0]++;
+                        return;
+                    }
+                    if (q.getCount() != null && q.getCount() <= requests.size()) {
+                        return;
+                    }
+                    requests.add(r);
+                });
 
         if (q.getSortBy() != null) {
             Collections.sort(requests, new Sorter(q.getSortBy(), q.getSortOrder()));
@@ -173,13 +220,22 @@ public java.util.List<RequestData> getOwsRequests(
     @Override
     public void clear() {
         live.clear();
-        history.clear();
+        clearHistory();
+    }
+
+    private void clearHistory() {
+        AtomicReferenceArray<RequestData> history = this.history;
+        for (int i = 0; i < history.length(); i++) {
+            history.set(i, null);
+        }
+        historyCount.set(0);
+        aggregates.clear();
     }
 
     @Override
     public void dispose() {
         live.clear();
-        history.clear();
+        clearHistory();
         REQUEST_ID_GEN = new AtomicLong(1);
     }
 
@@ -0,0 +1,357 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.monitor;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.geoserver.monitor.RequestData.Status;
+
+/**
+ * Rolling aggregates of the completed requests, by service, operation and layer, collected in time
+ * buckets of a minute (for the last hour) and of an hour (for the last day). Each bucket keeps the
+ * request count, the failures, the total and maximum time, and a latency histogram, so that summary
+ * reports are computed by merging buckets, regardless of the number of requests.
+ */
+public class RequestAggregates {
+
+    /** Upper bounds of the latency histogram buckets, in milliseconds */
+    static final long[] LATENCY_BOUNDS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /** The request properties the aggregates are collected by */
+    public enum Dimension {
+        /** The OWS service, e.g., WMS */
+        SERVICE,
+        /** The OWS service and operation, separated by a dot, e.g., WMS.GetMap */
+        OPERATION,
+        /** The layers (resources) involved in the request */
+        LAYER
+    }
+
+    /** The time buckets the aggregates are collected in */
+    public enum Resolution {
+        /** Minute buckets, retained for an hour */
+        MINUTE(60 * 1000L, 60),
+        /** Hour buckets, retained for a day */
+        HOUR(60 * 60 * 1000L, 24);
+
+        final long length;
+
+        final int buckets;
+
+        Resolution(long length, int buckets) {
+            this.length = length;
+            this.buckets = buckets;
+        }
+
+        /** The length of a bucket, in milliseconds */
+        public long getLength() {
+            return length;
+        }
+
+        /** The number of buckets retained */
+        public int getBuckets() {
+            return buckets;
+        }
+    }
+
+    /** The statistics of a set of requests */
+    public static class Aggregate {
+
+        long count;
+
+        long failed;
+
+        long totalTime;
+
+        long maxTime;
+
+        final long[] histogram = new long[LATENCY_BOUNDS.length + 1];
+
+        void add(long time, boolean failure) {
+            count++;
+            if (failure) {
+                failed++;
+            }
+            totalTime += time;
+            maxTime = Math.max(maxTime, time);
+            int i = 0;
+            while (i < LATENCY_BOUNDS.length && time > LATENCY_BOUNDS[i]) {
+                i++;
+            }
+            histogram[i]++;
+        }
+
+        void add(Aggregate other) {
+            count += other.count;
+            failed += other.failed;
+            totalTime += other.totalTime;
+            maxTime = Math.max(maxTime, other.maxTime);
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+        }
+
+        void clear() {
+            count = 0;
+            failed = 0;
+            totalTime = 0;
+            maxTime = 0;
+            Arrays.fill(histogram, 0);
+        }
+
+        /** The number of requests */
+        public long getCount() {
+            return count;
+        }
+
+        /** The number of failed requests */
+        public long getFailed() {
+            return failed;
+        }
+
+        /** The sum of the request times, in milliseconds */
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        /** The longest request time, in milliseconds */
+        public long getMaxTime() {
+            return maxTime;
+        }
+
+        /** The average request time, in milliseconds */
+        public double getAverageTime() {
+            return count == 0 ? 0 : (double) totalTime / count;
+        }
+
+        /**
+         * The number of requests in each latency bucket, the bucket at index i counts the requests
+         * taking up to the i-th bound returned by {@link RequestAggregates#getLatencyBounds()}, and
+         * more than the previous one. The last bucket counts the requests beyond the last bound.
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * Estimates a percentile of the request times from the histogram, as the upper bound of
+         * the bucket holding it, capped by the maximum time
+         *
+         * @param percentile The percentile, between 0 and 100
+         */
+        public long getPercentile(double percentile) {
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < LATENCY_BOUNDS.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(LATENCY_BOUNDS[i], maxTime);
+                }
+            }
+            return maxTime;
+        }
+    }
+
+    /** The retained buckets of a key, at a given resolution */
+    static class Series {
+
+        final Aggregate[] aggregates;
+
+        /** The bucket index (time divided by the bucket length) each aggregate refers to */
+        final long[] ids;
+
+        Series(int buckets) {
+            aggregates = new Aggregate[buckets];
+            ids = new long[buckets];
+            for (int i = 0; i < buckets; i++) {
+                aggregates[i] = new Aggregate();
+                ids[i] = -1;
+            }
+        }
+
+        synchronized void add(long bucket, long time, boolean failure) {
+            int i = (int) (bucket % ids.length);
+            if (ids[i] != bucket) {
+                if (ids[i] > bucket) {
+                    // older than the retained buckets
+                    return;
+                }
+                aggregates[i].clear();
+                ids[i] = bucket;
+            }
+            aggregates[i].add(time, failure);
+        }
+
+        /** Adds the buckets in the given range into the target, returns true if any was found */
+        synchronized boolean sum(long from, long to, Aggregate target) {
+            boolean found = false;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] >= from && ids[i] <= to) {
+                    target.add(aggregates[i]);
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        synchronized void collect(long from, Map<Long, Aggregate> target) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] >= from) {
+                    target.computeIfAbsent(ids[i], k -> new Aggregate()).add(aggregates[i]);
+                }
+            }
+        }
+
+        synchronized long getLastBucket() {
+            long last = -1;
+            for (long id : ids) {
+                last = Math.max(last, id);
+            }
+            return last;
+        }
+    }
+
+    private final Map<Resolution, Map<Dimension, Map<String, Series>>> series =
+            new EnumMap<>(Resolution.class);
+
+    /**
+     * Returns the upper bounds of the latency histogram buckets, in milliseconds. The histograms
+     * have an extra bucket, for the requests beyond the last bound.
+     */
+    public static long[] getLatencyBounds() {
+        return LATENCY_BOUNDS.clone();
+    }
+
+    public RequestAggregates() {
+        for (Resolution resolution : Resolution.values()) {
+            Map<Dimension, Map<String, Series>> dimensions = new EnumMap<>(Dimension.class);
+            for (Dimension dimension : Dimension.values()) {
+                dimensions.put(dimension, new ConcurrentHashMap<>());
+            }
+            series.put(resolution, dimensions);
+        }
+    }
+
+    /** Adds a completed request to the aggregates */
+    public void add(RequestData data) {
+        Date start = data.getStartTime();
+        if (start == null) {
+            return;
+        }
+        long time = data.getTotalTime();
+        boolean failure = data.getStatus() == Status.FAILED;
+        String service = data.getService();
+        String operation = data.getOperation();
+        List<String> layers = data.getResources();
+        for (Resolution resolution : Resolution.values()) {
+            long bucket = start.getTime() / resolution.length;
+            Map<Dimension, Map<String, Series>> dimensions = series.get(resolution);
+            if (service != null) {
+                add(dimensions, Dimension.SERVICE, service, resolution, bucket, time, failure);
+                if (operation != null) {
+                    String key = service + "." + operation;
+                    add(dimensions, Dimension.OPERATION, key, resolution, bucket, time, failure);
+                }
+            }
+            if (layers != null) {
+                for (String layer : layers) {
+                    add(dimensions, Dimension.LAYER, layer, resolution, bucket, time, failure);
+                }
+            }
+        }
+    }
+
+    private void add(
+            Map<Dimension, Map<String, Series>> dimensions,
+            Dimension dimension,
+            String key,
+            Resolution resolution,
+            long bucket,
+            long time,
+            boolean failure) {
+        dimensions
+                .get(dimension)
+                .computeIfAbsent(key, k -> new Series(resolution.buckets))
+                .add(bucket, time, failure);
+    }
+
+    /**
+     * Returns the aggregates of the requests started in the given time range, by key. The range is
+     * extended to the enclosing buckets, and limited to the retained ones.
+     *
+     * @param dimension The property to aggregate by
+     * @param resolution The time buckets to use
+     * @param from The start of the range, or null to use all the retained buckets
+     * @param to The end of the range, or null to use all the retained buckets
+     */
+    public Map<String, Aggregate> getAggregates(
+            Dimension dimension, Resolution resolution, Date from, Date to) {
+        long oldest = System.currentTimeMillis() / resolution.length - resolution.buckets + 1;
+        long fromBucket = from == null ? oldest : from.getTime() / resolution.length;
+        long toBucket = to == null ? Long.MAX_VALUE : to.getTime() / resolution.length;
+        Map<String, Aggregate> result = new HashMap<>();
+        Map<String, Series> keys = series.get(resolution).get(dimension);
+        for (Iterator<Map.Entry<String, Series>> it = keys.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Series> entry = it.next();
+            Series s = entry.getValue();
+            if (s.getLastBucket() < oldest) {
+                // nothing retained, drop the key to avoid accumulating stale ones
+                it.remove();
+                continue;
+            }
+            Aggregate aggregate = new Aggregate();
+            if (s.sum(Math.max(fromBucket, oldest), toBucket, aggregate)) {
+                result.put(entry.getKey(), aggregate);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the retained buckets for a key, or for all keys, sorted by time
+     *
+     * @param dimension The property to aggregate by
+     * @param key The property value, or null to merge all values
+     * @param resolution The time buckets to use
+     * @return The aggregates, by bucket start time
+     */
+    public TreeMap<Date, Aggregate> getTimeSeries(
+            Dimension dimension, String key, Resolution resolution) {
+        long oldest = System.currentTimeMillis() / resolution.length - resolution.buckets + 1;
+        Map<Long, Aggregate> buckets = new HashMap<>();
+        Map<String, Series> keys = series.get(resolution).get(dimension);
+        if (key != null) {
+            Series s = keys.get(key);
+            if (s != null) {
+                s.collect(oldest, buckets);
+            }
+        } else {
+            for (Series s : keys.values()) {
+                s.collect(oldest, buckets);
+            }
+        }
+        TreeMap<Date, Aggregate> result = new TreeMap<>();
+        for (Map.Entry<Long, Aggregate> entry : buckets.entrySet()) {
+            result.put(new Date(entry.getKey() * resolution.length), entry.getValue());
+        }
+        return result;
+    }
+
+    /** Removes all the aggregates */
+    public void clear() {
+        for (Map<Dimension, Map<String, Series>> dimensions : series.values()) {
+            for (Map<String, Series> keys : dimensions.values()) {
+                keys.clear();
+            }
+        }
+    }
+}
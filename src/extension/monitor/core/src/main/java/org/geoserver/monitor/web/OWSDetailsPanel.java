@@ -10,6 +10,7 @@
 import org.geoserver.monitor.Monitor;
 import org.geoserver.monitor.Query;
 import org.geoserver.monitor.Query.Comparison;
+import org.geoserver.monitor.RequestAggregates.Dimension;
 import org.geoserver.monitor.RequestData;
 import org.geoserver.monitor.RequestDataVisitor;
 
@@ -28,6 +29,20 @@ protected String getChartTitle() {
 
     @Override
     protected Map<String, Integer> gatherData(Monitor monitor) {
+        Map<String, Integer> aggregated = gatherAggregatedData(monitor, Dimension.OPERATION);
+        if (aggregated != null) {
+            // keys are service.operation, keep the ones of this service
+            String prefix = owsService + ".";
+            Map<String, Integer> data = new HashMap<>();
+            for (Map.Entry<String, Integer> e : aggregated.entrySet()) {
+                if (e.getKey().startsWith(prefix)) {
+                    String op = e.getKey().substring(prefix.length()).toLowerCase();
+                    data.merge(op, e.getValue(), Integer::sum);
+                }
+            }
+            return data;
+        }
+
         DataGatherer g = new DataGatherer();
         monitor.query(
                 new Query().properties("operation").filter("service", owsService, Comparison.EQ),
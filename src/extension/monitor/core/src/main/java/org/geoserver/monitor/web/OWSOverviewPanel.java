@@ -10,6 +10,7 @@
 import org.geoserver.monitor.Monitor;
 import org.geoserver.monitor.Query;
 import org.geoserver.monitor.Query.Comparison;
+import org.geoserver.monitor.RequestAggregates.Dimension;
 import org.geoserver.monitor.RequestData;
 import org.geoserver.monitor.RequestDataVisitor;
 
@@ -28,6 +29,11 @@ protected String getChartTitle() {
 
     @Override
     protected Map<String, Integer> gatherData(Monitor monitor) {
+        Map<String, Integer> aggregated = gatherAggregatedData(monitor, Dimension.SERVICE);
+        if (aggregated != null) {
+            return aggregated;
+        }
+
         Query q = new Query();
         q.properties("service").filter("service", null, Comparison.NEQ);
 
@@ -6,11 +6,17 @@
 package org.geoserver.monitor.web;
 
 import java.awt.Color;
+import java.util.HashMap;
 import java.util.Map;
 import org.apache.wicket.markup.html.image.NonCachingImage;
 import org.apache.wicket.markup.html.image.resource.BufferedDynamicImageResource;
 import org.apache.wicket.markup.html.panel.Panel;
+import org.geoserver.monitor.MemoryMonitorDAO;
 import org.geoserver.monitor.Monitor;
+import org.geoserver.monitor.RequestAggregates;
+import org.geoserver.monitor.RequestAggregates.Aggregate;
+import org.geoserver.monitor.RequestAggregates.Dimension;
+import org.geoserver.monitor.RequestAggregates.Resolution;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
 import org.jfree.data.general.DefaultPieDataset;
@@ -43,5 +49,22 @@ public OWSSummaryChartBasePanel(String id, Monitor monitor, String owsService) {
 
     protected abstract Map<String, Integer> gatherData(Monitor monitor);
 
+    /**
+     * Returns the request counts from the hourly aggregates of the memory storage, which cover
+     * more requests than the stored ones, or null if the storage does not provide aggregates
+     */
+    protected Map<String, Integer> gatherAggregatedData(Monitor monitor, Dimension dimension) {
+        if (!(monitor.getDAO() instanceof MemoryMonitorDAO)) {
+            return null;
+        }
+        RequestAggregates aggregates = ((MemoryMonitorDAO) monitor.getDAO()).getAggregates();
+        Map<String, Integer> data = new HashMap<>();
+        for (Map.Entry<String, Aggregate> e :
+                aggregates.getAggregates(dimension, Resolution.HOUR, null, null).entrySet()) {
+            data.put(e.getKey(), (int) e.getValue().getCount());
+        }
+        return data;
+    }
+
     protected abstract String getChartTitle();
 }
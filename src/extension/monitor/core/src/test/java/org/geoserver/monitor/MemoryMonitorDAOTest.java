@@ -5,7 +5,18 @@
  */
 package org.geoserver.monitor;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.geoserver.monitor.RequestAggregates.Aggregate;
+import org.geoserver.monitor.RequestAggregates.Dimension;
+import org.geoserver.monitor.RequestAggregates.Resolution;
 import org.junit.BeforeClass;
+import org.junit.Test;
 
 public class MemoryMonitorDAOTest extends MonitorDAOTestSupport {
 
@@ -14,4 +25,50 @@ public static void createDAO() throws Exception {
         dao = new MemoryMonitorDAO();
         setUpData();
     }
+
+    @Test
+    public void testHistoryRingBuffer() throws Exception {
+        MonitorConfig config = new MonitorConfig();
+        config.getProperties().put("memory.maxHistory", "5");
+        MemoryMonitorDAO memory = new MemoryMonitorDAO();
+        memory.init(config);
+        assertEquals(5, memory.getMaxHistory());
+
+        for (int i = 0; i < 12; i++) {
+            RequestData data = memory.init(new RequestData());
+            data.setPath("/" + data.getId());
+            data.setService("WMS");
+            data.setOperation("GetMap");
+            data.setStartTime(new Date());
+            data.setTotalTime(i * 100);
+            memory.add(data);
+            memory.save(data);
+        }
+
+        // only the most recent requests are kept, oldest first
+        List<RequestData> requests = memory.getRequests();
+        assertEquals(5, requests.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(8 + i, requests.get(i).getId());
+        }
+        assertNull(memory.getRequest(7));
+        assertNotNull(memory.getRequest(12));
+        assertEquals(2, memory.getRequests(new Query().page(1L, 2L)).size());
+        assertEquals(9, memory.getRequests(new Query().page(1L, 2L)).get(0).getId());
+
+        // while the aggregates cover all of them
+        Map<String, Aggregate> services =
+                memory.getAggregates()
+                        .getAggregates(Dimension.SERVICE, Resolution.MINUTE, null, null);
+        assertEquals(12, services.get("WMS").getCount());
+        assertEquals(1100, services.get("WMS").getMaxTime());
+
+        memory.clear();
+        assertEquals(0, memory.getRequests().size());
+        assertEquals(
+                0,
+                memory.getAggregates()
+                        .getAggregates(Dimension.SERVICE, Resolution.MINUTE, null, null)
+                        .size());
+    }
 }
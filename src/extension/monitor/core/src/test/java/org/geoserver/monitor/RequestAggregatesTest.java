@@ -0,0 +1,120 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.monitor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import org.geoserver.monitor.RequestAggregates.Aggregate;
+import org.geoserver.monitor.RequestAggregates.Dimension;
+import org.geoserver.monitor.RequestAggregates.Resolution;
+import org.geoserver.monitor.RequestData.Status;
+import org.junit.Test;
+
+public class RequestAggregatesTest {
+
+    private RequestData request(
+            String service, String operation, long time, Status status, String... layers) {
+        RequestData data = new RequestData();
+        data.setService(service);
+        data.setOperation(operation);
+        data.setStartTime(new Date());
+        data.setTotalTime(time);
+        data.setStatus(status);
+        data.setResources(Arrays.asList(layers));
+        return data;
+    }
+
+    @Test
+    public void testDimensions() {
+        RequestAggregates aggregates = new RequestAggregates();
+        aggregates.add(request("WMS", "GetMap", 20, Status.FINISHED, "topp:states"));
+        aggregates.add(request("WMS", "GetMap", 300, Status.FINISHED, "topp:states", "sf:roads"));
+        aggregates.add(request("WMS", "GetFeatureInfo", 5, Status.FAILED, "sf:roads"));
+        aggregates.add(request("WFS", "GetFeature", 2000, Status.FINISHED, "sf:roads"));
+
+        for (Resolution resolution : Resolution.values()) {
+            Map<String, Aggregate> services =
+                    aggregates.getAggregates(Dimension.SERVICE, resolution, null, null);
+            assertEquals(2, services.size());
+            Aggregate wms = services.get("WMS");
+            assertEquals(3, wms.getCount());
+            assertEquals(1, wms.getFailed());
+            assertEquals(325, wms.getTotalTime());
+            assertEquals(300, wms.getMaxTime());
+            assertEquals(1, services.get("WFS").getCount());
+
+            Map<String, Aggregate> operations =
+                    aggregates.getAggregates(Dimension.OPERATION, resolution, null, null);
+            assertEquals(3, operations.size());
+            assertEquals(2, operations.get("WMS.GetMap").getCount());
+
+            Map<String, Aggregate> layers =
+                    aggregates.getAggregates(Dimension.LAYER, resolution, null, null);
+            assertEquals(2, layers.get("topp:states").getCount());
+            assertEquals(3, layers.get("sf:roads").getCount());
+        }
+    }
+
+    @Test
+    public void testHistogram() {
+        RequestAggregates aggregates = new RequestAggregates();
+        for (long time : new long[] {5, 10, 20, 80, 90, 95, 200, 700, 3000, 60000}) {
+            aggregates.add(request("WMS", "GetMap", time, Status.FINISHED));
+        }
+        Aggregate wms =
+                aggregates
+                        .getAggregates(Dimension.SERVICE, Resolution.MINUTE, null, null)
+                        .get("WMS");
+        long[] bounds = RequestAggregates.getLatencyBounds();
+        long[] histogram = wms.getHistogram();
+        assertEquals(bounds.length + 1, histogram.length);
+        assertArrayEquals(new long[] {2, 1, 0, 3, 1, 0, 1, 0, 1, 0, 1}, histogram);
+
+        assertEquals(10, wms.getPercentile(20));
+        assertEquals(100, wms.getPercentile(50));
+        assertEquals(5000, wms.getPercentile(90));
+        assertEquals(60000, wms.getPercentile(100));
+        assertEquals(6420, wms.getAverageTime(), 0d);
+    }
+
+    @Test
+    public void testTimeRange() {
+        RequestAggregates aggregates = new RequestAggregates();
+        aggregates.add(request("WMS", "GetMap", 20, Status.FINISHED));
+
+        // a range in the past does not include the request
+        Date past = new Date(System.currentTimeMillis() - 2 * 60 * 60 * 1000);
+        assertTrue(
+                aggregates.getAggregates(Dimension.SERVICE, Resolution.HOUR, past, past).isEmpty());
+
+        // requests older than the retained buckets are ignored
+        RequestData old = request("WFS", "GetFeature", 20, Status.FINISHED);
+        old.setStartTime(new Date(System.currentTimeMillis() - 2 * 24 * 60 * 60 * 1000));
+        aggregates.add(old);
+        assertEquals(
+                1, aggregates.getAggregates(Dimension.SERVICE, Resolution.HOUR, null, null).size());
+    }
+
+    @Test
+    public void testTimeSeries() {
+        RequestAggregates aggregates = new RequestAggregates();
+        aggregates.add(request("WMS", "GetMap", 20, Status.FINISHED, "topp:states"));
+        aggregates.add(request("WFS", "GetFeature", 20, Status.FINISHED, "sf:roads"));
+
+        TreeMap<Date, Aggregate> all =
+                aggregates.getTimeSeries(Dimension.SERVICE, null, Resolution.MINUTE);
+        assertEquals(2, all.values().stream().mapToLong(Aggregate::getCount).sum());
+        TreeMap<Date, Aggregate> roads =
+                aggregates.getTimeSeries(Dimension.LAYER, "sf:roads", Resolution.HOUR);
+        assertEquals(1, roads.values().stream().mapToLong(Aggregate::getCount).sum());
+        assertEquals(0, roads.firstKey().getTime() % Resolution.HOUR.getLength());
+    }
+}
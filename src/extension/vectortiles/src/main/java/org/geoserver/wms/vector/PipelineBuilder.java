@@ -283,26 +283,35 @@ public PipelineBuilder simplify(
             final Set<RenderingHints.Key> fsHints,
             final Hints qHints) {
 
-        if (fsHints != null && qHints != null) {
-            // if possible we let the datastore do the generalizations
+        // do not return: we can still perform some in memory generalization ...
+        simplifyInDataStore(fsHints, qHints);
+
+        double pixelDistance = context.screenSimplificationDistance;
+        double simplificationDistance = context.targetCRSSimplificationDistance;
+
+        double distanceTolerance =
+                isTransformToScreenCoordinates ? pixelDistance : simplificationDistance;
+
+        addLast(new Simplify(distanceTolerance));
+        return this;
+    }
 
+    /**
+     * Lets the data store perform a first generalization of the geometries, if it supports distance
+     * based simplification, by adding the simplification distance to the query hints. Does not add
+     * any step to the pipeline.
+     */
+    public PipelineBuilder simplifyInDataStore(
+            final Set<RenderingHints.Key> fsHints, final Hints qHints) {
+        if (fsHints != null && qHints != null) {
             // check for distance support
             if (fsHints.contains(Hints.GEOMETRY_DISTANCE)) {
 
                 // the datastore supports distance based simplification,
                 // let's add the Hint to the query
                 qHints.put(Hints.GEOMETRY_DISTANCE, context.sourceCRSSimplificationDistance);
-
-                // do not return: we can still perform some in memory generalization ...
             }
         }
-        double pixelDistance = context.screenSimplificationDistance;
-        double simplificationDistance = context.targetCRSSimplificationDistance;
-
-        double distanceTolerance =
-                isTransformToScreenCoordinates ? pixelDistance : simplificationDistance;
-
-        addLast(new Simplify(distanceTolerance));
         return this;
     }
 
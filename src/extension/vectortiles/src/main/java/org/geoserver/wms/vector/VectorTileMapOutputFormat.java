@@ -8,11 +8,24 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoserver.platform.ServiceException;
@@ -21,6 +34,8 @@
 import org.geoserver.wms.WebMap;
 import org.geoserver.wms.map.AbstractMapOutputFormat;
 import org.geoserver.wms.map.StyleQueryUtil;
+import org.geoserver.wms.map.TileGridMap;
+import org.geoserver.wms.map.TileGridMapOutputFormat;
 import org.geoserver.wms.vector.iterator.VTFeature;
 import org.geoserver.wms.vector.iterator.VTIterator;
 import org.geotools.api.data.FeatureSource;
@@ -38,8 +53,10 @@
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Polygon;
+import org.springframework.beans.factory.DisposableBean;
 
-public class VectorTileMapOutputFormat extends AbstractMapOutputFormat {
+public class VectorTileMapOutputFormat extends AbstractMapOutputFormat
+        implements TileGridMapOutputFormat, DisposableBean {
 
     /** A logger for this class. */
     private static final Logger LOGGER = Logging.getLogger(VectorTileMapOutputFormat.class);
@@ -53,6 +70,9 @@ public class VectorTileMapOutputFormat extends AbstractMapOutputFormat {
 
     private boolean transformToScreenCoordinates;
 
+    /** Builds the tiles of a grid in parallel, see {@link #getTileExecutor()} */
+    private volatile ExecutorService tileExecutor;
+
     public VectorTileMapOutputFormat(VectorTileBuilderFactory tileBuilderFactory) {
         super(tileBuilderFactory.getMimeType(), tileBuilderFactory.getOutputFormats());
         this.tileBuilderFactory = tileBuilderFactory;
@@ -80,6 +100,16 @@ public WebMap produceMap(final WMSMapContent mapContent) throws ServiceException
         checkArgument(mapContent.getMapWidth() > 0);
         checkArgument(mapContent.getMapHeight() > 0);
 
+        // a tile producer asked for a grid of tiles, e.g., a meta tile while seeding
+        int[] grid = TileGridMap.getRequestedGrid();
+        if (grid != null
+                && grid[0] * grid[1] > 1
+                && mapContent.getMapWidth() % grid[0] == 0
+                && mapContent.getMapHeight() % grid[1] == 0) {
+            List<WebMap> tiles = produceMaps(mapContent, grid[0], grid[1]);
+            return new TileGridMap(mapContent, tiles, grid[0], grid[1]);
+        }
+
         final ReferencedEnvelope renderingArea = mapContent.getRenderingArea();
         int mapWidth = mapContent.getMapWidth();
         int mapHeight = mapContent.getMapHeight();
@@ -104,22 +134,7 @@ public WebMap produceMap(final WMSMapContent mapContent) throws ServiceException
             }
 
             sourceCrs = geometryDescriptor.getType().getCoordinateReferenceSystem();
-            int buffer =
-                    StyleQueryUtil.getComputedBuffer(
-                            mapContent.getBuffer(),
-                            StyleQueryUtil.getFeatureStyles(
-                                    layer,
-                                    StyleQueryUtil.getMapScale(mapContent, renderingArea),
-                                    schema));
-            if (this.tileBuilderFactory.shouldOversampleScale()) {
-                // buffer is in pixels (style pixels), need to convert to paint area pixels
-                buffer *=
-                        Math.max(
-                                Math.max(
-                                        this.tileBuilderFactory.getOversampleX(),
-                                        this.tileBuilderFactory.getOversampleY()),
-                                1); // if 0 (i.e. test case), don't expand
-            }
+            int buffer = getBuffer(mapContent, renderingArea, layer, schema);
 
             VectorTileOptions vectorTileOptions = new VectorTileOptions(layer, mapContent);
 
@@ -168,6 +183,350 @@ public WebMap produceMap(final WMSMapContent mapContent) throws ServiceException
         return vectorTileBuilder.build(mapContent);
     }
 
+    /** Computes the layer buffer, in paint area pixels */
+    private int getBuffer(
+            WMSMapContent mapContent,
+            ReferencedEnvelope renderingArea,
+            Layer layer,
+            FeatureType schema) {
+        int buffer =
+                StyleQueryUtil.getComputedBuffer(
+                        mapContent.getBuffer(),
+                        StyleQueryUtil.getFeatureStyles(
+                                layer,
+                                StyleQueryUtil.getMapScale(mapContent, renderingArea),
+                                schema));
+        if (this.tileBuilderFactory.shouldOversampleScale()) {
+            // buffer is in pixels (style pixels), need to convert to paint area pixels
+            buffer *=
+                    Math.max(
+                            Math.max(
+                                    this.tileBuilderFactory.getOversampleX(),
+                                    this.tileBuilderFactory.getOversampleY()),
+                            1); // if 0 (i.e. test case), don't expand
+        }
+        return buffer;
+    }
+
+    /**
+     * Produces the tiles of a grid covering the map content area, e.g., the tiles of a meta tile
+     * or the children of a tile, at the resolution given by the map content size. The features of
+     * each layer are read only once for the whole area, pre-processed and transformed to the target
+     * CRS, and then fanned out to the tiles, which are clipped, simplified and encoded in parallel.
+     *
+     * <p>The features of the area are kept in memory while the tiles are built, the method is
+     * meant for areas of a few tiles, like the meta tiles used when seeding. The tiles are built by
+     * a pool owned by this output format, sized after the number of processors and shut down along
+     * with it. The tiles are returned by row, starting from the top left one, and share the map
+     * content: it is disposed when any of them is disposed.
+     *
+     * @param mapContent the map content, its size must be a multiple of the number of tiles
+     * @param tilesX the number of tiles along the horizontal axis
+     * @param tilesY the number of tiles along the vertical axis
+     */
+    @Override
+    public List<WebMap> produceMaps(final WMSMapContent mapContent, int tilesX, int tilesY)
+            throws ServiceException, IOException {
+        checkNotNull(mapContent);
+        checkNotNull(mapContent.getRenderingArea());
+        checkArgument(tilesX > 0 && tilesY > 0);
+        checkArgument(mapContent.getMapWidth() > 0 && mapContent.getMapWidth() % tilesX == 0);
+        checkArgument(mapContent.getMapHeight() > 0 && mapContent.getMapHeight() % tilesY == 0);
+        Stopwatch sw = Stopwatch.createStarted();
+
+        final ReferencedEnvelope renderingArea = mapContent.getRenderingArea();
+        int tileWidth = mapContent.getMapWidth() / tilesX;
+        int tileHeight = mapContent.getMapHeight() / tilesY;
+        if (this.tileBuilderFactory.shouldOversampleScale()) {
+            tileWidth *= this.tileBuilderFactory.getOversampleX();
+            tileHeight *= this.tileBuilderFactory.getOversampleY();
+        }
+        Rectangle tilePaintArea = new Rectangle(tileWidth, tileHeight);
+        Rectangle paintArea = new Rectangle(tileWidth * tilesX, tileHeight * tilesY);
+
+        // read the features of all layers once, in the target CRS
+        List<SharedFeatures> layers = new ArrayList<>();
+        for (Layer layer : mapContent.layers()) {
+            FeatureSource<?, ?> featureSource = layer.getFeatureSource();
+            FeatureType schema = featureSource.getSchema();
+            GeometryDescriptor geometryDescriptor = schema.getGeometryDescriptor();
+            if (null == geometryDescriptor) {
+                continue;
+            }
+
+            CoordinateReferenceSystem sourceCrs =
+                    geometryDescriptor.getType().getCoordinateReferenceSystem();
+            int buffer = getBuffer(mapContent, renderingArea, layer, schema);
+            VectorTileOptions vectorTileOptions = new VectorTileOptions(layer, mapContent);
+
+            Query query = StyleQueryUtil.getStyleQuery(layer, mapContent);
+            vectorTileOptions.customizeQuery(query);
+            Hints hints = query.getHints();
+            Pipeline pipeline;
+            try {
+                pipeline =
+                        PipelineBuilder.newBuilder(
+                                        renderingArea,
+                                        paintArea,
+                                        sourceCrs,
+                                        overSamplingFactor,
+                                        buffer)
+                                .simplifyInDataStore(featureSource.getSupportedHints(), hints)
+                                .preprocess()
+                                .transform(false)
+                                .build();
+            } catch (FactoryException e) {
+                throw new ServiceException(e);
+            }
+            hints.remove(Hints.SCREENMAP);
+            String layerName = schema.getName().getLocalPart();
+            String geometryName = geometryDescriptor.getName().getLocalPart();
+            boolean coalesceEnabled = vectorTileOptions.isCoalesceEnabled();
+            layers.add(
+                    new SharedFeatures(
+                            layerName,
+                            geometryName,
+                            buffer,
+                            read(
+                                    featureSource.getFeatures(query),
+                                    pipeline,
+                                    false,
+                                    coalesceEnabled)));
+
+            if (vectorTileOptions.generateLabelLayer()) {
+                vectorTileOptions.customizeLabelQuery(query);
+                layers.add(
+                        new SharedFeatures(
+                                layerName + "_labels",
+                                geometryName,
+                                buffer,
+                                read(
+                                        featureSource.getFeatures(query),
+                                        pipeline,
+                                        vectorTileOptions.isPolygonLabelEnabled(),
+                                        coalesceEnabled)));
+            }
+        }
+
+        // then build the tiles in parallel
+        double tileSpanX = renderingArea.getWidth() / tilesX;
+        double tileSpanY = renderingArea.getHeight() / tilesY;
+        List<ReferencedEnvelope> tileAreas = new ArrayList<>();
+        for (int row = 0; row < tilesY; row++) {
+            double maxY = renderingArea.getMaxY() - row * tileSpanY;
+            for (int col = 0; col < tilesX; col++) {
+                double minX = renderingArea.getMinX() + col * tileSpanX;
+                tileAreas.add(
+                        new ReferencedEnvelope(
+                                minX,
+                                minX + tileSpanX,
+                                maxY - tileSpanY,
+                                maxY,
+                                renderingArea.getCoordinateReferenceSystem()));
+            }
+        }
+        List<Future<WebMap>> futures = new ArrayList<>();
+        for (ReferencedEnvelope area : tileAreas) {
+            futures.add(submit(() -> buildTile(mapContent, area, tilePaintArea, layers)));
+        }
+        List<WebMap> tiles = new ArrayList<>();
+        try {
+            for (Future<WebMap> future : futures) {
+                tiles.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while building the tiles", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            Throwables.throwIfUnchecked(cause);
+            throw new ServiceException(cause);
+        } finally {
+            for (Future<WebMap> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        sw.stop();
+        long nanos = sw.elapsed(TimeUnit.NANOSECONDS);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(
+                    String.format(
+                            "Produced %d tiles in %s (%.1f tiles/s)",
+                            tiles.size(), sw, tiles.size() * 1e9 / Math.max(nanos, 1)));
+        }
+        return tiles;
+    }
+
+    /** Reads the features and runs them through the shared part of the pipeline */
+    private List<VTFeature> read(
+            FeatureCollection<?, ?> features,
+            Pipeline pipeline,
+            boolean labelPoint,
+            boolean coalesce) {
+        List<VTFeature> result = new ArrayList<>();
+        try (VTIterator it = VTIterator.getIterator(features.features(), coalesce)) {
+            while (it.hasNext()) {
+                VTFeature feature = it.next();
+                Geometry geometry = feature.getGeometry();
+                if (labelPoint) geometry = getLabelPoint(geometry);
+                try {
+                    geometry = pipeline.execute(geometry);
+                } catch (Exception processingException) {
+                    LOGGER.log(
+                            Level.WARNING,
+                            processingException.getLocalizedMessage(),
+                            processingException);
+                    continue;
+                }
+                if (geometry.isEmpty()) {
+                    continue;
+                }
+                // the envelope is computed lazily, do it now as the geometry is shared among
+                // the tiles built in parallel
+                geometry.getEnvelopeInternal();
+                feature.setGeometry(geometry);
+                result.add(feature);
+            }
+        }
+        return result;
+    }
+
+    /** Builds a single tile out of the shared features */
+    private WebMap buildTile(
+            WMSMapContent mapContent,
+            ReferencedEnvelope tileArea,
+            Rectangle paintArea,
+            List<SharedFeatures> layers) {
+        VectorTileBuilder builder = tileBuilderFactory.newBuilder(paintArea, tileArea);
+        CoordinateReferenceSystem crs = tileArea.getCoordinateReferenceSystem();
+        for (SharedFeatures layer : layers) {
+            Pipeline pipeline;
+            try {
+                PipelineBuilder pb =
+                        PipelineBuilder.newBuilder(
+                                new ReferencedEnvelope(tileArea),
+                                paintArea,
+                                crs,
+                                overSamplingFactor,
+                                layer.buffer);
+                // the features are already in the target CRS
+                if (transformToScreenCoordinates) {
+                    pb.transform(true);
+                }
+                pipeline =
+                        pb.clip(clipToMapBounds, transformToScreenCoordinates)
+                                .simplify(transformToScreenCoordinates, null, null)
+                                .collapseCollections()
+                                .build();
+            } catch (FactoryException e) {
+                throw new ServiceException(e);
+            }
+
+            // same area as the query that would be run for this tile alone
+            ReferencedEnvelope queryArea = new ReferencedEnvelope(tileArea);
+            queryArea.expandBy(layer.buffer * tileArea.getWidth() / paintArea.getWidth());
+            for (VTFeature feature : layer.features) {
+                Geometry geometry = feature.getGeometry();
+                if (!queryArea.intersects(geometry.getEnvelopeInternal())) {
+                    continue;
+                }
+                Geometry finalGeom;
+                try {
+                    finalGeom = pipeline.execute(geometry);
+                } catch (Exception processingException) {
+                    LOGGER.log(
+                            Level.WARNING,
+                            processingException.getLocalizedMessage(),
+                            processingException);
+                    continue;
+                }
+                if (finalGeom.isEmpty()) {
+                    continue;
+                }
+                builder.addFeature(
+                        layer.layerName,
+                        feature.getFeatureId(),
+                        layer.geometryName,
+                        finalGeom,
+                        feature.getProperties());
+            }
+        }
+        try {
+            return builder.build(mapContent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Future<WebMap> submit(Callable<WebMap> task) {
+        try {
+            return getTileExecutor().submit(task);
+        } catch (RejectedExecutionException e) {
+            // shutting down, build the tile on the calling thread
+            FutureTask<WebMap> future = new FutureTask<>(task);
+            future.run();
+            return future;
+        }
+    }
+
+    /** Returns the pool building the tiles of a grid, creating it if needed */
+    private ExecutorService getTileExecutor() {
+        if (tileExecutor == null) {
+            synchronized (this) {
+                if (tileExecutor == null) {
+                    AtomicInteger count = new AtomicInteger();
+                    String prefix = "VectorTiles-" + getMimeType() + "-";
+                    tileExecutor =
+                            Executors.newFixedThreadPool(
+                                    Runtime.getRuntime().availableProcessors(),
+                                    r -> {
+                                        Thread t = new Thread(r, prefix + count.incrementAndGet());
+                                        t.setDaemon(true);
+                                        return t;
+                                    });
+                }
+            }
+        }
+        return tileExecutor;
+    }
+
+    /** Shuts down the tile building pool, if it was ever created */
+    @Override
+    public void destroy() throws Exception {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = tileExecutor;
+            tileExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /** The features of a layer shared among the tiles of a grid */
+    private static class SharedFeatures {
+        final String layerName;
+
+        final String geometryName;
+
+        final int buffer;
+
+        final List<VTFeature> features;
+
+        SharedFeatures(
+                String layerName, String geometryName, int buffer, List<VTFeature> features) {
+            this.layerName = layerName;
+            this.geometryName = geometryName;
+            this.buffer = buffer;
+            this.features = features;
+        }
+    }
+
     protected Pipeline getPipeline(
             final WMSMapContent mapContent,
             final ReferencedEnvelope renderingArea,
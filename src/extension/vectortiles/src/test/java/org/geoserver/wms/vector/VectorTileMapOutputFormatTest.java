@@ -19,14 +19,18 @@
 import com.google.common.collect.ImmutableSet;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import org.apache.wicket.spring.test.ApplicationContextMock;
 import org.geoserver.catalog.SLDHandler;
 import org.geoserver.config.GeoServerLoader;
@@ -35,6 +39,8 @@
 import org.geoserver.wms.MapLayerInfo;
 import org.geoserver.wms.WMSMapContent;
 import org.geoserver.wms.WebMap;
+import org.geoserver.wms.map.RawMap;
+import org.geoserver.wms.map.TileGridMap;
 import org.geoserver.wms.map.StyleQueryUtil;
 import org.geoserver.wms.mapbox.MapBoxTileBuilderFactory;
 import org.geotools.api.data.Query;
@@ -832,4 +838,112 @@ public void testCoalesce() throws Exception {
                         any(MultiPolygon.class),
                         eq(Map.of("sp", "StringProp3_3", "ip", 3000)));
     }
+
+    @Test
+    public void testProduceMapsSameAsSingleTiles() throws Exception {
+        VectorTileBuilderFactory factory = mock(VectorTileBuilderFactory.class);
+        when(factory.getMimeType()).thenReturn("testMime");
+        when(factory.getOutputFormats()).thenReturn(ImmutableSet.of("testMime"));
+        when(factory.newBuilder(any(Rectangle.class), any(ReferencedEnvelope.class)))
+                .thenAnswer(invocation -> new RecordingTileBuilder());
+        VectorTileMapOutputFormat format = new VectorTileMapOutputFormat(factory);
+        format.setClipToMapBounds(true);
+        format.setTransformToScreenCoordinates(true);
+
+        FeatureLayer polygonLayer =
+                new FeatureLayer(ds.getFeatureSource("polygons"), defaultPolygonStyle);
+        ReferencedEnvelope metaBounds =
+                new ReferencedEnvelope(0, 2_000_000, 0, 2_000_000, WEB_MERCATOR);
+        WMSMapContent metaContent =
+                createMapContent(metaBounds, new Rectangle(512, 512), 32, pointLayer, polygonLayer);
+        List<WebMap> tiles;
+        try {
+            tiles = format.produceMaps(metaContent, 2, 2);
+        } finally {
+            format.destroy();
+        }
+        Assert.assertEquals(4, tiles.size());
+
+        Set<String> all = new HashSet<>();
+        for (int row = 0; row < 2; row++) {
+            for (int col = 0; col < 2; col++) {
+                ReferencedEnvelope tileBounds =
+                        new ReferencedEnvelope(
+                                col * 1_000_000,
+                                (col + 1) * 1_000_000,
+                                (1 - row) * 1_000_000,
+                                (2 - row) * 1_000_000,
+                                WEB_MERCATOR);
+                WMSMapContent tileContent =
+                        createMapContent(
+                                tileBounds, new Rectangle(256, 256), 32, pointLayer, polygonLayer);
+                String expected = contents(format.produceMap(tileContent));
+                String actual = contents(tiles.get(row * 2 + col));
+                Assert.assertEquals("Tile " + col + "," + row, expected, actual);
+                all.add(actual);
+            }
+        }
+        // make sure the test is meaningful, the tiles are not all the same
+        Assert.assertTrue(all.size() > 1);
+    }
+
+    @Test
+    public void testProduceMapRequestedGrid() throws Exception {
+        VectorTileBuilderFactory factory = mock(VectorTileBuilderFactory.class);
+        when(factory.getMimeType()).thenReturn("testMime");
+        when(factory.getOutputFormats()).thenReturn(ImmutableSet.of("testMime"));
+        when(factory.newBuilder(any(Rectangle.class), any(ReferencedEnvelope.class)))
+                .thenAnswer(invocation -> new RecordingTileBuilder());
+        VectorTileMapOutputFormat format = new VectorTileMapOutputFormat(factory);
+
+        ReferencedEnvelope metaBounds =
+                new ReferencedEnvelope(0, 2_000_000, 0, 2_000_000, WEB_MERCATOR);
+        WMSMapContent metaContent =
+                createMapContent(metaBounds, new Rectangle(512, 512), 32, pointLayer);
+        TileGridMap.setRequestedGrid(2, 2);
+        try {
+            WebMap map = format.produceMap(metaContent);
+            Assert.assertTrue(map instanceof TileGridMap);
+            TileGridMap grid = (TileGridMap) map;
+            Assert.assertEquals(2, grid.getTilesX());
+            Assert.assertEquals(2, grid.getTilesY());
+            Assert.assertTrue(grid.getTile(1, 1) instanceof RawMap);
+        } finally {
+            TileGridMap.clearRequestedGrid();
+            format.destroy();
+        }
+
+        // without a request, a single map
+        WMSMapContent tileContent =
+                createMapContent(metaBounds, new Rectangle(256, 256), 32, pointLayer);
+        Assert.assertTrue(format.produceMap(tileContent) instanceof RawMap);
+    }
+
+    private String contents(WebMap map) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ((RawMap) map).writeTo(bos);
+        return bos.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Records the features added to the tile, as the tile contents */
+    private static class RecordingTileBuilder implements VectorTileBuilder {
+
+        Set<String> features = new TreeSet<>();
+
+        @Override
+        public void addFeature(
+                String layerName,
+                String featureId,
+                String geometryName,
+                Geometry geometry,
+                Map<String, Object> properties) {
+            features.add(layerName + ":" + featureId);
+        }
+
+        @Override
+        public WebMap build(WMSMapContent mapContent) throws IOException {
+            byte[] contents = String.join(",", features).getBytes(StandardCharsets.UTF_8);
+            return new RawMap(mapContent, contents, "testMime");
+        }
+    }
 }
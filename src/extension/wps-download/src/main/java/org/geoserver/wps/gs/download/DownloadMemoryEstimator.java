@@ -0,0 +1,82 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.gs.download;
+
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.config.GeoServer;
+import org.geoserver.wps.executor.ProcessMemoryEstimator;
+import org.geotools.api.feature.type.Name;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Estimates the memory used by raster downloads as the size of the raw output raster, the same
+ * figure checked against the write limits by the {@link DownloadEstimatorProcess}. It's an upper
+ * bound, as the raster is processed in tiles, but it's proportional to the actual memory usage and
+ * allows to avoid running many large downloads at the same time. Vector downloads are streamed
+ * and are not estimated.
+ */
+public class DownloadMemoryEstimator implements ProcessMemoryEstimator {
+
+    private static final Logger LOGGER = Logging.getLogger(DownloadMemoryEstimator.class);
+
+    private final DownloadServiceConfigurationGenerator downloadServiceConfigurationGenerator;
+
+    private final Catalog catalog;
+
+    public DownloadMemoryEstimator(
+            DownloadServiceConfigurationGenerator downloadServiceConfigurationGenerator,
+            GeoServer geoserver) {
+        this.downloadServiceConfigurationGenerator = downloadServiceConfigurationGenerator;
+        this.catalog = geoserver.getCatalog();
+    }
+
+    @Override
+    public long estimateMemory(Name processName, Map<String, Object> inputs) {
+        if (!"gs".equals(processName.getNamespaceURI())
+                || !"Download".equals(processName.getLocalPart())) {
+            return -1;
+        }
+        Object layerName = inputs.get("layerName");
+        LayerInfo layer = layerName != null ? catalog.getLayerByName((String) layerName) : null;
+        if (layer == null || !(layer.getResource() instanceof CoverageInfo)) {
+            return -1;
+        }
+
+        Geometry roi = (Geometry) inputs.get("ROI");
+        CoordinateReferenceSystem roiCRS = (CoordinateReferenceSystem) inputs.get("RoiCRS");
+        if (roi != null) {
+            if (roiCRS == null) {
+                // the process will fail anyways
+                return -1;
+            }
+            // do not alter the input the process is going to use
+            roi = roi.copy();
+            roi.setUserData(roiCRS);
+        }
+        try {
+            return new RasterEstimator(
+                            downloadServiceConfigurationGenerator.getConfiguration(), catalog)
+                    .getRasterSize(
+                            (CoverageInfo) layer.getResource(),
+                            roi,
+                            (CoordinateReferenceSystem) inputs.get("targetCRS"),
+                            (Filter) inputs.get("filter"),
+                            (Integer) inputs.get("targetSizeX"),
+                            (Integer) inputs.get("targetSizeY"),
+                            (int[]) inputs.get("selectedBands"));
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Failed to estimate the memory of the download", e);
+            return -1;
+        }
+    }
+}
@@ -58,6 +58,19 @@ public RasterEstimator(DownloadServiceConfiguration limits, Catalog catalog) {
         }
     }
 
+    /** The number of pixels read and written by a raster download */
+    private static class PixelAreas {
+
+        final long read;
+
+        final long target;
+
+        PixelAreas(long read, long target) {
+            this.read = read;
+            this.target = target;
+        }
+    }
+
     /**
      * Check the download limits for raster data.
      *
@@ -88,6 +101,100 @@ public boolean execute(
             LOGGER.fine("Raster size limits: " + rasterSizeLimits);
         }
 
+        PixelAreas areas =
+                getPixelAreas(coverageInfo, roi, targetCRS, filter, targetSizeX, targetSizeY);
+        if (areas == null) {
+            return true; // EMPTY Intersection
+        }
+        final long areaRead = areas.read;
+        final long targetArea = areas.target;
+
+        // Here we used to have a check to refuse processing if the read area or
+        // the target area exceeded the Integer.MAX_INT limits. However, this is
+        // often not a problem, because we are processing based on tiles.
+        // Let the download eventually fail on cases where things are not properly
+        // handled, rather than failing all requests because a subset migth.
+
+        // If the area exceeds the limits, false is returned
+        if (rasterSizeLimits > DownloadServiceConfiguration.NO_LIMIT
+                && (areaRead > rasterSizeLimits || targetArea > rasterSizeLimits)) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Area exceeds the limits");
+            }
+            return false;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Area does not exceed the limits");
+        }
+
+        /// Total size in bytes
+        long rasterSizeInBytes = targetArea * getPixelSizeInBits(coverageInfo, bandIndices) / 8;
+
+        final long writeLimits = downloadServiceConfiguration.getWriteLimits();
+
+        // If size exceeds the write limits, false is returned
+        if (writeLimits > DownloadServiceConfiguration.NO_LIMIT
+                && rasterSizeInBytes > writeLimits) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(
+                        Level.FINE,
+                        "Output raw raster size ("
+                                + rasterSizeInBytes
+                                + ") exceeds"
+                                + " the specified write limits ("
+                                + writeLimits
+                                + ")");
+            }
+            return false;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(
+                    Level.FINE,
+                    "Output raw raster size ("
+                            + rasterSizeInBytes
+                            + ") does not exceed"
+                            + " the specified write limits ("
+                            + writeLimits
+                            + ")");
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the size of the raw output raster, in bytes, using the same computation as {@link
+     * #execute}. The parameters are the same as in {@link #execute}.
+     *
+     * @return the raw raster size, or 0 if the ROI does not intersect the coverage
+     */
+    public long getRasterSize(
+            CoverageInfo coverageInfo,
+            Geometry roi,
+            CoordinateReferenceSystem targetCRS,
+            Filter filter,
+            Integer targetSizeX,
+            Integer targetSizeY,
+            int[] bandIndices)
+            throws Exception {
+        PixelAreas areas =
+                getPixelAreas(coverageInfo, roi, targetCRS, filter, targetSizeX, targetSizeY);
+        if (areas == null) {
+            return 0;
+        }
+        return areas.target * getPixelSizeInBits(coverageInfo, bandIndices) / 8;
+    }
+
+    /**
+     * Computes the number of pixels read and written, or returns null if the ROI does not intersect
+     * the coverage
+     */
+    private PixelAreas getPixelAreas(
+            CoverageInfo coverageInfo,
+            Geometry roi,
+            CoordinateReferenceSystem targetCRS,
+            Filter filter,
+            Integer targetSizeX,
+            Integer targetSizeY)
+            throws Exception {
         //
         // ---> READ FROM NATIVE RESOLUTION <--
         //
@@ -132,7 +239,7 @@ public boolean execute(
                             Level.FINE,
                             "Empty intersection, so the result does not exceed the limits");
                 }
-                return true; // EMPTY Intersection
+                return null; // EMPTY Intersection
             }
 
             // try to make an estimate of the area we need to read
@@ -176,24 +283,11 @@ public boolean execute(
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine("Area to write in pixels: " + targetArea);
         }
+        return new PixelAreas(areaRead, targetArea);
+    }
 
-        // Here we used to have a check to refuse processing if the read area or
-        // the target area exceeded the Integer.MAX_INT limits. However, this is
-        // often not a problem, because we are processing based on tiles.
-        // Let the download eventually fail on cases where things are not properly
-        // handled, rather than failing all requests because a subset migth.
-
-        // If the area exceeds the limits, false is returned
-        if (rasterSizeLimits > DownloadServiceConfiguration.NO_LIMIT
-                && (areaRead > rasterSizeLimits || targetArea > rasterSizeLimits)) {
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, "Area exceeds the limits");
-            }
-            return false;
-        }
-        if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.log(Level.FINE, "Area does not exceed the limits");
-        }
+    /** Sums the sizes of the output bands, in bits */
+    private int getPixelSizeInBits(CoverageInfo coverageInfo, int[] bandIndices) throws Exception {
         // Try to check write limits, using input's coverageinfo
         int bandsCount = coverageInfo.getDimensions().size();
 
@@ -221,38 +315,7 @@ public boolean execute(
                         TypeMap.getSize(coverageDimensionInfoList.get(i).getDimensionType());
             }
         }
-
-        /// Total size in bytes
-        long rasterSizeInBytes = targetArea * accumulatedPixelSizeInBits / 8;
-
-        final long writeLimits = downloadServiceConfiguration.getWriteLimits();
-
-        // If size exceeds the write limits, false is returned
-        if (writeLimits > DownloadServiceConfiguration.NO_LIMIT
-                && rasterSizeInBytes > writeLimits) {
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(
-                        Level.FINE,
-                        "Output raw raster size ("
-                                + rasterSizeInBytes
-                                + ") exceeds"
-                                + " the specified write limits ("
-                                + writeLimits
-                                + ")");
-            }
-            return false;
-        }
-        if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.log(
-                    Level.FINE,
-                    "Output raw raster size ("
-                            + rasterSizeInBytes
-                            + ") does not exceed"
-                            + " the specified write limits ("
-                            + writeLimits
-                            + ")");
-        }
-        return true;
+        return accumulatedPixelSizeInBits;
     }
 
     private List<CoverageDimensionInfo> getBandDimensionsFromCoverageInfo(CoverageInfo ci)
@@ -5,9 +5,11 @@
  */
 package org.geoserver.wps;
 
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.resource.Resource;
 import org.geoserver.platform.resource.Resource.Type;
 import org.geoserver.wps.executor.ExecutionStatus;
+import org.geoserver.wps.executor.ProcessManager;
 import org.geoserver.wps.executor.ProcessState;
 import org.geoserver.wps.executor.ProcessStatusTracker;
 import org.geoserver.wps.resource.WPSResourceManager;
@@ -56,7 +58,22 @@ public Object run(GetExecutionStatusType request) throws WPSException {
             // in case of dismissal we have to pretend we don't know the execution id
             throw new UnknownExecutionIdException(executionId);
         } else {
+            if (status.getPhase() == ProcessState.QUEUED) {
+                status = new ExecutionStatus(status);
+                status.setQueuePosition(getQueuePosition(executionId));
+            }
             return new StatusResponseBuilder(resources, ctx).buildStatusResponse(status);
         }
     }
+
+    /** Looks up the queue position among the process managers, returns -1 if not found */
+    private int getQueuePosition(String executionId) {
+        for (ProcessManager pm : GeoServerExtensions.extensions(ProcessManager.class, ctx)) {
+            int position = pm.getQueuePosition(executionId);
+            if (position > 0) {
+                return position;
+            }
+        }
+        return -1;
+    }
 }
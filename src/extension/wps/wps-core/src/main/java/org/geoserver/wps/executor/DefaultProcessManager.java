@@ -5,18 +5,23 @@
  */
 package org.geoserver.wps.executor;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.geoserver.platform.ExtensionPriority;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.threadlocals.ThreadLocalsTransfer;
 import org.geoserver.wps.WPSException;
+import org.geoserver.wps.executor.FairProcessScheduler.ProcessQueue;
+import org.geoserver.wps.executor.FairProcessScheduler.ProcessTask;
 import org.geoserver.wps.process.GeoServerProcessors;
 import org.geoserver.wps.resource.WPSResourceManager;
 import org.geotools.api.feature.type.Name;
@@ -24,13 +29,35 @@
 import org.geotools.process.Process;
 import org.geotools.process.ProcessException;
 import org.geotools.process.ProcessFactory;
+import org.geotools.util.logging.Logging;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
+/**
+ * Runs the processes on two thread pools, one for synchronous and one for asynchronous requests.
+ * The executions waiting for a thread are queued fairly among users and processes, and started
+ * only if their estimated memory fits in the memory budget, see {@link FairProcessScheduler}.
+ *
+ * <p>The memory budget can be set with the {@link #MAX_MEMORY_KEY} property, in megabytes, and
+ * defaults to half of the maximum heap. The process weights can be set with the {@link
+ * #PROCESS_WEIGHTS_KEY} property, as a comma separated list of process name and weight pairs, e.g.
+ * {@code gs:Download=0.5,JTS:buffer=2}. The memory needed by each execution is estimated by the
+ * {@link ProcessMemoryEstimator} found in the application context.
+ */
 public class DefaultProcessManager
         implements ProcessManager, ExtensionPriority, ApplicationListener<ApplicationEvent> {
 
+    static final Logger LOGGER = Logging.getLogger(DefaultProcessManager.class);
+
+    /** Property setting the memory budget of the running processes, in megabytes */
+    public static final String MAX_MEMORY_KEY = "GEOSERVER_WPS_MAX_MEMORY";
+
+    /** Property setting the process weights, as a comma separated list of name=weight pairs */
+    public static final String PROCESS_WEIGHTS_KEY = "GEOSERVER_WPS_PROCESS_WEIGHTS";
+
     ConcurrentHashMap<String, Future<Map<String, Object>>> executions = new ConcurrentHashMap<>();
 
     ThreadPoolExecutor synchService;
@@ -39,14 +66,75 @@
 
     WPSResourceManager resourceManager;
 
+    FairProcessScheduler scheduler;
+
     public DefaultProcessManager(WPSResourceManager resourceManager) {
         this.resourceManager = resourceManager;
+        this.scheduler = new FairProcessScheduler(getMaxMemoryProperty(), getWeightsProperty());
+    }
+
+    private static long getMaxMemoryProperty() {
+        String value = GeoServerExtensions.getProperty(MAX_MEMORY_KEY);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim()) * 1024 * 1024;
+            } catch (NumberFormatException e) {
+                LOGGER.warning(
+                        "Invalid value for "
+                                + MAX_MEMORY_KEY
+                                + ", expected a number of megabytes but got "
+                                + value);
+            }
+        }
+        return Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    private static Map<String, Double> getWeightsProperty() {
+        Map<String, Double> weights = new HashMap<>();
+        String value = GeoServerExtensions.getProperty(PROCESS_WEIGHTS_KEY);
+        if (value != null) {
+            for (String pair : value.split(",")) {
+                int idx = pair.lastIndexOf('=');
+                try {
+                    if (idx <= 0) {
+                        throw new NumberFormatException();
+                    }
+                    double weight = Double.parseDouble(pair.substring(idx + 1).trim());
+                    if (weight <= 0) {
+                        throw new NumberFormatException();
+                    }
+                    weights.put(pair.substring(0, idx).trim(), weight);
+                } catch (NumberFormatException e) {
+                    LOGGER.warning(
+                            "Invalid value for "
+                                    + PROCESS_WEIGHTS_KEY
+                                    + ", expected name=weight pairs with a positive weight but got "
+                                    + pair);
+                }
+            }
+        }
+        return weights;
+    }
+
+    /** Sets the memory budget of the running processes, in bytes */
+    public void setMaxMemory(long maxMemory) {
+        scheduler.setMaxMemory(maxMemory);
+    }
+
+    /** Returns the memory budget of the running processes, in bytes */
+    public long getMaxMemory() {
+        return scheduler.getMaxMemory();
+    }
+
+    /** Returns the estimated memory used by the running processes, in bytes */
+    public long getUsedMemory() {
+        return scheduler.getUsedMemory();
     }
 
     public void setMaxAsynchronousProcesses(int maxAsynchronousProcesses) {
         if (asynchService == null) {
             // create a fixed size pool. If we allow a delta between core and max
-            // the pool will create new threads only if the queue is full, but the linked queue
+            // the pool will create new threads only if the queue is full, but the fair queue
             // never is
             asynchService =
                     new ThreadPoolExecutor(
@@ -54,7 +142,7 @@ public void setMaxAsynchronousProcesses(int maxAsynchronousProcesses) {
                             maxAsynchronousProcesses,
                             0L,
                             TimeUnit.MILLISECONDS,
-                            new LinkedBlockingQueue<>());
+                            scheduler.newQueue());
         } else {
             // JDK 11 checks the relation between core and max pool size on each set,
             // need to lower core pool size before changing max
@@ -62,12 +150,15 @@ public void setMaxAsynchronousProcesses(int maxAsynchronousProcesses) {
             asynchService.setMaximumPoolSize(maxAsynchronousProcesses);
             asynchService.setCorePoolSize(maxAsynchronousProcesses);
         }
+        // all threads must wait on the queue, or new tasks would be handed to new threads
+        // without going through the fair ordering
+        asynchService.prestartAllCoreThreads();
     }
 
     public void setMaxSynchronousProcesses(int maxSynchronousProcesses) {
         if (synchService == null) {
             // create a fixed size pool. If we allow a delta between core and max
-            // the pool will create new threads only if the queue is full, but the linked queue
+            // the pool will create new threads only if the queue is full, but the fair queue
             // never is
             synchService =
                     new ThreadPoolExecutor(
@@ -75,7 +166,7 @@ public void setMaxSynchronousProcesses(int maxSynchronousProcesses) {
                             maxSynchronousProcesses,
                             0L,
                             TimeUnit.MILLISECONDS,
-                            new LinkedBlockingQueue<>());
+                            scheduler.newQueue());
         } else {
             // JDK 11 checks the relation between core and max pool size on each set,
             // need to lower core pool size before changing max
@@ -83,6 +174,9 @@ public void setMaxSynchronousProcesses(int maxSynchronousProcesses) {
             synchService.setMaximumPoolSize(maxSynchronousProcesses);
             synchService.setCorePoolSize(maxSynchronousProcesses);
         }
+        // all threads must wait on the queue, or new tasks would be handed to new threads
+        // without going through the fair ordering
+        synchService.prestartAllCoreThreads();
     }
 
     @Override
@@ -129,13 +223,44 @@ public void submit(
             boolean background)
             throws ProcessException {
         ProcessCallable callable = new ProcessCallable(processName, inputs, listener);
-        Future<Map<String, Object>> future;
+        ProcessTask task =
+                scheduler.newTask(
+                        callable,
+                        executionId,
+                        getUser(),
+                        processName.getURI(),
+                        estimateMemory(processName, inputs));
+        executions.put(executionId, task);
         if (background) {
-            future = asynchService.submit(callable);
+            asynchService.execute(task);
         } else {
-            future = synchService.submit(callable);
+            synchService.execute(task);
+        }
+    }
+
+    private String getUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+
+    /** Returns the first estimate provided by the memory estimators, or -1 if none is known */
+    long estimateMemory(Name processName, Map<String, Object> inputs) {
+        Map<String, Object> quickInputs = inputs;
+        for (ProcessMemoryEstimator estimator :
+                GeoServerExtensions.extensions(ProcessMemoryEstimator.class)) {
+            try {
+                if (quickInputs instanceof LazyInputMap) {
+                    quickInputs = ((LazyInputMap) quickInputs).getQuickInputs();
+                }
+                long memory = estimator.estimateMemory(processName, quickInputs);
+                if (memory >= 0) {
+                    return memory;
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Failed to estimate the memory of " + processName, e);
+            }
         }
-        executions.put(executionId, future);
+        return -1;
     }
 
     @Override
@@ -180,7 +305,26 @@ public void cancel(String executionId) {
         Future future = executions.get(executionId);
         if (future != null) {
             future.cancel(true);
+            // free the queue from the cancelled task, if it's still there
+            if (future instanceof Runnable) {
+                synchService.remove((Runnable) future);
+                asynchService.remove((Runnable) future);
+            }
+        }
+    }
+
+    @Override
+    public int getQueuePosition(String executionId) {
+        Future<Map<String, Object>> future = executions.get(executionId);
+        if (future instanceof ProcessTask) {
+            ProcessTask task = (ProcessTask) future;
+            int position = ((ProcessQueue) synchService.getQueue()).getPosition(task);
+            if (position < 0) {
+                position = ((ProcessQueue) asynchService.getQueue()).getPosition(task);
+            }
+            return position;
         }
+        return -1;
     }
 
     @Override
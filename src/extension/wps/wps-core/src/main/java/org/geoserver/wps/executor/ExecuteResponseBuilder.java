@@ -141,7 +141,15 @@ public ExecuteResponseType build(ProgressListener listener) {
                     Converters.convert(status.getCreationTime(), XMLGregorianCalendar.class);
             response.getStatus().setCreationTime(gc);
             if (status.getPhase() == ProcessState.QUEUED) {
-                response.getStatus().setProcessAccepted("Process accepted.");
+                if (status.getQueuePosition() > 0) {
+                    response.getStatus()
+                            .setProcessAccepted(
+                                    "Process accepted, queue position "
+                                            + status.getQueuePosition()
+                                            + ".");
+                } else {
+                    response.getStatus().setProcessAccepted("Process accepted.");
+                }
             } else if (status.getPhase() == ProcessState.RUNNING) {
                 ProcessStartedType startedType = f.createProcessStartedType();
                 int progressPercent = Math.round(status.getProgress());
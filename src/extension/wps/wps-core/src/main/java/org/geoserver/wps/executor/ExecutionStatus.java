@@ -134,6 +134,12 @@ private static InetAddress getLocalAddress() throws UnknownHostException {
      */
     transient ExecuteType request;
 
+    /**
+     * The position of the execution in the queue of the node running it, or -1 if unknown. This is
+     * a transient field, computed when the status is requested while the execution is queued
+     */
+    transient int queuePosition = -1;
+
     /** Node identifier */
     String nodeId;
 
@@ -172,6 +178,7 @@ public ExecutionStatus(ExecutionStatus other) {
         this.expirationDate = other.expirationDate;
         this.estimatedCompletion = other.estimatedCompletion;
         this.nextPoll = other.nextPoll;
+        this.queuePosition = other.queuePosition;
     }
 
     public void setException(Throwable exception) {
@@ -318,6 +325,16 @@ public void setNextPoll(Date nextPoll) {
         this.nextPoll = nextPoll;
     }
 
+    /** @return the queue position, starting from 1, or -1 if not known */
+    public int getQueuePosition() {
+        return queuePosition;
+    }
+
+    /** @param queuePosition the queue position to set */
+    public void setQueuePosition(int queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
     @Override
     public String toString() {
         return "ExecutionStatus [processName="
@@ -344,6 +361,8 @@ public String toString() {
                 + estimatedCompletion
                 + ", nextPoll="
                 + nextPoll
+                + ", queuePosition="
+                + queuePosition
                 + ", task="
                 + task
                 + ", exception="
@@ -0,0 +1,543 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.executor;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules the process executions waiting for a thread, sharing a memory budget among all the
+ * queues it creates.
+ *
+ * <p>Each queue is fair among the users and processes: tasks are grouped in lanes by user and
+ * process name, and the lanes are served using start-time fair queuing, where each dispatch moves
+ * the virtual time of a lane forward by the inverse of the process weight. A user submitting many
+ * executions thus does not delay the single execution submitted by another user, and processes
+ * with a higher weight get a larger share of the threads.
+ *
+ * <p>Tasks are dispatched only if their estimated memory fits in the budget left by the running
+ * ones, the first task in fair order waits for memory to be released and holds back the other
+ * estimated tasks behind it, so that large executions are not starved by small ones. Tasks without
+ * an estimate are not held back, as there is nothing to check for them. Estimates are upper bounds
+ * (e.g., the raw size of a raster that is then processed in tiles), so the reservation of a task is
+ * capped to the budget: a task larger than the budget runs alone among the estimated ones, but
+ * does not stop the unestimated ones.
+ */
+class FairProcessScheduler {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when a task is queued or memory is released */
+    private final Condition changed = lock.newCondition();
+
+    private final Map<String, Double> weights;
+
+    private long maxMemory;
+
+    private long usedMemory;
+
+    private long sequence;
+
+    /**
+     * @param maxMemory The memory budget, in bytes
+     * @param weights The process weights, by process name, the processes not found have weight 1
+     */
+    FairProcessScheduler(long maxMemory, Map<String, Double> weights) {
+        this.maxMemory = maxMemory;
+        this.weights = weights;
+    }
+
+    /** Creates a new queue, sharing the memory budget with the other queues of this scheduler */
+    ProcessQueue newQueue() {
+        return new ProcessQueue();
+    }
+
+    /** Creates a task that can be queued, using the process weight configured in this scheduler */
+    ProcessTask newTask(
+            Callable<Map<String, Object>> callable,
+            String executionId,
+            String user,
+            String processName,
+            long memory) {
+        double weight = weights.getOrDefault(processName, 1d);
+        return new ProcessTask(callable, executionId, user + "/" + processName, weight, memory);
+    }
+
+    long getMaxMemory() {
+        lock.lock();
+        try {
+            return maxMemory;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setMaxMemory(long maxMemory) {
+        lock.lock();
+        try {
+            this.maxMemory = maxMemory;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The estimated memory used by the running tasks, in bytes */
+    long getUsedMemory() {
+        lock.lock();
+        try {
+            return usedMemory;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The memory reserved for a task, capped to the budget */
+    private long getReservation(long memory) {
+        return Math.max(0, Math.min(memory, maxMemory));
+    }
+
+    /** Returns true if the task memory fits in the budget left by the running tasks */
+    private boolean fits(long memory) {
+        long reservation = getReservation(memory);
+        return reservation == 0 || usedMemory + reservation <= maxMemory;
+    }
+
+    private void release(long memory) {
+        lock.lock();
+        try {
+            usedMemory -= memory;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** A process execution, releasing its memory reservation once done */
+    class ProcessTask extends FutureTask<Map<String, Object>> {
+
+        final String executionId;
+
+        final String key;
+
+        final double weight;
+
+        final long memory;
+
+        final AtomicBoolean reserved = new AtomicBoolean();
+
+        /** The reserved memory, might be less than the estimate if the budget is lower */
+        long reservation;
+
+        ProcessTask(
+                Callable<Map<String, Object>> callable,
+                String executionId,
+                String key,
+                double weight,
+                long memory) {
+            super(callable);
+            this.executionId = executionId;
+            this.key = key;
+            this.weight = weight > 0 ? weight : 1;
+            this.memory = Math.max(0, memory);
+        }
+
+        /** Reserves the memory, returns false if the task got cancelled in the meantime */
+        private boolean reserve() {
+            reservation = getReservation(memory);
+            usedMemory += reservation;
+            reserved.set(true);
+            if (isDone() && reserved.compareAndSet(true, false)) {
+                usedMemory -= reservation;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        protected void done() {
+            if (reserved.compareAndSet(true, false)) {
+                release(reservation);
+            }
+        }
+    }
+
+    /** A queued runnable, with its arrival order */
+    private static class Entry {
+
+        final Runnable runnable;
+
+        final long sequence;
+
+        Entry(Runnable runnable, long sequence) {
+            this.runnable = runnable;
+            this.sequence = sequence;
+        }
+
+        long getMemory() {
+            return runnable instanceof ProcessTask ? ((ProcessTask) runnable).memory : 0;
+        }
+
+        boolean isCancelled() {
+            return runnable instanceof ProcessTask && ((ProcessTask) runnable).isDone();
+        }
+    }
+
+    /** The tasks of a user and process, in arrival order */
+    private static class Lane {
+
+        final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+        final double weight;
+
+        /** Virtual start time of the first entry */
+        double time;
+
+        Lane(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    /** The position of a queued entry in the projected dispatch order */
+    private static class Slot {
+
+        final Entry entry;
+
+        final double time;
+
+        Slot(Entry entry, double time) {
+            this.entry = entry;
+            this.time = time;
+        }
+    }
+
+    /**
+     * A blocking queue dispatching the tasks in fair order, to be used as the work queue of a
+     * {@link java.util.concurrent.ThreadPoolExecutor}. The threads of the pool must be pre-started,
+     * otherwise the executor would hand new tasks to new threads, bypassing the queue.
+     */
+    class ProcessQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+        private final Map<String, Lane> lanes = new LinkedHashMap<>();
+
+        /** Virtual start time of the last dispatched task */
+        private double time;
+
+        private int size;
+
+        private ProcessQueue() {}
+
+        @Override
+        public boolean offer(Runnable runnable) {
+            if (runnable == null) {
+                throw new NullPointerException();
+            }
+            String key;
+            double weight;
+            if (runnable instanceof ProcessTask) {
+                ProcessTask task = (ProcessTask) runnable;
+                key = task.key;
+                weight = task.weight;
+            } else {
+                key = "";
+                weight = 1;
+            }
+            lock.lock();
+            try {
+                Lane lane = lanes.computeIfAbsent(key, k -> new Lane(weight));
+                if (lane.entries.isEmpty()) {
+                    // a lane becoming active cannot claim the time it was idle
+                    lane.time = Math.max(lane.time, time);
+                }
+                lane.entries.add(new Entry(runnable, sequence++));
+                size++;
+                changed.signalAll();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void put(Runnable runnable) {
+            offer(runnable);
+        }
+
+        @Override
+        public boolean offer(Runnable runnable, long timeout, TimeUnit unit) {
+            return offer(runnable);
+        }
+
+        /** Returns the lane to dispatch from, in fair order, dropping the cancelled entries */
+        private Lane first() {
+            Lane first = null;
+            for (Iterator<Lane> it = lanes.values().iterator(); it.hasNext(); ) {
+                Lane lane = it.next();
+                while (!lane.entries.isEmpty() && lane.entries.peek().isCancelled()) {
+                    lane.entries.poll();
+                    size--;
+                }
+                if (lane.entries.isEmpty()) {
+                    // an idle lane behind the current time has no state worth keeping
+                    if (lane.time <= time) {
+                        it.remove();
+                    }
+                } else if (first == null || precedes(lane, first)) {
+                    first = lane;
+                }
+            }
+            return first;
+        }
+
+        /** Returns the first lane, in fair order, whose first entry has no memory estimate */
+        private Lane firstUnestimated() {
+            Lane first = null;
+            for (Lane lane : lanes.values()) {
+                if (!lane.entries.isEmpty()
+                        && lane.entries.peek().getMemory() == 0
+                        && (first == null || precedes(lane, first))) {
+                    first = lane;
+                }
+            }
+            return first;
+        }
+
+        private boolean precedes(Lane lane, Lane other) {
+            return lane.time < other.time
+                    || (lane.time == other.time
+                            && lane.entries.peek().sequence < other.entries.peek().sequence);
+        }
+
+        /**
+         * Removes the first entry in fair order, if its memory fits, and reserves the memory. When
+         * it does not fit, the first entry without an estimate is dispatched in its place.
+         */
+        private Runnable dispatch() {
+            Lane lane;
+            while ((lane = first()) != null) {
+                if (!fits(lane.entries.peek().getMemory())) {
+                    // unestimated tasks have nothing to wait for
+                    lane = firstUnestimated();
+                    if (lane == null) {
+                        return null;
+                    }
+                }
+                Entry entry = lane.entries.poll();
+                size--;
+                time = Math.max(time, lane.time);
+                lane.time += 1 / lane.weight;
+                if (!(entry.runnable instanceof ProcessTask)
+                        || ((ProcessTask) entry.runnable).reserve()) {
+                    return entry.runnable;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Runnable poll() {
+            lock.lock();
+            try {
+                return dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable take() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                Runnable result;
+                while ((result = dispatch()) == null) {
+                    changed.await();
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                Runnable result;
+                while ((result = dispatch()) == null) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = changed.awaitNanos(nanos);
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable peek() {
+            lock.lock();
+            try {
+                Lane lane = first();
+                return lane != null ? lane.entries.peek().runnable : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** The queued entries, in projected dispatch order */
+        private List<Slot> getSlots() {
+            List<Slot> slots = new ArrayList<>(size);
+            for (Lane lane : lanes.values()) {
+                int i = 0;
+                for (Entry entry : lane.entries) {
+                    slots.add(new Slot(entry, lane.time + i++ / lane.weight));
+                }
+            }
+            slots.sort(
+                    Comparator.comparingDouble((Slot s) -> s.time)
+                            .thenComparingLong(s -> s.entry.sequence));
+            return slots;
+        }
+
+        /**
+         * Returns the position of the task in the projected dispatch order, starting from 1, or -1
+         * if the task is not queued. The order can still change as new tasks get queued.
+         */
+        int getPosition(Runnable runnable) {
+            lock.lock();
+            try {
+                int position = 1;
+                for (Slot slot : getSlots()) {
+                    if (slot.entry.runnable == runnable) {
+                        return position;
+                    } else if (!slot.entry.isCancelled()) {
+                        position++;
+                    }
+                }
+                return -1;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            lock.lock();
+            try {
+                for (Lane lane : lanes.values()) {
+                    for (Iterator<Entry> it = lane.entries.iterator(); it.hasNext(); ) {
+                        if (it.next().runnable == o) {
+                            it.remove();
+                            size--;
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Integer.MAX_VALUE;
+        }
+
+        /** Iterates over a snapshot of the queued tasks, in projected dispatch order */
+        @Override
+        public Iterator<Runnable> iterator() {
+            List<Runnable> snapshot = new ArrayList<>();
+            lock.lock();
+            try {
+                for (Slot slot : getSlots()) {
+                    snapshot.add(slot.entry.runnable);
+                }
+            } finally {
+                lock.unlock();
+            }
+            Iterator<Runnable> delegate = snapshot.iterator();
+            return new Iterator<>() {
+
+                Runnable current;
+
+                @Override
+                public boolean hasNext() {
+                    return delegate.hasNext();
+                }
+
+                @Override
+                public Runnable next() {
+                    current = delegate.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    ProcessQueue.this.remove(current);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        /** Drains the queued tasks in projected dispatch order, without reserving memory */
+        @Override
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            if (c == this) {
+                throw new IllegalArgumentException();
+            }
+            lock.lock();
+            try {
+                int count = 0;
+                for (Slot slot : getSlots()) {
+                    if (count >= maxElements) {
+                        break;
+                    }
+                    remove(slot.entry.runnable);
+                    c.add(slot.entry.runnable);
+                    count++;
+                }
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
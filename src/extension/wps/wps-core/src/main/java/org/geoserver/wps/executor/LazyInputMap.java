@@ -142,6 +142,26 @@ public Object setValue(Object value) {
         }
     }
 
+    /**
+     * Returns the inputs that can be parsed without long steps (that is, not requiring remote or
+     * internal requests), the others are omitted. Allows to peek into the inputs before the
+     * execution, the parsed values are retained by the providers and reused by the full parse.
+     */
+    Map<String, Object> getQuickInputs() {
+        Map<String, Object> result = new HashMap<>();
+        for (InputProvider provider : providers.values()) {
+            if (provider.longStepCount() > 0) {
+                continue;
+            }
+            try {
+                result.put(provider.getInputId(), provider.getValue(new NullProgressListener()));
+            } catch (Exception e) {
+                // skip it, the failure will be reported when parsing for the execution
+            }
+        }
+        return result;
+    }
+
     /** The listener will be informed of the parse progress, when it happens */
     public void setListener(ProgressListener listener) {
         this.listener = listener;
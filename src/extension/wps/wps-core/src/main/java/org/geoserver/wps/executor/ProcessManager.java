@@ -89,4 +89,12 @@ void submit(
      * be made.
      */
     void cancel(String executionId);
+
+    /**
+     * Returns the position of the execution in the queue of processes waiting to run, starting
+     * from 1, or -1 if the execution is not queued, or this process manager does not track it
+     */
+    default int getQueuePosition(String executionId) {
+        return -1;
+    }
 }
@@ -0,0 +1,28 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.executor;
+
+import java.util.Map;
+import org.geotools.api.feature.type.Name;
+
+/**
+ * Estimates the memory a process execution is going to need, used by the {@link
+ * DefaultProcessManager} to avoid starting more processes than the memory can accommodate.
+ * Implementations are looked up in the application context.
+ */
+public interface ProcessMemoryEstimator {
+
+    /**
+     * Estimates the memory needed to run the process.
+     *
+     * <p>The inputs map only provides the inputs that can be parsed quickly, the ones requiring
+     * remote calls or internal requests are not included.
+     *
+     * @param processName The name of the process
+     * @param inputs The process inputs
+     * @return The estimated memory in bytes, or a negative number if this estimator cannot tell
+     */
+    long estimateMemory(Name processName, Map<String, Object> inputs);
+}
@@ -0,0 +1,209 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wps.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.wps.executor.FairProcessScheduler.ProcessQueue;
+import org.geoserver.wps.executor.FairProcessScheduler.ProcessTask;
+import org.junit.Test;
+
+public class FairProcessSchedulerTest {
+
+    private ProcessTask task(FairProcessScheduler scheduler, String user, String process) {
+        return task(scheduler, user, process, -1);
+    }
+
+    private ProcessTask task(
+            FairProcessScheduler scheduler, String user, String process, long memory) {
+        return scheduler.newTask(
+                () -> Collections.emptyMap(), user + "-" + process, user, process, memory);
+    }
+
+    @Test
+    public void testFairAmongUsers() {
+        FairProcessScheduler scheduler = new FairProcessScheduler(100, Collections.emptyMap());
+        ProcessQueue queue = scheduler.newQueue();
+        ProcessTask a1 = task(scheduler, "a", "gs:Download");
+        ProcessTask a2 = task(scheduler, "a", "gs:Download");
+        ProcessTask a3 = task(scheduler, "a", "gs:Download");
+        ProcessTask b1 = task(scheduler, "b", "gs:Download");
+        queue.offer(a1);
+        queue.offer(a2);
+        queue.offer(a3);
+        queue.offer(b1);
+
+        // the single task of user b goes right after the first one of user a
+        assertEquals(4, queue.size());
+        assertEquals(1, queue.getPosition(a1));
+        assertEquals(2, queue.getPosition(b1));
+        assertEquals(3, queue.getPosition(a2));
+        assertEquals(4, queue.getPosition(a3));
+
+        assertSame(a1, queue.poll());
+        assertSame(b1, queue.poll());
+        assertSame(a2, queue.poll());
+        assertSame(a3, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(-1, queue.getPosition(a1));
+    }
+
+    @Test
+    public void testWeights() {
+        FairProcessScheduler scheduler =
+                new FairProcessScheduler(100, Collections.singletonMap("gs:Fast", 2d));
+        ProcessQueue queue = scheduler.newQueue();
+        List<ProcessTask> fast = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            fast.add(task(scheduler, "a", "gs:Fast"));
+            queue.offer(fast.get(i));
+        }
+        ProcessTask slow1 = task(scheduler, "a", "gs:Slow");
+        ProcessTask slow2 = task(scheduler, "a", "gs:Slow");
+        queue.offer(slow1);
+        queue.offer(slow2);
+
+        // the process with double weight gets two dispatches for each one of the other
+        List<Runnable> order = new ArrayList<>(queue);
+        assertEquals(
+                List.of(fast.get(0), slow1, fast.get(1), fast.get(2), slow2, fast.get(3)), order);
+        for (Runnable expected : order) {
+            assertSame(expected, queue.poll());
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() throws Exception {
+        FairProcessScheduler scheduler = new FairProcessScheduler(100, Collections.emptyMap());
+        ProcessQueue synch = scheduler.newQueue();
+        ProcessQueue asynch = scheduler.newQueue();
+        ProcessTask a = task(scheduler, "a", "gs:Download", 60);
+        ProcessTask b = task(scheduler, "b", "gs:Download", 60);
+        ProcessTask c = task(scheduler, "c", "gs:Download", 10);
+        synch.offer(a);
+        asynch.offer(b);
+        asynch.offer(c);
+
+        assertSame(a, synch.poll());
+        assertEquals(60, scheduler.getUsedMemory());
+        // b does not fit, and c is not allowed to bypass it
+        assertNull(asynch.poll(10, TimeUnit.MILLISECONDS));
+
+        // running a releases its memory
+        a.run();
+        assertEquals(0, scheduler.getUsedMemory());
+        assertSame(b, asynch.poll());
+        assertSame(c, asynch.poll());
+        assertEquals(70, scheduler.getUsedMemory());
+
+        b.run();
+        c.run();
+        assertEquals(0, scheduler.getUsedMemory());
+    }
+
+    @Test
+    public void testLargerThanBudget() {
+        FairProcessScheduler scheduler = new FairProcessScheduler(100, Collections.emptyMap());
+        ProcessQueue queue = scheduler.newQueue();
+        ProcessTask large = task(scheduler, "a", "gs:Download", 1000);
+        queue.offer(large);
+
+        // runs anyways, reserving the whole budget
+        assertSame(large, queue.poll());
+        assertEquals(100, scheduler.getUsedMemory());
+
+        large.run();
+        assertEquals(0, scheduler.getUsedMemory());
+    }
+
+    @Test
+    public void testUnestimatedBypass() throws Exception {
+        FairProcessScheduler scheduler = new FairProcessScheduler(100, Collections.emptyMap());
+        ProcessQueue synch = scheduler.newQueue();
+        ProcessQueue asynch = scheduler.newQueue();
+        ProcessTask large = task(scheduler, "a", "gs:Download", 1000);
+        ProcessTask small = task(scheduler, "b", "gs:Download", 10);
+        ProcessTask unestimated = task(scheduler, "c", "gs:Buffer");
+        asynch.offer(large);
+        assertSame(large, asynch.poll());
+
+        // the estimated task waits, the unestimated one behind it does not
+        synch.offer(small);
+        synch.offer(unestimated);
+        assertSame(unestimated, synch.poll(10, TimeUnit.MILLISECONDS));
+        assertNull(synch.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals(100, scheduler.getUsedMemory());
+
+        unestimated.run();
+        assertEquals(100, scheduler.getUsedMemory());
+        large.run();
+        assertSame(small, synch.poll());
+        assertEquals(10, scheduler.getUsedMemory());
+    }
+
+    @Test
+    public void testLowerBudget() {
+        FairProcessScheduler scheduler = new FairProcessScheduler(100, Collections.emptyMap());
+        ProcessQueue queue = scheduler.newQueue();
+        ProcessTask a = task(scheduler, "a", "gs:Download", 80);
+        queue.offer(a);
+        assertSame(a, queue.poll());
+
+        // the reservation taken is released, regardless of the budget changes
+        scheduler.setMaxMemory(50);
+        a.run();
+        assertEquals(0, scheduler.getUsedMemory());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        FairProcessScheduler scheduler = new FairProcessScheduler(100, Collections.emptyMap());
+        ProcessQueue queue = scheduler.newQueue();
+        ProcessTask a = task(scheduler, "a", "gs:Download", 50);
+        ProcessTask b = task(scheduler, "b", "gs:Download", 50);
+        ProcessTask c = task(scheduler, "c", "gs:Download", 50);
+        queue.offer(a);
+        queue.offer(b);
+        queue.offer(c);
+
+        // a queued cancelled task is skipped
+        b.cancel(false);
+        assertEquals(2, queue.getPosition(c));
+        assertSame(a, queue.poll());
+        assertSame(c, queue.poll());
+        assertEquals(0, queue.size());
+
+        // cancelling a dispatched task releases its memory
+        a.cancel(true);
+        assertEquals(50, scheduler.getUsedMemory());
+        c.run();
+        assertEquals(Collections.emptyMap(), c.get());
+        assertEquals(0, scheduler.getUsedMemory());
+    }
+
+    @Test
+    public void testRemove() {
+        FairProcessScheduler scheduler = new FairProcessScheduler(100, Collections.emptyMap());
+        ProcessQueue queue = scheduler.newQueue();
+        ProcessTask a = task(scheduler, "a", "gs:Download");
+        ProcessTask b = task(scheduler, "b", "gs:Download");
+        queue.offer(a);
+        queue.offer(b);
+
+        assertTrue(queue.remove(a));
+        assertEquals(1, queue.size());
+        List<Runnable> drained = new ArrayList<>();
+        assertEquals(1, queue.drainTo(drained));
+        assertEquals(List.of(b), drained);
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.rest;
+
+import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.gwc.TruncateQueue;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.converters.XStreamMessageConverter;
+import org.geoserver.rest.wrapper.RestWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reports the status of the {@link TruncateQueue}, and allows to flush it on demand:
+ *
+ * <ul>
+ *   <li>{@code GET /gwc/rest/truncatequeue}: the queue depth and truncation statistics
+ *   <li>{@code POST /gwc/rest/truncatequeue/flush}: truncates all pending regions right away, and
+ *       reports the status along with the number of tile layers truncated
+ * </ul>
+ *
+ * <p>Both JSON and XML are supported.
+ */
+@Component
+@RestController
+@RequestMapping(path = "${gwc.context.suffix:}/rest")
+public class TruncateQueueController extends RestBaseController {
+
+    private final TruncateQueue queue;
+
+    @Autowired
+    public TruncateQueueController(TruncateQueue queue) {
+        this.queue = queue;
+    }
+
+    @GetMapping(
+            value = "/truncatequeue",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public RestWrapper<TruncateQueueStatus> getStatus() {
+        return wrapObject(new TruncateQueueStatus(queue), TruncateQueueStatus.class);
+    }
+
+    @PostMapping(
+            value = "/truncatequeue/flush",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public RestWrapper<TruncateQueueStatus> flush() throws InterruptedException {
+        int layers = queue.flush();
+        TruncateQueueStatus status = new TruncateQueueStatus(queue);
+        status.setFlushedLayers(layers);
+        return wrapObject(status, TruncateQueueStatus.class);
+    }
+
+    @Override
+    public void configurePersister(XStreamPersister persister, XStreamMessageConverter converter) {
+        persister.getXStream().alias("truncateQueue", TruncateQueueStatus.class);
+    }
+}
@@ -0,0 +1,67 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.rest;
+
+import org.geoserver.gwc.TruncateQueue;
+
+/** The status of the {@link TruncateQueue}, as reported by the {@link TruncateQueueController} */
+public class TruncateQueueStatus {
+
+    private long delay;
+
+    private int pendingLayers;
+
+    private int pendingRegions;
+
+    private long truncations;
+
+    private long truncatedTiles;
+
+    private long failures;
+
+    /** The number of tile layers truncated by a flush, null if the status is not a flush result */
+    private Integer flushedLayers;
+
+    public TruncateQueueStatus(TruncateQueue queue) {
+        this.delay = queue.getDelay();
+        this.pendingLayers = queue.getPendingLayers();
+        this.pendingRegions = queue.getPendingRegions();
+        this.truncations = queue.getTruncations();
+        this.truncatedTiles = queue.getTruncatedTiles();
+        this.failures = queue.getFailures();
+    }
+
+    public long getDelay() {
+        return delay;
+    }
+
+    public int getPendingLayers() {
+        return pendingLayers;
+    }
+
+    public int getPendingRegions() {
+        return pendingRegions;
+    }
+
+    public long getTruncations() {
+        return truncations;
+    }
+
+    public long getTruncatedTiles() {
+        return truncatedTiles;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public Integer getFlushedLayers() {
+        return flushedLayers;
+    }
+
+    public void setFlushedLayers(Integer flushedLayers) {
+        this.flushedLayers = flushedLayers;
+    }
+}
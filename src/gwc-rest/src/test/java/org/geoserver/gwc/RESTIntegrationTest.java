@@ -784,4 +784,32 @@ public void testPutWarningSkips() throws Exception {
         assertEquals("Default", xpath.evaluate("//cacheWarningSkips/warning[1]", dom));
         assertEquals("FailedNearest", xpath.evaluate("//cacheWarningSkips/warning[2]", dom));
     }
+
+    @Test
+    public void testTruncateQueue() throws Exception {
+        TruncateQueue queue = applicationContext.getBean(TruncateQueue.class);
+        queue.flush();
+
+        JSONObject json = (JSONObject) getAsJSON("gwc/rest/truncatequeue.json");
+        JSONObject status = json.getJSONObject("truncateQueue");
+        assertEquals(queue.getDelay(), status.getLong("delay"));
+        assertEquals(0, status.getInt("pendingLayers"));
+        assertEquals(0, status.getInt("pendingRegions"));
+        assertFalse(status.has("flushedLayers"));
+
+        // same contents in XML
+        Document dom = getAsDOM("gwc/rest/truncatequeue.xml");
+        assertXpathEvaluatesTo(String.valueOf(queue.getDelay()), "/truncateQueue/delay", dom);
+        assertXpathEvaluatesTo("0", "/truncateQueue/pendingLayers", dom);
+        assertXpathEvaluatesTo("0", "/truncateQueue/pendingRegions", dom);
+
+        MockHttpServletResponse response =
+                postAsServletResponse("gwc/rest/truncatequeue/flush.json", "", "text/plain");
+        assertEquals(200, response.getStatus());
+        assertThat(response.getContentType(), containsString("application/json"));
+        json = JSONObject.fromObject(response.getContentAsString());
+        status = json.getJSONObject("truncateQueue");
+        assertEquals(0, status.getInt("flushedLayers"));
+        assertEquals(0, status.getInt("pendingRegions"));
+    }
 }
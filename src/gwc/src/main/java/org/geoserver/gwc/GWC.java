@@ -436,6 +436,19 @@ public void truncateByLayerDefaultStyle(final String layerName) {
 
     public void truncate(final String layerName, final ReferencedEnvelope bounds)
             throws GeoWebCacheException {
+        truncateRegions(layerName, Collections.singletonList(bounds));
+    }
+
+    /**
+     * Truncates the tiles of a layer in the given regions. The regions are transformed to each
+     * grid set, where overlapping ones get merged so that each tile range is truncated only once.
+     *
+     * @return the number of tiles positions in the truncated ranges, across grid sets and zoom
+     *     levels (each position can hold a tile per format and parameters combination)
+     */
+    public long truncateRegions(
+            final String layerName, final Collection<ReferencedEnvelope> regions)
+            throws GeoWebCacheException {
 
         final TileLayer tileLayer = tld.getTileLayer(layerName);
         final Collection<String> gridSubSets = tileLayer.getGridSubsets();
@@ -443,26 +456,73 @@ public void truncate(final String layerName, final ReferencedEnvelope bounds)
         /*
          * Create a truncate task for each gridSubset (CRS), format and style
          */
+        long tiles = 0;
         for (String gridSetId : gridSubSets) {
             GridSubset layerGrid = tileLayer.getGridSubset(gridSetId);
-            BoundingBox intersectingBounds = getIntersectingBounds(layerName, layerGrid, bounds);
-            if (intersectingBounds == null) {
-                continue;
+            List<BoundingBox> truncateBounds = new ArrayList<>();
+            for (ReferencedEnvelope bounds : regions) {
+                BoundingBox intersectingBounds =
+                        getIntersectingBounds(layerName, layerGrid, bounds);
+                if (intersectingBounds != null) {
+                    addMerging(truncateBounds, intersectingBounds);
+                }
             }
-            try {
-                // This iterates over all cached parameters and all formats
-                new TruncateBboxRequest(layerName, intersectingBounds, gridSetId)
-                        .doTruncate(storageBroker, tileBreeder);
-            } catch (StorageException | GeoWebCacheException e) {
-                log.log(
-                        Level.WARNING,
-                        e,
-                        () ->
-                                String.format(
-                                        "Error while truncating modified bounds for layer %s gridset %s",
-                                        layerName, gridSetId));
+            for (BoundingBox intersectingBounds : truncateBounds) {
+                try {
+                    // This iterates over all cached parameters and all formats
+                    new TruncateBboxRequest(layerName, intersectingBounds, gridSetId)
+                            .doTruncate(storageBroker, tileBreeder);
+                    tiles += countTiles(layerGrid, intersectingBounds);
+                } catch (StorageException | GeoWebCacheException e) {
+                    log.log(
+                            Level.WARNING,
+                            e,
+                            () ->
+                                    String.format(
+                                            "Error while truncating modified bounds for layer %s gridset %s",
+                                            layerName, gridSetId));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    /** Adds the bounds to the list, merging them with the ones they intersect */
+    private static void addMerging(List<BoundingBox> list, BoundingBox bounds) {
+        BoundingBox merged = bounds;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Iterator<BoundingBox> it = list.iterator(); it.hasNext(); ) {
+                BoundingBox other = it.next();
+                if (other.intersects(merged)) {
+                    merged =
+                            new BoundingBox(
+                                    Math.min(merged.getMinX(), other.getMinX()),
+                                    Math.min(merged.getMinY(), other.getMinY()),
+                                    Math.max(merged.getMaxX(), other.getMaxX()),
+                                    Math.max(merged.getMaxY(), other.getMaxY()));
+                    it.remove();
+                    changed = true;
+                }
+            }
+        }
+        list.add(merged);
+    }
+
+    /** Counts the tile positions covered by the bounds, across zoom levels */
+    private static long countTiles(GridSubset gridSubset, BoundingBox bounds) {
+        long[][] coverages = gridSubset.getCoverageIntersections(bounds);
+        if (coverages == null) {
+            return 0;
+        }
+        long tiles = 0;
+        for (long[] coverage : coverages) {
+            if (coverage != null && coverage[2] >= coverage[0] && coverage[3] >= coverage[1]) {
+                tiles += (coverage[2] - coverage[0] + 1) * (coverage[3] - coverage[1] + 1);
             }
         }
+        return tiles;
     }
 
     public TruncateAllRequest truncateAll() throws GeoWebCacheException, StorageException {
@@ -38,7 +38,8 @@
 
 /**
  * Listens to transactions (so far only issued by WFS) and truncates the cache for the affected area
- * of the layers involved in the transaction.
+ * of the layers involved in the transaction. When a {@link TruncateQueue} is provided, the
+ * truncation happens in background, coalesced with the ones of other transactions.
  *
  * <p>A Spring bean singleton of this class needs to be declared in order for GeoServer transactions
  * to pick it up automatically and forward transaction events to it.
@@ -55,11 +56,29 @@ public class GWCTransactionListener implements TransactionCallback {
 
     private final GWC gwc;
 
+    private final TruncateQueue truncateQueue;
+
     static final String GWC_TRANSACTION_INFO_PLACEHOLDER = "GWC_TRANSACTION_INFO_PLACEHOLDER";
 
-    /** @param gwc */
+    /**
+     * Builds a listener truncating the affected layers synchronously, at the end of the transaction
+     *
+     * @param gwc
+     */
     public GWCTransactionListener(final GWC gwc) {
+        this(gwc, null);
+    }
+
+    /**
+     * Builds a listener handing over the affected layers truncation to the given queue
+     *
+     * @param gwc
+     * @param truncateQueue the queue running the truncations in background, or {@code null} to
+     *     truncate synchronously
+     */
+    public GWCTransactionListener(final GWC gwc, final TruncateQueue truncateQueue) {
         this.gwc = gwc;
+        this.truncateQueue = truncateQueue;
     }
 
     /**
@@ -122,6 +141,10 @@ private void afterTransactionInternal(final TransactionRequest transaction, bool
             if (dirtyRegion == null) {
                 continue;
             }
+            if (truncateQueue != null) {
+                truncateQueue.add(tileLayerName, dirtyRegion);
+                continue;
+            }
             try {
                 gwc.truncate(tileLayerName, dirtyRegion);
             } catch (GeoWebCacheException e) {
@@ -0,0 +1,248 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Background queue of tile layer truncations. The dirty regions of a layer are collected over a
+ * time window, starting with the first region added, overlapping regions are merged, and the result
+ * is truncated on a bounded thread pool. This way bursts of transactions hitting the same area
+ * cause a single truncation, and the transactions do not wait for it.
+ *
+ * <p>The time window and the number of threads can be set with the {@link #DELAY_KEY} and {@link
+ * #THREADS_KEY} properties.
+ */
+public class TruncateQueue implements DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(TruncateQueue.class);
+
+    /** Property setting the time window dirty regions are collected over, in milliseconds */
+    public static final String DELAY_KEY = "GEOSERVER_GWC_TRUNCATE_DELAY";
+
+    /** Property setting the number of threads running the truncations */
+    public static final String THREADS_KEY = "GEOSERVER_GWC_TRUNCATE_THREADS";
+
+    static final long DEFAULT_DELAY = 1000;
+
+    static final int DEFAULT_THREADS = 2;
+
+    /** Time allowed to the pending truncations to complete on shutdown, in seconds */
+    static final long SHUTDOWN_TIMEOUT = 10;
+
+    private final GWC gwc;
+
+    private final long delay;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /** Dirty regions waiting to be truncated, by tile layer */
+    private final Map<String, List<ReferencedEnvelope>> pending = new HashMap<>();
+
+    /** The scheduled truncations, by tile layer */
+    private final Map<String, ScheduledFuture<?>> scheduled = new HashMap<>();
+
+    private final AtomicLong truncations = new AtomicLong();
+
+    private final AtomicLong truncatedTiles = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    public TruncateQueue(GWC gwc) {
+        this(
+                gwc,
+                getProperty(DELAY_KEY, DEFAULT_DELAY),
+                (int) getProperty(THREADS_KEY, DEFAULT_THREADS));
+    }
+
+    TruncateQueue(GWC gwc, long delay, int threads) {
+        this.gwc = gwc;
+        this.delay = Math.max(0, delay);
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory =
+                r -> {
+                    Thread t = new Thread(r, "gwc-truncate-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                };
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), threadFactory);
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    private static long getProperty(String key, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(key);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + key + ", expected a number but got " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Queues the truncation of a dirty region of a tile layer
+     *
+     * @param layerName the tile layer name
+     * @param dirtyRegion the region to truncate, in the layer declared CRS
+     */
+    public synchronized void add(String layerName, ReferencedEnvelope dirtyRegion) {
+        List<ReferencedEnvelope> regions =
+                pending.computeIfAbsent(layerName, k -> new ArrayList<>());
+        addMerging(regions, dirtyRegion);
+        if (!scheduled.containsKey(layerName)) {
+            scheduled.put(
+                    layerName, executor.schedule(() -> truncate(layerName), delay, MILLISECONDS));
+        }
+    }
+
+    /** Adds the region to the list, merging it with the ones it intersects */
+    static void addMerging(List<ReferencedEnvelope> regions, ReferencedEnvelope region) {
+        ReferencedEnvelope merged = new ReferencedEnvelope(region);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Iterator<ReferencedEnvelope> it = regions.iterator(); it.hasNext(); ) {
+                ReferencedEnvelope other = it.next();
+                if (other.intersects((Envelope) merged)) {
+                    merged.expandToInclude(other);
+                    it.remove();
+                    changed = true;
+                }
+            }
+        }
+        regions.add(merged);
+    }
+
+    private void truncate(String layerName) {
+        List<ReferencedEnvelope> regions;
+        synchronized (this) {
+            scheduled.remove(layerName);
+            regions = pending.remove(layerName);
+        }
+        if (regions == null) {
+            return;
+        }
+        try {
+            truncatedTiles.addAndGet(gwc.truncateRegions(layerName, regions));
+            truncations.incrementAndGet();
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            LOGGER.log(
+                    Level.WARNING,
+                    "Error truncating tile layer " + layerName + " for affected bounds " + regions,
+                    e);
+        }
+    }
+
+    /**
+     * Truncates all the pending dirty regions right away, without waiting for the end of their
+     * time window, and returns once done.
+     *
+     * @return the number of tile layers truncated
+     */
+    public int flush() throws InterruptedException {
+        List<Future<?>> futures = submitPending();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.WARNING, "Error flushing the truncate queue", e.getCause());
+            }
+        }
+        return futures.size();
+    }
+
+    /** Submits the truncation of all the pending dirty regions, without waiting for their delay */
+    private synchronized List<Future<?>> submitPending() {
+        List<Future<?>> futures = new ArrayList<>();
+        for (String layerName : new ArrayList<>(pending.keySet())) {
+            ScheduledFuture<?> future = scheduled.remove(layerName);
+            if (future != null) {
+                future.cancel(false);
+            }
+            futures.add(executor.submit(() -> truncate(layerName)));
+        }
+        return futures;
+    }
+
+    /** Number of tile layers with dirty regions waiting to be truncated */
+    public synchronized int getPendingLayers() {
+        return pending.size();
+    }
+
+    /** Number of dirty regions waiting to be truncated, after merging the overlapping ones */
+    public synchronized int getPendingRegions() {
+        return pending.values().stream().mapToInt(List::size).sum();
+    }
+
+    /** Number of truncations run, each one covering the dirty regions of a tile layer */
+    public long getTruncations() {
+        return truncations.get();
+    }
+
+    /**
+     * Number of tile positions in the truncated ranges, across grid sets and zoom levels. Each
+     * position holds a tile for each cached format and parameters combination.
+     */
+    public long getTruncatedTiles() {
+        return truncatedTiles.get();
+    }
+
+    /** Number of truncations that failed */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /** The time window dirty regions are collected over, in milliseconds */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Runs the pending truncations right away and shuts down the thread pool, waiting up to {@link
+     * #SHUTDOWN_TIMEOUT} seconds for them to complete. Dropping them would leave stale tiles in the
+     * cache.
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (executor.isShutdown()) {
+            return;
+        }
+        int layers = submitPending().size();
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, SECONDS)) {
+            LOGGER.warning(
+                    "Pending truncations of "
+                            + layers
+                            + " tile layers did not complete in "
+                            + SHUTDOWN_TIMEOUT
+                            + " seconds, shutting down anyways");
+            executor.shutdownNow();
+        }
+    }
+}
@@ -25,6 +25,7 @@
 import org.geoserver.wms.map.RenderedImageMap;
 import org.geoserver.wms.map.RenderedImageMapResponse;
 import org.geoserver.wms.map.RenderedImageTimeDecorator;
+import org.geoserver.wms.map.TileGridMap;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.image.ImageWorker;
 import org.geotools.metadata.i18n.ErrorKeys;
@@ -58,6 +59,15 @@ public void setWebMap(WebMap webMap) {
         }
     }
 
+    /**
+     * Returns the number of tile columns and rows in this meta tile, to be requested to a {@link
+     * TileGridMap} producer
+     */
+    public int[] getTileGrid() {
+        Rectangle tile = this.tiles[0];
+        return new int[] {getMetaTileWidth() / tile.width, getMetaTileHeight() / tile.height};
+    }
+
     /**
      * Creates the {@link RenderedImage} corresponding to the tile at index {@code tileIdx} and uses
      * a {@link RenderedImageMapResponse} to encode it into the {@link #getResponseFormat() response
@@ -71,7 +81,25 @@ public boolean writeTileToStream(final int tileIdx, Resource target) throws IOEx
 
         checkNotNull(metaTileMap, "webMap is not set");
 
+        if (metaTileMap instanceof TileGridMap) {
+            // the output format already split the meta tile, pick the one at the tile position
+            final TileGridMap grid = (TileGridMap) metaTileMap;
+            final Rectangle tileDim = this.tiles[tileIdx];
+            WebMap tile = grid.getTile(tileDim.x / tileDim.width, tileDim.y / tileDim.height);
+            if (!(tile instanceof RawMap)) {
+                throw new IllegalArgumentException(
+                        "Only RawMap tiles are supported so far: " + tile.getClass().getName());
+            }
+            try (OutputStream outStream = target.getOutputStream()) {
+                ((RawMap) tile).writeTo(outStream);
+            }
+            return true;
+        }
         if (metaTileMap instanceof RawMap) {
+            if (this.tiles.length > 1) {
+                throw new IllegalStateException(
+                        "Cannot split a raw map into " + this.tiles.length + " tiles");
+            }
             try (OutputStream outStream = target.getOutputStream()) {
                 ((RawMap) metaTileMap).writeTo(outStream);
             }
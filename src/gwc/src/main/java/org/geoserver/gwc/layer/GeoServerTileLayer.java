@@ -30,6 +30,7 @@
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -67,6 +68,8 @@
 import org.geoserver.wms.WebMap;
 import org.geoserver.wms.capabilities.CapabilityUtil;
 import org.geoserver.wms.capabilities.LegendSample;
+import org.geoserver.wms.map.TileGridMap;
+import org.geoserver.wms.map.TileGridMapOutputFormat;
 import org.geotools.api.feature.type.FeatureType;
 import org.geotools.api.feature.type.GeometryDescriptor;
 import org.geotools.api.feature.type.PropertyDescriptor;
@@ -132,6 +135,12 @@ public class GeoServerTileLayer extends TileLayer implements ProxyLayer, TileJSO
 
     private String configErrorMessage;
 
+    /** Tiles rendered while seeding, see {@link #getSeededTiles()} */
+    private final LongAdder seededTiles = new LongAdder();
+
+    /** Time spent rendering and saving seeded meta tiles, in nanoseconds */
+    private final LongAdder seedingNanos = new LongAdder();
+
     /**
      * Lazily and atomically initialized mapping of {@link GridSubset#getName() name} to {@link
      * GridSubset}.
@@ -610,12 +619,17 @@ protected ConveyorTile getMetatilingReponse(
                 WebMap map;
                 try {
                     long requestTime = System.currentTimeMillis();
+                    long start = System.nanoTime();
                     map = dispatchGetMap(tile, metaTile);
                     checkNotNull(map, "Did not obtain a WebMap from GeoServer's Dispatcher");
                     metaTile.setWebMap(map);
 
                     setupCachingStrategy(tile);
                     saveTiles(metaTile, tile, requestTime);
+                    // seed tasks build their tiles without a servlet request
+                    if (tile.servletReq == null) {
+                        updateSeedingStats(metaTile, System.nanoTime() - start);
+                    }
                 } catch (Exception e) {
                     Throwables.throwIfInstanceOf(e, GeoWebCacheException.class);
                     throw new GeoWebCacheException("Problem communicating with GeoServer", e);
@@ -632,6 +646,29 @@ protected ConveyorTile getMetatilingReponse(
         return finalizeTile(tile);
     }
 
+    private void updateSeedingStats(GeoServerMetaTile metaTile, long nanos) {
+        int tiles = metaTile.getTilesGridPositions().length;
+        seededTiles.add(tiles);
+        seedingNanos.add(nanos);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(
+                    String.format(
+                            "Seeded %d tiles of layer %s in %.1f ms (%.1f tiles/s)",
+                            tiles, getName(), nanos / 1e6, tiles * 1e9 / Math.max(nanos, 1)));
+        }
+    }
+
+    /** Returns the number of tiles this layer rendered while seeding */
+    public long getSeededTiles() {
+        return seededTiles.sum();
+    }
+
+    /** Returns the average number of tiles per second this layer rendered while seeding */
+    public double getSeedingTilesPerSecond() {
+        long nanos = seedingNanos.sum();
+        return nanos == 0 ? 0 : seededTiles.sum() * 1e9 / nanos;
+    }
+
     /**
      * Based on configuration, sets caching to be permanent on blobstore, or to use the transient
      * metatile cache instead. Must be called after dispatching the GetMap request, in order to have
@@ -681,12 +718,19 @@ private String buildLockKey(ConveyorTile tile, GeoServerMetaTile metaTile) {
         return metaKey.toString();
     }
 
-    private WebMap dispatchGetMap(final ConveyorTile tile, final MetaTile metaTile)
+    private WebMap dispatchGetMap(final ConveyorTile tile, final GeoServerMetaTile metaTile)
             throws Exception {
 
         Map<String, String> params = buildGetMap(tile, metaTile);
         WebMap map;
         try {
+            if (tile.getMimeType().isVector()) {
+                // vector tiles cannot be sliced, ask the output format to build each tile
+                int[] grid = metaTile.getTileGrid();
+                if (grid[0] * grid[1] > 1) {
+                    TileGridMap.setRequestedGrid(grid[0], grid[1]);
+                }
+            }
             HttpServletRequest actualRequest = tile.servletReq;
             Cookie[] cookies = actualRequest == null ? null : actualRequest.getCookies();
 
@@ -699,6 +743,7 @@ private WebMap dispatchGetMap(final ConveyorTile tile, final MetaTile metaTile)
             if (warnings != null) warnings.forEach(w -> HTTPWarningAppender.addWarning(w));
         } finally {
             WEB_MAP.remove();
+            TileGridMap.clearRequestedGrid();
         }
 
         return map;
@@ -859,12 +904,20 @@ public void seedTile(ConveyorTile tile, boolean tryCache)
 
         int metaX = info.getMetaTilingX();
         int metaY = info.getMetaTilingY();
-        if (!tile.getMimeType().supportsTiling()) {
+        if (!tile.getMimeType().supportsTiling() && !isTileGridFormat(tile.getMimeType())) {
             metaX = metaY = 1;
         }
         getMetatilingReponse(tile, tryCache, metaX, metaY);
     }
 
+    /**
+     * Returns true if the output format for the given mime type can build all the tiles of a meta
+     * tile in one go, even if the format itself cannot be sliced
+     */
+    private boolean isTileGridFormat(MimeType mime) {
+        return getWms().getMapOutputFormat(mime.getFormat()) instanceof TileGridMapOutputFormat;
+    }
+
     /** @see org.geowebcache.layer.TileLayer#getGridSubsets() */
     @Override
     public Set<String> getGridSubsets() {
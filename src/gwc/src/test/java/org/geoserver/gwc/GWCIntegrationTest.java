@@ -973,6 +973,8 @@ public void testAutomaticTruncationFeatureChange() throws Exception {
         MockHttpServletResponse wfsResponse = postAsServletResponse(wfsRequest, wfsInsert);
         assertEquals(200, wfsResponse.getStatus());
 
+        // the truncation is queued, run it right away
+        applicationContext.getBean(TruncateQueue.class).flush();
         waitTileBreederCompletion();
 
         MockHttpServletResponse response3 = getAsServletResponse(request);
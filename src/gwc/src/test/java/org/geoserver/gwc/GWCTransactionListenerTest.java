@@ -10,9 +10,11 @@
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -211,6 +213,28 @@ public void testAfterTransaction() throws Exception {
         verify(mediator, times(1)).truncate(eq("theGroup"), eq(expectedEnv));
     }
 
+    @Test
+    public void testAfterTransactionQueued() throws Exception {
+        TruncateQueue queue = mock(TruncateQueue.class);
+        listener = new GWCTransactionListener(mediator, queue);
+
+        Map<Object, Object> extendedProperties = new HashMap<>();
+        ReferencedEnvelope affectedBounds = new ReferencedEnvelope(-180, 0, 0, 90, WGS84);
+        issueInsert(extendedProperties, affectedBounds);
+
+        TransactionRequest request = mock(TransactionRequest.class);
+        TransactionResponse result = mock(TransactionResponse.class);
+        when(request.getExtendedProperties()).thenReturn(extendedProperties);
+
+        when(mediator.getDeclaredCrs(anyString())).thenReturn(WGS84);
+        listener.afterTransaction(request, result, true);
+
+        // truncation handed over to the queue
+        verify(queue, times(1)).add(eq("theLayer"), eq(affectedBounds));
+        verify(queue, times(1)).add(eq("theGroup"), eq(affectedBounds));
+        verify(mediator, never()).truncate(anyString(), any(ReferencedEnvelope.class));
+    }
+
     /**
      * Issues a fake dataStoreChange insert event that affects two tile layers: "theLayer" and
      * "theGroup"
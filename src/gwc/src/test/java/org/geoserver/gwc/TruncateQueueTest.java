@@ -0,0 +1,116 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc;
+
+import static org.geotools.referencing.crs.DefaultGeographicCRS.WGS84;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class TruncateQueueTest {
+
+    private GWC mediator;
+
+    private TruncateQueue queue;
+
+    @Before
+    public void setUp() throws Exception {
+        mediator = mock(GWC.class);
+        when(mediator.truncateRegions(eq("theLayer"), anyCollection())).thenReturn(10L);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (queue != null) {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    public void testMergeRegions() {
+        List<ReferencedEnvelope> regions = new ArrayList<>();
+        TruncateQueue.addMerging(regions, new ReferencedEnvelope(0, 10, 0, 10, WGS84));
+        TruncateQueue.addMerging(regions, new ReferencedEnvelope(20, 30, 20, 30, WGS84));
+        assertEquals(2, regions.size());
+
+        // overlaps both, everything collapses in a single region
+        TruncateQueue.addMerging(regions, new ReferencedEnvelope(5, 25, 5, 25, WGS84));
+        assertEquals(1, regions.size());
+        assertEquals(new ReferencedEnvelope(0, 30, 0, 30, WGS84), regions.get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCoalesceAndFlush() throws Exception {
+        // a long window, nothing gets truncated until the flush
+        queue = new TruncateQueue(mediator, 3600 * 1000, 1);
+        queue.add("theLayer", new ReferencedEnvelope(0, 10, 0, 10, WGS84));
+        queue.add("theLayer", new ReferencedEnvelope(5, 15, 5, 15, WGS84));
+        queue.add("theLayer", new ReferencedEnvelope(50, 60, 50, 60, WGS84));
+        assertEquals(1, queue.getPendingLayers());
+        assertEquals(2, queue.getPendingRegions());
+        verifyNoMoreInteractions(mediator);
+
+        assertEquals(1, queue.flush());
+        ArgumentCaptor<Collection<ReferencedEnvelope>> captor =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(mediator, times(1)).truncateRegions(eq("theLayer"), captor.capture());
+        Collection<ReferencedEnvelope> regions = captor.getValue();
+        assertEquals(2, regions.size());
+        assertTrue(regions.contains(new ReferencedEnvelope(0, 15, 0, 15, WGS84)));
+        assertTrue(regions.contains(new ReferencedEnvelope(50, 60, 50, 60, WGS84)));
+
+        assertEquals(0, queue.getPendingRegions());
+        assertEquals(1, queue.getTruncations());
+        assertEquals(10, queue.getTruncatedTiles());
+
+        // nothing left to flush
+        assertEquals(0, queue.flush());
+    }
+
+    @Test
+    public void testTruncateAfterDelay() throws Exception {
+        queue = new TruncateQueue(mediator, 10, 1);
+        queue.add("theLayer", new ReferencedEnvelope(0, 10, 0, 10, WGS84));
+        verify(mediator, timeout(5000).times(1)).truncateRegions(eq("theLayer"), anyCollection());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        when(mediator.truncateRegions(eq("badLayer"), anyCollection()))
+                .thenThrow(new RuntimeException("fake"));
+        queue = new TruncateQueue(mediator, 3600 * 1000, 1);
+        queue.add("badLayer", new ReferencedEnvelope(0, 10, 0, 10, WGS84));
+        queue.flush();
+        assertEquals(1, queue.getFailures());
+        assertEquals(0, queue.getTruncations());
+    }
+
+    @Test
+    public void testDestroyRunsPending() throws Exception {
+        queue = new TruncateQueue(mediator, 3600 * 1000, 1);
+        queue.add("theLayer", new ReferencedEnvelope(0, 10, 0, 10, WGS84));
+        queue.destroy();
+        verify(mediator, times(1)).truncateRegions(eq("theLayer"), anyCollection());
+        assertEquals(0, queue.getPendingLayers());
+        assertEquals(1, queue.getTruncations());
+    }
+}
@@ -37,6 +37,7 @@
 import java.awt.image.BufferedImage;
 import java.awt.image.renderable.ParameterBlock;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
@@ -62,6 +63,7 @@
 import javax.media.jai.RenderedOp;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.io.IOUtils;
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.catalog.Keyword;
@@ -101,10 +103,14 @@
 import org.geoserver.wms.GetLegendGraphicOutputFormat;
 import org.geoserver.wms.WMS;
 import org.geoserver.wms.WMSMapContent;
+import org.geoserver.wms.WebMap;
 import org.geoserver.wms.capabilities.LegendSample;
+import org.geoserver.wms.map.RawMap;
 import org.geoserver.wms.map.RenderedImageMap;
 import org.geoserver.wms.map.RenderedImageMapResponse;
 import org.geoserver.wms.map.RenderedImageTimeDecorator;
+import org.geoserver.wms.map.TileGridMap;
+import org.geoserver.wms.map.TileGridMapOutputFormat;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.api.style.Style;
@@ -133,6 +139,7 @@
 import org.geowebcache.mime.FormatModifier;
 import org.geowebcache.mime.MimeType;
 import org.geowebcache.storage.StorageBroker;
+import org.geowebcache.storage.TileObject;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -944,6 +951,72 @@ public void testGetTile() throws Exception {
         new GetTileMockTester();
     }
 
+    @Test
+    public void testSeedVectorMetaTile() throws Exception {
+        resource.setLatLonBoundingBox(new ReferencedEnvelope(-180, 180, -90, 90, WGS84));
+        resource.setNativeBoundingBox(new ReferencedEnvelope(-180, 180, -90, 90, WGS84));
+        MimeType mimeType = ApplicationMime.mapboxVector;
+        WMS wms = mock(WMS.class);
+        when(wms.getMapOutputFormat(mimeType.getFormat()))
+                .thenReturn(mock(TileGridMapOutputFormat.class));
+
+        // the output format builds each tile of the requested grid
+        List<int[]> grids = new ArrayList<>();
+        when(mockGWC.dispatchOwsRequest(any(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            int[] grid = TileGridMap.getRequestedGrid();
+                            grids.add(grid);
+                            List<WebMap> tiles = new ArrayList<>();
+                            for (int i = 0; i < grid[0] * grid[1]; i++) {
+                                byte[] contents = {(byte) i};
+                                tiles.add(new RawMap(null, contents, mimeType.getFormat()));
+                            }
+                            GeoServerTileLayer.WEB_MAP.set(
+                                    new TileGridMap(null, tiles, grid[0], grid[1]));
+                            return null;
+                        });
+        StorageBroker storageBroker = mock(StorageBroker.class);
+        List<TileObject> saved = new ArrayList<>();
+        when(storageBroker.put(any()))
+                .thenAnswer(
+                        invocation -> {
+                            TileObject tile = invocation.getArgument(0);
+                            saved.add(tile);
+                            return true;
+                        });
+
+        layerInfoTileLayer = new GeoServerTileLayer(layerInfo, defaults, gridSetBroker);
+        layerInfoTileLayer.setWms(wms);
+        long[] tileIndex = {0, 0, 1};
+        ConveyorTile tile =
+                new ConveyorTile(
+                        storageBroker,
+                        layerInfoTileLayer.getName(),
+                        "EPSG:4326",
+                        tileIndex,
+                        mimeType,
+                        null,
+                        null,
+                        null);
+        layerInfoTileLayer.seedTile(tile, false);
+
+        // a single request for the whole 4x2 meta tile, one tile saved per grid cell
+        assertEquals(1, grids.size());
+        assertArrayEquals(new int[] {4, 2}, grids.get(0));
+        assertNull(TileGridMap.getRequestedGrid());
+        assertEquals(8, saved.size());
+        for (TileObject t : saved) {
+            long[] xyz = t.getXYZ();
+            byte expected = (byte) ((1 - xyz[1]) * 4 + xyz[0]);
+            try (InputStream is = t.getBlob().getInputStream()) {
+                assertArrayEquals(new byte[] {expected}, IOUtils.toByteArray(is));
+            }
+        }
+        assertEquals(8, layerInfoTileLayer.getSeededTiles());
+        assertTrue(layerInfoTileLayer.getSeedingTilesPerSecond() > 0);
+    }
+
     private FeatureTypeInfo getMockTimeFeatureType() {
         FeatureTypeInfo resource = mock(FeatureTypeInfo.class);
         MetadataMap metadata = new MetadataMap();
@@ -0,0 +1,36 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.util.List;
+
+/** JMX view of the {@link ResourcePool} data store cache, see {@link DataStoreCacheMonitor} */
+public interface DataStoreCacheMXBean {
+
+    /** Number of data stores currently open */
+    int getSize();
+
+    /** Idle timeout in milliseconds, zero or negative if disabled */
+    long getIdleTimeout();
+
+    void setIdleTimeout(long timeout);
+
+    /** Maximum number of open data stores, zero or negative if not limited */
+    int getMaxSize();
+
+    void setMaxSize(int maxSize);
+
+    /** Number of data stores disposed because idle */
+    long getIdleEvictions();
+
+    /** Number of data stores disposed to stay within the maximum size */
+    long getSizeEvictions();
+
+    /** Usage statistics of the open data stores */
+    List<DataStoreStatistics> getDataStores();
+
+    /** Disposes the idle data stores right away, returns how many have been disposed */
+    int evictIdle();
+}
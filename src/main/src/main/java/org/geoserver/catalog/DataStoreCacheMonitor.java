@@ -0,0 +1,112 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Publishes the {@link ResourcePool} data store cache statistics and settings on the platform
+ * MBean server, under {@link #OBJECT_NAME}. The resource pool is looked up on each call, as the
+ * catalog one can be replaced.
+ */
+public class DataStoreCacheMonitor
+        implements DataStoreCacheMXBean, InitializingBean, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(DataStoreCacheMonitor.class);
+
+    public static final String OBJECT_NAME = "org.geoserver:type=ResourcePool,name=DataStoreCache";
+
+    Catalog catalog;
+
+    public DataStoreCacheMonitor(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    private ResourcePool pool() {
+        return catalog.getResourcePool();
+    }
+
+    @Override
+    public int getSize() {
+        return pool().getDataStoreCache().size();
+    }
+
+    @Override
+    public long getIdleTimeout() {
+        return pool().getDataStoreIdleTimeout();
+    }
+
+    @Override
+    public void setIdleTimeout(long timeout) {
+        pool().setDataStoreIdleTimeout(timeout);
+    }
+
+    @Override
+    public int getMaxSize() {
+        return pool().getDataStoreMaxSize();
+    }
+
+    @Override
+    public void setMaxSize(int maxSize) {
+        pool().setDataStoreMaxSize(maxSize);
+    }
+
+    @Override
+    public long getIdleEvictions() {
+        return pool().getIdleDataStoreEvictions();
+    }
+
+    @Override
+    public long getSizeEvictions() {
+        return pool().getSizeDataStoreEvictions();
+    }
+
+    @Override
+    public List<DataStoreStatistics> getDataStores() {
+        return pool().getDataStoreStatistics();
+    }
+
+    @Override
+    public int evictIdle() {
+        return pool().evictIdleDataStores();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(this, name);
+        } catch (InstanceAlreadyExistsException e) {
+            // another application context in the same JVM (e.g., tests), take over
+            server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not register the data store cache MBean", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            try {
+                server.unregisterMBean(name);
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Could not unregister the data store cache MBean", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.beans.ConstructorProperties;
+import java.util.Date;
+
+/**
+ * Usage statistics of a {@link org.geotools.api.data.DataAccess} cached by the {@link
+ * ResourcePool}. The connection pool figures are only available for JDBC stores backed by a
+ * connection pool exposing them, and are -1 otherwise.
+ */
+public class DataStoreStatistics {
+
+    String id;
+
+    String name;
+
+    Date openedAt;
+
+    long openTime;
+
+    Date lastAccess;
+
+    long accesses;
+
+    int activeConnections = -1;
+
+    int idleConnections = -1;
+
+    int maxConnections = -1;
+
+    @ConstructorProperties({
+        "id",
+        "name",
+        "openedAt",
+        "openTime",
+        "lastAccess",
+        "accesses",
+        "activeConnections",
+        "idleConnections",
+        "maxConnections"
+    })
+    public DataStoreStatistics(
+            String id,
+            String name,
+            Date openedAt,
+            long openTime,
+            Date lastAccess,
+            long accesses,
+            int activeConnections,
+            int idleConnections,
+            int maxConnections) {
+        this.id = id;
+        this.name = name;
+        this.openedAt = openedAt;
+        this.openTime = openTime;
+        this.lastAccess = lastAccess;
+        this.accesses = accesses;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.maxConnections = maxConnections;
+    }
+
+    /** The store identifier */
+    public String getId() {
+        return id;
+    }
+
+    /** The store name, prefixed by the workspace, or null if the store is not in the catalog */
+    public String getName() {
+        return name;
+    }
+
+    /** When the store has been opened */
+    public Date getOpenedAt() {
+        return openedAt;
+    }
+
+    /** How long it took to open the store, in milliseconds */
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    /** When the store has been last looked up in the resource pool */
+    public Date getLastAccess() {
+        return lastAccess;
+    }
+
+    /** How many times the store has been looked up in the resource pool since it was opened */
+    public long getAccesses() {
+        return accesses;
+    }
+
+    /** Connections currently in use, or -1 if not known */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /** Connections idle in the pool, or -1 if not known */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /** Maximum number of connections in the pool, or -1 if not known */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public String toString() {
+        return "DataStoreStatistics[id="
+                + id
+                + ", name="
+                + name
+                + ", openedAt="
+                + openedAt
+                + ", openTime="
+                + openTime
+                + ", lastAccess="
+                + lastAccess
+                + ", accesses="
+                + accesses
+                + ", activeConnections="
+                + activeConnections
+                + ", idleConnections="
+                + idleConnections
+                + ", maxConnections="
+                + maxConnections
+                + "]";
+    }
+}
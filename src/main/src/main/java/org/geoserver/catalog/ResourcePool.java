@@ -18,11 +18,13 @@
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -36,7 +38,12 @@
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.measure.Unit;
@@ -122,6 +129,7 @@
 import org.geotools.http.HTTPClientFinder;
 import org.geotools.http.HTTPConnectionPooling;
 import org.geotools.http.SimpleHttpClient;
+import org.geotools.jdbc.JDBCDataStore;
 import org.geotools.measure.Measure;
 import org.geotools.metadata.iso.citation.Citations;
 import org.geotools.ows.wms.Layer;
@@ -195,6 +203,30 @@ public class ResourcePool {
     /** Default number of hard references */
     static int FEATURETYPE_CACHE_SIZE_DEFAULT = 100;
 
+    /**
+     * Seconds a data store can go without being looked up before getting disposed, zero or negative
+     * (the default) disables the idle eviction
+     */
+    public static final String DATASTORE_IDLE_TIMEOUT = "GEOSERVER_DATASTORE_CACHE_IDLE_TIMEOUT";
+
+    /**
+     * Maximum number of data stores kept open, the least recently used ones get disposed when it's
+     * exceeded. Zero or negative (the default) means no limit
+     */
+    public static final String DATASTORE_MAX_SIZE = "GEOSERVER_DATASTORE_CACHE_MAX_SIZE";
+
+    /**
+     * Seconds a data store must go without being looked up before it can be disposed to stay within
+     * the maximum size, see {@link #DATASTORE_MAX_SIZE}
+     */
+    public static final String DATASTORE_GRACE_PERIOD = "GEOSERVER_DATASTORE_CACHE_GRACE_PERIOD";
+
+    /** Default grace period of the size based data store eviction, in milliseconds */
+    static final long DEFAULT_DATASTORE_GRACE_PERIOD = 60000;
+
+    /** Runs the idle data store evictions of all the resource pools */
+    static ScheduledExecutorService DATASTORE_EVICTOR;
+
     static String CRS_NOT_FOUND = "CRS_NOT_FOUND";
     static Map<CoordinateReferenceSystem, String> crsIdentifierCache = new SoftValueHashMap<>();
 
@@ -202,6 +234,13 @@ public class ResourcePool {
     Map<String, CoordinateReferenceSystem> crsCache;
 
     DataStoreCache dataStoreCache;
+    Map<String, DataStoreUsage> dataStoreUsage = new ConcurrentHashMap<>();
+    volatile long dataStoreIdleTimeout;
+    volatile int dataStoreMaxSize;
+    volatile long dataStoreGracePeriod = DEFAULT_DATASTORE_GRACE_PERIOD;
+    ScheduledFuture<?> dataStoreEvictionTask;
+    LongAdder idleDataStoreEvictions = new LongAdder();
+    LongAdder sizeDataStoreEvictions = new LongAdder();
     Map<String, FeatureType> featureTypeCache;
     Map<String, List<AttributeTypeInfo>> featureTypeAttributeCache;
     Map<String, WebMapServer> wmsCache;
@@ -264,6 +303,24 @@ protected ResourcePool() {
         cacheKeys = CanonicalSet.newInstance(String.class);
         coverageCacheKeys = CanonicalSet.newInstance(CoverageHintReaderKey.class);
         listeners = new CopyOnWriteArrayList<>();
+
+        String gracePeriod = GeoServerExtensions.getProperty(DATASTORE_GRACE_PERIOD);
+        if (gracePeriod != null) {
+            setDataStoreGracePeriod(getLongProperty(DATASTORE_GRACE_PERIOD) * 1000);
+        }
+        setDataStoreIdleTimeout(getLongProperty(DATASTORE_IDLE_TIMEOUT) * 1000);
+        setDataStoreMaxSize((int) getLongProperty(DATASTORE_MAX_SIZE));
+    }
+
+    private static long getLongProperty(String name) {
+        String value = GeoServerExtensions.getProperty(name);
+        if (value == null) return 0;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + name + ", should be a number: " + value);
+            return 0;
+        }
     }
 
     /**
@@ -326,6 +383,245 @@ protected DataStoreCache createDataStoreCache() {
         return new DataStoreCache();
     }
 
+    /** Returns the time, in milliseconds, a data store can stay unused before getting disposed */
+    public long getDataStoreIdleTimeout() {
+        return dataStoreIdleTimeout;
+    }
+
+    /**
+     * Sets the time, in milliseconds, a data store can go without being looked up before getting
+     * disposed. It will be re-opened lazily on the next lookup. Zero or negative disables the idle
+     * eviction.
+     *
+     * <p>The timeout should be larger than the duration of the longest request, a store disposed
+     * while a request is still using it will make the request fail.
+     */
+    public synchronized void setDataStoreIdleTimeout(long timeout) {
+        this.dataStoreIdleTimeout = timeout;
+        scheduleDataStoreEviction();
+    }
+
+    /**
+     * Schedules the periodic eviction of the idle data stores, and of the ones exceeding the
+     * maximum size that could not be evicted when opening new ones, if any of them is enabled
+     */
+    private synchronized void scheduleDataStoreEviction() {
+        if (dataStoreEvictionTask != null) {
+            dataStoreEvictionTask.cancel(false);
+            dataStoreEvictionTask = null;
+        }
+        long timeout = dataStoreIdleTimeout;
+        if (timeout <= 0 && dataStoreMaxSize > 0) timeout = dataStoreGracePeriod;
+        if (timeout > 0 || dataStoreMaxSize > 0) {
+            long period = Math.min(Math.max(timeout / 2, 1000), 60000);
+            IdleEvictionTask task = new IdleEvictionTask(this);
+            dataStoreEvictionTask =
+                    getDataStoreEvictor()
+                            .scheduleWithFixedDelay(task, period, period, TimeUnit.MILLISECONDS);
+            task.future = dataStoreEvictionTask;
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getDataStoreEvictor() {
+        if (DATASTORE_EVICTOR == null) {
+            DATASTORE_EVICTOR =
+                    Executors.newSingleThreadScheduledExecutor(
+                            r -> {
+                                Thread t = new Thread(r, "DataStoreEvictor");
+                                t.setDaemon(true);
+                                return t;
+                            });
+        }
+        return DATASTORE_EVICTOR;
+    }
+
+    /** Returns the maximum number of data stores kept open, zero or negative if not limited */
+    public int getDataStoreMaxSize() {
+        return dataStoreMaxSize;
+    }
+
+    /**
+     * Sets the maximum number of data stores kept open, when exceeded the least recently used ones
+     * get disposed, and will be re-opened lazily on the next lookup. Zero or negative means no
+     * limit.
+     *
+     * <p>Only the stores that have not been looked up for the {@link #getDataStoreGracePeriod()
+     * grace period} are disposed, the cache can temporarily exceed the maximum size when more
+     * stores are in active use, and gets back within it as they become idle. The grace period
+     * should be larger than the duration of the longest request, a store disposed while a request
+     * is still using it will make the request fail.
+     */
+    public void setDataStoreMaxSize(int maxSize) {
+        this.dataStoreMaxSize = maxSize;
+        scheduleDataStoreEviction();
+    }
+
+    /**
+     * Returns the time, in milliseconds, a data store must go without being looked up before it can
+     * be disposed to stay within the maximum size
+     */
+    public long getDataStoreGracePeriod() {
+        return dataStoreGracePeriod;
+    }
+
+    /**
+     * Sets the time, in milliseconds, a data store must go without being looked up before it can
+     * be disposed to stay within the maximum size
+     */
+    public void setDataStoreGracePeriod(long gracePeriod) {
+        this.dataStoreGracePeriod = Math.max(0, gracePeriod);
+        scheduleDataStoreEviction();
+    }
+
+    /** Returns the number of data stores disposed because they have not been used for too long */
+    public long getIdleDataStoreEvictions() {
+        return idleDataStoreEvictions.sum();
+    }
+
+    /** Returns the number of data stores disposed to stay within the maximum size */
+    public long getSizeDataStoreEvictions() {
+        return sizeDataStoreEvictions.sum();
+    }
+
+    /** Returns usage statistics for the data stores currently open */
+    public List<DataStoreStatistics> getDataStoreStatistics() {
+        List<DataStoreStatistics> result = new ArrayList<>();
+        for (Map.Entry<String, DataStoreUsage> entry : dataStoreUsage.entrySet()) {
+            String id = entry.getKey();
+            DataStoreUsage usage = entry.getValue();
+            DataStoreInfo info = catalog.getDataStore(id);
+            String name = null;
+            if (info != null) {
+                name =
+                        info.getWorkspace() != null
+                                ? info.getWorkspace().getName() + ":" + info.getName()
+                                : info.getName();
+            }
+            int[] pool = getConnectionPoolStatistics(usage.store.get());
+            result.add(
+                    new DataStoreStatistics(
+                            id,
+                            name,
+                            new Date(usage.openedAt),
+                            TimeUnit.NANOSECONDS.toMillis(usage.openTime),
+                            new Date(usage.lastAccess),
+                            usage.accesses.sum(),
+                            pool[0],
+                            pool[1],
+                            pool[2]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the active, idle and maximum connections of a JDBC store connection pool, -1 for the
+     * values that cannot be determined. The pool is inspected by reflection, as the data source can
+     * come from different pool implementations (DBCP, Tomcat JNDI pools, ...)
+     */
+    static int[] getConnectionPoolStatistics(DataAccess<?, ?> store) {
+        int[] result = {-1, -1, -1};
+        if (!(store instanceof JDBCDataStore)) return result;
+        Object dataSource = ((JDBCDataStore) store).getDataSource();
+        Object wrapped = invokeGetter(dataSource, "getWrappedDataSource");
+        if (wrapped != null) dataSource = wrapped;
+        result[0] = toInt(invokeGetter(dataSource, "getNumActive"));
+        result[1] = toInt(invokeGetter(dataSource, "getNumIdle"));
+        Object max = invokeGetter(dataSource, "getMaxTotal");
+        if (max == null) max = invokeGetter(dataSource, "getMaxActive");
+        result[2] = toInt(max);
+        return result;
+    }
+
+    private static Object invokeGetter(Object target, String name) {
+        if (target == null) return null;
+        try {
+            return target.getClass().getMethod(name).invoke(target);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : -1;
+    }
+
+    /**
+     * Disposes the data stores that have not been looked up for longer than the {@link
+     * #getDataStoreIdleTimeout() idle timeout}. Called periodically when the timeout is set.
+     *
+     * @return the number of data stores disposed
+     */
+    public int evictIdleDataStores() {
+        long timeout = dataStoreIdleTimeout;
+        if (timeout <= 0) return 0;
+        long threshold = System.currentTimeMillis() - timeout;
+        int evicted = 0;
+        for (Map.Entry<String, DataStoreUsage> entry : dataStoreUsage.entrySet()) {
+            if (entry.getValue().lastAccess < threshold
+                    && evictDataStore(entry.getKey(), threshold)) {
+                LOGGER.fine("Disposed idle data store " + entry.getKey());
+                evicted++;
+            }
+        }
+        idleDataStoreEvictions.add(evicted);
+        return evicted;
+    }
+
+    /**
+     * Disposes the least recently used data stores until the cache is within the {@link
+     * #getDataStoreMaxSize() maximum size}, skipping the ones looked up during the {@link
+     * #getDataStoreGracePeriod() grace period}, which might still be in use. Called when opening a
+     * data store, and periodically when the maximum size is set.
+     *
+     * @return the number of data stores disposed
+     */
+    public int evictExcessDataStores() {
+        return enforceDataStoreMaxSize(null);
+    }
+
+    private int enforceDataStoreMaxSize(String opened) {
+        int maxSize = dataStoreMaxSize;
+        long threshold = System.currentTimeMillis() - dataStoreGracePeriod;
+        int evicted = 0;
+        // bounded number of attempts, entries can be concurrently used and thus skipped
+        for (int attempts = dataStoreUsage.size();
+                maxSize > 0 && dataStoreUsage.size() > maxSize && attempts > 0;
+                attempts--) {
+            String lruId = null;
+            long lruAccess = Long.MAX_VALUE;
+            for (Map.Entry<String, DataStoreUsage> entry : dataStoreUsage.entrySet()) {
+                long access = entry.getValue().lastAccess;
+                if (access < lruAccess
+                        && access <= threshold
+                        && !entry.getKey().equals(opened)) {
+                    lruId = entry.getKey();
+                    lruAccess = access;
+                }
+            }
+            // all the others are in use, going over the maximum size for the time being
+            if (lruId == null) break;
+            if (evictDataStore(lruId, lruAccess)) {
+                LOGGER.fine("Disposed least recently used data store " + lruId);
+                sizeDataStoreEvictions.increment();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Disposes the data store with the given id, provided it has not been looked up after the given
+     * time, while holding the same lock used to open it
+     */
+    private boolean evictDataStore(String id, long accessedBefore) {
+        String key = cacheKeys.unique(id);
+        synchronized (key) {
+            DataStoreUsage usage = dataStoreUsage.get(key);
+            if (usage == null || usage.lastAccess > accessedBefore) return false;
+            return dataStoreCache.remove(key) != null;
+        }
+    }
+
     /**
      * Returns the cache for {@link FeatureType} objects.
      *
@@ -649,15 +945,25 @@ public DataAccessFactory getDataStoreFactory(DataStoreInfo info) throws IOExcept
             if (storeId == null) return createDataAccess(info, expandedStore);
 
             String key = cacheKeys.unique(storeId);
+            // mark the access before the lookup, so that the idle eviction will skip it
+            DataStoreUsage usage = dataStoreUsage.get(key);
+            if (usage != null) usage.accessed();
             dataStore = dataStoreCache.get(key);
             if (dataStore == null) {
+                boolean opened = false;
                 synchronized (key) {
                     dataStore = dataStoreCache.get(key);
                     if (dataStore == null) {
+                        long start = System.nanoTime();
                         dataStore = createDataAccess(info, expandedStore);
                         dataStoreCache.put(key, dataStore);
+                        dataStoreUsage.put(
+                                key, new DataStoreUsage(dataStore, System.nanoTime() - start));
+                        opened = true;
                     }
                 }
+                // outside of the key lock, evicting others requires grabbing their locks
+                if (opened) enforceDataStoreMaxSize(key);
             }
 
             return dataStore;
@@ -2417,6 +2723,7 @@ public void dispose() {
         sldCache.clear();
         styleCache.clear();
         listeners.clear();
+        dataStoreUsage.clear();
 
         cacheKeys.clear();
         coverageCacheKeys.clear();
@@ -2511,6 +2818,10 @@ class DataStoreCache extends CatalogResourceCache<String, DataAccess> {
          */
         @Override
         protected void dispose(String id, final DataAccess dataAccess) {
+            if (id != null) {
+                dataStoreUsage.computeIfPresent(
+                        id, (k, usage) -> usage.isFor(dataAccess) ? null : usage);
+            }
             DataStoreInfo info = catalog.getDataStore(id);
             final String name;
             if (info != null) {
@@ -2532,6 +2843,66 @@ protected void dispose(String id, final DataAccess dataAccess) {
         }
     }
 
+    /** Tracks the usage of a cached data store, see {@link DataStoreStatistics} */
+    static class DataStoreUsage {
+
+        /** Weak, not to prevent the cache soft references from being cleared */
+        final WeakReference<DataAccess<?, ?>> store;
+
+        final long openedAt = System.currentTimeMillis();
+
+        final long openTime;
+
+        volatile long lastAccess = openedAt;
+
+        final LongAdder accesses = new LongAdder();
+
+        DataStoreUsage(DataAccess<?, ?> store, long openTime) {
+            this.store = new WeakReference<>(store);
+            this.openTime = openTime;
+        }
+
+        void accessed() {
+            lastAccess = System.currentTimeMillis();
+            accesses.increment();
+        }
+
+        boolean isFor(DataAccess<?, ?> dataAccess) {
+            DataAccess<?, ?> tracked = store.get();
+            return tracked == null || tracked == dataAccess;
+        }
+    }
+
+    /**
+     * Periodically evicts the idle data stores, holds a weak reference to the pool so that it does
+     * not prevent its garbage collection, cancelling itself once the pool is gone
+     */
+    static class IdleEvictionTask implements Runnable {
+
+        final WeakReference<ResourcePool> pool;
+
+        volatile ScheduledFuture<?> future;
+
+        IdleEvictionTask(ResourcePool pool) {
+            this.pool = new WeakReference<>(pool);
+        }
+
+        @Override
+        public void run() {
+            ResourcePool resourcePool = pool.get();
+            if (resourcePool == null) {
+                if (future != null) future.cancel(false);
+                return;
+            }
+            try {
+                resourcePool.evictIdleDataStores();
+                resourcePool.evictExcessDataStores();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to evict idle data stores", e);
+            }
+        }
+    }
+
     class CoverageReaderCache extends CatalogResourceCache<String, GridCoverageReader> {
 
         @Override
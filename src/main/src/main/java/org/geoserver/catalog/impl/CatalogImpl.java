@@ -15,6 +15,7 @@
 import java.util.List;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -56,8 +57,10 @@
 import org.geoserver.catalog.WMTSLayerInfo;
 import org.geoserver.catalog.WMTSStoreInfo;
 import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogBeforeAddEvent;
 import org.geoserver.catalog.event.CatalogEvent;
 import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
 import org.geoserver.catalog.event.impl.CatalogAddEventImpl;
 import org.geoserver.catalog.event.impl.CatalogBeforeAddEventImpl;
 import org.geoserver.catalog.event.impl.CatalogModifyEventImpl;
@@ -106,6 +109,15 @@ public class CatalogImpl implements Catalog {
     /** extended validation switch */
     protected boolean extendedValidation = true;
 
+    /** Counts the catalog modifications, used to tell if the read snapshot is stale */
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    /** The last read snapshot built, if any */
+    private volatile CatalogSnapshot snapshot;
+
+    /** Serializes the snapshot builds, so that concurrent requests do not build one each */
+    private final Object snapshotLock = new Object();
+
     protected CatalogImpl(CatalogImpl catalog) {
         this.dispatcher = catalog.dispatcher;
         this.resourcePool = catalog.resourcePool;
@@ -152,6 +164,32 @@ public void setFacade(CatalogFacade facade) {
         }
         this.facade = facade;
         this.facade.setCatalog(this);
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Returns a read only snapshot of the catalog contents, made of detached copies of the catalog
+     * objects, without any proxy wrapping. The same snapshot is returned until the catalog gets
+     * modified, after which a new one is built on demand. Only one thread builds it, the others
+     * calling in the meantime wait and share the result.
+     *
+     * <p>The snapshot does not apply security nor workspace isolation, see {@link CatalogSnapshot}
+     * for the details and usage constraints.
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null || current.getVersion() != modificationCount.get()) {
+            synchronized (snapshotLock) {
+                // read the version before building, a concurrent change will make it stale
+                long version = modificationCount.get();
+                current = snapshot;
+                if (current == null || current.getVersion() != version) {
+                    current = new CatalogSnapshot(rawFacade, version);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
     }
 
     @Override
@@ -1432,6 +1470,7 @@ public void setDefaultNamespace(NamespaceInfo defaultNamespace) {
             }
         }
         facade.setDefaultNamespace(defaultNamespace);
+        modificationCount.incrementAndGet();
     }
 
     // Workspace methods
@@ -1555,6 +1594,7 @@ public void setDefaultWorkspace(WorkspaceInfo defaultWorkspace) {
             }
         }
         facade.setDefaultWorkspace(defaultWorkspace);
+        modificationCount.incrementAndGet();
     }
 
     @Override
@@ -1899,6 +1939,10 @@ public void fireRemoved(CatalogInfo object) {
     }
 
     protected void event(CatalogEvent event) {
+        if (!(event instanceof CatalogBeforeAddEvent) && !(event instanceof CatalogModifyEvent)) {
+            // the modify event is sent before the change is applied, wait for the post modify one
+            modificationCount.incrementAndGet();
+        }
         dispatcher.dispatch(event);
     }
 
@@ -1932,6 +1976,7 @@ public static void validateKeywords(List<KeywordInfo> keywords) {
     public void resolve() {
         facade.setCatalog(this);
         facade.resolve();
+        modificationCount.incrementAndGet();
 
         if (dispatcher == null) {
             dispatcher = new CatalogEventDispatcher();
@@ -2160,6 +2205,7 @@ public void sync(CatalogImpl other) {
         }
 
         resourceLoader = other.resourceLoader;
+        modificationCount.incrementAndGet();
     }
 
     @Override
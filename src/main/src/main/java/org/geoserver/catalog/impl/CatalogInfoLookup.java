@@ -8,6 +8,8 @@
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,6 +31,11 @@
  * <p>The lookups by predicate have been tested and optimized for performance, in particular the
  * current for loops turned out to be significantly faster than building and returning streams
  *
+ * <p>Secondary indexes can be registered with {@link #addIndex(String, Class, Function)}, they
+ * associate the value of a property (usually the id of a referenced object, or a flag) to the
+ * objects having it, and are used to narrow down the objects to be tested against a predicate, see
+ * {@link #list(Class, String, Object, Predicate)} and {@link #lookup(String, Object)}
+ *
  * @param <T>
  */
 class CatalogInfoLookup<T extends CatalogInfo> {
@@ -37,6 +44,8 @@
     ConcurrentHashMap<Class<T>, Map<String, T>> idMultiMap = new ConcurrentHashMap<>();
     ConcurrentHashMap<Class<T>, Map<Name, T>> nameMultiMap = new ConcurrentHashMap<>();
     Function<T, Name> nameMapper;
+    /** The secondary indexes, keyed by indexed property, only modified during setup */
+    Map<String, Index<T>> indexes = new HashMap<>();
     static final Predicate<?> TRUE = x -> true;
 
     /** Returns {@link CatalogInfoLookup#TRUE} in a type-safe way */
@@ -49,6 +58,30 @@ public CatalogInfoLookup(Function<T, Name> nameMapper) {
         this.nameMapper = nameMapper;
     }
 
+    /**
+     * Adds a secondary index on the given property. Meant to be called while setting up the lookup,
+     * the index is populated with the values already contained, if any.
+     *
+     * @param property the property path, as used in catalog filters (e.g., "workspace.id")
+     * @param type the type of the indexed values, lookups with values of a different type are not
+     *     served by the index
+     * @param extractor computes the indexed value, must be null safe
+     */
+    public CatalogInfoLookup<T> addIndex(
+            String property, Class<?> type, Function<T, Object> extractor) {
+        Index<T> index = new Index<>(type, extractor);
+        for (T value : values()) {
+            index.put(value, index.key(value));
+        }
+        indexes.put(property, index);
+        return this;
+    }
+
+    /** Returns true if the lookup has a secondary index on the given property */
+    public boolean hasIndex(String property) {
+        return indexes.containsKey(property);
+    }
+
     @SuppressWarnings("unchecked")
     <K> Map<K, T> getMapForValue(ConcurrentHashMap<Class<T>, Map<K, T>> maps, T value) {
         Class<T> vc;
@@ -89,7 +122,11 @@ public T add(T value) {
         Name name = nameMapper.apply(value);
         nameMap.put(name, value);
         Map<String, T> idMap = getMapForValue(idMultiMap, value);
-        return idMap.put(value.getId(), value);
+        T previous = idMap.put(value.getId(), value);
+        for (Index<T> index : indexes.values()) {
+            index.put(value, index.key(value));
+        }
+        return previous;
     }
 
     public Collection<T> values() {
@@ -106,6 +143,9 @@ public T remove(T value) {
         Map<Name, T> nameMap = getMapForValue(nameMultiMap, value);
         nameMap.remove(name);
         Map<String, T> idMap = getMapForValue(idMultiMap, value);
+        for (Index<T> index : indexes.values()) {
+            index.remove(value.getId());
+        }
         return idMap.remove(value.getId());
     }
 
@@ -122,11 +162,133 @@ public void update(T proxiedValue) {
             nameMap.remove(oldName);
             nameMap.put(newName, actualValue);
         }
+
+        for (Index<T> index : indexes.values()) {
+            index.put(actualValue, index.key(proxiedValue));
+        }
+    }
+
+    /**
+     * Moves the value to a new key in the secondary index for the given property, for changes that
+     * cannot be detected by {@link #update(CatalogInfo)} (e.g., a layer name changing along with
+     * its resource one)
+     */
+    void updateIndex(String property, T value, Object key) {
+        Index<T> index = indexes.get(property);
+        if (index != null) {
+            index.put(value, key == null ? Index.NULL : key);
+        }
+    }
+
+    /**
+     * Rebuilds the secondary indexes, to be called after the contained objects have been modified
+     * in place (e.g., when resolving references after loading)
+     */
+    public void reindex() {
+        Collection<T> values = values();
+        for (Index<T> index : indexes.values()) {
+            index.clear();
+            for (T value : values) {
+                index.put(value, index.key(value));
+            }
+        }
     }
 
     public void clear() {
         idMultiMap.clear();
         nameMultiMap.clear();
+        for (Index<T> index : indexes.values()) {
+            index.clear();
+        }
+    }
+
+    /**
+     * Returns the objects having the given value for the indexed property, or null if there is no
+     * index on the property, or the value type does not match the indexed one. The returned
+     * collection might be a live view of the index, and is not sorted.
+     */
+    Collection<T> lookup(String property, Object value) {
+        Index<T> index = indexes.get(property);
+        if (index == null || (value != null && !index.type.isInstance(value))) {
+            return null;
+        }
+        return index.get(value);
+    }
+
+    /**
+     * Looks up objects by class and matching predicate, using the secondary index on the property
+     * to narrow down the objects to be tested, if available. The predicate must imply the property
+     * equality, as it's the only test performed on the candidates.
+     */
+    <U extends CatalogInfo> List<U> list(
+            Class<U> clazz, String property, Object value, Predicate<U> predicate) {
+        Collection<T> candidates = lookup(property, value);
+        if (candidates == null) {
+            return list(clazz, predicate);
+        }
+        return list(clazz, candidates, predicate);
+    }
+
+    /**
+     * Looks up the first object by class and matching predicate, using the secondary index on the
+     * property if available, see {@link #list(Class, String, Object, Predicate)}
+     */
+    <U extends CatalogInfo> U findFirst(
+            Class<U> clazz, String property, Object value, Predicate<U> predicate) {
+        Collection<T> candidates = lookup(property, value);
+        if (candidates == null) {
+            return findFirst(clazz, predicate);
+        }
+        List<U> matches = list(clazz, candidates, predicate);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Filters the candidates by class and predicate, returning them in the same order as {@link
+     * #list(Class, Predicate)} would, that is, grouped by class and sorted by name
+     */
+    <U extends CatalogInfo> List<U> list(
+            Class<U> clazz, Collection<T> candidates, Predicate<U> predicate) {
+        List<U> result = List.of(); // replaced by ArrayList if there are matches
+        if (candidates.isEmpty()) {
+            return result;
+        }
+        for (Class<T> key : nameMultiMap.keySet()) {
+            if (clazz.isAssignableFrom(key)) {
+                List<T> matches = null;
+                for (T v : candidates) {
+                    if (v.getClass() != key) {
+                        continue;
+                    }
+                    if (predicate == TRUE || predicate.test(clazz.cast(v))) {
+                        if (matches == null) {
+                            matches = new ArrayList<>();
+                        }
+                        matches.add(v);
+                    }
+                }
+                if (matches != null) {
+                    if (matches.size() > 1) {
+                        matches.sort(nameComparator());
+                    }
+                    if (result.isEmpty()) {
+                        result = new ArrayList<>();
+                    }
+                    for (T match : matches) {
+                        result.add(clazz.cast(match));
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparator<T> nameComparator() {
+        // same ordering as the name maps, which are sorted maps using the natural name ordering
+        return (v1, v2) ->
+                ((Comparable<Name>) nameMapper.apply(v1)).compareTo(nameMapper.apply(v2));
     }
 
     /**
@@ -248,4 +410,77 @@ public CatalogInfoLookup<T> setCatalog(Catalog catalog) {
 
         return this;
     }
+
+    /**
+     * A secondary index, associating the values of a property to the objects having it. The key of
+     * each object is tracked as well, so that objects can be moved or removed without having to
+     * recompute the old key, which might not be available anymore.
+     */
+    static class Index<T extends CatalogInfo> {
+        /** The key used for null property values, as the concurrent maps do not support nulls */
+        static final Object NULL = new Object();
+
+        final Class<?> type;
+
+        final Function<T, Object> extractor;
+
+        /** The objects, keyed by property value and then by id */
+        final ConcurrentHashMap<Object, Map<String, T>> entries = new ConcurrentHashMap<>();
+
+        /** The property values, keyed by object id */
+        final ConcurrentHashMap<String, Object> keys = new ConcurrentHashMap<>();
+
+        Index(Class<?> type, Function<T, Object> extractor) {
+            this.type = type;
+            this.extractor = extractor;
+        }
+
+        Object key(T value) {
+            Object key = extractor.apply(value);
+            return key == null ? NULL : key;
+        }
+
+        void put(T value, Object key) {
+            String id = value.getId();
+            Object previous = keys.put(id, key);
+            if (previous != null && !previous.equals(key)) {
+                removeEntry(previous, id);
+            }
+            entries.compute(
+                    key,
+                    (k, map) -> {
+                        if (map == null) {
+                            map = new ConcurrentHashMap<>();
+                        }
+                        map.put(id, value);
+                        return map;
+                    });
+        }
+
+        void remove(String id) {
+            Object key = keys.remove(id);
+            if (key != null) {
+                removeEntry(key, id);
+            }
+        }
+
+        private void removeEntry(Object key, String id) {
+            entries.computeIfPresent(
+                    key,
+                    (k, map) -> {
+                        map.remove(id);
+                        return map.isEmpty() ? null : map;
+                    });
+        }
+
+        Collection<T> get(Object key) {
+            Map<String, T> map = entries.get(key == null ? NULL : key);
+            return map == null ? List.of() : map.values();
+        }
+
+        void clear() {
+            entries.clear();
+            keys.clear();
+        }
+    }
 }
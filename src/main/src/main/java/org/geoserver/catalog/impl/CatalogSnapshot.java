@@ -0,0 +1,386 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.MetadataMap;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geotools.api.util.InternationalString;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+/**
+ * A read only view of the catalog contents at a given point in time, meant for request paths that
+ * only read the catalog and want to avoid the {@link ModificationProxy} wrapping (and the
+ * reflection it implies) on every access.
+ *
+ * <p>A snapshot is obtained from {@link CatalogImpl#getSnapshot()}, which returns the same instance
+ * until the catalog is modified, and builds a new one on the next call afterwards (copy on write).
+ * Requests can hold on to the snapshot they started with, the lists, lookup maps and objects will
+ * not change under them.
+ *
+ * <p>The objects returned are copies of the ones held by the catalog facade, made when the snapshot
+ * is built, and not wrapped in any proxy. References among them point to the other copies in the
+ * same snapshot, and their collections and metadata maps are unmodifiable. Changing a copy does not
+ * affect the catalog, changes have to go through the {@link org.geoserver.catalog.Catalog} API. The
+ * snapshot is also built on the raw facade, it does not apply security nor workspace isolation,
+ * code using it has to perform its own access checks.
+ */
+public class CatalogSnapshot {
+
+    final long version;
+
+    final WorkspaceInfo defaultWorkspace;
+
+    final NamespaceInfo defaultNamespace;
+
+    final List<WorkspaceInfo> workspaces;
+
+    final List<NamespaceInfo> namespaces;
+
+    final List<StoreInfo> stores;
+
+    final List<ResourceInfo> resources;
+
+    final List<LayerInfo> layers;
+
+    final List<LayerGroupInfo> layerGroups;
+
+    final List<StyleInfo> styles;
+
+    final Map<String, CatalogInfo> byId = new HashMap<>();
+
+    /** Layers by prefixed name, and by local name for the first layer having it */
+    final Map<String, LayerInfo> layersByName = new HashMap<>();
+
+    /** Layer groups by prefixed name, and by local name for the first group having it */
+    final Map<String, LayerGroupInfo> layerGroupsByName = new HashMap<>();
+
+    /** Styles by prefixed name, and by local name for the first style having it */
+    final Map<String, StyleInfo> stylesByName = new HashMap<>();
+
+    CatalogSnapshot(CatalogFacade facade, long version) {
+        this.version = version;
+        // first create all the copies, then fill them, so that references can be remapped
+        Copier copier = new Copier(byId);
+        List<WorkspaceInfo> workspaces = copier.allocate(facade.getWorkspaces());
+        List<NamespaceInfo> namespaces = copier.allocate(facade.getNamespaces());
+        List<StoreInfo> stores = copier.allocate(facade.getStores(StoreInfo.class));
+        List<ResourceInfo> resources = copier.allocate(facade.getResources(ResourceInfo.class));
+        List<LayerInfo> layers = copier.allocate(facade.getLayers());
+        List<LayerGroupInfo> layerGroups = copier.allocate(facade.getLayerGroups());
+        List<StyleInfo> styles = copier.allocate(facade.getStyles());
+        copier.fill();
+
+        this.workspaces = Collections.unmodifiableList(workspaces);
+        this.namespaces = Collections.unmodifiableList(namespaces);
+        this.stores = Collections.unmodifiableList(stores);
+        this.resources = Collections.unmodifiableList(resources);
+        this.layers = Collections.unmodifiableList(layers);
+        this.layerGroups = Collections.unmodifiableList(layerGroups);
+        this.styles = Collections.unmodifiableList(styles);
+        this.defaultWorkspace = (WorkspaceInfo) copier.copy(facade.getDefaultWorkspace());
+        this.defaultNamespace = (NamespaceInfo) copier.copy(facade.getDefaultNamespace());
+
+        for (LayerInfo layer : layers) {
+            index(layersByName, layer.prefixedName(), layer.getName(), layer);
+        }
+        for (LayerGroupInfo group : layerGroups) {
+            index(layerGroupsByName, group.prefixedName(), group.getName(), group);
+        }
+        for (StyleInfo style : styles) {
+            // global styles win over workspace specific ones on the local name
+            String name = style.getName();
+            if (style.getWorkspace() == null) {
+                stylesByName.put(name, style);
+            }
+            index(stylesByName, style.prefixedName(), name, style);
+        }
+    }
+
+    private <T> void index(Map<String, T> map, String prefixedName, String name, T info) {
+        map.put(prefixedName, info);
+        if (name != null) {
+            map.putIfAbsent(name, info);
+        }
+    }
+
+    /** The catalog modification count this snapshot has been built at */
+    public long getVersion() {
+        return version;
+    }
+
+    public WorkspaceInfo getDefaultWorkspace() {
+        return defaultWorkspace;
+    }
+
+    public NamespaceInfo getDefaultNamespace() {
+        return defaultNamespace;
+    }
+
+    public List<WorkspaceInfo> getWorkspaces() {
+        return workspaces;
+    }
+
+    public List<NamespaceInfo> getNamespaces() {
+        return namespaces;
+    }
+
+    public List<StoreInfo> getStores() {
+        return stores;
+    }
+
+    public List<ResourceInfo> getResources() {
+        return resources;
+    }
+
+    public List<LayerInfo> getLayers() {
+        return layers;
+    }
+
+    public List<LayerGroupInfo> getLayerGroups() {
+        return layerGroups;
+    }
+
+    public List<StyleInfo> getStyles() {
+        return styles;
+    }
+
+    /** Returns the object with the given id, or null if not found or not of the given type */
+    public <T extends CatalogInfo> T get(String id, Class<T> clazz) {
+        CatalogInfo info = byId.get(id);
+        return clazz.isInstance(info) ? clazz.cast(info) : null;
+    }
+
+    /**
+     * Returns a layer by name, the name can be prefixed, or not, in which case the default
+     * workspace is searched first, following the same logic as {@link
+     * CatalogImpl#getLayerByName(String)}
+     */
+    public LayerInfo getLayerByName(String name) {
+        return lookup(layersByName, name);
+    }
+
+    /** Returns a layer group by name, see {@link #getLayerByName(String)} for the name handling */
+    public LayerGroupInfo getLayerGroupByName(String name) {
+        return lookup(layerGroupsByName, name);
+    }
+
+    /**
+     * Returns a style by name, see {@link #getLayerByName(String)} for the name handling, among
+     * the styles outside of the default workspace global ones are preferred
+     */
+    public StyleInfo getStyleByName(String name) {
+        return lookup(stylesByName, name);
+    }
+
+    private <T> T lookup(Map<String, T> map, String name) {
+        if (name.indexOf(':') == -1 && defaultWorkspace != null) {
+            T result = map.get(defaultWorkspace.getName() + ":" + name);
+            if (result != null) {
+                return result;
+            }
+        }
+        return map.get(name);
+    }
+
+    /**
+     * Copies the catalog objects reflectively, field by field. Catalog objects are looked up by
+     * id among the snapshot copies, collections and maps are copied into unmodifiable ones, and
+     * the other catalog package objects (e.g., keywords, legends, dimensions) are deep copied.
+     * Other objects are considered immutable, save for the few mutable ones handled explicitly.
+     */
+    static class Copier {
+
+        static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+        final Map<String, CatalogInfo> byId;
+
+        /** The catalog objects to fill, by copy */
+        final Map<Object, Object> pending = new IdentityHashMap<>();
+
+        /** The copies of non catalog objects, avoids copying shared ones twice */
+        final Map<Object, Object> copies = new IdentityHashMap<>();
+
+        Copier(Map<String, CatalogInfo> byId) {
+            this.byId = byId;
+        }
+
+        /** Creates the empty copies of the catalog objects, to be filled with {@link #fill()} */
+        <T extends CatalogInfo> List<T> allocate(List<T> infos) {
+            List<T> result = new ArrayList<>(infos.size());
+            for (T info : infos) {
+                T source = ModificationProxy.unwrap(info);
+                T copy = newInstance(source);
+                pending.put(copy, source);
+                byId.put(source.getId(), copy);
+                result.add(copy);
+            }
+            return result;
+        }
+
+        void fill() {
+            pending.forEach(this::copyFields);
+        }
+
+        Object copy(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (Proxy.isProxyClass(value.getClass())) {
+                value = ModificationProxy.unwrap(value);
+            }
+            if (value instanceof CatalogInfo) {
+                CatalogInfo copy = byId.get(((CatalogInfo) value).getId());
+                if (copy != null) {
+                    return copy;
+                }
+            }
+            if (value instanceof Catalog) {
+                return value;
+            }
+            Object copy = copies.get(value);
+            if (copy != null) {
+                return copy;
+            }
+            copy = copyValue(value);
+            if (copy != value) {
+                copies.put(value, copy);
+            }
+            return copy;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object copyValue(Object value) {
+            if (value instanceof MetadataMap) {
+                Map<String, Serializable> map = new HashMap<>();
+                ((MetadataMap) value).forEach((k, v) -> map.put(k, (Serializable) copy(v)));
+                MetadataMap result = new MetadataMap((Map<String, Serializable>) unmodifiable(map));
+                result.setId(((MetadataMap) value).getId());
+                return result;
+            } else if (value instanceof List) {
+                List<Object> list = new ArrayList<>();
+                ((List<?>) value).forEach(v -> list.add(copy(v)));
+                return Collections.unmodifiableList(list);
+            } else if (value instanceof Set) {
+                Set<Object> set = new LinkedHashSet<>();
+                ((Set<?>) value).forEach(v -> set.add(copy(v)));
+                return Collections.unmodifiableSet(set);
+            } else if (value instanceof Map) {
+                Map<Object, Object> map = new LinkedHashMap<>();
+                ((Map<?, ?>) value).forEach((k, v) -> map.put(k, copy(v)));
+                return unmodifiable(map);
+            } else if (value instanceof ReferencedEnvelope) {
+                return ReferencedEnvelope.create((ReferencedEnvelope) value);
+            } else if (value instanceof Date) {
+                return new Date(((Date) value).getTime());
+            } else if (value instanceof InternationalString) {
+                return clone(value);
+            } else if (value.getClass().getName().startsWith("org.geoserver.catalog.")
+                    && !value.getClass().isEnum()) {
+                if (!hasDefaultConstructor(value.getClass())) {
+                    // e.g., Keyword, let the cloner find a copy constructor
+                    return clone(value);
+                }
+                Object copy = newInstance(value);
+                copies.put(value, copy);
+                copyFields(copy, value);
+                return copy;
+            }
+            return value;
+        }
+
+        private static Object clone(Object value) {
+            try {
+                return ModificationProxyCloner.clone(value);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to copy " + value, e);
+            }
+        }
+
+        private static boolean hasDefaultConstructor(Class<?> clazz) {
+            try {
+                clazz.getDeclaredConstructor();
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        /** Returns an unmodifiable map that can still be used in a {@link MetadataMap} */
+        private static Map<?, ?> unmodifiable(Map<?, ?> map) {
+            // the JDK unmodifiable map is serializable as long as the wrapped one is
+            return Collections.unmodifiableMap(map);
+        }
+
+        private void copyFields(Object copy, Object source) {
+            try {
+                for (Field field : getFields(source.getClass())) {
+                    Object value = copy(field.get(source));
+                    if (value != null && !field.getType().isInstance(value)) {
+                        // e.g., a field declared as a concrete collection class, keep a mutable
+                        // copy of it, changes are anyways confined to the snapshot copy
+                        value = clone(field.get(source));
+                    }
+                    field.set(copy, value);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to copy " + source, e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T newInstance(T source) {
+            try {
+                Constructor<?> constructor = source.getClass().getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return (T) constructor.newInstance();
+            } catch (Exception e) {
+                throw new IllegalStateException(
+                        "Cannot copy " + source.getClass().getName() + " in the snapshot", e);
+            }
+        }
+
+        private static List<Field> getFields(Class<?> clazz) {
+            return FIELDS.computeIfAbsent(
+                    clazz,
+                    c -> {
+                        List<Field> fields = new ArrayList<>();
+                        for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+                            for (Field field : k.getDeclaredFields()) {
+                                if (!Modifier.isStatic(field.getModifiers())) {
+                                    field.setAccessible(true);
+                                    fields.add(field);
+                                }
+                            }
+                        }
+                        return fields;
+                    });
+        }
+    }
+}
@@ -11,6 +11,7 @@
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -39,7 +40,13 @@
 import org.geoserver.catalog.util.CloseableIteratorAdapter;
 import org.geoserver.ows.util.OwsUtils;
 import org.geotools.api.feature.type.Name;
+import org.geotools.api.filter.And;
 import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsNull;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
 import org.geotools.api.filter.sort.SortBy;
 import org.geotools.api.filter.sort.SortOrder;
 import org.geotools.feature.NameImpl;
@@ -98,6 +105,8 @@ static final class LayerInfoLookup extends CatalogInfoLookup<LayerInfo> {
 
         public LayerInfoLookup() {
             super(LAYER_NAME_MAPPER);
+            addIndex("resource.id", String.class, l -> id(l.getResource()));
+            addIndex("name", String.class, l -> l.getName());
         }
 
         public void update(ResourceInfo proxiedValue) {
@@ -113,6 +122,7 @@ public void update(ResourceInfo proxiedValue) {
                 // handle case of feature type without a corresponding layer
                 if (value != null) {
                     nameMap.put(newName, value);
+                    updateIndex("name", value, proxiedValue.getName());
                 }
             }
         }
@@ -124,15 +134,46 @@ public LayerInfoLookup setCatalog(Catalog catalog) {
         }
     }
 
+    /** Returns the id of a possibly null catalog object, used to build the secondary indexes */
+    static String id(CatalogInfo info) {
+        return info == null ? null : info.getId();
+    }
+
+    static CatalogInfoLookup<StoreInfo> newStoreLookup() {
+        return new CatalogInfoLookup<>(STORE_NAME_MAPPER)
+                .addIndex("workspace.id", String.class, s -> id(s.getWorkspace()))
+                .addIndex("enabled", Boolean.class, s -> s.isEnabled())
+                .addIndex("name", String.class, s -> s.getName());
+    }
+
+    static CatalogInfoLookup<ResourceInfo> newResourceLookup() {
+        return new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER)
+                .addIndex("store.id", String.class, r -> id(r.getStore()))
+                .addIndex("namespace.id", String.class, r -> id(r.getNamespace()))
+                .addIndex("enabled", Boolean.class, r -> r.isEnabled())
+                .addIndex("name", String.class, r -> r.getName());
+    }
+
+    static CatalogInfoLookup<LayerGroupInfo> newLayerGroupLookup() {
+        return new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER)
+                .addIndex("workspace.id", String.class, lg -> id(lg.getWorkspace()))
+                .addIndex("name", String.class, lg -> lg.getName());
+    }
+
+    static CatalogInfoLookup<StyleInfo> newStyleLookup() {
+        return new CatalogInfoLookup<>(STYLE_NAME_MAPPER)
+                .addIndex("workspace.id", String.class, s -> id(s.getWorkspace()))
+                .addIndex("name", String.class, s -> s.getName());
+    }
+
     /** Contains the stores keyed by implementation class */
-    protected CatalogInfoLookup<StoreInfo> stores = new CatalogInfoLookup<>(STORE_NAME_MAPPER);
+    protected CatalogInfoLookup<StoreInfo> stores = newStoreLookup();
 
     /** The default store keyed by workspace id */
     protected Map<String, DataStoreInfo> defaultStores = new ConcurrentHashMap<>();
 
     /** resources */
-    protected CatalogInfoLookup<ResourceInfo> resources =
-            new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER);
+    protected CatalogInfoLookup<ResourceInfo> resources = newResourceLookup();
 
     /** The default namespace */
     protected volatile NamespaceInfo defaultNamespace;
@@ -154,11 +195,10 @@ public LayerInfoLookup setCatalog(Catalog catalog) {
     protected List<MapInfo> maps = new CopyOnWriteArrayList<>();
 
     /** layer groups */
-    protected CatalogInfoLookup<LayerGroupInfo> layerGroups =
-            new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER);
+    protected CatalogInfoLookup<LayerGroupInfo> layerGroups = newLayerGroupLookup();
 
     /** styles */
-    protected CatalogInfoLookup<StyleInfo> styles = new CatalogInfoLookup<>(STYLE_NAME_MAPPER);
+    protected CatalogInfoLookup<StyleInfo> styles = newStyleLookup();
 
     /** the catalog */
     private CatalogImpl catalog;
@@ -228,7 +268,7 @@ public <T extends StoreInfo> T getStoreByName(
 
         T result;
         if (workspace == ANY_WORKSPACE) {
-            result = stores.findFirst(clazz, s -> name.equals(s.getName()));
+            result = stores.findFirst(clazz, "name", name, s -> name.equals(s.getName()));
         } else {
             Name qname = new NameImpl((workspace != null) ? workspace.getId() : null, name);
             result = stores.findByName(qname, clazz);
@@ -248,7 +288,8 @@ public <T extends StoreInfo> List<T> getStoresByWorkspace(
             ws = workspace;
         }
 
-        List<T> matches = stores.list(clazz, s -> ws.equals(s.getWorkspace()));
+        List<T> matches =
+                stores.list(clazz, "workspace.id", id(ws), s -> ws.equals(s.getWorkspace()));
         return ModificationProxy.createList(matches, clazz);
     }
 
@@ -347,7 +388,7 @@ public <T extends ResourceInfo> T getResourceByName(
             NamespaceInfo namespace, String name, Class<T> clazz) {
         T result;
         if (namespace == ANY_NAMESPACE) {
-            result = resources.findFirst(clazz, r -> name.equals(r.getName()));
+            result = resources.findFirst(clazz, "name", name, r -> name.equals(r.getName()));
         } else {
             Name qname = new NameImpl(namespace != null ? namespace.getId() : null, name);
             result = resources.findByName(qname, clazz);
@@ -373,7 +414,8 @@ public <T extends ResourceInfo> List<T> getResourcesByNamespace(
             ns = namespace;
         }
 
-        List<T> matches = resources.list(clazz, r -> ns.equals(r.getNamespace()));
+        List<T> matches =
+                resources.list(clazz, "namespace.id", id(ns), r -> ns.equals(r.getNamespace()));
         return ModificationProxy.createList(matches, clazz);
     }
 
@@ -410,7 +452,8 @@ private <T extends CatalogInfo> T wrapInModificationProxy(T ci, Class<T> clazz)
 
     @Override
     public <T extends ResourceInfo> List<T> getResourcesByStore(StoreInfo store, Class<T> clazz) {
-        List<T> matches = resources.list(clazz, r -> store.equals(r.getStore()));
+        List<T> matches =
+                resources.list(clazz, "store.id", store.getId(), r -> store.equals(r.getStore()));
         return ModificationProxy.createList(matches, clazz);
     }
 
@@ -458,7 +501,8 @@ public LayerInfo getLayer(String id) {
 
     @Override
     public LayerInfo getLayerByName(String name) {
-        LayerInfo result = layers.findFirst(LayerInfo.class, li -> name.equals(li.getName()));
+        LayerInfo result =
+                layers.findFirst(LayerInfo.class, "name", name, li -> name.equals(li.getName()));
         return wrapInModificationProxy(result, LayerInfo.class);
     }
 
@@ -626,13 +670,17 @@ public List<LayerGroupInfo> getLayerGroupsByWorkspace(WorkspaceInfo workspace) {
             ws = workspace;
         }
         Predicate<LayerGroupInfo> predicate;
+        String workspaceId;
         if (workspace == NO_WORKSPACE) {
             predicate = lg -> lg.getWorkspace() == null;
+            workspaceId = null;
         } else {
             predicate = lg -> ws.equals(lg.getWorkspace());
+            workspaceId = id(ws);
         }
 
-        List<LayerGroupInfo> matches = layerGroups.list(LayerGroupInfo.class, predicate);
+        List<LayerGroupInfo> matches =
+                layerGroups.list(LayerGroupInfo.class, "workspace.id", workspaceId, predicate);
         return ModificationProxy.createList(matches, LayerGroupInfo.class);
     }
 
@@ -653,7 +701,9 @@ public LayerGroupInfo getLayerGroupByName(WorkspaceInfo workspace, String name)
         if (workspace == NO_WORKSPACE) {
             match = layerGroups.findByName(new NameImpl(null, name), LayerGroupInfo.class);
         } else if (ANY_WORKSPACE == workspace) {
-            match = layerGroups.findFirst(LayerGroupInfo.class, lg -> name.equals(lg.getName()));
+            match =
+                    layerGroups.findFirst(
+                            LayerGroupInfo.class, "name", name, lg -> name.equals(lg.getName()));
         } else {
             match =
                     layerGroups.findByName(
@@ -899,7 +949,7 @@ public StyleInfo getStyle(String id) {
     public StyleInfo getStyleByName(String name) {
         StyleInfo match = styles.findByName(new NameImpl(null, name), StyleInfo.class);
         if (match == null) {
-            match = styles.findFirst(StyleInfo.class, s -> name.equals(s.getName()));
+            match = styles.findFirst(StyleInfo.class, "name", name, s -> name.equals(s.getName()));
         }
         return wrapInModificationProxy(match, StyleInfo.class);
     }
@@ -931,7 +981,9 @@ public List<StyleInfo> getStylesByWorkspace(WorkspaceInfo workspace) {
         // TODO: support ANY_WORKSPACE?
         List<StyleInfo> matches;
         if (workspace == NO_WORKSPACE) {
-            matches = styles.list(StyleInfo.class, s -> s.getWorkspace() == null);
+            matches =
+                    styles.list(
+                            StyleInfo.class, "workspace.id", null, s -> s.getWorkspace() == null);
         } else {
             WorkspaceInfo ws;
             if (workspace == null) {
@@ -940,7 +992,12 @@ public List<StyleInfo> getStylesByWorkspace(WorkspaceInfo workspace) {
                 ws = workspace;
             }
 
-            matches = styles.list(StyleInfo.class, s -> ws.equals(s.getWorkspace()));
+            matches =
+                    styles.list(
+                            StyleInfo.class,
+                            "workspace.id",
+                            id(ws),
+                            s -> ws.equals(s.getWorkspace()));
         }
 
         return ModificationProxy.createList(matches, StyleInfo.class);
@@ -982,27 +1039,30 @@ public void resolve() {
 
         // stores
         if (stores == null) {
-            stores = new CatalogInfoLookup<>(STORE_NAME_MAPPER);
+            stores = newStoreLookup();
         }
         for (Object o : stores.values()) {
             resolve((StoreInfoImpl) o);
         }
+        stores.reindex();
 
         // styles
         if (styles == null) {
-            styles = new CatalogInfoLookup<>(STYLE_NAME_MAPPER);
+            styles = newStyleLookup();
         }
         for (StyleInfo s : styles.values()) {
             resolve(s);
         }
+        styles.reindex();
 
         // resources
         if (resources == null) {
-            resources = new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER);
+            resources = newResourceLookup();
         }
         for (Object o : resources.values()) {
             resolve((ResourceInfo) o);
         }
+        resources.reindex();
 
         // layers
         if (layers == null) {
@@ -1011,14 +1071,16 @@ public void resolve() {
         for (LayerInfo l : layers.values()) {
             resolve(l);
         }
+        layers.reindex();
 
         // layer groups
         if (layerGroups == null) {
-            layerGroups = new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER);
+            layerGroups = newLayerGroupLookup();
         }
         for (LayerGroupInfo lg : layerGroups.values()) {
             resolve(lg);
         }
+        layerGroups.reindex();
 
         // maps
         if (maps == null) {
@@ -1166,23 +1228,23 @@ public <T extends CatalogInfo> Iterable<T> iterable(
         List<T> all;
 
         if (NamespaceInfo.class.isAssignableFrom(of)) {
-            all = namespaces.list(of, toPredicate(filter));
+            all = list(namespaces, of, filter);
         } else if (WorkspaceInfo.class.isAssignableFrom(of)) {
-            all = workspaces.list(of, toPredicate(filter));
+            all = list(workspaces, of, filter);
         } else if (StoreInfo.class.isAssignableFrom(of)) {
-            all = stores.list(of, toPredicate(filter));
+            all = list(stores, of, filter);
         } else if (ResourceInfo.class.isAssignableFrom(of)) {
-            all = resources.list(of, toPredicate(filter));
+            all = list(resources, of, filter);
         } else if (LayerInfo.class.isAssignableFrom(of)) {
-            all = layers.list(of, toPredicate(filter));
+            all = list(layers, of, filter);
         } else if (LayerGroupInfo.class.isAssignableFrom(of)) {
-            all = layerGroups.list(of, toPredicate(filter));
+            all = list(layerGroups, of, filter);
         } else if (PublishedInfo.class.isAssignableFrom(of)) {
             all = new ArrayList<>();
-            all.addAll((List<T>) layers.list(LayerInfo.class, toPredicate(filter)));
-            all.addAll((List<T>) layerGroups.list(LayerGroupInfo.class, toPredicate(filter)));
+            all.addAll((List<T>) list(layers, LayerInfo.class, filter));
+            all.addAll((List<T>) list(layerGroups, LayerGroupInfo.class, filter));
         } else if (StyleInfo.class.isAssignableFrom(of)) {
-            all = styles.list(of, toPredicate(filter));
+            all = list(styles, of, filter);
         } else if (MapInfo.class.isAssignableFrom(of)) {
             all = (List<T>) new ArrayList<>(maps);
         } else {
@@ -1203,6 +1265,123 @@ public <T extends CatalogInfo> Iterable<T> iterable(
         return ModificationProxy.createList(all, of);
     }
 
+    /**
+     * Lists the objects matching the filter, using the secondary indexes to narrow down the objects
+     * to be evaluated when possible, or scanning all of them otherwise
+     */
+    private <T extends CatalogInfo, U extends CatalogInfo> List<U> list(
+            CatalogInfoLookup<T> lookup, Class<U> of, Filter filter) {
+        Collection<T> candidates = candidates(lookup, filter);
+        if (candidates == null) {
+            return lookup.list(of, toPredicate(filter));
+        }
+        return lookup.list(of, candidates, toPredicate(filter));
+    }
+
+    /**
+     * Returns a superset of the objects matching the filter, based on the secondary indexes, or
+     * null if the filter cannot be served by them. Only equality and null checks are supported, in
+     * case of a logical AND the most selective one is used.
+     */
+    private <T extends CatalogInfo> Collection<T> candidates(
+            CatalogInfoLookup<T> lookup, Filter filter) {
+        if (filter instanceof And) {
+            Collection<T> best = null;
+            for (Filter child : ((And) filter).getChildren()) {
+                Collection<T> candidates = candidates(lookup, child);
+                if (candidates != null && (best == null || candidates.size() < best.size())) {
+                    best = candidates;
+                }
+            }
+            return best;
+        } else if (filter instanceof PropertyIsEqualTo) {
+            PropertyIsEqualTo equal = (PropertyIsEqualTo) filter;
+            Expression e1 = equal.getExpression1();
+            Expression e2 = equal.getExpression2();
+            if (e1 instanceof Literal && e2 instanceof PropertyName) {
+                e1 = equal.getExpression2();
+                e2 = equal.getExpression1();
+            }
+            if (e1 instanceof PropertyName && e2 instanceof Literal) {
+                Object value = ((Literal) e2).getValue();
+                if (value == null || (value instanceof String && !equal.isMatchingCase())) {
+                    return null;
+                }
+                return candidates(lookup, ((PropertyName) e1).getPropertyName(), value);
+            }
+        } else if (filter instanceof PropertyIsNull) {
+            Expression e = ((PropertyIsNull) filter).getExpression();
+            if (e instanceof PropertyName) {
+                return lookup.lookup(((PropertyName) e).getPropertyName(), null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the objects having the given property value, or null if no index can be used. Paths
+     * going through other catalog objects are resolved by looking up the referenced objects first,
+     * e.g., "store.workspace.name" on resources is resolved looking up the workspace by name, then
+     * the stores by workspace id, and finally the resources by store id.
+     */
+    private <T extends CatalogInfo> Collection<T> candidates(
+            CatalogInfoLookup<T> lookup, String property, Object value) {
+        if ("id".equals(property)
+                || (lookup == workspaces && "name".equals(property))
+                || (lookup == namespaces && "prefix".equals(property))) {
+            if (!(value instanceof String)) {
+                return null;
+            }
+            String key = (String) value;
+            CatalogInfo match =
+                    "id".equals(property)
+                            ? lookup.findById(key, CatalogInfo.class)
+                            : lookup.findByName(new NameImpl(key), CatalogInfo.class);
+            @SuppressWarnings("unchecked")
+            Collection<T> result = match == null ? List.of() : List.of((T) match);
+            return result;
+        }
+
+        Collection<T> direct = lookup.lookup(property, value);
+        if (direct != null) {
+            return direct;
+        }
+
+        int idx = property.indexOf('.');
+        if (idx > 0) {
+            String reference = property.substring(0, idx);
+            String referenceIndex = reference + ".id";
+            CatalogInfoLookup<?> referenced = getReferencedLookup(reference);
+            if (referenced != null && lookup.hasIndex(referenceIndex)) {
+                Collection<? extends CatalogInfo> references =
+                        candidates(referenced, property.substring(idx + 1), value);
+                if (references != null) {
+                    List<T> result = new ArrayList<>();
+                    for (CatalogInfo ref : references) {
+                        result.addAll(lookup.lookup(referenceIndex, ref.getId()));
+                    }
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private CatalogInfoLookup<?> getReferencedLookup(String property) {
+        switch (property) {
+            case "workspace":
+                return workspaces;
+            case "namespace":
+                return namespaces;
+            case "store":
+                return stores;
+            case "resource":
+                return resources;
+            default:
+                return null;
+        }
+    }
+
     private <T> Predicate<T> toPredicate(Filter filter) {
         if (filter != null && filter != Filter.INCLUDE) {
             return o -> filter.evaluate(o);
@@ -0,0 +1,668 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.ows.AbstractDispatcherCallback;
+import org.geoserver.ows.LocalPublished;
+import org.geoserver.ows.LocalWorkspace;
+import org.geoserver.ows.Request;
+import org.geoserver.ows.Response;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.security.GeoServerSecurityManager;
+import org.geoserver.security.SecurityManagerListener;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.geotools.util.logging.Logging;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Caches the GetCapabilities documents, avoiding the full catalog walk when the same document is
+ * requested again. The cache key is made of the service, version, virtual service (workspace and
+ * layer), the roles of the current user, the request parameters and the headers influencing the
+ * base URL of the links in the document. The documents are stored gzip compressed, to keep the
+ * memory usage low, and sent back as is, with a gzip content encoding, to clients accepting it.
+ * Other clients get them uncompressed.
+ *
+ * <p>The entries are invalidated by catalog and configuration changes, as precisely as possible:
+ * changes to objects in a workspace only invalidate the global and workspace specific documents of
+ * that workspace, service configuration changes only invalidate the documents of that service. The
+ * update sequence increment triggered by each change (see {@link UpdateSequenceListener}) is not
+ * considered a change on its own, a document not affected by a change keeps the update sequence it
+ * was generated with. The documents can also contain information that depends on the data, like
+ * dimension domains, so entries expire after a configurable time to live. The documents also
+ * depend on the security configuration: the data access rules are checked for changes on each
+ * request, and a reload of the security subsystem drops all the entries.
+ *
+ * <p>The cache is disabled by default, and can be configured with the following variables (system,
+ * environment or servlet context ones):
+ *
+ * <ul>
+ *   <li>{@link #SERVICES_KEY}: comma separated list of the services whose capabilities are cached
+ *       (e.g., "WMS,WFS")
+ *   <li>{@link #MAX_MEMORY_KEY}: maximum memory used by the compressed documents, in megabytes
+ *   <li>{@link #TTL_KEY}: time to live of the cached documents, in seconds, 0 or negative to never
+ *       expire them
+ * </ul>
+ */
+public class CapabilitiesResponseCache extends AbstractDispatcherCallback
+        implements CatalogListener, SecurityManagerListener {
+
+    static final Logger LOGGER = Logging.getLogger(CapabilitiesResponseCache.class);
+
+    /** Comma separated list of services whose capabilities documents should be cached */
+    public static final String SERVICES_KEY = "GEOSERVER_CAPABILITIES_CACHE_SERVICES";
+
+    /** Maximum memory used by the cache, in megabytes */
+    public static final String MAX_MEMORY_KEY = "GEOSERVER_CAPABILITIES_CACHE_MAX_MEMORY";
+
+    /** Time to live of the cached documents, in seconds */
+    public static final String TTL_KEY = "GEOSERVER_CAPABILITIES_CACHE_TTL";
+
+    static final long DEFAULT_MAX_MEMORY = 32 * 1024 * 1024;
+
+    static final long DEFAULT_TTL = 600;
+
+    /** Headers used to build the proxy base URL, which ends up in the documents */
+    static final List<String> URL_HEADERS =
+            Arrays.asList(
+                    "Host",
+                    "Forwarded",
+                    "X-Forwarded-Proto",
+                    "X-Forwarded-Host",
+                    "X-Forwarded-Port",
+                    "X-Forwarded-Path");
+
+    /** The catalog properties whose change can move an object to a different workspace */
+    static final Set<String> MOVING_PROPERTIES =
+            Set.of("workspace", "namespace", "store", "resource");
+
+    /** Least recently used entries come first */
+    final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    long usedMemory;
+
+    long maxMemory = DEFAULT_MAX_MEMORY;
+
+    volatile long timeToLive = DEFAULT_TTL * 1000;
+
+    volatile Set<String> services = Collections.emptySet();
+
+    final LongAdder hits = new LongAdder();
+
+    final LongAdder misses = new LongAdder();
+
+    /** Set when a global change other than the update sequence increment is being saved */
+    final AtomicBoolean globalChanged = new AtomicBoolean();
+
+    /**
+     * Incremented on each invalidation, documents generated while an invalidation happened are not
+     * cached, as they might be stale already
+     */
+    final AtomicLong invalidations = new AtomicLong();
+
+    /** The data access rules, their changes alter the documents contents */
+    final DataAccessRuleDAO accessRules;
+
+    /** The last modification date of the data access rules the cached documents are based on */
+    final AtomicLong rulesLastModified = new AtomicLong(-1);
+
+    public CapabilitiesResponseCache(
+            GeoServer geoServer,
+            GeoServerSecurityManager securityManager,
+            DataAccessRuleDAO accessRules) {
+        this.accessRules = accessRules;
+        String servicesSpec = GeoServerExtensions.getProperty(SERVICES_KEY);
+        if (servicesSpec != null) {
+            setServices(
+                    Arrays.stream(servicesSpec.split("\\s*,\\s*"))
+                            .filter(s -> !s.isEmpty())
+                            .collect(Collectors.toSet()));
+        }
+        String maxMemorySpec = GeoServerExtensions.getProperty(MAX_MEMORY_KEY);
+        if (maxMemorySpec != null) {
+            try {
+                setMaxMemory(Long.parseLong(maxMemorySpec.trim()) * 1024 * 1024);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + MAX_MEMORY_KEY + ": " + maxMemorySpec);
+            }
+        }
+        String ttlSpec = GeoServerExtensions.getProperty(TTL_KEY);
+        if (ttlSpec != null) {
+            try {
+                setTimeToLive(Long.parseLong(ttlSpec.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + TTL_KEY + ": " + ttlSpec);
+            }
+        }
+
+        geoServer.getCatalog().addListener(this);
+        geoServer.addListener(new ConfigurationInvalidator());
+        securityManager.addListener(this);
+    }
+
+    /** The services whose capabilities are cached, as lower case identifiers */
+    public Set<String> getServices() {
+        return services;
+    }
+
+    /** Sets the services whose capabilities are cached, an empty set disables the cache */
+    public void setServices(Set<String> services) {
+        this.services =
+                services.stream()
+                        .map(s -> s.toLowerCase(Locale.ENGLISH))
+                        .collect(Collectors.toUnmodifiableSet());
+        if (this.services.isEmpty()) {
+            clear();
+        }
+    }
+
+    /** Returns the maximum memory used by the compressed documents, in bytes */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /** Sets the maximum memory used by the compressed documents, in bytes */
+    public synchronized void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+        evict();
+    }
+
+    /** Returns the time to live of the documents, in milliseconds */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /** Sets the time to live of the documents, in milliseconds, zero or negative to disable */
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /** Returns the memory used by the compressed documents, in bytes */
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /** Returns the number of cached documents */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Drops all the cached documents */
+    public synchronized void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+        usedMemory = 0;
+    }
+
+    @Override
+    public Response responseDispatched(
+            Request request, Operation operation, Object result, Response response) {
+        String key = getKey(request);
+        if (key == null) {
+            return response;
+        }
+        checkAccessRules();
+        boolean gzip = acceptsGzip(request.getHttpRequest());
+        return new CachingResponse(response, key, request.getService(), workspaceName(), gzip);
+    }
+
+    /** Drops all the documents if the data access rules changed since they were generated */
+    void checkAccessRules() {
+        long lastModified = accessRules.checkLastModified();
+        if (rulesLastModified.getAndSet(lastModified) != lastModified) {
+            clear();
+        }
+    }
+
+    @Override
+    public void handlePostChanged(GeoServerSecurityManager securityManager) {
+        clear();
+    }
+
+    /** Returns true if the client accepts a gzip content encoding, and did not exclude it */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader("Accept-Encoding");
+        if (header == null) {
+            return false;
+        }
+        for (String coding : header.split(",")) {
+            String[] parts = coding.trim().split("\\s*;\\s*");
+            if ("gzip".equalsIgnoreCase(parts[0]) || "x-gzip".equalsIgnoreCase(parts[0])) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].matches("[qQ]\\s*=\\s*0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the cache key for the request, or null if the request cannot be cached */
+    String getKey(Request request) {
+        if (services.isEmpty()
+                || !"GetCapabilities".equalsIgnoreCase(request.getRequest())
+                || request.getService() == null
+                || !services.contains(request.getService().toLowerCase(Locale.ENGLISH))
+                || request.isSOAP()
+                || request.getHttpRequest() == null
+                || request.getRawKvp() == null
+                || request.getRawKvp().isEmpty()) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(request.getService().toLowerCase(Locale.ENGLISH));
+        sb.append('|').append(request.getVersion());
+        sb.append('|').append(workspaceName());
+        sb.append('|').append(LocalPublished.get() != null ? LocalPublished.get().getName() : "");
+        sb.append('|').append(roles());
+        Map<String, Object> kvp = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        kvp.putAll(request.getRawKvp());
+        sb.append('|').append(kvp);
+        HttpServletRequest http = request.getHttpRequest();
+        sb.append('|').append(http.getRequestURL());
+        for (String header : URL_HEADERS) {
+            String value = http.getHeader(header);
+            if (value != null) {
+                sb.append('|').append(header).append('=').append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    private String workspaceName() {
+        WorkspaceInfo ws = LocalWorkspace.get();
+        return ws != null ? ws.getName() : null;
+    }
+
+    /** The sorted roles of the current user, anonymous access included */
+    private Set<String> roles() {
+        Set<String> roles = new TreeSet<>();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getAuthorities() != null) {
+            for (GrantedAuthority authority : auth.getAuthorities()) {
+                roles.add(authority.getAuthority());
+            }
+        }
+        return roles;
+    }
+
+    synchronized byte[] get(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (timeToLive > 0 && System.currentTimeMillis() - entry.created > timeToLive) {
+            remove(key, entry);
+            return null;
+        }
+        return entry.document;
+    }
+
+    synchronized void put(String key, CacheEntry entry, long generation) {
+        if (entry.document.length > maxMemory || generation != invalidations.get()) {
+            return;
+        }
+        CacheEntry previous = entries.put(key, entry);
+        if (previous != null) {
+            usedMemory -= previous.document.length;
+        }
+        usedMemory += entry.document.length;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<CacheEntry> it = entries.values().iterator();
+        while (usedMemory > maxMemory && it.hasNext()) {
+            usedMemory -= it.next().document.length;
+            it.remove();
+        }
+    }
+
+    private void remove(String key, CacheEntry entry) {
+        entries.remove(key);
+        usedMemory -= entry.document.length;
+    }
+
+    /** Removes all the entries matching the predicate */
+    synchronized void invalidate(Predicate<CacheEntry> predicate) {
+        invalidations.incrementAndGet();
+        Iterator<CacheEntry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            CacheEntry entry = it.next();
+            if (predicate.test(entry)) {
+                usedMemory -= entry.document.length;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Invalidates the documents that can contain objects from the given workspace, the global ones
+     * and the workspace specific ones. A null workspace invalidates everything.
+     */
+    void invalidateWorkspace(String workspace) {
+        if (workspace == null) {
+            clear();
+        } else {
+            invalidate(e -> e.workspace == null || e.workspace.equals(workspace));
+        }
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+        invalidateWorkspace(getWorkspaceName(event.getSource()));
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+        invalidateWorkspace(getWorkspaceName(event.getSource()));
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+        // the object can be moved to a different workspace, in which case we cannot
+        // tell where it was, and everything needs to go
+        if (event.getPropertyNames().stream().anyMatch(p -> MOVING_PROPERTIES.contains(p))) {
+            clear();
+        }
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+        invalidateWorkspace(getWorkspaceName(event.getSource()));
+    }
+
+    @Override
+    public void reloaded() {
+        clear();
+    }
+
+    /**
+     * Returns the name of the workspace containing the object, or null if the object is global, or
+     * affects all workspaces (e.g., a workspace or namespace rename)
+     */
+    static String getWorkspaceName(CatalogInfo info) {
+        WorkspaceInfo ws = null;
+        if (info instanceof StoreInfo) {
+            ws = ((StoreInfo) info).getWorkspace();
+        } else if (info instanceof ResourceInfo) {
+            StoreInfo store = ((ResourceInfo) info).getStore();
+            ws = store != null ? store.getWorkspace() : null;
+        } else if (info instanceof LayerInfo) {
+            ResourceInfo resource = ((LayerInfo) info).getResource();
+            return resource != null ? getWorkspaceName(resource) : null;
+        } else if (info instanceof LayerGroupInfo) {
+            ws = ((LayerGroupInfo) info).getWorkspace();
+        } else if (info instanceof StyleInfo) {
+            ws = ((StyleInfo) info).getWorkspace();
+        } else if (info instanceof NamespaceInfo || info instanceof WorkspaceInfo) {
+            return null;
+        }
+        return ws != null ? ws.getName() : null;
+    }
+
+    /** A cached, compressed capabilities document */
+    static class CacheEntry {
+        final String service;
+
+        final String workspace;
+
+        final byte[] document;
+
+        final long created = System.currentTimeMillis();
+
+        CacheEntry(String service, String workspace, byte[] document) {
+            this.service = service.toLowerCase(Locale.ENGLISH);
+            this.workspace = workspace;
+            this.document = document;
+        }
+    }
+
+    /** Invalidates the documents on configuration changes */
+    class ConfigurationInvalidator extends ConfigurationListenerAdapter {
+
+        @Override
+        public void handleGlobalChange(
+                GeoServerInfo global,
+                List<String> propertyNames,
+                List<Object> oldValues,
+                List<Object> newValues) {
+            // the update sequence is incremented on every change, it's not a change on its own
+            if (propertyNames.stream().anyMatch(p -> !"updateSequence".equalsIgnoreCase(p))) {
+                globalChanged.set(true);
+            }
+        }
+
+        @Override
+        public void handlePostGlobalChange(GeoServerInfo global) {
+            if (globalChanged.getAndSet(false)) {
+                clear();
+            }
+        }
+
+        @Override
+        public void handleSettingsAdded(SettingsInfo settings) {
+            invalidateSettings(settings);
+        }
+
+        @Override
+        public void handleSettingsPostModified(SettingsInfo settings) {
+            invalidateSettings(settings);
+        }
+
+        @Override
+        public void handleSettingsRemoved(SettingsInfo settings) {
+            invalidateSettings(settings);
+        }
+
+        private void invalidateSettings(SettingsInfo settings) {
+            WorkspaceInfo ws = settings.getWorkspace();
+            if (ws == null) {
+                clear();
+            } else {
+                String name = ws.getName();
+                invalidate(e -> name.equals(e.workspace));
+            }
+        }
+
+        @Override
+        public void handlePostServiceChange(ServiceInfo service) {
+            invalidateService(service);
+        }
+
+        @Override
+        public void handleServiceRemove(ServiceInfo service) {
+            invalidateService(service);
+        }
+
+        private void invalidateService(ServiceInfo service) {
+            if (service.getName() == null) {
+                clear();
+                return;
+            }
+            // a global service change affects the workspaces without a specific configuration too
+            String id = service.getName().toLowerCase(Locale.ENGLISH);
+            WorkspaceInfo ws = service.getWorkspace();
+            if (ws == null) {
+                invalidate(e -> id.equals(e.service));
+            } else {
+                String name = ws.getName();
+                invalidate(e -> id.equals(e.service) && name.equals(e.workspace));
+            }
+        }
+
+        @Override
+        public void reloaded() {
+            clear();
+        }
+    }
+
+    /** Serves the document from the cache, or generates it and caches it */
+    class CachingResponse extends Response {
+
+        Response delegate;
+
+        String key;
+
+        String service;
+
+        String workspace;
+
+        /** Whether the client accepts the cached document as is, gzip compressed */
+        boolean gzip;
+
+        /**
+         * The cached document, looked up once so that the headers and the contents are consistent
+         */
+        byte[] cached;
+
+        boolean lookedUp;
+
+        public CachingResponse(
+                Response delegate, String key, String service, String workspace, boolean gzip) {
+            super(delegate.getBinding());
+            this.delegate = delegate;
+            this.key = key;
+            this.service = service;
+            this.workspace = workspace;
+            this.gzip = gzip;
+        }
+
+        private byte[] getCached() {
+            if (!lookedUp) {
+                cached = get(key);
+                lookedUp = true;
+            }
+            return cached;
+        }
+
+        @Override
+        public boolean canHandle(Operation operation) {
+            return delegate.canHandle(operation);
+        }
+
+        @Override
+        public String getMimeType(Object value, Operation operation) throws ServiceException {
+            return delegate.getMimeType(value, operation);
+        }
+
+        @Override
+        public String[][] getHeaders(Object value, Operation operation) throws ServiceException {
+            String[][] headers = delegate.getHeaders(value, operation);
+            if (!gzip || getCached() == null) {
+                return headers;
+            }
+            // the GZIP filter leaves alone responses that already have a content encoding
+            String[] encoding = {"Content-Encoding", "gzip"};
+            if (headers == null) {
+                return new String[][] {encoding};
+            }
+            String[][] result = Arrays.copyOf(headers, headers.length + 1);
+            result[headers.length] = encoding;
+            return result;
+        }
+
+        @Override
+        public void write(Object value, OutputStream output, Operation operation)
+                throws IOException, ServiceException {
+            byte[] cached = getCached();
+            if (cached != null) {
+                hits.increment();
+                if (gzip) {
+                    output.write(cached);
+                } else {
+                    try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(cached))) {
+                        IOUtils.copy(is, output);
+                    }
+                }
+                return;
+            }
+
+            misses.increment();
+            long generation = invalidations.get();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            GZIPOutputStream gzip = new GZIPOutputStream(bos);
+            // the copy must survive the delegate closing the stream, the gzip needs finishing
+            OutputStream copy = CloseShieldOutputStream.wrap(gzip);
+            delegate.write(value, new TeeOutputStream(output, copy), operation);
+            gzip.finish();
+            put(key, new CacheEntry(service, workspace, bos.toByteArray()), generation);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Cached capabilities document " + key + ", " + bos.size() + " bytes");
+            }
+        }
+
+        @Override
+        public String getPreferredDisposition(Object value, Operation operation) {
+            return delegate.getPreferredDisposition(value, operation);
+        }
+
+        @Override
+        public String getAttachmentFileName(Object value, Operation operation) {
+            return delegate.getAttachmentFileName(value, operation);
+        }
+
+        @Override
+        public String getCharset(Operation operation) {
+            return delegate.getCharset(operation);
+        }
+    }
+}
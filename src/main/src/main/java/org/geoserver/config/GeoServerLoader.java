@@ -240,6 +240,12 @@ public void accept(LayerContents lc) {
 
     static final ExtensionFilter XML_FILTER = new Resources.ExtensionFilter("XML");
 
+    /**
+     * Property enabling the parallel catalog loading, where each type of configuration object is
+     * parsed by a pool of threads and then added to the catalog in a deterministic order
+     */
+    public static final String PARALLEL_LOADING_KEY = "GEOSERVER_PARALLEL_CATALOG_LOADING";
+
     protected GeoServerResourceLoader resourceLoader;
     GeoServer geoserver;
     XStreamPersisterFactory xpf = new XStreamPersisterFactory();
@@ -250,8 +256,12 @@ public void accept(LayerContents lc) {
     // this ugly hack can die
     static boolean legacy = false;
 
+    boolean parallelLoading;
+
     public GeoServerLoader(GeoServerResourceLoader resourceLoader) {
         this.resourceLoader = resourceLoader;
+        this.parallelLoading =
+                Boolean.parseBoolean(GeoServerExtensions.getProperty(PARALLEL_LOADING_KEY));
     }
 
     public void setApplicationContext(ApplicationContext applicationContext)
@@ -265,6 +275,16 @@ public static void setLegacy(boolean legacy) {
         GeoServerLoader.legacy = legacy;
     }
 
+    /** Returns true if the catalog is loaded using the parallel loader */
+    public boolean isParallelLoading() {
+        return parallelLoading;
+    }
+
+    /** Enables or disables the parallel catalog loading, see {@link #PARALLEL_LOADING_KEY} */
+    public void setParallelLoading(boolean parallelLoading) {
+        this.parallelLoading = parallelLoading;
+    }
+
     public final Object postProcessAfterInitialization(Object bean, String beanName)
             throws BeansException {
         return bean;
@@ -526,6 +546,24 @@ Catalog readCatalog(XStreamPersister xp) throws Exception {
             catalog.setExtendedValidation(false);
         }
 
+        if (parallelLoading) {
+            new ParallelCatalogLoader(this, catalog, xp, checkStores).load();
+        } else {
+            loadCatalogContents(catalog, xp, checkStores);
+        }
+
+        xp.setUnwrapNulls(true);
+        catalog.resolve();
+        // re-enable extended validation
+        if (!checkStores) {
+            catalog.setExtendedValidation(true);
+        }
+        return catalog;
+    }
+
+    /** Loads styles, workspaces, stores, resources, layers and layer groups one by one */
+    private void loadCatalogContents(CatalogImpl catalog, XStreamPersister xp, boolean checkStores)
+            throws IOException {
         // global styles
         loadStyles(resourceLoader.get("styles"), catalog, xp);
 
@@ -693,13 +731,6 @@ Catalog readCatalog(XStreamPersister xp) throws Exception {
         if (layergroups != null) {
             loadLayerGroups(layergroups, catalog, xp);
         }
-        xp.setUnwrapNulls(true);
-        catalog.resolve();
-        // re-enable extended validation
-        if (!checkStores) {
-            catalog.setExtendedValidation(true);
-        }
-        return catalog;
     }
 
     private void loadWmsStore(
@@ -867,7 +898,7 @@ private void loadDataStore(
      * Some config directories in GeoServer are used to store workspace specific configurations,
      * identify them so that we don't log complaints about their existence
      */
-    private boolean isConfigDirectory(Resource dir) {
+    static boolean isConfigDirectory(Resource dir) {
         String name = dir.name();
         boolean result = "styles".equals(name) || "layergroups".equals(name);
         return result;
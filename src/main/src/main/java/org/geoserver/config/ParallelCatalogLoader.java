@@ -0,0 +1,651 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import static org.geoserver.config.GeoServerLoader.COVERAGE_LAYER_MAPPER;
+import static org.geoserver.config.GeoServerLoader.FEATURE_LAYER_MAPPER;
+import static org.geoserver.config.GeoServerLoader.WMS_LAYER_MAPPER;
+import static org.geoserver.config.GeoServerLoader.WMTS_LAYER_MAPPER;
+import static org.geoserver.config.GeoServerLoader.XML_FILTER;
+import static org.geoserver.config.GeoServerLoader.depersist;
+
+import com.google.common.base.Stopwatch;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.CoverageStoreInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WMSLayerInfo;
+import org.geoserver.catalog.WMSStoreInfo;
+import org.geoserver.catalog.WMTSLayerInfo;
+import org.geoserver.catalog.WMTSStoreInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.config.GeoServerLoader.LayerContents;
+import org.geoserver.config.GeoServerLoader.ResourceLayerMapper;
+import org.geoserver.config.GeoServerLoader.WorkspaceContents;
+import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.platform.resource.Resources;
+import org.geoserver.util.Filter;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Loads the catalog contents in phases (workspaces, styles, stores, resources, layers, layer
+ * groups). In each phase the configuration files are read and parsed by a fork-join pool, and then
+ * added to the catalog from the calling thread, sorted by path. References are resolved against
+ * the objects loaded in the previous phases, or left as proxies to be resolved at the end of the
+ * load, so the outcome does not depend on thread scheduling.
+ *
+ * <p>Stores are parsed on the calling thread, as the password decryption needs to look up the
+ * security manager, which cannot be done from a different thread while the application context is
+ * being initialized.
+ *
+ * <p>{@link XStreamPersister} is not thread safe, the worker threads parse with their own
+ * persister, created from the loader factory and set up like the one of the calling thread.
+ */
+class ParallelCatalogLoader {
+
+    static final Logger LOGGER = Logging.getLogger(ParallelCatalogLoader.class);
+
+    /** Property setting the number of threads used to parse the catalog */
+    static final String PARALLELISM_KEY = "GEOSERVER_CATALOG_LOADING_PARALLELISM";
+
+    /** The loading phases, in execution order */
+    enum Phase {
+        WORKSPACES,
+        STYLES,
+        STORES,
+        RESOURCES,
+        LAYERS,
+        LAYER_GROUPS
+    }
+
+    /** The supported store types, with their configuration file and resource types */
+    enum StoreType {
+        DATA("datastore.xml", DataStoreInfo.class, FeatureTypeInfo.class, FEATURE_LAYER_MAPPER),
+        COVERAGE(
+                "coveragestore.xml",
+                CoverageStoreInfo.class,
+                CoverageInfo.class,
+                COVERAGE_LAYER_MAPPER),
+        WMS("wmsstore.xml", WMSStoreInfo.class, WMSLayerInfo.class, WMS_LAYER_MAPPER),
+        WMTS("wmtsstore.xml", WMTSStoreInfo.class, WMTSLayerInfo.class, WMTS_LAYER_MAPPER);
+
+        final String fileName;
+        final Class<? extends StoreInfo> storeClass;
+        final Class<? extends ResourceInfo> resourceClass;
+        final ResourceLayerMapper mapper;
+
+        StoreType(
+                String fileName,
+                Class<? extends StoreInfo> storeClass,
+                Class<? extends ResourceInfo> resourceClass,
+                ResourceLayerMapper mapper) {
+            this.fileName = fileName;
+            this.storeClass = storeClass;
+            this.resourceClass = resourceClass;
+            this.mapper = mapper;
+        }
+    }
+
+    /** Outcome of parsing a configuration file */
+    static final class Parsed<T> {
+        final Resource resource;
+        final T info;
+        final Exception error;
+
+        Parsed(Resource resource, T info, Exception error) {
+            this.resource = resource;
+            this.info = info;
+            this.error = error;
+        }
+
+        /** Returns the parsed object, or throws the parsing failure */
+        T get() throws Exception {
+            if (error != null) throw error;
+            return info;
+        }
+    }
+
+    /** A parsed workspace, along with its namespace */
+    static final class ParsedWorkspace {
+        final Resource directory;
+        final Parsed<WorkspaceInfo> workspace;
+        final Parsed<NamespaceInfo> namespace;
+
+        ParsedWorkspace(
+                Resource directory,
+                Parsed<WorkspaceInfo> workspace,
+                Parsed<NamespaceInfo> namespace) {
+            this.directory = directory;
+            this.workspace = workspace;
+            this.namespace = namespace;
+        }
+    }
+
+    /** A store directory, along with its type */
+    static final class StoreDirectory {
+        final Resource directory;
+        final StoreType type;
+
+        StoreDirectory(Resource directory, StoreType type) {
+            this.directory = directory;
+            this.type = type;
+        }
+    }
+
+    /** A parsed resource, keeping the layer contents around for the next phase */
+    static final class ParsedResource {
+        final LayerContents contents;
+        final Parsed<? extends ResourceInfo> resource;
+
+        ParsedResource(LayerContents contents, Parsed<? extends ResourceInfo> resource) {
+            this.contents = contents;
+            this.resource = resource;
+        }
+    }
+
+    @FunctionalInterface
+    interface Parser<T, R> {
+        R parse(T source) throws Exception;
+    }
+
+    private final GeoServerLoader loader;
+
+    private final CatalogImpl catalog;
+
+    private final XStreamPersister xp;
+
+    /** The persisters of the worker threads */
+    private final ThreadLocal<XStreamPersister> workerPersisters =
+            ThreadLocal.withInitial(this::createWorkerPersister);
+
+    private final boolean checkStores;
+
+    private final Map<Phase, Long> timings = new EnumMap<>(Phase.class);
+
+    private ForkJoinPool pool;
+
+    ParallelCatalogLoader(
+            GeoServerLoader loader, CatalogImpl catalog, XStreamPersister xp, boolean checkStores) {
+        this.loader = loader;
+        this.catalog = catalog;
+        this.xp = xp;
+        this.checkStores = checkStores;
+    }
+
+    /** Returns the time spent in each loading phase, in milliseconds */
+    Map<Phase, Long> getTimings() {
+        return timings;
+    }
+
+    /** Loads the catalog contents */
+    void load() throws Exception {
+        pool = createPool();
+        try {
+            GeoServerResourceLoader resourceLoader = loader.resourceLoader;
+            Resource workspaces = resourceLoader.get("workspaces");
+            List<Resource> workspaceDirectories = new ArrayList<>();
+            List<Resource> loadedWorkspaces = new ArrayList<>();
+            if (Resources.exists(workspaces)) {
+                workspaceDirectories = list(workspaces, Resources.DirectoryFilter.INSTANCE);
+                loadedWorkspaces = loadWorkspaces(workspaces, workspaceDirectories);
+            } else {
+                LOGGER.warning("No 'workspaces' directory found, unable to load any stores.");
+            }
+
+            List<Resource> styleDirectories = new ArrayList<>();
+            styleDirectories.add(resourceLoader.get("styles"));
+            loadedWorkspaces.forEach(ws -> styleDirectories.add(ws.get("styles")));
+            loadStyles(styleDirectories);
+
+            List<StoreDirectory> stores = loadStores(workspaceDirectories);
+            List<LayerContents> layers = loadResources(stores);
+            loadLayers(layers);
+
+            List<Resource> groupDirectories = new ArrayList<>();
+            workspaceDirectories.forEach(ws -> groupDirectories.add(ws.get("layergroups")));
+            groupDirectories.add(resourceLoader.get("layergroups"));
+            loadLayerGroups(groupDirectories);
+
+            if (LOGGER.isLoggable(Level.INFO)) {
+                LOGGER.info(
+                        "Catalog loaded with parallelism "
+                                + pool.getParallelism()
+                                + ", phase timings (ms): "
+                                + timings);
+            }
+        } finally {
+            pool.shutdownNow();
+            workerPersisters.remove();
+        }
+    }
+
+    private XStreamPersister createWorkerPersister() {
+        XStreamPersister persister = loader.xpf.createXMLPersister();
+        persister.setCatalog(catalog);
+        persister.setUnwrapNulls(false);
+        return persister;
+    }
+
+    private List<Resource> loadWorkspaces(Resource workspaces, List<Resource> directories) {
+        Stopwatch sw = Stopwatch.createStarted();
+        // do a first quick scan over all workspaces, setting the default
+        Resource dws = workspaces.get("default.xml");
+        WorkspaceInfo defaultWorkspace = null;
+        if (Resources.exists(dws)) {
+            try {
+                defaultWorkspace = loader.depersist(xp, dws, WorkspaceInfo.class);
+                if (LOGGER.isLoggable(Level.CONFIG)) {
+                    LOGGER.config("Loaded default workspace '" + defaultWorkspace.getName() + "'");
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to load default workspace", e);
+            }
+        } else {
+            LOGGER.warning("No default workspace was found.");
+        }
+
+        GeoServerLoader.WorkspaceMapper mapper = new GeoServerLoader.WorkspaceMapper();
+        List<ParsedWorkspace> parsed =
+                parallel(
+                        directories,
+                        dir -> {
+                            WorkspaceContents wc = mapper.apply(dir);
+                            if (wc == null) return null;
+                            return new ParsedWorkspace(
+                                    dir,
+                                    parse(wc.resource, wc.contents, WorkspaceInfo.class),
+                                    parse(wc.resource, wc.nsContents, NamespaceInfo.class));
+                        });
+
+        List<Resource> loaded = new ArrayList<>();
+        for (ParsedWorkspace pw : parsed) {
+            final Resource workspaceResource = pw.directory;
+            WorkspaceInfo ws;
+            try {
+                ws = pw.workspace.get();
+                catalog.add(ws);
+                LOGGER.log(
+                        Level.CONFIG, () -> String.format("Loaded workspace '%s'", ws.getName()));
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Failed to load workspace '" + workspaceResource.name() + "'",
+                        e);
+                continue;
+            }
+            loaded.add(workspaceResource);
+
+            NamespaceInfo ns = null;
+            try {
+                ns = pw.namespace.get();
+                catalog.add(ns);
+            } catch (Exception e) {
+                ns = null;
+                LOGGER.log(
+                        Level.WARNING,
+                        "Failed to load namespace for '" + workspaceResource.name() + "'",
+                        e);
+            }
+
+            // same default workspace handling as the sequential loader
+            if (defaultWorkspace != null) {
+                if (ws.getName().equals(defaultWorkspace.getName())) {
+                    catalog.setDefaultWorkspace(ws);
+                    if (ns != null) {
+                        catalog.setDefaultNamespace(ns);
+                    }
+                }
+            } else {
+                defaultWorkspace = catalog.getDefaultWorkspace();
+                if (defaultWorkspace != null) {
+                    try {
+                        loader.persist(xp, defaultWorkspace, dws);
+                    } catch (Exception e) {
+                        LOGGER.log(
+                                Level.WARNING,
+                                "Failed to persist default workspace '"
+                                        + workspaceResource.name()
+                                        + "'",
+                                e);
+                    }
+                }
+            }
+        }
+        record(Phase.WORKSPACES, loaded.size(), sw);
+        return loaded;
+    }
+
+    private void loadStyles(List<Resource> directories) {
+        Stopwatch sw = Stopwatch.createStarted();
+        List<Resource> files =
+                parallelFlatMap(
+                        directories,
+                        styles -> {
+                            Filter<Resource> styleFilter =
+                                    r ->
+                                            XML_FILTER.accept(r)
+                                                    && !Resources.exists(
+                                                            styles.get(r.name() + ".xml"));
+                            return list(styles, styleFilter);
+                        });
+        List<Parsed<StyleInfo>> parsed =
+                parallel(files, r -> parse(r, r.getContents(), StyleInfo.class));
+        int count = 0;
+        for (Parsed<StyleInfo> p : parsed) {
+            try {
+                StyleInfo s = p.get();
+                catalog.add(s);
+                count++;
+                LOGGER.config("Loaded style '" + s.getName() + "'");
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to load style" + p.resource.name(), e);
+            }
+        }
+        record(Phase.STYLES, count, sw);
+    }
+
+    private List<StoreDirectory> loadStores(List<Resource> workspaces) {
+        Stopwatch sw = Stopwatch.createStarted();
+        List<Resource> directories =
+                parallelFlatMap(workspaces, ws -> list(ws, Resources.DirectoryFilter.INSTANCE));
+        // read the files in parallel, but parse on this thread, see class javadoc
+        List<GeoServerLoader.SingleResourceContents> contents =
+                parallel(
+                        directories,
+                        sd -> {
+                            for (StoreType type : StoreType.values()) {
+                                Resource f = sd.get(type.fileName);
+                                if (Resources.exists(f)) {
+                                    return new GeoServerLoader.SingleResourceContents(
+                                            f, f.getContents());
+                                }
+                            }
+                            if (!GeoServerLoader.isConfigDirectory(sd)) {
+                                LOGGER.warning("Ignoring store directory '" + sd.name() + "'");
+                            }
+                            return null;
+                        });
+
+        List<StoreDirectory> loaded = new ArrayList<>();
+        for (GeoServerLoader.SingleResourceContents src : contents) {
+            StoreType type = getStoreType(src.resource);
+            StoreInfo store;
+            try {
+                store = depersist(xp, src.contents, type.storeClass);
+                catalog.add(store);
+                if (LOGGER.isLoggable(Level.CONFIG)) {
+                    LOGGER.config(
+                            "Loaded store '"
+                                    + store.getName()
+                                    + "', "
+                                    + (store.isEnabled() ? "enabled" : "disabled"));
+                }
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Failed to load store '" + src.resource.parent().name() + "'",
+                        e);
+                continue;
+            }
+            if (checkStores && store instanceof DataStoreInfo && store.isEnabled()) {
+                checkDataStore((DataStoreInfo) store);
+            }
+            loaded.add(new StoreDirectory(src.resource.parent(), type));
+        }
+        record(Phase.STORES, loaded.size(), sw);
+        return loaded;
+    }
+
+    private StoreType getStoreType(Resource resource) {
+        for (StoreType type : StoreType.values()) {
+            if (type.fileName.equals(resource.name())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Not a store configuration: " + resource.path());
+    }
+
+    /** Connects to the data store, disabling it in case of failure */
+    private void checkDataStore(DataStoreInfo ds) {
+        try {
+            ds.getDataStore(null);
+        } catch (Throwable t) {
+            LOGGER.warning("Error connecting to '" + ds.getName() + "'. Disabling.");
+            LOGGER.log(Level.INFO, "", t);
+
+            ds.setError(t);
+            ds.setEnabled(false);
+        }
+    }
+
+    private List<LayerContents> loadResources(List<StoreDirectory> stores) {
+        Stopwatch sw = Stopwatch.createStarted();
+        List<ParsedResource> parsed =
+                parallelFlatMap(
+                        stores,
+                        store -> {
+                            List<ParsedResource> result = new ArrayList<>();
+                            for (Resource rd :
+                                    list(store.directory, Resources.DirectoryFilter.INSTANCE)) {
+                                LayerContents lc = store.type.mapper.apply(rd);
+                                if (lc != null) {
+                                    Class<? extends ResourceInfo> clazz = store.type.resourceClass;
+                                    result.add(
+                                            new ParsedResource(
+                                                    lc, parse(rd, lc.contents, clazz)));
+                                }
+                            }
+                            return result;
+                        });
+
+        List<LayerContents> loaded = new ArrayList<>();
+        for (ParsedResource p : parsed) {
+            ResourceInfo resource;
+            try {
+                resource = p.resource.get();
+                catalog.add(resource);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to load resource", e);
+                continue;
+            }
+            if (LOGGER.isLoggable(Level.CONFIG)) {
+                LOGGER.config(
+                        "Loaded resource '"
+                                + p.contents.resource.name()
+                                + "', "
+                                + (resource.isEnabled() ? "enabled" : "disabled"));
+            }
+            loaded.add(p.contents);
+        }
+        record(Phase.RESOURCES, loaded.size(), sw);
+        return loaded;
+    }
+
+    private void loadLayers(List<LayerContents> layers) {
+        Stopwatch sw = Stopwatch.createStarted();
+        List<Parsed<LayerInfo>> parsed =
+                parallel(layers, lc -> parse(lc.resource, lc.layerContents, LayerInfo.class));
+        int count = 0;
+        for (Parsed<LayerInfo> p : parsed) {
+            try {
+                LayerInfo l = p.get();
+                catalog.add(l);
+                count++;
+
+                LOGGER.config("Loaded layer '" + l.getName() + "'");
+
+                for (StyleInfo style : l.getStyles()) {
+                    if (null == style) {
+                        LOGGER.log(
+                                Level.SEVERE,
+                                "Layer '" + l.getName() + "' references a missing style");
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to load layer " + p.resource.name(), e);
+            }
+        }
+        record(Phase.LAYERS, count, sw);
+    }
+
+    private void loadLayerGroups(List<Resource> directories) {
+        Stopwatch sw = Stopwatch.createStarted();
+        List<Resource> files = parallelFlatMap(directories, d -> list(d, XML_FILTER));
+        List<Parsed<LayerGroupInfo>> parsed =
+                parallel(files, r -> parse(r, r.getContents(), LayerGroupInfo.class));
+        int count = 0;
+        for (Parsed<LayerGroupInfo> p : parsed) {
+            try {
+                LayerGroupInfo lg = p.get();
+                if (lg.getLayers() == null || lg.getLayers().size() == 0) {
+                    LOGGER.warning(
+                            "Skipping empty layer group '" + lg.getName() + "', it is invalid");
+                    continue;
+                }
+                catalog.add(lg);
+                count++;
+
+                LOGGER.config("Loaded layer group '" + lg.getName() + "'");
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to load layer group " + p.resource.name(), e);
+            }
+        }
+        record(Phase.LAYER_GROUPS, count, sw);
+    }
+
+    private void record(Phase phase, int count, Stopwatch sw) {
+        long elapsed = sw.stop().elapsed(TimeUnit.MILLISECONDS);
+        timings.put(phase, elapsed);
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info(
+                    "Loaded "
+                            + count
+                            + " "
+                            + phase.name().toLowerCase(Locale.ENGLISH).replace('_', ' ')
+                            + " in "
+                            + elapsed
+                            + " ms");
+        }
+    }
+
+    /** Parses the contents, capturing the failure if any */
+    private <T> Parsed<T> parse(Resource resource, byte[] contents, Class<T> clazz) {
+        try {
+            XStreamPersister persister = workerPersisters.get();
+            return new Parsed<>(resource, depersist(persister, contents, clazz), null);
+        } catch (Exception e) {
+            return new Parsed<>(resource, null, e);
+        }
+    }
+
+    /** Lists the children of the directory matching the filter, sorted by name */
+    private static List<Resource> list(Resource directory, Filter<Resource> filter) {
+        if (!Resources.exists(directory)) {
+            return new ArrayList<>();
+        }
+        return directory.list().stream()
+                .filter(filter::accept)
+                .sorted(Comparator.comparing(Resource::name))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Applies the parser to all the items in the fork-join pool, returning the non null results in
+     * the same order as the items. Parsers are expected to report failures in their results, an
+     * exception thrown by the parser is logged and the item skipped.
+     */
+    private <T, R> List<R> parallel(List<T> items, Parser<T, R> parser) {
+        return submit(items, stream -> stream.map(i -> apply(parser, i)));
+    }
+
+    /** Same as {@link #parallel(List, Parser)}, but each item can result in multiple values */
+    private <T, R> List<R> parallelFlatMap(List<T> items, Parser<T, List<R>> parser) {
+        return submit(
+                items,
+                stream ->
+                        stream.map(i -> apply(parser, i))
+                                .filter(Objects::nonNull)
+                                .flatMap(List::stream));
+    }
+
+    private <T, R> List<R> submit(List<T> items, Function<Stream<T>, Stream<R>> mapper) {
+        try {
+            return pool.submit(
+                            () ->
+                                    mapper.apply(items.parallelStream())
+                                            .filter(Objects::nonNull)
+                                            .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the catalog", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load the catalog", e.getCause());
+        }
+    }
+
+    private static <T, R> R apply(Parser<T, R> parser, T item) {
+        try {
+            return parser.parse(item);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load " + item, e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the pool, the worker threads use the context class loader of the caller, as the
+     * common pool ones might not see the web application classes
+     */
+    private static ForkJoinPool createPool() {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String value = GeoServerExtensions.getProperty(PARALLELISM_KEY);
+        if (value != null) {
+            try {
+                parallelism = Math.max(1, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + PARALLELISM_KEY + ": " + value);
+            }
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return new ForkJoinPool(
+                parallelism,
+                p -> {
+                    ForkJoinWorkerThread thread =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    thread.setName("GeoServerCatalogLoader-" + thread.getPoolIndex());
+                    thread.setContextClassLoader(classLoader);
+                    return thread;
+                },
+                null,
+                false);
+    }
+}
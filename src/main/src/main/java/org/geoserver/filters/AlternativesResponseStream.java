@@ -70,7 +70,10 @@ protected ServletOutputStream getStream() throws IOException {
         //            logger.warning("Mime type was not set before first write!");
         //        }
 
-        if (type != null && isCompressible(type)) {
+        // the content might have been encoded already, e.g., a cached gzip document
+        if (type != null
+                && isCompressible(type)
+                && !myResponse.containsHeader("Content-Encoding")) {
             logger.log(Level.FINE, "Compressing output for mimetype: {0}", type);
             myResponse.addHeader("Content-Encoding", "gzip");
             myStream = new GZIPResponseStream(myResponse);
@@ -12,6 +12,7 @@
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import org.geoserver.security.impl.DefaultResourceAccessManager;
 import org.geotools.referencing.CRS;
 
 public class ThreadLocalsCleanupFilter implements Filter {
@@ -28,6 +29,7 @@ public void doFilter(ServletRequest request, ServletResponse response, FilterCha
             chain.doFilter(request, response);
         } finally {
             CRS.cleanupThreadLocals();
+            DefaultResourceAccessManager.cleanupThreadLocals();
         }
     }
 
@@ -18,60 +18,106 @@
 import java.awt.image.SampleModel;
 import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
-import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.media.jai.TileFactory;
 import javax.media.jai.TileRecycler;
 import org.apache.commons.beanutils.PropertyUtils;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geotools.util.logging.Logging;
 
 /**
- * A thread safe recycling tile factory that using Java 5 Concurrent data structures
+ * A thread safe recycling tile factory that using Java 5 Concurrent data structures.
+ *
+ * <p>The recycled arrays are pooled by size class (data type, number of banks and bank length) and
+ * strongly referenced, up to a memory budget that can be set with the {@link #MAX_MEMORY_KEY}
+ * property. When recycling a tile would exceed the budget, the arrays of the least recently used
+ * size classes are evicted. The amount of memory allocated, recycled and evicted is tracked, see
+ * {@link TileRecyclerMonitor} and {@link TileRecyclerStatus}.
  *
  * @author Andrea Aime - GeoSolutions
  */
 public class ConcurrentTileFactory implements TileFactory, TileRecycler {
 
+    static final Logger LOGGER = Logging.getLogger(ConcurrentTileFactory.class);
+
+    /** Property setting the maximum memory held by the recycled arrays, in megabytes */
+    public static final String MAX_MEMORY_KEY = "GEOSERVER_TILE_RECYCLER_MAX_MEMORY";
+
+    /** Default maximum memory held by the recycled arrays, in bytes */
+    static final long DEFAULT_MAX_MEMORY = 64 * 1024 * 1024;
+
     /** Cache of the tile recycled arrays */
-    private volatile ArrayCache recycledArrays = new ArrayCache();
+    private final ArrayCache recycledArrays = new ArrayCache();
+
+    /** The recycled arrays of a given type, number of banks and bank length */
+    private static class SizeClass {
+
+        /** Arrays are reused from the tail, and evicted from the head, the oldest */
+        final ConcurrentLinkedDeque<Object> arrays = new ConcurrentLinkedDeque<>();
+
+        /** Memory used by each array in this class */
+        final long arrayBytes;
+
+        volatile long lastAccess = System.nanoTime();
+
+        SizeClass(long arrayBytes) {
+            this.arrayBytes = arrayBytes;
+        }
+    }
 
     /**
-     * A concurrent multimap geared towards tile data array caching
+     * A concurrent multimap geared towards tile data array caching, bounded by memory
      *
      * @author Andrea Aime - GeoSolutions
      */
-    private static class ArrayCache
-            extends ConcurrentHashMap<Long, ConcurrentLinkedQueue<SoftReference<?>>> {
+    private static class ArrayCache extends ConcurrentHashMap<Long, SizeClass> {
         private static final long serialVersionUID = -6905685668738379653L;
 
-        static final Logger LOGGER = Logging.getLogger(ConcurrentTileFactory.class);
+        volatile long maxMemory = DEFAULT_MAX_MEMORY;
+
+        final AtomicLong pooledBytes = new AtomicLong();
+
+        final LongAdder allocatedBytes = new LongAdder();
+
+        final LongAdder recycledBytes = new LongAdder();
+
+        final LongAdder evictedBytes = new LongAdder();
+
+        final LongAdder hits = new LongAdder();
+
+        final LongAdder misses = new LongAdder();
 
         /** Retrieve an array of the specified type and length. */
         Object getRecycledArray(int arrayType, long numBanks, long arrayLength) {
             Long key = getKey(arrayType, numBanks, arrayLength);
 
-            ConcurrentLinkedQueue<SoftReference<?>> arrays = get(key);
-
-            if (arrays != null) {
-                SoftReference<?> arrayRef;
-                while ((arrayRef = arrays.poll()) != null) {
-                    Object array = arrayRef.get();
-                    if (array != null) {
-                        if (LOGGER.isLoggable(Level.FINER)) {
-                            LOGGER.log(
-                                    Level.FINER,
-                                    "Recycling tile hit on type:{1}, banks: {2}, arrayLength: {3}",
-                                    new Object[] {arrayType, numBanks, arrayLength});
-                        }
-                        return array;
-                    }
+            SizeClass sizeClass = get(key);
+            Object array = null;
+            if (sizeClass != null) {
+                sizeClass.lastAccess = System.nanoTime();
+                array = sizeClass.arrays.pollLast();
+            }
+
+            if (array != null) {
+                pooledBytes.addAndGet(-sizeClass.arrayBytes);
+                recycledBytes.add(sizeClass.arrayBytes);
+                hits.increment();
+                if (LOGGER.isLoggable(Level.FINER)) {
+                    LOGGER.log(
+                            Level.FINER,
+                            "Recycling tile hit on type:{1}, banks: {2}, arrayLength: {3}",
+                            new Object[] {arrayType, numBanks, arrayLength});
                 }
+                return array;
             }
 
+            misses.increment();
             if (LOGGER.isLoggable(Level.FINER)) {
                 LOGGER.log(
                         Level.FINER,
@@ -87,6 +133,11 @@ private Long getKey(int arrayType, long numBanks, long arrayLength) {
 
         public void recycleTile(Raster tile) {
             DataBuffer db = tile.getDataBuffer();
+            long bytes = getBytes(db);
+            if (bytes > maxMemory) {
+                evictedBytes.add(bytes);
+                return;
+            }
 
             Long key = getKey(db.getDataType(), db.getNumBanks(), db.getSize());
             if (LOGGER.isLoggable(Level.FINER)) {
@@ -96,30 +147,80 @@ public void recycleTile(Raster tile) {
                         new Object[] {db.getDataType(), db.getNumBanks(), db.getSize()});
             }
 
-            ConcurrentLinkedQueue<SoftReference<?>> arrays = get(key);
-            if (arrays == null) {
-                arrays = new ConcurrentLinkedQueue<>();
-                arrays.add(getBankReference(db));
-                put(key, arrays);
-                return;
-            } else {
-                arrays.add(getBankReference(db));
+            // make room for the array before pooling it
+            pooledBytes.addAndGet(bytes);
+            while (pooledBytes.get() > maxMemory && evictOne()) {
+                // keep going until we fit in the budget
+            }
+            SizeClass sizeClass = computeIfAbsent(key, k -> new SizeClass(bytes));
+            sizeClass.lastAccess = System.nanoTime();
+            sizeClass.arrays.offerLast(getBankData(db));
+        }
+
+        /** Evicts the oldest array of the least recently used size class, if any */
+        private boolean evictOne() {
+            SizeClass lru = null;
+            for (SizeClass sizeClass : values()) {
+                if (!sizeClass.arrays.isEmpty()
+                        && (lru == null || sizeClass.lastAccess < lru.lastAccess)) {
+                    lru = sizeClass;
+                }
+            }
+            if (lru == null || lru.arrays.pollFirst() == null) {
+                return false;
             }
+            pooledBytes.addAndGet(-lru.arrayBytes);
+            evictedBytes.add(lru.arrayBytes);
+            return true;
         }
 
-        /** Returns a <code>SoftReference</code> to the actual data stored into the DataBuffer */
-        private static SoftReference<?> getBankReference(DataBuffer db) {
+        /**
+         * Drops all the recycled arrays. The size classes are drained one array at a time and kept
+         * in the map, clearing it could lose arrays concurrently recycled, leaving their bytes
+         * accounted in the pool forever.
+         */
+        void flush() {
+            for (SizeClass sizeClass : values()) {
+                while (sizeClass.arrays.pollFirst() != null) {
+                    pooledBytes.addAndGet(-sizeClass.arrayBytes);
+                }
+            }
+        }
+
+        /** Returns the actual data stored into the DataBuffer */
+        private static Object getBankData(DataBuffer db) {
             try {
-                Object array = PropertyUtils.getProperty(db, "bankData");
-                return new SoftReference<>(array);
+                return PropertyUtils.getProperty(db, "bankData");
             } catch (Exception e) {
                 throw new UnsupportedOperationException("Unknown data buffer type " + db);
             }
         }
     }
 
-    /** Constructs a <code>RecyclingTileFactory</code>. */
-    public ConcurrentTileFactory() {}
+    /** Returns the memory used by the data banks of the given buffer, in bytes */
+    static long getBytes(DataBuffer db) {
+        return (long) db.getNumBanks() * db.getSize() * DataBuffer.getDataTypeSize(db.getDataType())
+                / 8;
+    }
+
+    /**
+     * Constructs a <code>RecyclingTileFactory</code>, with the memory budget read from the {@link
+     * #MAX_MEMORY_KEY} property.
+     */
+    public ConcurrentTileFactory() {
+        String maxMemoryProperty = GeoServerExtensions.getProperty(MAX_MEMORY_KEY);
+        if (maxMemoryProperty != null) {
+            try {
+                setMaxMemory(Long.parseLong(maxMemoryProperty.trim()) * 1024 * 1024);
+            } catch (NumberFormatException e) {
+                LOGGER.warning(
+                        "Invalid value for "
+                                + MAX_MEMORY_KEY
+                                + ", expected a number of megabytes but got "
+                                + maxMemoryProperty);
+            }
+        }
+    }
 
     /** Returns <code>true</code>. */
     @Override
@@ -133,16 +234,58 @@ public boolean isMemoryCache() {
         return true;
     }
 
-    /** Always returns -1, does not do used memory accounting */
+    /** Returns the memory held by the recycled arrays, in bytes */
     @Override
     public long getMemoryUsed() {
-        return -1;
+        return recycledArrays.pooledBytes.get();
     }
 
     /** Clean up the cache */
     @Override
     public void flush() {
-        recycledArrays.clear();
+        recycledArrays.flush();
+    }
+
+    /** The maximum memory held by the recycled arrays, in bytes */
+    public long getMaxMemory() {
+        return recycledArrays.maxMemory;
+    }
+
+    /**
+     * Sets the maximum memory held by the recycled arrays, in bytes. Zero disables recycling. When
+     * lowering the budget, arrays are evicted as needed.
+     */
+    public void setMaxMemory(long maxMemory) {
+        recycledArrays.maxMemory = Math.max(0, maxMemory);
+        while (recycledArrays.pooledBytes.get() > recycledArrays.maxMemory
+                && recycledArrays.evictOne()) {
+            // keep going until we fit in the new budget
+        }
+    }
+
+    /** Total memory allocated for tiles that could not be served by a recycled array, in bytes */
+    public long getAllocatedBytes() {
+        return recycledArrays.allocatedBytes.sum();
+    }
+
+    /** Total memory reused by serving tiles with recycled arrays, in bytes */
+    public long getRecycledBytes() {
+        return recycledArrays.recycledBytes.sum();
+    }
+
+    /** Total memory dropped from the recycler to stay within the budget, in bytes */
+    public long getEvictedBytes() {
+        return recycledArrays.evictedBytes.sum();
+    }
+
+    /** Number of tiles created with a recycled array */
+    public long getHits() {
+        return recycledArrays.hits.sum();
+    }
+
+    /** Number of tiles for which no recycled array was available */
+    public long getMisses() {
+        return recycledArrays.misses.sum();
     }
 
     /** Builds a new tile, eventually recycling the data array backing it */
@@ -246,6 +389,7 @@ public WritableRaster createTile(SampleModel sampleModel, Point location) {
 
         if (db == null) {
             db = sampleModel.createDataBuffer();
+            recycledArrays.allocatedBytes.add(getBytes(db));
         }
 
         return Raster.createWritableRaster(sampleModel, db, location);
@@ -0,0 +1,38 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+/** JMX view of the JAI tile recycler, see {@link TileRecyclerMonitor} */
+public interface TileRecyclerMXBean {
+
+    /** Whether JAI tile recycling is enabled */
+    boolean isEnabled();
+
+    /** Memory held by the recycled arrays, in bytes */
+    long getMemoryUsed();
+
+    /** Maximum memory held by the recycled arrays, in bytes */
+    long getMaxMemory();
+
+    void setMaxMemory(long maxMemory);
+
+    /** Total memory allocated for tiles that could not be served by a recycled array, in bytes */
+    long getAllocatedBytes();
+
+    /** Total memory reused by serving tiles with recycled arrays, in bytes */
+    long getRecycledBytes();
+
+    /** Total memory dropped from the recycler to stay within the budget, in bytes */
+    long getEvictedBytes();
+
+    /** Number of tiles created with a recycled array */
+    long getHits();
+
+    /** Number of tiles for which no recycled array was available */
+    long getMisses();
+
+    /** Drops all the recycled arrays */
+    void flush();
+}
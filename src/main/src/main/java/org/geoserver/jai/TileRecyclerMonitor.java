@@ -0,0 +1,128 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.media.jai.JAI;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Publishes the {@link ConcurrentTileFactory} statistics and settings on the platform MBean
+ * server, under {@link #OBJECT_NAME}. The tile factory is looked up on each call, as it is replaced
+ * when the JAI configuration changes.
+ */
+public class TileRecyclerMonitor implements TileRecyclerMXBean, InitializingBean, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(TileRecyclerMonitor.class);
+
+    public static final String OBJECT_NAME = "org.geoserver:type=JAI,name=TileRecycler";
+
+    /** Returns the JAI tile factory, or null if tile recycling is not enabled */
+    static ConcurrentTileFactory getTileFactory() {
+        Object factory = JAI.getDefaultInstance().getRenderingHint(JAI.KEY_TILE_FACTORY);
+        if (factory instanceof ConcurrentTileFactory) {
+            return (ConcurrentTileFactory) factory;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return getTileFactory() != null;
+    }
+
+    @Override
+    public long getMemoryUsed() {
+        ConcurrentTileFactory factory = getTileFactory();
+        return factory == null ? 0 : factory.getMemoryUsed();
+    }
+
+    @Override
+    public long getMaxMemory() {
+        ConcurrentTileFactory factory = getTileFactory();
+        return factory == null ? 0 : factory.getMaxMemory();
+    }
+
+    @Override
+    public void setMaxMemory(long maxMemory) {
+        ConcurrentTileFactory factory = getTileFactory();
+        if (factory != null) {
+            factory.setMaxMemory(maxMemory);
+        }
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        ConcurrentTileFactory factory = getTileFactory();
+        return factory == null ? 0 : factory.getAllocatedBytes();
+    }
+
+    @Override
+    public long getRecycledBytes() {
+        ConcurrentTileFactory factory = getTileFactory();
+        return factory == null ? 0 : factory.getRecycledBytes();
+    }
+
+    @Override
+    public long getEvictedBytes() {
+        ConcurrentTileFactory factory = getTileFactory();
+        return factory == null ? 0 : factory.getEvictedBytes();
+    }
+
+    @Override
+    public long getHits() {
+        ConcurrentTileFactory factory = getTileFactory();
+        return factory == null ? 0 : factory.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        ConcurrentTileFactory factory = getTileFactory();
+        return factory == null ? 0 : factory.getMisses();
+    }
+
+    @Override
+    public void flush() {
+        ConcurrentTileFactory factory = getTileFactory();
+        if (factory != null) {
+            factory.flush();
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(this, name);
+        } catch (InstanceAlreadyExistsException e) {
+            // another application context in the same JVM (e.g., tests), take over
+            server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not register the tile recycler MBean", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            try {
+                server.unregisterMBean(name);
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Could not unregister the tile recycler MBean", e);
+            }
+        }
+    }
+}
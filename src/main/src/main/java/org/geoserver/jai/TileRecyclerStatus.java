@@ -0,0 +1,64 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+import java.util.Optional;
+import org.geoserver.platform.ModuleStatus;
+
+/** Reports the JAI tile recycler memory usage and statistics in the server status page. */
+public class TileRecyclerStatus implements ModuleStatus {
+
+    @Override
+    public String getModule() {
+        return "gs-main";
+    }
+
+    @Override
+    public Optional<String> getComponent() {
+        return Optional.of("JAI");
+    }
+
+    @Override
+    public String getName() {
+        return "JAI tile recycler";
+    }
+
+    @Override
+    public Optional<String> getVersion() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return TileRecyclerMonitor.getTileFactory() != null;
+    }
+
+    @Override
+    public Optional<String> getMessage() {
+        ConcurrentTileFactory factory = TileRecyclerMonitor.getTileFactory();
+        if (factory == null) {
+            return Optional.of("Tile recycling is disabled");
+        }
+        StringBuilder msg = new StringBuilder();
+        msg.append("Memory used: ").append(factory.getMemoryUsed()).append(" bytes\n");
+        msg.append("Maximum memory: ").append(factory.getMaxMemory()).append(" bytes\n");
+        msg.append("Allocated: ").append(factory.getAllocatedBytes()).append(" bytes\n");
+        msg.append("Recycled: ").append(factory.getRecycledBytes()).append(" bytes\n");
+        msg.append("Evicted: ").append(factory.getEvictedBytes()).append(" bytes\n");
+        msg.append("Hits: ").append(factory.getHits()).append(", misses: ");
+        msg.append(factory.getMisses());
+        return Optional.of(msg.toString());
+    }
+
+    @Override
+    public Optional<String> getDocumentation() {
+        return Optional.empty();
+    }
+}
@@ -675,6 +675,16 @@ protected StyleInfo checkAccess(
         else return style;
     }
 
+    /**
+     * Returns the style back if the current user can access it, null otherwise. Meant for styles
+     * looked up outside of this catalog, e.g., in a {@link
+     * org.geoserver.catalog.impl.CatalogSnapshot}, that still need the same access checks as {@link
+     * #getStyleByName(String)}.
+     */
+    public StyleInfo checkAccess(StyleInfo style) {
+        return checkAccess(user(), style, MixedModeBehavior.CHALLENGE);
+    }
+
     /**
      * Given a store and a user, returns it back if the user can access its workspace in read mode,
      * null otherwise
@@ -48,4 +48,19 @@ public void put(
     public void put(String filterName, String cacheKey, Authentication auth);
 
     void onReset();
+
+    /**
+     * Records a failed authentication for the given key, so that the next attempts with the same
+     * credentials can be rejected without hitting the user/group services again. The default
+     * implementation does not cache failures.
+     */
+    default void putFailure(String filterName, String cacheKey) {}
+
+    /**
+     * Returns true if a recent authentication attempt with the given key failed and has been
+     * recorded with {@link #putFailure(String, String)}
+     */
+    default boolean isFailure(String filterName, String cacheKey) {
+        return false;
+    }
 }
@@ -0,0 +1,442 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.auth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.config.impl.GeoServerLifecycleHandler;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Implementation of GeoServer AuthenticationCache based on a {@link ConcurrentHashMap}, without
+ * any lock on the lookup and store paths.
+ *
+ * <p>Each entry has its own idle and live time. Expired entries are removed on access and by a
+ * periodic cleanup task. When the number of entries grows past the maximum, the expired entries
+ * are purged and, if that is not enough, the least recently accessed ones are evicted in a batch,
+ * by a single thread at a time, so the size bound is approximate.
+ *
+ * <p>Failed authentications can be recorded with {@link #putFailure(String, String)}, for {@link
+ * #getFailureTimeToLiveSeconds()} seconds, to avoid hitting slow user/group services (LDAP, JDBC)
+ * over and over with the same wrong credentials. A successful authentication for the same key
+ * replaces the failure.
+ *
+ * <p>Hits, misses, expirations and evictions are counted for each filter, see {@link
+ * #getStatistics()}.
+ */
+public class ConcurrentAuthenticationCacheImpl
+        implements AuthenticationCache, GeoServerLifecycleHandler, DisposableBean {
+
+    /** Default time a failed authentication is remembered */
+    public static final int DEFAULT_FAILURE_TIME = 30;
+
+    /** Default eviction interval */
+    public static final int DEFAULT_CLEANUP_TIME = 60;
+
+    /** Fraction of the max entries retained when evicting because the cache is full */
+    static final double EVICTION_TARGET = 0.9;
+
+    static Logger LOGGER = Logging.getLogger("org.geoserver.security");
+
+    // Use a counter to ensure a unique prefix for each pool.
+    private static AtomicInteger poolCounter = new AtomicInteger();
+
+    /** Cached entry, a null authentication marks a failure */
+    static final class Entry {
+        final Authentication authentication;
+
+        final long created;
+
+        final long idleMillis;
+
+        final long liveMillis;
+
+        volatile long lastAccessed;
+
+        Entry(Authentication authentication, long idleMillis, long liveMillis) {
+            this.authentication = authentication;
+            this.idleMillis = idleMillis;
+            this.liveMillis = liveMillis;
+            this.created = this.lastAccessed = System.currentTimeMillis();
+        }
+
+        boolean isFailure() {
+            return authentication == null;
+        }
+
+        boolean isLiveExpired(long now) {
+            return created + liveMillis < now;
+        }
+
+        boolean isIdleExpired(long now) {
+            return lastAccessed + idleMillis < now;
+        }
+    }
+
+    /** Eviction candidate, with the access time at the moment the eviction started */
+    private static final class Candidate {
+        final AuthenticationCacheKey key;
+
+        final Entry entry;
+
+        final long lastAccessed;
+
+        Candidate(AuthenticationCacheKey key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccessed = entry.lastAccessed;
+        }
+    }
+
+    /** Counters for a single filter */
+    public static class Statistics {
+        final LongAdder hits = new LongAdder();
+
+        final LongAdder misses = new LongAdder();
+
+        final LongAdder puts = new LongAdder();
+
+        final LongAdder failures = new LongAdder();
+
+        final LongAdder failureHits = new LongAdder();
+
+        final LongAdder idleExpirations = new LongAdder();
+
+        final LongAdder liveExpirations = new LongAdder();
+
+        final LongAdder evictions = new LongAdder();
+
+        /** Lookups that found a valid authentication */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /** Lookups that did not find a valid authentication */
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        /** Authentications stored in the cache */
+        public long getPuts() {
+            return puts.sum();
+        }
+
+        /** Failed authentications stored in the cache */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /** Lookups that found a recorded failure */
+        public long getFailureHits() {
+            return failureHits.sum();
+        }
+
+        /** Entries removed because they were not accessed for longer than their idle time */
+        public long getIdleExpirations() {
+            return idleExpirations.sum();
+        }
+
+        /** Entries removed because they were older than their live time */
+        public long getLiveExpirations() {
+            return liveExpirations.sum();
+        }
+
+        /** Entries removed because the cache was full */
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        /** Ratio between hits and lookups, or 0 if no lookup has been performed */
+        public double getHitRatio() {
+            long hits = getHits();
+            long total = hits + getMisses();
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "hits="
+                    + getHits()
+                    + ", misses="
+                    + getMisses()
+                    + ", puts="
+                    + getPuts()
+                    + ", failures="
+                    + getFailures()
+                    + ", failureHits="
+                    + getFailureHits()
+                    + ", idleExpirations="
+                    + getIdleExpirations()
+                    + ", liveExpirations="
+                    + getLiveExpirations()
+                    + ", evictions="
+                    + getEvictions();
+        }
+    }
+
+    private final int maxEntries;
+
+    private final int timeToIdleSeconds, timeToLiveSeconds;
+
+    private volatile int failureTimeToLiveSeconds;
+
+    private final Map<AuthenticationCacheKey, Entry> cache = new ConcurrentHashMap<>();
+
+    private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler;
+
+    public ConcurrentAuthenticationCacheImpl(int maxEntries) {
+        this(
+                maxEntries,
+                DEFAULT_IDLE_TIME,
+                DEFAULT_LIVE_TIME,
+                DEFAULT_FAILURE_TIME,
+                DEFAULT_CLEANUP_TIME);
+    }
+
+    public ConcurrentAuthenticationCacheImpl(
+            int maxEntries,
+            int timeToIdleSeconds,
+            int timeToLiveSeconds,
+            int failureTimeToLiveSeconds,
+            int cleanUpSeconds) {
+        this.maxEntries = maxEntries;
+        this.timeToIdleSeconds = timeToIdleSeconds;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.failureTimeToLiveSeconds = failureTimeToLiveSeconds;
+
+        scheduler = Executors.newScheduledThreadPool(1, getThreadFactory());
+        scheduler.scheduleAtFixedRate(
+                this::cleanUp, cleanUpSeconds, cleanUpSeconds, TimeUnit.SECONDS);
+        if (LOGGER.isLoggable(Level.CONFIG)) {
+            LOGGER.config(
+                    "AuthenticationCache Initialized with "
+                            + maxEntries
+                            + " Max Entries, "
+                            + timeToIdleSeconds
+                            + " seconds idle time, "
+                            + timeToLiveSeconds
+                            + " seconds time to live, "
+                            + failureTimeToLiveSeconds
+                            + " seconds failure time to live and cleanup every "
+                            + cleanUpSeconds
+                            + " seconds");
+        }
+    }
+
+    private ThreadFactory getThreadFactory() {
+        CustomizableThreadFactory tFactory =
+                new CustomizableThreadFactory(
+                        String.format("ConcurrentAuthCache-%d-", poolCounter.getAndIncrement()));
+        tFactory.setDaemon(true);
+        return tFactory;
+    }
+
+    /** Time in seconds failed authentications are remembered, 0 or less disables them */
+    public int getFailureTimeToLiveSeconds() {
+        return failureTimeToLiveSeconds;
+    }
+
+    public void setFailureTimeToLiveSeconds(int failureTimeToLiveSeconds) {
+        this.failureTimeToLiveSeconds = failureTimeToLiveSeconds;
+    }
+
+    @Override
+    public void removeAll() {
+        cache.clear();
+    }
+
+    @Override
+    public void removeAll(String filterName) {
+        if (filterName == null) return;
+        cache.keySet().removeIf(k -> filterName.equals(k.getFilterName()));
+    }
+
+    @Override
+    public void remove(String filterName, String cacheKey) {
+        cache.remove(new AuthenticationCacheKey(filterName, cacheKey));
+    }
+
+    @Override
+    public Authentication get(String filterName, String cacheKey) {
+        AuthenticationCacheKey key = new AuthenticationCacheKey(filterName, cacheKey);
+        Statistics stats = getStatistics(filterName);
+        Entry entry = cache.get(key);
+        if (entry == null || entry.isFailure() || expire(key, entry, stats)) {
+            stats.misses.increment();
+            return null;
+        }
+        entry.lastAccessed = System.currentTimeMillis();
+        stats.hits.increment();
+        return entry.authentication;
+    }
+
+    @Override
+    public void put(
+            String filterName,
+            String cacheKey,
+            Authentication auth,
+            Integer timeToIdleSeconds,
+            Integer timeToLiveSeconds) {
+        int idle = timeToIdleSeconds != null ? timeToIdleSeconds : this.timeToIdleSeconds;
+        int live = timeToLiveSeconds != null ? timeToLiveSeconds : this.timeToLiveSeconds;
+        cache.put(
+                new AuthenticationCacheKey(filterName, cacheKey),
+                new Entry(auth, idle * 1000L, live * 1000L));
+        getStatistics(filterName).puts.increment();
+        checkSize();
+    }
+
+    @Override
+    public void put(String filterName, String cacheKey, Authentication auth) {
+        put(filterName, cacheKey, auth, timeToIdleSeconds, timeToLiveSeconds);
+    }
+
+    @Override
+    public void putFailure(String filterName, String cacheKey) {
+        long live = failureTimeToLiveSeconds * 1000L;
+        if (live <= 0 || cacheKey == null) return;
+        cache.put(new AuthenticationCacheKey(filterName, cacheKey), new Entry(null, live, live));
+        getStatistics(filterName).failures.increment();
+        checkSize();
+    }
+
+    @Override
+    public boolean isFailure(String filterName, String cacheKey) {
+        if (cacheKey == null) return false;
+        AuthenticationCacheKey key = new AuthenticationCacheKey(filterName, cacheKey);
+        Entry entry = cache.get(key);
+        if (entry == null || !entry.isFailure()) return false;
+        Statistics stats = getStatistics(filterName);
+        if (expire(key, entry, stats)) return false;
+        stats.failureHits.increment();
+        return true;
+    }
+
+    /** Returns a snapshot of the per filter statistics, sorted by filter name */
+    public Map<String, Statistics> getStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<>(statistics));
+    }
+
+    /** Resets all the statistics */
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    /** Number of entries in the cache, including the not yet cleaned up expired ones */
+    public int size() {
+        return cache.size();
+    }
+
+    public boolean isEmpty() {
+        return cache.isEmpty();
+    }
+
+    private Statistics getStatistics(String filterName) {
+        Statistics stats = statistics.get(filterName);
+        if (stats == null) {
+            stats = statistics.computeIfAbsent(filterName, n -> new Statistics());
+        }
+        return stats;
+    }
+
+    /** Removes the entry if expired, returns true if it was expired */
+    private boolean expire(AuthenticationCacheKey key, Entry entry, Statistics stats) {
+        long now = System.currentTimeMillis();
+        LongAdder counter;
+        if (entry.isLiveExpired(now)) counter = stats.liveExpirations;
+        else if (entry.isIdleExpired(now)) counter = stats.idleExpirations;
+        else return false;
+
+        // only count the removal once if multiple threads race on the same entry
+        if (cache.remove(key, entry)) counter.increment();
+        return true;
+    }
+
+    /** Removes all expired entries */
+    void cleanUp() {
+        int before = cache.size();
+        for (Map.Entry<AuthenticationCacheKey, Entry> e : cache.entrySet()) {
+            AuthenticationCacheKey key = e.getKey();
+            expire(key, e.getValue(), getStatistics(key.getFilterName()));
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(
+                    "AuthenticationCache cleanup went from "
+                            + before
+                            + " to "
+                            + cache.size()
+                            + " entries, statistics: "
+                            + getStatistics());
+        }
+    }
+
+    /**
+     * Makes room when the cache is full, first dropping expired entries and then the least
+     * recently accessed ones. Only one thread evicts at a time, the others carry on.
+     */
+    private void checkSize() {
+        if (cache.size() <= maxEntries || !evicting.compareAndSet(false, true)) return;
+        try {
+            cleanUp();
+            int target = (int) (maxEntries * EVICTION_TARGET);
+            if (cache.size() <= target) return;
+
+            // snapshot the access times, they keep changing while sorting
+            List<Candidate> candidates = new ArrayList<>(cache.size());
+            cache.forEach((k, e) -> candidates.add(new Candidate(k, e)));
+            candidates.sort(Comparator.comparingLong(c -> c.lastAccessed));
+            int toRemove = candidates.size() - target;
+            for (int i = 0; i < candidates.size() && toRemove > 0; i++) {
+                Candidate c = candidates.get(i);
+                if (cache.remove(c.key, c.entry)) {
+                    getStatistics(c.key.getFilterName()).evictions.increment();
+                    toRemove--;
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    @Override
+    public void onReset() {
+        removeAll();
+    }
+
+    @Override
+    public void onDispose() {}
+
+    @Override
+    public void beforeReload() {}
+
+    @Override
+    public void onReload() {}
+}
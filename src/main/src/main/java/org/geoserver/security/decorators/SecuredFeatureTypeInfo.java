@@ -116,6 +116,18 @@ public FeatureType getFeatureType() throws IOException {
         }
     }
 
+    public WrapperPolicy getWrapperPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the policy securing the feature source in the current request, see {@link
+     * #getFeatureSource(ProgressListener, Hints)}
+     */
+    public WrapperPolicy getReadPolicy() {
+        return computeWrapperPolicy(Dispatcher.REQUEST.get());
+    }
+
     /**
      * Checks if current request is GetCapabilities and returns a new WrapperPolicy with attributes
      * read allowed to compute the dimensions values. If current request is not a GetCapabilities
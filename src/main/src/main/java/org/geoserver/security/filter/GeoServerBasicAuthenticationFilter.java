@@ -16,10 +16,15 @@
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.geoserver.security.GeoServerSecurityManager;
+import org.geoserver.security.auth.AuthenticationCache;
 import org.geoserver.security.config.BasicAuthenticationFilterConfig;
 import org.geoserver.security.config.SecurityNamedServiceConfig;
 import org.geoserver.security.impl.GeoServerUser;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
@@ -56,7 +61,26 @@ public void initializeFromConfig(SecurityNamedServiceConfig config) throws IOExc
         BasicAuthenticationFilterConfig authConfig = (BasicAuthenticationFilterConfig) config;
 
         BasicAuthenticationFilter filter =
-                new BasicAuthenticationFilter(getSecurityManager().authenticationManager(), aep);
+                new BasicAuthenticationFilter(getSecurityManager().authenticationManager(), aep) {
+                    @Override
+                    protected void onUnsuccessfulAuthentication(
+                            HttpServletRequest request,
+                            HttpServletResponse response,
+                            AuthenticationException failed)
+                            throws IOException {
+                        // remember wrong credentials, the nested chain won't reach the caching
+                        // step. Service errors (e.g. LDAP down) must not stick
+                        String cacheKey = (String) request.getAttribute(CACHE_KEY_ATTRIBUTE);
+                        if (cacheKey != null && failed instanceof BadCredentialsException) {
+                            getSecurityManager()
+                                    .getAuthenticationCache()
+                                    .putFailure(
+                                            GeoServerBasicAuthenticationFilter.this.getName(),
+                                            cacheKey);
+                            request.setAttribute(CACHE_KEY_ATTRIBUTE, null);
+                        }
+                    }
+                };
 
         if (authConfig.isUseRememberMe()) {
             filter.setRememberMeServices(securityManager.getRememberMeService());
@@ -78,6 +102,20 @@ public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
             throws IOException, ServletException {
 
         req.setAttribute(GeoServerSecurityFilter.AUTHENTICATION_ENTRY_POINT_HEADER, aep);
+
+        // reject credentials that recently failed without asking the user/group services again
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            HttpServletRequest request = (HttpServletRequest) req;
+            String cacheKey = getCacheKey(request);
+            AuthenticationCache cache = getSecurityManager().getAuthenticationCache();
+            if (cacheKey != null && cache.isFailure(getName(), cacheKey)) {
+                aep.commence(
+                        request,
+                        (HttpServletResponse) res,
+                        new BadCredentialsException("Bad credentials"));
+                return;
+            }
+        }
         super.doFilter(req, res, chain);
     }
 
@@ -20,9 +20,11 @@
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.geoserver.security.auth.AuthenticationCache;
 import org.geoserver.security.config.CredentialsFromRequestHeaderFilterConfig;
 import org.geoserver.security.config.SecurityNamedServiceConfig;
 import org.geoserver.security.impl.GeoServerRole;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ProviderNotFoundException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -83,15 +85,24 @@ public void doFilter(ServletRequest request, ServletResponse response, FilterCha
         String cacheKey = authenticateFromCache(this, (HttpServletRequest) request);
 
         if (SecurityContextHolder.getContext().getAuthentication() == null) {
-            doAuthenticate((HttpServletRequest) request, (HttpServletResponse) response);
+            AuthenticationCache cache = getSecurityManager().getAuthenticationCache();
+            if (cacheKey != null && cache.isFailure(getName(), cacheKey)) {
+                // these credentials recently failed, don't ask the user/group services again
+                throw new BadCredentialsException("Bad credentials");
+            }
+            try {
+                doAuthenticate((HttpServletRequest) request, (HttpServletResponse) response);
+            } catch (BadCredentialsException e) {
+                // only wrong credentials, service errors (e.g. LDAP down) must not stick
+                if (cacheKey != null) cache.putFailure(getName(), cacheKey);
+                throw e;
+            }
 
             Authentication postAuthentication =
                     SecurityContextHolder.getContext().getAuthentication();
             if (postAuthentication != null && cacheKey != null) {
                 if (cacheAuthentication(postAuthentication, (HttpServletRequest) request)) {
-                    getSecurityManager()
-                            .getAuthenticationCache()
-                            .put(getName(), cacheKey, postAuthentication);
+                    cache.put(getName(), cacheKey, postAuthentication);
                 }
             }
         }
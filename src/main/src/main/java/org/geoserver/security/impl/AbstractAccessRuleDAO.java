@@ -127,6 +127,15 @@ public long getLastModified() {
         return lastModified;
     }
 
+    /**
+     * Checks the property file for changes, reloading the rules if needed, and returns their last
+     * modification date. Allows caches built on top of the rules to tell when they got stale.
+     */
+    public long checkLastModified() {
+        checkPropertyFile(false);
+        return lastModified;
+    }
+
     public boolean isModified() {
         return watcher != null && watcher.isStale();
     }
@@ -7,13 +7,18 @@
 
 import static org.geoserver.security.impl.DataAccessRule.ANY;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -39,6 +44,7 @@
 import org.geoserver.security.CatalogMode;
 import org.geoserver.security.CoverageAccessLimits;
 import org.geoserver.security.DataAccessLimits;
+import org.geoserver.security.GeoServerSecurityFilterChainProxy;
 import org.geoserver.security.InMemorySecurityFilter;
 import org.geoserver.security.LayerGroupAccessLimits;
 import org.geoserver.security.ResourceAccessManager;
@@ -51,6 +57,7 @@
 import org.geotools.api.filter.Filter;
 import org.geotools.util.logging.Logging;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 
 /**
  * Default implementation of {@link ResourceAccessManager}, loads simple access rules from a
@@ -91,6 +98,57 @@ public class DefaultResourceAccessManager implements ResourceAccessManager {
     static final Boolean RESOURCE_EQUALITY_FILTER_ENABLED =
             Boolean.getBoolean("geoserver.access.resourceEqualityFilterEnabled");
 
+    /**
+     * Maximum number of access decisions kept in memory, 0 disables caching. Defaults to 100000.
+     */
+    static final int DECISION_CACHE_SIZE =
+            Integer.getInteger("geoserver.access.decisionCacheSize", 100000);
+
+    /**
+     * The roles of the last user checked by the current thread, a request checks many resources.
+     * Cleared at the end of each request by {@link #cleanupThreadLocals()}.
+     */
+    static final ThreadLocal<UserRoles> LAST_USER_ROLES = new ThreadLocal<>();
+
+    /**
+     * The set of role names of a given user, the user is weakly referenced not to keep it alive in
+     * threads outside of a request
+     */
+    static final class UserRoles {
+
+        final WeakReference<Authentication> user;
+
+        final Set<String> roles;
+
+        UserRoles(Authentication user, Set<String> roles) {
+            this.user = new WeakReference<>(user);
+            this.roles = roles;
+        }
+    }
+
+    /** Clears the per thread state kept across access checks, to be called at the request end */
+    public static void cleanupThreadLocals() {
+        LAST_USER_ROLES.remove();
+    }
+
+    /**
+     * Access decisions taken against a given authorization tree and layer group containment state.
+     * The whole object is replaced when either changes, so that stale decisions are never returned.
+     */
+    static final class AccessDecisions {
+
+        final SecureTreeNode root;
+
+        final long groupsGeneration;
+
+        final Map<List<Object>, Boolean> decisions = new ConcurrentHashMap<>();
+
+        AccessDecisions(SecureTreeNode root, long groupsGeneration) {
+            this.root = root;
+            this.groupsGeneration = groupsGeneration;
+        }
+    }
+
     /** A {@link LayerGroupSummary} extended with the associated secure tree node */
     static class SecuredGroupSummary extends LayerGroupSummary {
 
@@ -120,6 +178,10 @@ public SecureTreeNode getNode() {
 
     LayerGroupContainmentCache groupsCache;
 
+    int decisionCacheSize = DECISION_CACHE_SIZE;
+
+    volatile AccessDecisions decisions;
+
     /**
      * Pass a reference to the raw, unsecured catalog. The reference is used to evaluate the
      * relationship between layers and the groups containing them
@@ -139,12 +201,96 @@ public void setGroupsCache(LayerGroupContainmentCache groupsCache) {
         this.groupsCache = groupsCache;
     }
 
+    /**
+     * Sets the maximum number of access decisions kept in memory, 0 or less disables caching
+     *
+     * @param decisionCacheSize
+     */
+    public void setDecisionCacheSize(int decisionCacheSize) {
+        this.decisionCacheSize = decisionCacheSize;
+        this.decisions = null;
+    }
+
     public CatalogMode getMode() {
         return dao.getMode();
     }
 
+    /**
+     * Returns the cached access decision for the user roles and the given target, computing and
+     * caching it if missing. The decisions are dropped as a whole when the authorization tree or
+     * the layer groups change.
+     */
+    private boolean cachedDecision(
+            Authentication user, BooleanSupplier decision, Object... target) {
+        // the tree grants everything when security is disabled for the request, don't cache
+        if (decisionCacheSize <= 0
+                || !GeoServerSecurityFilterChainProxy.isSecurityEnabledForCurrentRequest()) {
+            return decision.getAsBoolean();
+        }
+
+        SecureTreeNode currentRoot = root;
+        long groupsGeneration = getGroupsGeneration();
+        AccessDecisions current = decisions;
+        if (current == null
+                || current.root != currentRoot
+                || current.groupsGeneration != groupsGeneration) {
+            current = new AccessDecisions(currentRoot, groupsGeneration);
+            decisions = current;
+        }
+
+        List<Object> key = new ArrayList<>(target.length + 2);
+        key.add(getRoles(user));
+        key.add(layerGroupContainmentCheckRequired());
+        key.addAll(Arrays.asList(target));
+        Boolean result = current.decisions.get(key);
+        if (result == null) {
+            result = decision.getAsBoolean();
+            // only cache if nothing changed while computing the decision
+            if (root == currentRoot && getGroupsGeneration() == groupsGeneration) {
+                if (current.decisions.size() >= decisionCacheSize) {
+                    current.decisions.clear();
+                }
+                current.decisions.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private long getGroupsGeneration() {
+        // don't force a lookup, it happens on the first decision actually involving groups
+        LayerGroupContainmentCache cache = groupsCache;
+        return cache != null ? cache.getGeneration() : 0;
+    }
+
+    /** Returns the role names of the user, the decisions depend only on them */
+    private static Set<String> getRoles(Authentication user) {
+        if (user == null || user.getAuthorities() == null) {
+            return Collections.emptySet();
+        }
+        UserRoles last = LAST_USER_ROLES.get();
+        if (last != null && last.user.get() == user) {
+            return last.roles;
+        }
+        Set<String> roles = new HashSet<>();
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        LAST_USER_ROLES.set(new UserRoles(user, roles));
+        return roles;
+    }
+
     public boolean canAccess(Authentication user, WorkspaceInfo workspace, AccessMode mode) {
         checkPropertyFile();
+        return cachedDecision(
+                user,
+                () -> canAccessWorkspace(user, workspace, mode),
+                WorkspaceInfo.class,
+                workspace.getName(),
+                mode);
+    }
+
+    private boolean canAccessWorkspace(
+            Authentication user, WorkspaceInfo workspace, AccessMode mode) {
         SecureTreeNode node = root.getDeepestNode(new String[] {workspace.getName()});
         if (node.canAccess(user, mode)) {
             return true;
@@ -211,6 +357,25 @@ public boolean canAccess(
             return true;
         }
 
+        return cachedDecision(
+                user,
+                () -> canAccess(user, resource, workspace, mode, directAccess),
+                ResourceInfo.class,
+                workspace,
+                resourceName,
+                resource.getId(),
+                mode,
+                directAccess);
+    }
+
+    private boolean canAccess(
+            Authentication user,
+            ResourceInfo resource,
+            String workspace,
+            AccessMode mode,
+            boolean directAccess) {
+        final String resourceName = resource.getName();
+
         // if we have a catalog rule that is at resource level, it's the most specific type,
         // it wins. Or it could be that we do not need to check layer groups at all
         SecureTreeNode securityNode = root.getDeepestNode(new String[] {workspace, resourceName});
@@ -478,6 +643,18 @@ public LayerGroupAccessLimits getAccessLimits(
 
     private boolean canAccess(
             Authentication user, LayerGroupInfo layerGroup, boolean directAccess) {
+        return cachedDecision(
+                user,
+                () -> canAccessGroup(user, layerGroup, directAccess),
+                LayerGroupInfo.class,
+                layerGroup.getWorkspace() != null ? layerGroup.getWorkspace().getName() : null,
+                layerGroup.getName(),
+                layerGroup.getId(),
+                directAccess);
+    }
+
+    private boolean canAccessGroup(
+            Authentication user, LayerGroupInfo layerGroup, boolean directAccess) {
         String[] path = getLayerGroupPath(layerGroup);
         SecureTreeNode node = root.getDeepestNode(path);
         boolean catalogNodeAllowsAccess = node.canAccess(user, AccessMode.READ);
@@ -12,6 +12,7 @@
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import org.geoserver.catalog.Catalog;
@@ -65,6 +66,9 @@ public class LayerGroupContainmentCache implements ApplicationListener<ContextRe
      */
     Map<String, Set<LayerGroupSummary>> resourceContainmentCache = new ConcurrentHashMap<>();
 
+    /** Incremented on each catalog change, allows dependent caches to spot stale entries */
+    final AtomicLong generation = new AtomicLong();
+
     private Catalog catalog;
 
     public LayerGroupContainmentCache(Catalog catalog) {
@@ -75,6 +79,7 @@ public LayerGroupContainmentCache(Catalog catalog) {
     }
 
     private void buildLayerGroupCaches() {
+        generation.incrementAndGet();
         groupCache.clear();
         resourceContainmentCache.clear();
         List<LayerGroupInfo> groups = catalog.getLayerGroups();
@@ -298,6 +303,14 @@ public String prefixedName() {
         }
     }
 
+    /**
+     * Returns a counter incremented on every catalog change, and when the cache is rebuilt. Caches
+     * of decisions based on the layer group containment can use it to spot they went stale.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
     /**
      * This listener keeps the "layer group" flags in the authorization tree current, in order to
      * optimize the application of layer group containment rules
@@ -306,6 +319,7 @@ final class CatalogChangeListener implements CatalogListener {
 
         @Override
         public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+            generation.incrementAndGet();
             if (event.getSource() instanceof LayerGroupInfo) {
                 LayerGroupInfo lg = (LayerGroupInfo) event.getSource();
                 addGroupInfo(lg);
@@ -315,6 +329,7 @@ public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
 
         @Override
         public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+            generation.incrementAndGet();
             if (event.getSource() instanceof LayerGroupInfo) {
                 LayerGroupInfo lg = (LayerGroupInfo) event.getSource();
                 clearGroupInfo(lg);
@@ -325,6 +340,7 @@ public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException
 
         @Override
         public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+            generation.incrementAndGet();
             final CatalogInfo source = event.getSource();
             if (source instanceof LayerGroupInfo) {
                 LayerGroupInfo lg = (LayerGroupInfo) event.getSource();
@@ -442,8 +458,8 @@ private void updateWorkspaceNames(String oldName, String newName) {
 
         @Override
         public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
-            // nothing to do here
-
+            // the change is now visible, decisions taken in the meantime might be stale
+            generation.incrementAndGet();
         }
 
         @Override
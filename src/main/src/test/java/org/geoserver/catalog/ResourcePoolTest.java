@@ -380,6 +380,99 @@ protected void dispose(String name, DataAccess dataStore) {
         assertTrue(disposeCalled);
     }
 
+    @Test
+    public void testDataStoreIdleEviction() throws Exception {
+        // not going through the constructor taking the catalog, would steal its cache listener
+        ResourcePool pool = new ResourcePool();
+        pool.catalog = getCatalog();
+        try {
+            DataStoreInfo info = getCatalog().getDataStores().get(0);
+            DataAccess<?, ?> dataStore = pool.getDataStore(info);
+            assertSame(dataStore, pool.getDataStore(info));
+            List<DataStoreStatistics> stats = pool.getDataStoreStatistics();
+            assertEquals(1, stats.size());
+            assertEquals(info.getId(), stats.get(0).getId());
+            assertEquals(1, stats.get(0).getAccesses());
+
+            // not enabled
+            assertEquals(0, pool.evictIdleDataStores());
+
+            pool.setDataStoreIdleTimeout(1);
+            Thread.sleep(10);
+            pool.evictIdleDataStores();
+            assertFalse(pool.getDataStoreCache().containsKey(info.getId()));
+            assertTrue(pool.getDataStoreStatistics().isEmpty());
+            assertEquals(1, pool.getIdleDataStoreEvictions());
+
+            // lazily re-opened
+            pool.setDataStoreIdleTimeout(0);
+            assertNotSame(dataStore, pool.getDataStore(info));
+            assertEquals(1, pool.getDataStoreStatistics().size());
+        } finally {
+            pool.dispose();
+        }
+    }
+
+    @Test
+    public void testDataStoreMaxSize() throws Exception {
+        ResourcePool pool = new ResourcePool();
+        pool.catalog = getCatalog();
+        try {
+            // no grace period, any store not just opened can be evicted
+            pool.setDataStoreGracePeriod(0);
+            pool.setDataStoreMaxSize(2);
+            List<DataStoreInfo> stores = getCatalog().getDataStores();
+            assertThat(stores.size(), greaterThan(2));
+            pool.getDataStore(stores.get(0));
+            Thread.sleep(5);
+            pool.getDataStore(stores.get(1));
+            Thread.sleep(5);
+            // touch the first one, making the second one the least recently used
+            pool.getDataStore(stores.get(0));
+            Thread.sleep(5);
+            pool.getDataStore(stores.get(2));
+
+            Map<String, DataAccess> cache = pool.getDataStoreCache();
+            assertEquals(2, cache.size());
+            assertTrue(cache.containsKey(stores.get(0).getId()));
+            assertFalse(cache.containsKey(stores.get(1).getId()));
+            assertTrue(cache.containsKey(stores.get(2).getId()));
+            assertEquals(1, pool.getSizeDataStoreEvictions());
+        } finally {
+            pool.dispose();
+        }
+    }
+
+    @Test
+    public void testDataStoreMaxSizeGracePeriod() throws Exception {
+        ResourcePool pool = new ResourcePool();
+        pool.catalog = getCatalog();
+        try {
+            // more stores in use than the maximum size, none gets disposed under the requests
+            pool.setDataStoreMaxSize(1);
+            List<DataStoreInfo> stores = getCatalog().getDataStores();
+            assertThat(stores.size(), greaterThan(2));
+            DataAccess<?, ?> first = pool.getDataStore(stores.get(0));
+            pool.getDataStore(stores.get(1));
+            pool.getDataStore(stores.get(2));
+            Map<String, DataAccess> cache = pool.getDataStoreCache();
+            assertEquals(3, cache.size());
+            assertEquals(0, pool.getSizeDataStoreEvictions());
+            assertSame(first, pool.getDataStore(stores.get(0)));
+
+            // once they are idle for the grace period, the cache gets back within the size
+            pool.setDataStoreGracePeriod(1);
+            Thread.sleep(10);
+            pool.getDataStore(stores.get(2));
+            assertEquals(2, pool.evictExcessDataStores());
+            assertEquals(1, cache.size());
+            assertTrue(cache.containsKey(stores.get(2).getId()));
+            assertEquals(2, pool.getSizeDataStoreEvictions());
+        } finally {
+            pool.dispose();
+        }
+    }
+
     @Test
     public void testConfigureFeatureTypeCacheSize() {
         GeoServer gs = getGeoServer();
@@ -0,0 +1,189 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.security.AbstractResourceAccessManager;
+import org.geoserver.security.SecureCatalogImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the catalog access patterns of GetCapabilities (visit all layers) and GetMap (look up a
+ * few layers by name) going through the catalog decorators, with and without security, and through
+ * the {@link CatalogSnapshot}. Not run as part of the build, launch it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.geoserver.catalog.impl.CatalogSnapshotBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CatalogSnapshotBenchmark {
+
+    static final int WORKSPACES = 10;
+
+    static final int LAYERS_PER_STORE = 100;
+
+    /** The number of layers requested in a GetMap */
+    static final int MAP_LAYERS = 10;
+
+    @Param({"1000", "10000"})
+    int layers;
+
+    CatalogImpl catalog;
+
+    Catalog secureCatalog;
+
+    String[] mapLayers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        catalog = new CatalogImpl();
+        secureCatalog = new SecureCatalogImpl(catalog, new AbstractResourceAccessManager());
+        CatalogFactory factory = catalog.getFactory();
+
+        StyleInfo style = factory.createStyle();
+        style.setName("point");
+        style.setFilename("point.sld");
+        catalog.add(style);
+
+        int stores = Math.max(1, layers / LAYERS_PER_STORE);
+        for (int s = 0; s < stores; s++) {
+            String name = "ws" + (s % WORKSPACES);
+            WorkspaceInfo ws = catalog.getWorkspaceByName(name);
+            if (ws == null) {
+                ws = factory.createWorkspace();
+                ws.setName(name);
+                catalog.add(ws);
+                NamespaceInfo ns = factory.createNamespace();
+                ns.setPrefix(name);
+                ns.setURI("http://www.geoserver.org/" + name);
+                catalog.add(ns);
+            }
+            NamespaceInfo ns = catalog.getNamespaceByPrefix(name);
+
+            DataStoreInfo ds = factory.createDataStore();
+            ds.setName("store" + s);
+            ds.setWorkspace(ws);
+            catalog.add(ds);
+
+            for (int l = 0; l < LAYERS_PER_STORE && s * LAYERS_PER_STORE + l < layers; l++) {
+                FeatureTypeInfo ft = factory.createFeatureType();
+                ft.setName("layer" + s + "_" + l);
+                ft.setNativeName(ft.getName());
+                ft.setTitle("Layer " + s + "/" + l);
+                ft.setSRS("EPSG:4326");
+                ft.setNamespace(ns);
+                ft.setStore(ds);
+                ft.setEnabled(true);
+                catalog.add(ft);
+
+                LayerInfo layer = factory.createLayer();
+                layer.setResource(ft);
+                layer.setDefaultStyle(style);
+                catalog.add(layer);
+            }
+        }
+
+        mapLayers = new String[MAP_LAYERS];
+        for (int i = 0; i < MAP_LAYERS; i++) {
+            int s = i * stores / MAP_LAYERS;
+            mapLayers[i] = "ws" + (s % WORKSPACES) + ":layer" + s + "_" + (i % LAYERS_PER_STORE);
+        }
+    }
+
+    @Benchmark
+    public void capabilitiesCatalog(Blackhole bh) {
+        for (LayerInfo layer : catalog.getLayers()) {
+            visit(layer, bh);
+        }
+    }
+
+    @Benchmark
+    public void capabilitiesSecureCatalog(Blackhole bh) {
+        for (LayerInfo layer : secureCatalog.getLayers()) {
+            visit(layer, bh);
+        }
+    }
+
+    @Benchmark
+    public void capabilitiesSnapshot(Blackhole bh) {
+        for (LayerInfo layer : catalog.getSnapshot().getLayers()) {
+            visit(layer, bh);
+        }
+    }
+
+    @Benchmark
+    public void getMapCatalog(Blackhole bh) {
+        for (String name : mapLayers) {
+            visit(catalog.getLayerByName(name), bh);
+        }
+    }
+
+    @Benchmark
+    public void getMapSecureCatalog(Blackhole bh) {
+        for (String name : mapLayers) {
+            visit(secureCatalog.getLayerByName(name), bh);
+        }
+    }
+
+    @Benchmark
+    public void getMapSnapshot(Blackhole bh) {
+        CatalogSnapshot snapshot = catalog.getSnapshot();
+        for (String name : mapLayers) {
+            visit(snapshot.getLayerByName(name), bh);
+        }
+    }
+
+    /** Reads the properties a capabilities document or a map request typically need */
+    private void visit(LayerInfo layer, Blackhole bh) {
+        ResourceInfo resource = layer.getResource();
+        bh.consume(layer.getName());
+        bh.consume(layer.isEnabled());
+        bh.consume(layer.isAdvertised());
+        bh.consume(layer.getDefaultStyle().getName());
+        bh.consume(resource.getTitle());
+        bh.consume(resource.getSRS());
+        bh.consume(resource.getNamespace().getPrefix());
+        bh.consume(resource.getStore().getWorkspace().getName());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options =
+                new OptionsBuilder()
+                        .include(CatalogSnapshotBenchmark.class.getSimpleName())
+                        .build();
+        new Runner(options).run();
+    }
+}
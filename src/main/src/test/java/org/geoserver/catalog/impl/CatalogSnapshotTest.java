@@ -0,0 +1,200 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.Keyword;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CatalogSnapshotTest {
+
+    CatalogImpl catalog;
+
+    StyleInfo style;
+
+    @Before
+    public void setUp() {
+        catalog = new CatalogImpl();
+        CatalogFactory factory = catalog.getFactory();
+
+        style = factory.createStyle();
+        style.setName("point");
+        style.setFilename("point.sld");
+        catalog.add(style);
+
+        for (String name : new String[] {"ws1", "ws2"}) {
+            WorkspaceInfo ws = factory.createWorkspace();
+            ws.setName(name);
+            catalog.add(ws);
+            NamespaceInfo ns = factory.createNamespace();
+            ns.setPrefix(name);
+            ns.setURI("http://www.geoserver.org/" + name);
+            catalog.add(ns);
+
+            DataStoreInfo ds = factory.createDataStore();
+            ds.setName("store");
+            ds.setWorkspace(ws);
+            catalog.add(ds);
+        }
+        addLayer("ws1", "roads");
+        addLayer("ws2", "roads");
+        addLayer("ws2", "rivers");
+        catalog.setDefaultWorkspace(catalog.getWorkspaceByName("ws2"));
+    }
+
+    private void addLayer(String workspace, String name) {
+        CatalogFactory factory = catalog.getFactory();
+        FeatureTypeInfo ft = factory.createFeatureType();
+        ft.setName(name);
+        ft.setNativeName(name);
+        ft.setNamespace(catalog.getNamespaceByPrefix(workspace));
+        ft.setStore(catalog.getDataStoreByName(workspace, "store"));
+        catalog.add(ft);
+
+        LayerInfo layer = factory.createLayer();
+        layer.setResource(ft);
+        layer.setDefaultStyle(style);
+        catalog.add(layer);
+    }
+
+    @Test
+    public void testContents() {
+        CatalogSnapshot snapshot = catalog.getSnapshot();
+        assertEquals(2, snapshot.getWorkspaces().size());
+        assertEquals(2, snapshot.getNamespaces().size());
+        assertEquals(2, snapshot.getStores().size());
+        assertEquals(3, snapshot.getResources().size());
+        assertEquals(3, snapshot.getLayers().size());
+        assertEquals(1, snapshot.getStyles().size());
+        assertEquals("ws2", snapshot.getDefaultWorkspace().getName());
+
+        // no proxies around
+        for (LayerInfo layer : snapshot.getLayers()) {
+            assertFalse(Proxy.isProxyClass(layer.getClass()));
+            assertFalse(Proxy.isProxyClass(layer.getResource().getClass()));
+        }
+
+        LayerInfo layer = catalog.getLayerByName("ws1:roads");
+        LayerInfo copy = snapshot.get(layer.getId(), LayerInfo.class);
+        assertNotSame(ModificationProxy.unwrap(layer), copy);
+        assertEquals(layer.getId(), copy.getId());
+        assertEquals("roads", copy.getName());
+        assertNull(snapshot.get(layer.getId(), StyleInfo.class));
+        assertEquals(style.getId(), snapshot.getStyleByName("point").getId());
+
+        // references point to the other copies in the snapshot
+        assertSame(snapshot.getStyleByName("point"), copy.getDefaultStyle());
+        assertSame(
+                snapshot.get(layer.getResource().getId(), FeatureTypeInfo.class),
+                copy.getResource());
+    }
+
+    @Test
+    public void testDetached() {
+        CatalogSnapshot snapshot = catalog.getSnapshot();
+        FeatureTypeInfo copy = (FeatureTypeInfo) snapshot.getLayerByName("ws1:roads").getResource();
+
+        // changing the copy does not affect the catalog
+        copy.setTitle("changed");
+        assertNull(catalog.getFeatureTypeByName("ws1", "roads").getTitle());
+
+        // and collections cannot be modified
+        try {
+            copy.getKeywords().add(new Keyword("test"));
+            fail("Keywords should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // fine
+        }
+        try {
+            copy.getMetadata().put("test", "value");
+            fail("Metadata should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // fine
+        }
+        assertTrue(catalog.getFeatureTypeByName("ws1", "roads").getMetadata().isEmpty());
+    }
+
+    @Test
+    public void testLayerByName() {
+        CatalogSnapshot snapshot = catalog.getSnapshot();
+        assertEquals("ws1", prefix(snapshot.getLayerByName("ws1:roads")));
+        // unqualified names are looked up in the default workspace first
+        assertEquals("ws2", prefix(snapshot.getLayerByName("roads")));
+        assertEquals("rivers", snapshot.getLayerByName("rivers").getName());
+        assertNull(snapshot.getLayerByName("ws1:rivers"));
+    }
+
+    private String prefix(LayerInfo layer) {
+        return layer.getResource().getNamespace().getPrefix();
+    }
+
+    @Test
+    public void testCopyOnWrite() {
+        CatalogSnapshot snapshot = catalog.getSnapshot();
+        assertSame(snapshot, catalog.getSnapshot());
+
+        addLayer("ws1", "lakes");
+        CatalogSnapshot updated = catalog.getSnapshot();
+        assertNotSame(snapshot, updated);
+        assertEquals(3, snapshot.getLayers().size());
+        assertNull(snapshot.getLayerByName("ws1:lakes"));
+        assertEquals(4, updated.getLayers().size());
+        assertEquals("lakes", updated.getLayerByName("ws1:lakes").getName());
+
+        FeatureTypeInfo ft = catalog.getFeatureTypeByName("ws1", "lakes");
+        ft.setName("ponds");
+        catalog.save(ft);
+        CatalogSnapshot renamed = catalog.getSnapshot();
+        assertNotSame(updated, renamed);
+        assertNull(renamed.getLayerByName("ws1:lakes"));
+        assertEquals("ponds", renamed.getLayerByName("ws1:ponds").getName());
+
+        catalog.remove(catalog.getLayerByName("ws1:ponds"));
+        assertEquals(3, catalog.getSnapshot().getLayers().size());
+
+        catalog.setDefaultWorkspace(catalog.getWorkspaceByName("ws1"));
+        assertEquals("ws1", catalog.getSnapshot().getDefaultWorkspace().getName());
+    }
+
+    @Test
+    public void testConcurrentBuild() throws Exception {
+        addLayer("ws1", "lakes");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CatalogSnapshot>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> catalog.getSnapshot()));
+            }
+            // the concurrent callers share a single build
+            CatalogSnapshot snapshot = futures.get(0).get();
+            for (Future<CatalogSnapshot> future : futures) {
+                assertSame(snapshot, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
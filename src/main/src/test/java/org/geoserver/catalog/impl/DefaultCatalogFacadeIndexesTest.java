@@ -0,0 +1,227 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.Predicates;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.util.CloseableIterator;
+import org.geotools.api.filter.Filter;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks the secondary indexes of {@link DefaultCatalogFacade} are used and kept up to date */
+public class DefaultCatalogFacadeIndexesTest {
+
+    Catalog catalog;
+
+    DefaultCatalogFacade facade;
+
+    StyleInfo style;
+
+    @Before
+    public void setUp() {
+        CatalogImpl catalogImpl = new CatalogImpl();
+        facade = new DefaultCatalogFacade(catalogImpl);
+        catalogImpl.setFacade(facade);
+        catalog = catalogImpl;
+        CatalogFactory factory = catalog.getFactory();
+
+        style = factory.createStyle();
+        style.setName("point");
+        style.setFilename("point.sld");
+        catalog.add(style);
+
+        for (int w = 0; w < 3; w++) {
+            WorkspaceInfo ws = factory.createWorkspace();
+            ws.setName("ws" + w);
+            catalog.add(ws);
+            NamespaceInfo ns = factory.createNamespace();
+            ns.setPrefix(ws.getName());
+            ns.setURI("http://www.geoserver.org/" + ws.getName());
+            catalog.add(ns);
+
+            for (int s = 0; s < 2; s++) {
+                DataStoreInfo ds = factory.createDataStore();
+                ds.setName("store" + s);
+                ds.setWorkspace(ws);
+                ds.setEnabled(s == 0);
+                catalog.add(ds);
+
+                for (int l = 0; l < 3; l++) {
+                    FeatureTypeInfo ft = factory.createFeatureType();
+                    ft.setName("layer" + w + s + l);
+                    ft.setNativeName(ft.getName());
+                    ft.setNamespace(ns);
+                    ft.setStore(ds);
+                    ft.setEnabled(l != 1);
+                    catalog.add(ft);
+
+                    LayerInfo layer = factory.createLayer();
+                    layer.setResource(ft);
+                    layer.setDefaultStyle(style);
+                    catalog.add(layer);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFiltersMatchScan() {
+        List<Filter> filters =
+                List.of(
+                        Predicates.equal("workspace.name", "ws1"),
+                        Predicates.equal("enabled", true),
+                        Predicates.equal("store.workspace.name", "ws2"),
+                        Predicates.equal("resource.store.workspace.name", "ws0"),
+                        Predicates.equal("resource.namespace.prefix", "ws1"),
+                        Predicates.equal("resource.store.enabled", false),
+                        Predicates.and(
+                                Predicates.equal("resource.store.workspace.name", "ws0"),
+                                Predicates.equal("resource.enabled", true)),
+                        Predicates.equal("name", "layer120"),
+                        Predicates.equal("name", "store1"),
+                        Predicates.equal("workspace.name", "notThere"));
+        for (Filter filter : filters) {
+            assertSameAsScan(StoreInfo.class, facade.stores, filter);
+            assertSameAsScan(ResourceInfo.class, facade.resources, filter);
+            assertSameAsScan(LayerInfo.class, facade.layers, filter);
+        }
+    }
+
+    @Test
+    public void testCandidatesNarrowed() {
+        CatalogInfoLookup<ResourceInfo> resources = facade.resources;
+        String storeId = catalog.getStoreByName("ws1", "store0", StoreInfo.class).getId();
+        assertEquals(3, resources.lookup("store.id", storeId).size());
+        // type mismatch, cannot be served by the index
+        assertNull(resources.lookup("enabled", "true"));
+        assertNull(resources.lookup("title", "abc"));
+    }
+
+    @Test
+    public void testStoreWorkspaceChange() {
+        WorkspaceInfo ws0 = catalog.getWorkspaceByName("ws0");
+        WorkspaceInfo ws1 = catalog.getWorkspaceByName("ws1");
+        DataStoreInfo store = catalog.getDataStoreByName(ws0, "store1");
+        store.setWorkspace(ws1);
+        store.setName("store2");
+        catalog.save(store);
+
+        assertEquals(1, catalog.getStoresByWorkspace(ws0, StoreInfo.class).size());
+        assertEquals(3, catalog.getStoresByWorkspace(ws1, StoreInfo.class).size());
+        assertSameAsScan(
+                StoreInfo.class, facade.stores, Predicates.equal("workspace.name", "ws1"));
+        assertSameAsScan(
+                ResourceInfo.class,
+                facade.resources,
+                Predicates.equal("store.workspace.name", "ws1"));
+    }
+
+    @Test
+    public void testResourceRename() {
+        FeatureTypeInfo ft = catalog.getFeatureTypeByName("ws0", "layer000");
+        ft.setName("renamed");
+        catalog.save(ft);
+
+        assertNull(catalog.getLayerByName("layer000"));
+        LayerInfo layer = catalog.getLayerByName("renamed");
+        assertNotNull(layer);
+        assertEquals(ft.getId(), layer.getResource().getId());
+        assertNotNull(catalog.getResourceByName("renamed", ResourceInfo.class));
+    }
+
+    @Test
+    public void testResourceDisable() {
+        FeatureTypeInfo ft = catalog.getFeatureTypeByName("ws0", "layer000");
+        ft.setEnabled(false);
+        catalog.save(ft);
+
+        Filter filter = Predicates.equal("resource.enabled", false);
+        assertSameAsScan(LayerInfo.class, facade.layers, filter);
+        List<String> disabled = ids(facade.list(LayerInfo.class, filter, null, null));
+        assertTrue(disabled.contains(layerId("layer000")));
+    }
+
+    @Test
+    public void testRemove() {
+        LayerInfo layer = catalog.getLayerByName("layer000");
+        ResourceInfo resource = layer.getResource();
+        catalog.remove(layer);
+        catalog.remove(resource);
+
+        Filter filter = Predicates.equal("resource.store.workspace.name", "ws0");
+        assertSameAsScan(LayerInfo.class, facade.layers, filter);
+        assertEquals(5, ids(facade.list(LayerInfo.class, filter, null, null)).size());
+        assertNull(catalog.getResourceByName("layer000", ResourceInfo.class));
+    }
+
+    @Test
+    public void testWorkspaceStyles() {
+        WorkspaceInfo ws = catalog.getWorkspaceByName("ws0");
+        StyleInfo wsStyle = catalog.getFactory().createStyle();
+        wsStyle.setName("line");
+        wsStyle.setFilename("line.sld");
+        wsStyle.setWorkspace(ws);
+        catalog.add(wsStyle);
+
+        assertEquals(1, catalog.getStylesByWorkspace(ws).size());
+        assertEquals(1, catalog.getStylesByWorkspace(CatalogFacade.NO_WORKSPACE).size());
+        Filter global = Predicates.isNull("workspace.id");
+        assertSameAsScan(StyleInfo.class, facade.styles, global);
+        assertEquals(List.of(style.getId()), ids(facade.list(StyleInfo.class, global, null, null)));
+    }
+
+    @Test
+    public void testPublished() {
+        Filter filter = Predicates.equal("resource.store.workspace.name", "ws2");
+        List<String> expected = new ArrayList<>();
+        for (LayerInfo l : facade.layers.list(LayerInfo.class, li -> filter.evaluate(li))) {
+            expected.add(l.getId());
+        }
+        assertEquals(expected, ids(facade.list(PublishedInfo.class, filter, null, null)));
+    }
+
+    private String layerId(String name) {
+        return catalog.getLayerByName(name).getId();
+    }
+
+    private <T extends CatalogInfo> void assertSameAsScan(
+            Class<T> clazz, CatalogInfoLookup<? super T> lookup, Filter filter) {
+        List<String> expected = new ArrayList<>();
+        for (T info : lookup.list(clazz, i -> filter.evaluate(i))) {
+            expected.add(info.getId());
+        }
+        assertEquals(filter.toString(), expected, ids(facade.list(clazz, filter, null, null)));
+    }
+
+    private <T extends CatalogInfo> List<String> ids(CloseableIterator<T> iterator) {
+        List<String> result = new ArrayList<>();
+        try (CloseableIterator<T> it = iterator) {
+            while (it.hasNext()) {
+                result.add(it.next().getId());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,248 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.data.test.CiteTestData;
+import org.geoserver.ows.LocalWorkspace;
+import org.geoserver.ows.Request;
+import org.geoserver.ows.Response;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.Operation;
+import org.geoserver.security.AccessMode;
+import org.geoserver.security.impl.DataAccessRule;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class CapabilitiesResponseCacheTest extends GeoServerSystemTestSupport {
+
+    static final String DOCUMENT = "<WFS_Capabilities/>";
+
+    CapabilitiesResponseCache cache;
+
+    DocumentResponse delegate;
+
+    @Before
+    public void enableCache() {
+        cache = GeoServerExtensions.bean(CapabilitiesResponseCache.class);
+        cache.setServices(Set.of("wfs"));
+        cache.clear();
+        delegate = new DocumentResponse();
+    }
+
+    @After
+    public void disableCache() throws Exception {
+        cache.setServices(Collections.emptySet());
+        LocalWorkspace.remove();
+        revertLayer(CiteTestData.FIFTEEN);
+    }
+
+    /** Produces the document, counting the times it had to */
+    static class DocumentResponse extends Response {
+
+        int writes;
+
+        DocumentResponse() {
+            super(String.class);
+        }
+
+        @Override
+        public String getMimeType(Object value, Operation operation) {
+            return "text/xml";
+        }
+
+        @Override
+        public void write(Object value, OutputStream output, Operation operation)
+                throws IOException {
+            writes++;
+            output.write(((String) value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private Request request(String workspace, String acceptEncoding) {
+        MockHttpServletRequest http =
+                new MockHttpServletRequest("GET", "/geoserver/" + workspace + "/wfs");
+        if (acceptEncoding != null) {
+            http.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        Map<String, Object> kvp = new HashMap<>();
+        kvp.put("SERVICE", "WFS");
+        kvp.put("VERSION", "1.0.0");
+        kvp.put("REQUEST", "GetCapabilities");
+
+        Request request = new Request();
+        request.setHttpRequest(http);
+        request.setRawKvp(kvp);
+        request.setService("WFS");
+        request.setVersion("1.0.0");
+        request.setRequest("GetCapabilities");
+        if (workspace != null) {
+            LocalWorkspace.set(getCatalog().getWorkspaceByName(workspace));
+        } else {
+            LocalWorkspace.remove();
+        }
+        return request;
+    }
+
+    /** Runs the response through the cache, returns the headers and the body */
+    private Object[] dispatch(Request request) throws IOException {
+        Response response = cache.responseDispatched(request, null, DOCUMENT, delegate);
+        String[][] headers = response.getHeaders(DOCUMENT, null);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        response.write(DOCUMENT, bos, null);
+        return new Object[] {headers, bos.toByteArray()};
+    }
+
+    private String dispatchAsString(Request request) throws IOException {
+        return new String((byte[]) dispatch(request)[1], StandardCharsets.UTF_8);
+    }
+
+    private String contentEncoding(Object[] result) {
+        String[][] headers = (String[][]) result[0];
+        if (headers == null) {
+            return null;
+        }
+        return Arrays.stream(headers)
+                .filter(h -> "Content-Encoding".equalsIgnoreCase(h[0]))
+                .map(h -> h[1])
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+        assertEquals(DOCUMENT, dispatchAsString(request(null, null)));
+        assertEquals(DOCUMENT, dispatchAsString(request(null, null)));
+        assertEquals(1, delegate.writes);
+        assertEquals(misses + 1, cache.getMisses());
+        assertEquals(hits + 1, cache.getHits());
+
+        // a different workspace, a different entry
+        dispatch(request("cdf", null));
+        assertEquals(misses + 2, cache.getMisses());
+        assertEquals(2, cache.getSize());
+        assertTrue(cache.getUsedMemory() > 0);
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        cache.setServices(Collections.emptySet());
+        dispatch(request(null, null));
+        dispatch(request(null, null));
+        assertEquals(2, delegate.writes);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testGzipEncoding() throws Exception {
+        // the first response is generated, and not compressed
+        Object[] result = dispatch(request(null, "gzip, deflate"));
+        assertNull(contentEncoding(result));
+        assertArrayEquals(DOCUMENT.getBytes(StandardCharsets.UTF_8), (byte[]) result[1]);
+
+        // the cached one is sent compressed as is
+        result = dispatch(request(null, "gzip, deflate"));
+        assertEquals("gzip", contentEncoding(result));
+        try (InputStream is = new GZIPInputStream(new ByteArrayInputStream((byte[]) result[1]))) {
+            assertEquals(DOCUMENT, IOUtils.toString(is, StandardCharsets.UTF_8));
+        }
+
+        // unless the client does not want it
+        result = dispatch(request(null, "gzip;q=0, deflate"));
+        assertNull(contentEncoding(result));
+        assertArrayEquals(DOCUMENT.getBytes(StandardCharsets.UTF_8), (byte[]) result[1]);
+        result = dispatch(request(null, null));
+        assertNull(contentEncoding(result));
+        assertEquals(1, delegate.writes);
+    }
+
+    @Test
+    public void testCatalogChangeInvalidates() throws Exception {
+        dispatch(request(null, null));
+        dispatch(request("sf", null));
+        dispatch(request("cdf", null));
+        assertEquals(3, cache.getSize());
+
+        FeatureTypeInfo ft = getCatalog().getFeatureTypeByName(getLayerId(CiteTestData.FIFTEEN));
+        ft.setTitle("A brand new title");
+        getCatalog().save(ft);
+
+        // the global and cdf documents are gone, the sf one is not affected
+        assertEquals(1, cache.getSize());
+        long hits = cache.getHits();
+        dispatch(request("sf", null));
+        assertEquals(hits + 1, cache.getHits());
+    }
+
+    @Test
+    public void testGlobalChangeInvalidates() throws Exception {
+        dispatch(request(null, null));
+        assertEquals(1, cache.getSize());
+
+        GeoServerInfo global = getGeoServer().getGlobal();
+        boolean verbose = global.getSettings().isVerbose();
+        try {
+            global.getSettings().setVerbose(!verbose);
+            getGeoServer().save(global);
+            assertEquals(0, cache.getSize());
+        } finally {
+            global = getGeoServer().getGlobal();
+            global.getSettings().setVerbose(verbose);
+            getGeoServer().save(global);
+        }
+    }
+
+    @Test
+    public void testAccessRulesChangeInvalidates() throws Exception {
+        dispatch(request(null, null));
+        dispatch(request(null, null));
+        assertEquals(1, delegate.writes);
+
+        DataAccessRuleDAO dao = DataAccessRuleDAO.get();
+        DataAccessRule rule = new DataAccessRule("cdf", "*", AccessMode.READ, "ROLE_CDF");
+        // make sure the modification date moves forward
+        Thread.sleep(5);
+        dao.addRule(rule);
+        try {
+            dispatch(request(null, null));
+            assertEquals(2, delegate.writes);
+        } finally {
+            dao.removeRule(rule);
+        }
+    }
+
+    @Test
+    public void testSecurityReloadInvalidates() throws Exception {
+        dispatch(request(null, null));
+        assertEquals(1, cache.getSize());
+
+        cache.handlePostChanged(getSecurityManager());
+        assertEquals(0, cache.getSize());
+    }
+}
@@ -0,0 +1,153 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.config.util.XStreamPersisterFactory;
+import org.geoserver.platform.GeoServerResourceLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the catalog loading time on synthetic data directories, for increasing layer counts,
+ * with the sequential and the parallel loader. Not run as part of the build, launch it from the
+ * IDE or with:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.geoserver.config.CatalogLoaderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CatalogLoaderBenchmark {
+
+    static final int WORKSPACES = 10;
+
+    static final int LAYERS_PER_STORE = 100;
+
+    @Param({"1000", "10000", "30000"})
+    int layers;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    File dataDirectory;
+
+    DefaultGeoServerLoader loader;
+
+    XStreamPersister xp;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dataDirectory = Files.createTempDirectory("catalog-benchmark").toFile();
+        GeoServerResourceLoader resourceLoader = new GeoServerResourceLoader(dataDirectory);
+        xp = new XStreamPersisterFactory().createXMLPersister();
+        createDataDirectory(resourceLoader);
+
+        loader = new DefaultGeoServerLoader(resourceLoader);
+        loader.setParallelLoading(parallel);
+    }
+
+    /** Writes the configuration files by having a persister listen to a catalog being filled */
+    private void createDataDirectory(GeoServerResourceLoader resourceLoader) {
+        Catalog catalog = new CatalogImpl();
+        catalog.setResourceLoader(resourceLoader);
+        catalog.addListener(new GeoServerConfigPersister(resourceLoader, xp));
+        CatalogFactory factory = catalog.getFactory();
+
+        StyleInfo style = factory.createStyle();
+        style.setName("point");
+        style.setFilename("point.sld");
+        catalog.add(style);
+
+        int stores = Math.max(1, layers / LAYERS_PER_STORE);
+        for (int s = 0; s < stores; s++) {
+            int w = s % WORKSPACES;
+            String name = "ws" + w;
+            WorkspaceInfo ws = catalog.getWorkspaceByName(name);
+            if (ws == null) {
+                ws = factory.createWorkspace();
+                ws.setName(name);
+                catalog.add(ws);
+                NamespaceInfo ns = factory.createNamespace();
+                ns.setPrefix(name);
+                ns.setURI("http://www.geoserver.org/" + name);
+                catalog.add(ns);
+            }
+            NamespaceInfo ns = catalog.getNamespaceByPrefix(name);
+
+            // disabled, so that the loader does not try to connect
+            DataStoreInfo ds = factory.createDataStore();
+            ds.setName("store" + s);
+            ds.setWorkspace(ws);
+            ds.setType("Property");
+            ds.setEnabled(false);
+            catalog.add(ds);
+
+            for (int l = 0; l < LAYERS_PER_STORE && s * LAYERS_PER_STORE + l < layers; l++) {
+                FeatureTypeInfo ft = factory.createFeatureType();
+                ft.setName("layer" + s + "_" + l);
+                ft.setNativeName(ft.getName());
+                ft.setNamespace(ns);
+                ft.setStore(ds);
+                ft.setEnabled(true);
+                catalog.add(ft);
+
+                LayerInfo layer = factory.createLayer();
+                layer.setResource(ft);
+                layer.setDefaultStyle(style);
+                catalog.add(layer);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(dataDirectory);
+    }
+
+    @Benchmark
+    public Catalog load() throws Exception {
+        return loader.readCatalog(xp);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options =
+                new OptionsBuilder().include(CatalogLoaderBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
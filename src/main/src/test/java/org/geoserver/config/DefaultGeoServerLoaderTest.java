@@ -14,9 +14,15 @@
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.catalog.LayerGroupInfo;
 import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.impl.CatalogImpl;
 import org.geoserver.config.impl.GeoServerImpl;
@@ -136,6 +142,50 @@ public void testLoadNestedLayerGroups() throws Exception {
         assertTrue(nestedLayerGroup.getLayers().get(1) instanceof LayerInfo);
     }
 
+    @Test
+    public void testLoadNestedLayerGroupsParallel() throws Exception {
+        loader.setParallelLoading(true);
+        loader.readCatalog(catalog, xp);
+
+        LayerGroupInfo simpleLayerGroup = catalog.getLayerGroupByName("topp", "simplegroup");
+        assertNotNull(simpleLayerGroup);
+        assertEquals(2, simpleLayerGroup.getMetadataLinks().size());
+
+        LayerGroupInfo nestedLayerGroup = catalog.getLayerGroupByName("topp", "nestedgroup");
+        assertNotNull(nestedLayerGroup);
+        assertEquals(2, nestedLayerGroup.getLayers().size());
+        assertTrue(nestedLayerGroup.getLayers().get(0) instanceof LayerGroupInfo);
+        assertNotNull(((LayerGroupInfo) nestedLayerGroup.getLayers().get(0)).getLayers());
+        assertTrue(nestedLayerGroup.getLayers().get(1) instanceof LayerInfo);
+    }
+
+    @Test
+    public void testParallelLoadingSameContents() throws Exception {
+        Catalog sequential = new CatalogImpl();
+        sequential.setResourceLoader(catalog.getResourceLoader());
+        loader.readCatalog(sequential, xp);
+
+        loader.setParallelLoading(true);
+        loader.readCatalog(catalog, xp);
+
+        assertEquals(ids(sequential.getWorkspaces()), ids(catalog.getWorkspaces()));
+        assertEquals(
+                ids(sequential.getStores(StoreInfo.class)),
+                ids(catalog.getStores(StoreInfo.class)));
+        assertEquals(
+                ids(sequential.getResources(ResourceInfo.class)),
+                ids(catalog.getResources(ResourceInfo.class)));
+        assertEquals(ids(sequential.getLayers()), ids(catalog.getLayers()));
+        assertEquals(ids(sequential.getLayerGroups()), ids(catalog.getLayerGroups()));
+        assertEquals(ids(sequential.getStyles()), ids(catalog.getStyles()));
+        assertEquals(
+                sequential.getDefaultWorkspace().getId(), catalog.getDefaultWorkspace().getId());
+    }
+
+    private Set<String> ids(List<? extends CatalogInfo> infos) {
+        return infos.stream().map(CatalogInfo::getId).collect(Collectors.toSet());
+    }
+
     @Test
     public void testLoadWithoutResaving() throws Exception {
         GeoServerImpl gs = new GeoServerImpl();
@@ -5,6 +5,7 @@
 package org.geoserver.filters;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -14,6 +15,7 @@
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 import org.springframework.mock.web.DelegatingServletOutputStream;
@@ -194,6 +196,42 @@ public void doFilter(ServletRequest request, ServletResponse response)
         assertEquals("1000", response.getHeader("Content-Length"));
     }
 
+    @Test
+    public void testAlreadyEncodedNotGZipped() throws Exception {
+        MockHttpServletRequest request =
+                new MockHttpServletRequest("GET", "http://www.geoserver.org");
+        request.addHeader("accept-encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setContentType("text/plain");
+
+        // run the filter
+        GZIPFilter filter = new GZIPFilter();
+
+        MockServletContext context = new MockServletContext();
+        MockFilterConfig config = new MockFilterConfig(context);
+        config.addInitParameter("compressed-types", "text/plain");
+        filter.init(config);
+
+        MockFilterChain chain =
+                new MockFilterChain() {
+                    @Override
+                    @SuppressWarnings("PMD.CloseResource")
+                    public void doFilter(ServletRequest request, ServletResponse response)
+                            throws IOException, ServletException {
+                        ((HttpServletResponse) response).addHeader("Content-Encoding", "gzip");
+                        AlternativesResponseStream alternatives =
+                                (AlternativesResponseStream) response.getOutputStream();
+                        ServletOutputStream stream = alternatives.getStream();
+                        assertFalse(stream instanceof GZIPResponseStream);
+                        stream.write(1);
+                    }
+                };
+        filter.doFilter(request, response, chain);
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(1, response.getHeaders("Content-Encoding").size());
+        assertArrayEquals(new byte[] {1}, response.getContentAsByteArray());
+    }
+
     @Test
     public void testFlushAfterClose() throws ServletException, IOException {
         // prepare request, response, and chain
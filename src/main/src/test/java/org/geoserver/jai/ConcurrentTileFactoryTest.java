@@ -0,0 +1,94 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Point;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import org.junit.Test;
+
+public class ConcurrentTileFactoryTest {
+
+    static final int TILE_BYTES = 256 * 256 * 3;
+
+    SampleModel sampleModel =
+            new PixelInterleavedSampleModel(
+                    DataBuffer.TYPE_BYTE, 256, 256, 3, 256 * 3, new int[] {0, 1, 2});
+
+    Point origin = new Point(0, 0);
+
+    @Test
+    public void testRecycle() {
+        ConcurrentTileFactory factory = new ConcurrentTileFactory();
+        WritableRaster tile = factory.createTile(sampleModel, origin);
+        assertEquals(TILE_BYTES, factory.getAllocatedBytes());
+        assertEquals(1, factory.getMisses());
+        byte[][] bankData = ((DataBufferByte) tile.getDataBuffer()).getBankData();
+        tile.setSample(10, 10, 0, 255);
+
+        factory.recycleTile(tile);
+        assertEquals(TILE_BYTES, factory.getMemoryUsed());
+
+        // the array is reused, and cleaned
+        WritableRaster recycled = factory.createTile(sampleModel, origin);
+        assertSame(bankData[0], ((DataBufferByte) recycled.getDataBuffer()).getData());
+        assertEquals(0, recycled.getSample(10, 10, 0));
+        assertEquals(1, factory.getHits());
+        assertEquals(TILE_BYTES, factory.getRecycledBytes());
+        assertEquals(TILE_BYTES, factory.getAllocatedBytes());
+        assertEquals(0, factory.getMemoryUsed());
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        ConcurrentTileFactory factory = new ConcurrentTileFactory();
+        factory.setMaxMemory(TILE_BYTES * 2);
+
+        WritableRaster t1 = factory.createTile(sampleModel, origin);
+        WritableRaster t2 = factory.createTile(sampleModel, origin);
+        WritableRaster t3 = factory.createTile(sampleModel, origin);
+        factory.recycleTile(t1);
+        factory.recycleTile(t2);
+        assertEquals(TILE_BYTES * 2, factory.getMemoryUsed());
+        assertEquals(0, factory.getEvictedBytes());
+
+        // the third one does not fit, the oldest gets evicted
+        factory.recycleTile(t3);
+        assertEquals(TILE_BYTES * 2, factory.getMemoryUsed());
+        assertEquals(TILE_BYTES, factory.getEvictedBytes());
+
+        // lowering the budget evicts as well
+        factory.setMaxMemory(TILE_BYTES);
+        assertEquals(TILE_BYTES, factory.getMemoryUsed());
+        assertEquals(TILE_BYTES * 2, factory.getEvictedBytes());
+
+        factory.flush();
+        assertEquals(0, factory.getMemoryUsed());
+
+        // the drained size classes keep working after a flush
+        factory.recycleTile(t1);
+        assertEquals(TILE_BYTES, factory.getMemoryUsed());
+        factory.createTile(sampleModel, origin);
+        assertEquals(0, factory.getMemoryUsed());
+    }
+
+    @Test
+    public void testDisabled() {
+        ConcurrentTileFactory factory = new ConcurrentTileFactory();
+        factory.setMaxMemory(0);
+
+        factory.recycleTile(factory.createTile(sampleModel, origin));
+        assertEquals(0, factory.getMemoryUsed());
+        assertEquals(TILE_BYTES, factory.getEvictedBytes());
+        factory.createTile(sampleModel, origin);
+        assertEquals(2, factory.getMisses());
+    }
+}
@@ -4,16 +4,32 @@
  */
 package org.geoserver.security.impl;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.filters.ThreadLocalsCleanupFilter;
+import org.geoserver.security.AccessMode;
 import org.geoserver.security.WorkspaceAccessLimits;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -39,4 +55,79 @@ public void getAccessLimits() {
 
         assertNotNull(workspaceAccessLimits);
     }
+
+    @Test
+    public void testDecisionCache() {
+        DataAccessRuleDAO dao = mock(DataAccessRuleDAO.class);
+        when(dao.getRules())
+                .thenReturn(List.of(new DataAccessRule("topp", "*", AccessMode.READ, "ROLE_A")));
+        when(dao.getLastModified()).thenReturn(1L);
+        Catalog catalog = mock(Catalog.class);
+        DefaultResourceAccessManager manager = new DefaultResourceAccessManager(dao, catalog);
+        LayerGroupContainmentCache groupsCache = new LayerGroupContainmentCache(catalog);
+        manager.setGroupsCache(groupsCache);
+
+        WorkspaceInfo topp = mock(WorkspaceInfo.class);
+        when(topp.getName()).thenReturn("topp");
+        Authentication userA = user("ROLE_A");
+        Authentication userB = user("ROLE_B");
+
+        assertTrue(manager.canAccess(userA, topp, AccessMode.READ));
+        assertFalse(manager.canAccess(userB, topp, AccessMode.READ));
+        DefaultResourceAccessManager.AccessDecisions decisions = manager.decisions;
+        assertEquals(2, decisions.decisions.size());
+
+        // same roles, different user object, same decision
+        assertTrue(manager.canAccess(user("ROLE_A"), topp, AccessMode.READ));
+        assertSame(decisions, manager.decisions);
+        assertEquals(2, decisions.decisions.size());
+
+        // catalog changes drop the decisions
+        groupsCache.generation.incrementAndGet();
+        assertTrue(manager.canAccess(userA, topp, AccessMode.READ));
+        assertNotSame(decisions, manager.decisions);
+        assertEquals(1, manager.decisions.decisions.size());
+
+        // rule changes drop them too
+        when(dao.getRules())
+                .thenReturn(List.of(new DataAccessRule("topp", "*", AccessMode.READ, "ROLE_B")));
+        when(dao.getLastModified()).thenReturn(2L);
+        assertFalse(manager.canAccess(userA, topp, AccessMode.READ));
+        assertTrue(manager.canAccess(userB, topp, AccessMode.READ));
+
+        // disabling the cache
+        manager.setDecisionCacheSize(0);
+        assertTrue(manager.canAccess(userB, topp, AccessMode.READ));
+        assertNull(manager.decisions);
+    }
+
+    @Test
+    public void testCleanupThreadLocals() throws Exception {
+        DataAccessRuleDAO dao = mock(DataAccessRuleDAO.class);
+        when(dao.getRules())
+                .thenReturn(List.of(new DataAccessRule("topp", "*", AccessMode.READ, "ROLE_A")));
+        DefaultResourceAccessManager manager =
+                new DefaultResourceAccessManager(dao, mock(Catalog.class));
+        WorkspaceInfo topp = mock(WorkspaceInfo.class);
+        when(topp.getName()).thenReturn("topp");
+
+        assertTrue(manager.canAccess(user("ROLE_A"), topp, AccessMode.READ));
+        assertNotNull(DefaultResourceAccessManager.LAST_USER_ROLES.get());
+
+        // the request end clears the user roles
+        new ThreadLocalsCleanupFilter()
+                .doFilter(
+                        new MockHttpServletRequest(),
+                        new MockHttpServletResponse(),
+                        new MockFilterChain());
+        assertNull(DefaultResourceAccessManager.LAST_USER_ROLES.get());
+    }
+
+    private Authentication user(String... roles) {
+        List<GrantedAuthority> authorities =
+                Arrays.stream(roles)
+                        .<GrantedAuthority>map(GeoServerRole::new)
+                        .collect(Collectors.toList());
+        return new UsernamePasswordAuthenticationToken("user", "password", authorities);
+    }
 }
@@ -0,0 +1,206 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geoserver.security.SecureCatalogImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Measures the security checks performed while building a WMS capabilities document, that is,
+ * listing all the layers and groups through the {@link SecureCatalogImpl}, with and without the
+ * {@link DefaultResourceAccessManager} decision cache. The catalog has 10k layers in 10
+ * workspaces, with rules spread over 200 roles. Not run as part of the build, launch it from the
+ * IDE or with:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.geoserver.security.impl.ResourceAccessManagerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ResourceAccessManagerBenchmark {
+
+    static final int WORKSPACES = 10;
+
+    static final int LAYERS_PER_STORE = 100;
+
+    static final int LAYERS_PER_GROUP = 10;
+
+    /** Roles the user making the requests has */
+    static final int USER_ROLES = 10;
+
+    @Param({"10000"})
+    int layers;
+
+    @Param({"200"})
+    int roles;
+
+    @Param({"0", "100000"})
+    int decisionCacheSize;
+
+    SecureCatalogImpl secureCatalog;
+
+    Request request;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        CatalogImpl catalog = new CatalogImpl();
+        CatalogFactory factory = catalog.getFactory();
+        Properties rules = new Properties();
+        rules.put("mode", "HIDE");
+
+        StyleInfo style = factory.createStyle();
+        style.setName("point");
+        style.setFilename("point.sld");
+        catalog.add(style);
+
+        List<LayerInfo> groupLayers = new ArrayList<>();
+        int stores = Math.max(1, layers / LAYERS_PER_STORE);
+        for (int s = 0; s < stores; s++) {
+            String name = "ws" + (s % WORKSPACES);
+            WorkspaceInfo ws = catalog.getWorkspaceByName(name);
+            if (ws == null) {
+                ws = factory.createWorkspace();
+                ws.setName(name);
+                catalog.add(ws);
+                NamespaceInfo ns = factory.createNamespace();
+                ns.setPrefix(name);
+                ns.setURI("http://www.geoserver.org/" + name);
+                catalog.add(ns);
+                // each workspace readable by a slice of the roles
+                rules.put(name + ".*.r", roleList(s % WORKSPACES, roles / WORKSPACES));
+            }
+            NamespaceInfo ns = catalog.getNamespaceByPrefix(name);
+
+            DataStoreInfo ds = factory.createDataStore();
+            ds.setName("store" + s);
+            ds.setWorkspace(ws);
+            catalog.add(ds);
+
+            for (int l = 0; l < LAYERS_PER_STORE && s * LAYERS_PER_STORE + l < layers; l++) {
+                FeatureTypeInfo ft = factory.createFeatureType();
+                ft.setName("layer" + s + "_" + l);
+                ft.setNativeName(ft.getName());
+                ft.setSRS("EPSG:4326");
+                ft.setNamespace(ns);
+                ft.setStore(ds);
+                ft.setEnabled(true);
+                catalog.add(ft);
+
+                LayerInfo layer = factory.createLayer();
+                layer.setResource(ft);
+                layer.setDefaultStyle(style);
+                catalog.add(layer);
+
+                // some layers get their own rule
+                if (l % 10 == 0) {
+                    rules.put(name + "." + ft.getName() + ".r", "ROLE_" + (l % roles));
+                }
+                groupLayers.add(layer);
+                if (groupLayers.size() == LAYERS_PER_GROUP) {
+                    LayerGroupInfo group = factory.createLayerGroup();
+                    group.setName("group" + s + "_" + l);
+                    group.setWorkspace(ws);
+                    for (LayerInfo gl : groupLayers) {
+                        group.getLayers().add(gl);
+                        group.getStyles().add(null);
+                    }
+                    catalog.add(group);
+                    groupLayers.clear();
+                }
+            }
+        }
+
+        MemoryDataAccessRuleDAO dao = new MemoryDataAccessRuleDAO(catalog, rules);
+        DefaultResourceAccessManager manager = new DefaultResourceAccessManager(dao, catalog);
+        manager.setGroupsCache(new LayerGroupContainmentCache(catalog));
+        manager.setDecisionCacheSize(decisionCacheSize);
+        secureCatalog = new SecureCatalogImpl(catalog, manager);
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (int i = 0; i < USER_ROLES; i++) {
+            authorities.add(new GeoServerRole("ROLE_" + (i * roles / USER_ROLES)));
+        }
+        // the benchmark threads are not the setup one
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken("user", "password", authorities));
+
+        request = new Request();
+        request.setService("WMS");
+        request.setRequest("GetCapabilities");
+    }
+
+    private String roleList(int slice, int size) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = slice * size; i < (slice + 1) * size; i++) {
+            if (sb.length() > 0) sb.append(",");
+            sb.append("ROLE_").append(i);
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public void capabilities(Blackhole bh) {
+        Dispatcher.REQUEST.set(request);
+        try {
+            for (LayerInfo layer : secureCatalog.getLayers()) {
+                bh.consume(layer.getName());
+            }
+            for (LayerGroupInfo group : secureCatalog.getLayerGroups()) {
+                bh.consume(group.getName());
+            }
+        } finally {
+            Dispatcher.REQUEST.remove();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options =
+                new OptionsBuilder()
+                        .include(ResourceAccessManagerBenchmark.class.getSimpleName())
+                        .build();
+        new Runner(options).run();
+    }
+}
@@ -33,6 +33,7 @@
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.xml.namespace.QName;
@@ -135,6 +136,9 @@ public class Dispatcher extends AbstractController {
     /** list of callbacks */
     List<DispatcherCallback> callbacks = Collections.emptyList();
 
+    /** The routing table, replaced when the application context is refreshed */
+    static volatile DispatcherRoutingTable routingTable;
+
     /** SOAP namespaces */
     public static final String SOAP_12_NS = "http://www.w3.org/2003/05/soap-envelope";
 
@@ -234,9 +238,11 @@ protected ModelAndView handleRequestInternal(
 
         Service service = null;
 
+        long start = System.nanoTime();
         try {
             // initialize the request and allow callbacks to override it
             request = init(request);
+            start = phaseCompleted(request, Request.Phase.INIT, start);
 
             // store it in the thread local
             REQUEST.set(request);
@@ -244,6 +250,7 @@ protected ModelAndView handleRequestInternal(
             // find the service
             try {
                 service = service(request);
+                start = phaseCompleted(request, Request.Phase.SERVICE, start);
             } catch (Throwable t) {
                 exception(t, null, request);
 
@@ -258,6 +265,7 @@ protected ModelAndView handleRequestInternal(
             // dispatch the operation
             Operation operation = dispatch(request, service);
             request.setOperation(operation);
+            start = phaseCompleted(request, Request.Phase.DISPATCH, start);
 
             if (request.isSOAP()) {
                 // let the request object know that this is a SOAP request, since it effects
@@ -267,10 +275,12 @@ protected ModelAndView handleRequestInternal(
 
             // execute it
             Object result = execute(request, operation);
+            start = phaseCompleted(request, Request.Phase.EXECUTE, start);
 
             // write the response
             if (result != null) {
                 response(result, request, operation);
+                phaseCompleted(request, Request.Phase.RESPONSE, start);
             }
         } catch (Throwable t) {
             // make Spring security exceptions flow so that exception transformer filter can handle
@@ -278,6 +288,13 @@ protected ModelAndView handleRequestInternal(
             if (isSecurityException(t)) throw (Exception) t;
             exception(t, service, request);
         } finally {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(
+                        "Dispatch phase times (ns) for "
+                                + request
+                                + ": "
+                                + request.getPhaseTimes());
+            }
             fireFinishedCallback(request);
             REQUEST.remove();
         }
@@ -285,6 +302,13 @@ protected ModelAndView handleRequestInternal(
         return null;
     }
 
+    /** Records the time spent in a phase, returns the start time for the next one */
+    private static long phaseCompleted(Request request, Request.Phase phase, long start) {
+        long now = System.nanoTime();
+        request.addPhaseTime(phase, now - start);
+        return now;
+    }
+
     void flagAsSOAP(Operation op) {
         for (Object reqObj : op.getParameters()) {
             if (OwsUtils.has(reqObj, "formatOptions")) {
@@ -815,7 +839,7 @@ else if (parameterType.isAssignableFrom(InputStream.class)) {
                     boolean found = false;
                     Version version = new Version(req.getVersion());
 
-                    for (Service service : loadServices()) {
+                    for (Service service : routingTable().services()) {
                         if (version.equals(service.getVersion())) {
                             found = true;
 
@@ -927,18 +951,16 @@ Object fireOperationExecutedCallback(Request req, Operation op, Object result) {
     void response(Object result, Request req, Operation opDescriptor) throws Throwable {
         // step 6: write response
         if (result != null) {
-            // look up respones
-            List<Response> responses = GeoServerExtensions.extensions(Response.class);
+            // look up respones, already filtered by binding
+            List<Response> responses =
+                    new ArrayList<>(routingTable().responses(result.getClass()));
 
-            // first filter by binding, and canHandle
+            // filter by canHandle
             O:
             for (Iterator itr = responses.iterator(); itr.hasNext(); ) {
                 Response response = (Response) itr.next();
 
-                Class<?> binding = response.getBinding();
-
-                if (!binding.isAssignableFrom(result.getClass())
-                        || !response.canHandle(opDescriptor)) {
+                if (!response.canHandle(opDescriptor)) {
                     itr.remove();
 
                     continue;
@@ -1162,9 +1184,45 @@ Response fireResponseDispatchedCallback(
         return response;
     }
 
-    Collection<Service> loadServices() {
-        Collection<Service> services = GeoServerExtensions.extensions(Service.class);
+    /**
+     * Returns the routing table, building it if missing or if the extensions changed since it was
+     * built
+     */
+    static DispatcherRoutingTable routingTable() {
+        DispatcherRoutingTable table = routingTable;
+        long generation = GeoServerExtensions.getGeneration();
+        if (table == null || table.generation != generation) {
+            // the extension filters are applied by the table on each lookup
+            List<Map.Entry<String, Service>> services =
+                    GeoServerExtensions.unfilteredExtensions(Service.class);
+            checkServices(values(services));
+            List<Map.Entry<String, KvpRequestReader>> kvpReaders =
+                    GeoServerExtensions.unfilteredExtensions(KvpRequestReader.class);
+            checkKvpRequestReaders(values(kvpReaders));
+            List<Map.Entry<String, XmlRequestReader>> xmlReaders =
+                    GeoServerExtensions.unfilteredExtensions(XmlRequestReader.class);
+            checkXmlReaders(values(xmlReaders));
+            table =
+                    new DispatcherRoutingTable(
+                            generation,
+                            services,
+                            kvpReaders,
+                            xmlReaders,
+                            GeoServerExtensions.unfilteredExtensions(Response.class));
+            routingTable = table;
+        }
+        return table;
+    }
+
+    private static <T> List<T> values(List<Map.Entry<String, T>> entries) {
+        return entries.stream().map(Map.Entry::getValue).collect(Collectors.toList());
+    }
 
+    static Collection<Service> loadServices() {
+        return checkServices(GeoServerExtensions.extensions(Service.class));
+    }
+
+    private static Collection<Service> checkServices(Collection<Service> services) {
         if (!(new HashSet<>(services).size() == services.size())) {
             String msg = "Two identical service descriptors found";
             throw new IllegalStateException(msg);
@@ -1174,8 +1232,13 @@ Collection<Service> loadServices() {
     }
 
     Service findService(String id, String ver, String namespace) throws ServiceException {
+        return routingTable()
+                .service(id, ver, namespace, services -> findService(services, id, ver, namespace));
+    }
+
+    static Service findService(
+            Collection<Service> services, String id, String ver, String namespace) {
         Version version = (ver != null) ? new Version(ver) : null;
-        Collection<Service> services = loadServices();
 
         // the id is actually the pathinfo, in case workspace specific services
         // are active we want to skip the workspace part in the path and go directly to the
@@ -1259,9 +1322,11 @@ Service findService(String id, String ver, String namespace) throws ServiceExcep
     }
 
     public static Collection<KvpRequestReader> loadKvpRequestReaders() {
-        Collection<KvpRequestReader> kvpReaders =
-                GeoServerExtensions.extensions(KvpRequestReader.class);
+        return checkKvpRequestReaders(GeoServerExtensions.extensions(KvpRequestReader.class));
+    }
 
+    private static Collection<KvpRequestReader> checkKvpRequestReaders(
+            Collection<KvpRequestReader> kvpReaders) {
         if (!(new HashSet<>(kvpReaders).size() == kvpReaders.size())) {
             String msg = "Two identical kvp readers found";
             throw new IllegalStateException(msg);
@@ -1271,8 +1336,11 @@ public static Collection<KvpRequestReader> loadKvpRequestReaders() {
     }
 
     public static KvpRequestReader findKvpRequestReader(Class<?> type) {
-        Collection<KvpRequestReader> kvpReaders = loadKvpRequestReaders();
+        return routingTable().kvpReader(type, readers -> findKvpRequestReader(readers, type));
+    }
 
+    static KvpRequestReader findKvpRequestReader(
+            Collection<KvpRequestReader> kvpReaders, Class<?> type) {
         List<KvpRequestReader> matches = new ArrayList<>();
 
         for (KvpRequestReader kvpReader : kvpReaders) {
@@ -1303,8 +1371,11 @@ public static KvpRequestReader findKvpRequestReader(Class<?> type) {
     }
 
     static Collection<XmlRequestReader> loadXmlReaders() {
-        List<XmlRequestReader> xmlReaders = GeoServerExtensions.extensions(XmlRequestReader.class);
+        return checkXmlReaders(GeoServerExtensions.extensions(XmlRequestReader.class));
+    }
 
+    private static Collection<XmlRequestReader> checkXmlReaders(
+            List<XmlRequestReader> xmlReaders) {
         if (!(new HashSet<>(xmlReaders).size() == xmlReaders.size())) {
 
             String msg = "Two identical xml readers found";
@@ -1337,7 +1408,21 @@ static Collection<XmlRequestReader> loadXmlReaders() {
      */
     public static XmlRequestReader findXmlReader(
             String namespace, String element, String serviceId, String ver) {
-        Collection<XmlRequestReader> xmlReaders = loadXmlReaders();
+        return routingTable()
+                .xmlReader(
+                        namespace,
+                        element,
+                        serviceId,
+                        ver,
+                        readers -> findXmlReader(readers, namespace, element, serviceId, ver));
+    }
+
+    static XmlRequestReader findXmlReader(
+            Collection<XmlRequestReader> xmlReaders,
+            String namespace,
+            String element,
+            String serviceId,
+            String ver) {
 
         // first just match on namespace, element
         List<XmlRequestReader> matches = new ArrayList<>();
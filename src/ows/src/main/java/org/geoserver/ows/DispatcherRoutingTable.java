@@ -0,0 +1,196 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.geoserver.platform.ExtensionFilter;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.Service;
+
+/**
+ * Routing table used by the {@link Dispatcher} to find the {@link Service}, {@link
+ * KvpRequestReader}, {@link XmlRequestReader} and {@link Response} handling a request, without
+ * looking up and scanning all the extensions on each request.
+ *
+ * <p>The extension lists are loaded and validated once, and each lookup result is memoized by its
+ * key (service, version, request element, request bean class, result class). The table is
+ * replaced as a whole when the {@link GeoServerExtensions#getGeneration() extension generation}
+ * changes, that is, when the application context is refreshed.
+ *
+ * <p>The {@link ExtensionFilter}s can change their mind from call to call, so they are applied on
+ * each lookup, as {@link GeoServerExtensions#extensions(Class)} does: a memoized route is reused
+ * only if the same candidates are excluded as when it was resolved. Lookups depending on the state
+ * of the request ({@link Response#canHandle(org.geoserver.platform.Operation)} and output formats)
+ * are still performed by the dispatcher on the pre-filtered candidates.
+ */
+final class DispatcherRoutingTable {
+
+    /**
+     * Maximum number of memoized routes per kind, the keys come from the requests, protect from
+     * clients sending random values
+     */
+    static final int MAX_ROUTES = 1000;
+
+    /** A route, along with the candidates excluded by the extension filters when resolving it */
+    static final class Route<V> {
+
+        final BitSet excluded;
+
+        final V value;
+
+        Route(BitSet excluded, V value) {
+            this.excluded = excluded;
+            this.value = value;
+        }
+    }
+
+    /** The extensions of a kind, with their bean names, before applying the extension filters */
+    static final class Candidates<T> {
+
+        final List<Map.Entry<String, T>> extensions;
+
+        Candidates(List<Map.Entry<String, T>> extensions) {
+            this.extensions = Collections.unmodifiableList(new ArrayList<>(extensions));
+        }
+
+        /** Returns the candidates excluded by the filters */
+        BitSet excluded(List<ExtensionFilter> filters) {
+            BitSet excluded = new BitSet(extensions.size());
+            if (!filters.isEmpty()) {
+                for (int i = 0; i < extensions.size(); i++) {
+                    Map.Entry<String, T> e = extensions.get(i);
+                    if (GeoServerExtensions.isExcluded(e.getKey(), e.getValue(), filters)) {
+                        excluded.set(i);
+                    }
+                }
+            }
+            return excluded;
+        }
+
+        /** Returns the candidates not excluded, in extension order */
+        List<T> filter(BitSet excluded) {
+            List<T> result = new ArrayList<>(extensions.size() - excluded.cardinality());
+            for (int i = 0; i < extensions.size(); i++) {
+                if (!excluded.get(i)) {
+                    result.add(extensions.get(i).getValue());
+                }
+            }
+            return result;
+        }
+    }
+
+    final long generation;
+
+    final Candidates<Service> services;
+
+    final Candidates<KvpRequestReader> kvpReaders;
+
+    final Candidates<XmlRequestReader> xmlReaders;
+
+    final Candidates<Response> responses;
+
+    final Map<List<String>, Route<Service>> serviceRoutes = new ConcurrentHashMap<>();
+
+    final Map<Class<?>, Route<KvpRequestReader>> kvpRoutes = new ConcurrentHashMap<>();
+
+    final Map<List<String>, Route<XmlRequestReader>> xmlRoutes = new ConcurrentHashMap<>();
+
+    final Map<Class<?>, Route<List<Response>>> responseRoutes = new ConcurrentHashMap<>();
+
+    DispatcherRoutingTable(
+            long generation,
+            List<Map.Entry<String, Service>> services,
+            List<Map.Entry<String, KvpRequestReader>> kvpReaders,
+            List<Map.Entry<String, XmlRequestReader>> xmlReaders,
+            List<Map.Entry<String, Response>> responses) {
+        this.generation = generation;
+        this.services = new Candidates<>(services);
+        this.kvpReaders = new Candidates<>(kvpReaders);
+        this.xmlReaders = new Candidates<>(xmlReaders);
+        this.responses = new Candidates<>(responses);
+    }
+
+    /** Returns the services not excluded by the extension filters */
+    List<Service> services() {
+        return services.filter(services.excluded(filters()));
+    }
+
+    /** Returns the service matching the given id, version and namespace */
+    Service service(
+            String id,
+            String version,
+            String namespace,
+            Function<List<Service>, Service> resolver) {
+        return route(serviceRoutes, Arrays.asList(id, version, namespace), services, resolver);
+    }
+
+    /** Returns the kvp reader for the given request bean class */
+    KvpRequestReader kvpReader(
+            Class<?> type, Function<List<KvpRequestReader>, KvpRequestReader> resolver) {
+        return route(kvpRoutes, type, kvpReaders, resolver);
+    }
+
+    /** Returns the xml reader for the given element, service and version */
+    XmlRequestReader xmlReader(
+            String namespace,
+            String element,
+            String serviceId,
+            String version,
+            Function<List<XmlRequestReader>, XmlRequestReader> resolver) {
+        return route(
+                xmlRoutes,
+                Arrays.asList(namespace, element, serviceId, version),
+                xmlReaders,
+                resolver);
+    }
+
+    /**
+     * Returns the responses whose binding is compatible with the given result class, in extension
+     * order
+     */
+    List<Response> responses(Class<?> resultClass) {
+        // result classes are not user controlled, the routes are bounded anyways
+        return route(
+                responseRoutes,
+                resultClass,
+                responses,
+                candidates -> {
+                    List<Response> matches = new ArrayList<>();
+                    for (Response response : candidates) {
+                        if (response.getBinding().isAssignableFrom(resultClass)) {
+                            matches.add(response);
+                        }
+                    }
+                    return Collections.unmodifiableList(matches);
+                });
+    }
+
+    private static <K, T, V> V route(
+            Map<K, Route<V>> routes,
+            K key,
+            Candidates<T> candidates,
+            Function<List<T>, V> resolver) {
+        BitSet excluded = candidates.excluded(filters());
+        Route<V> route = routes.get(key);
+        if (route == null || !route.excluded.equals(excluded)) {
+            route = new Route<>(excluded, resolver.apply(candidates.filter(excluded)));
+            if (routes.size() < MAX_ROUTES || routes.containsKey(key)) {
+                routes.put(key, route);
+            }
+        }
+        return route.value;
+    }
+
+    private static List<ExtensionFilter> filters() {
+        return GeoServerExtensions.extensions(ExtensionFilter.class);
+    }
+}
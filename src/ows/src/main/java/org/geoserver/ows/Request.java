@@ -7,6 +7,7 @@
 
 import java.io.BufferedReader;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
@@ -23,6 +24,21 @@
  * @author Andrea Aime
  */
 public class Request {
+
+    /** The request handling phases timed by the {@link Dispatcher} */
+    public enum Phase {
+        /** Parsing of the http request into kvp and body */
+        INIT,
+        /** Lookup of the service */
+        SERVICE,
+        /** Lookup of the operation and parsing of the request object */
+        DISPATCH,
+        /** Execution of the operation */
+        EXECUTE,
+        /** Lookup of the response and encoding of the output */
+        RESPONSE
+    }
+
     /** Http request / response */
     protected HttpServletRequest httpRequest;
 
@@ -89,6 +105,9 @@ public class Request {
     /** SOAP namespace used in the request */
     private String soapNamespace;
 
+    /** Nanoseconds spent in each {@link Phase}, indexed by ordinal */
+    protected long[] phaseTimes = new long[Phase.values().length];
+
     public Request() {
         timestamp = new Date();
         identifier = UUID.randomUUID();
@@ -120,6 +139,7 @@ public Request(Request other) {
         this.timestamp = other.timestamp;
         this.operation = other.operation;
         this.identifier = other.identifier;
+        this.phaseTimes = other.phaseTimes;
     }
 
     /** Returns the raw http request being handled by the {@link Dispatcher} */
@@ -457,6 +477,27 @@ public boolean equals(Object obj) {
         return true;
     }
 
+    /** Adds to the time spent in the given phase, in nanoseconds */
+    public void addPhaseTime(Phase phase, long nanos) {
+        phaseTimes[phase.ordinal()] += nanos;
+    }
+
+    /** Returns the time spent in the given phase, in nanoseconds */
+    public long getPhaseTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /** Returns the time spent in each phase reached so far, in nanoseconds */
+    public Map<Phase, Long> getPhaseTimes() {
+        Map<Phase, Long> result = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            if (phaseTimes[phase.ordinal()] > 0) {
+                result.put(phase, phaseTimes[phase.ordinal()]);
+            }
+        }
+        return result;
+    }
+
     /** Sets the SOAP namespace used in the request */
     public void setSOAPNamespace(String soapNamespace) {
         this.soapNamespace = soapNamespace;
@@ -11,6 +11,8 @@
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -29,6 +31,7 @@
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.mail.internet.InternetHeaders;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMultipart;
@@ -36,12 +39,14 @@
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletResponse;
 import org.custommonkey.xmlunit.XMLUnit;
+import org.geoserver.platform.NameExclusionFilter;
 import org.geoserver.platform.Operation;
 import org.geoserver.platform.Service;
 import org.geoserver.test.CodeExpectingHttpServletResponse;
 import org.geotools.util.Version;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.support.FileSystemXmlApplicationContext;
 import org.springframework.mock.web.DelegatingServletInputStream;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -766,6 +771,79 @@ public void testDispatcherCallback() throws Exception {
         }
     }
 
+    @Test
+    public void testPhaseTimes() throws Exception {
+        URL url = getClass().getResource("applicationContext.xml");
+
+        try (FileSystemXmlApplicationContext context =
+                new FileSystemXmlApplicationContext(url.toString())) {
+
+            Dispatcher dispatcher = (Dispatcher) context.getBean("dispatcher");
+            AtomicReference<Request> finished = new AtomicReference<>();
+            dispatcher.callbacks.add(
+                    new AbstractDispatcherCallback() {
+                        @Override
+                        public void finished(Request request) {
+                            finished.set(request);
+                        }
+                    });
+
+            dispatcher.handleRequest(setupRequest(), new MockHttpServletResponse());
+            Request request = finished.get();
+            for (Request.Phase phase : Request.Phase.values()) {
+                assertTrue(phase.toString(), request.getPhaseTime(phase) > 0);
+            }
+            assertEquals(Request.Phase.values().length, request.getPhaseTimes().size());
+        }
+    }
+
+    @Test
+    public void testRoutingTable() throws Exception {
+        URL url = getClass().getResource("applicationContext.xml");
+
+        try (FileSystemXmlApplicationContext context =
+                new FileSystemXmlApplicationContext(url.toString())) {
+            DispatcherRoutingTable table = Dispatcher.routingTable();
+            assertSame(table, Dispatcher.routingTable());
+            assertSame(
+                    context.getBean("messageKvpReader"),
+                    Dispatcher.findKvpRequestReader(Message.class));
+            assertSame(
+                    context.getBean("messageXmlReader"),
+                    Dispatcher.findXmlReader("", "Hello", "hello", "1.0.0"));
+            assertTrue(table.kvpRoutes.containsKey(Message.class));
+            assertEquals(1, table.xmlRoutes.size());
+
+            // refreshing the context rebuilds the table
+            context.refresh();
+            assertNotSame(table, Dispatcher.routingTable());
+            assertSame(
+                    context.getBean("messageKvpReader"),
+                    Dispatcher.findKvpRequestReader(Message.class));
+        }
+    }
+
+    @Test
+    public void testRoutingTableExtensionFilters() throws Exception {
+        URL url = getClass().getResource("applicationContext.xml");
+
+        try (FileSystemXmlApplicationContext context =
+                new FileSystemXmlApplicationContext(url.toString())) {
+            NameExclusionFilter filter = new NameExclusionFilter();
+            context.getBeanFactory().registerSingleton("testExclusionFilter", filter);
+            // have the extension caches pick up the new filter
+            context.publishEvent(new ContextRefreshedEvent(context));
+            Object reader = context.getBean("messageKvpReader");
+            assertSame(reader, Dispatcher.findKvpRequestReader(Message.class));
+
+            // filters can change their mind, the memoized route is not used
+            filter.setBeanId("messageKvpReader");
+            assertNull(Dispatcher.findKvpRequestReader(Message.class));
+            filter.setBeanId(null);
+            assertSame(reader, Dispatcher.findKvpRequestReader(Message.class));
+        }
+    }
+
     @Test
     public void testDispatcherCallbackFailInit() throws Exception {
         URL url = getClass().getResource("applicationContext.xml");
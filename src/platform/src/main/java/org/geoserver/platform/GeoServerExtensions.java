@@ -6,12 +6,16 @@
 package org.geoserver.platform;
 
 import java.io.File;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.ServletContext;
@@ -73,6 +77,9 @@ public class GeoServerExtensions implements ApplicationContextAware, Application
     /** SPI lookups are very expensive, we need to cache them */
     static SoftValueHashMap<Class<?>, List<?>> spiCache = new SoftValueHashMap<>(40);
 
+    /** Incremented every time the bean caches are reset, see {@link #getGeneration()} */
+    static final AtomicLong generation = new AtomicLong();
+
     /**
      * Flag to identify use of spring context via {@link #setApplicationContext(ApplicationContext)}
      * an enable additional consistency checks for missing extensions.
@@ -108,6 +115,16 @@ public void setApplicationContext(ApplicationContext context) throws BeansExcept
         extensionsCache.clear();
         singletonBeanCache.clear();
         propertyCache.clear();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Returns a counter that changes every time the extension lookup caches are reset, that is,
+     * when the application context is set or refreshed. Allows code caching the results of
+     * extension lookups to tell when they became stale.
+     */
+    public static long getGeneration() {
+        return generation.get();
     }
 
     /**
@@ -128,14 +145,10 @@ public static final <T> List<T> extensions(
      * @param context The context in which to perform the lookup.
      * @return A collection of the extensions, or an empty collection.
      */
-    @SuppressWarnings("unchecked")
     public static final <T> List<T> extensions(
             Class<T> extensionPoint,
             ApplicationContext context,
             boolean isGeoServerExtensionsContext) {
-        Collection<String> names =
-                extensionNames(extensionPoint, context, isGeoServerExtensionsContext);
-
         // lookup extension filters preventing recursion
         List<ExtensionFilter> filters;
         if (ExtensionFilter.class.isAssignableFrom(extensionPoint)) {
@@ -144,11 +157,67 @@ public static final <T> List<T> extensions(
             filters = extensions(ExtensionFilter.class, context, isGeoServerExtensionsContext);
         }
 
+        return lookupExtensions(
+                extensionPoint, context, isGeoServerExtensionsContext, filters, null);
+    }
+
+    /**
+     * Loads all extensions implementing or extending <code>extensionPoint</code>, without applying
+     * the {@link ExtensionFilter}s, along with their bean names ({@code null} for extensions not
+     * coming from the application context).
+     *
+     * <p>Meant for code caching the extensions between {@link #getGeneration() generations}: since
+     * an extension filter can change its mind from call to call, the current filters should be
+     * applied on each use, see {@link #isExcluded(String, Object, List)}.
+     *
+     * @param extensionPoint The class or interface of the extensions.
+     * @return The extensions keyed by bean name, sorted by {@link ExtensionPriority}
+     */
+    public static <T> List<Map.Entry<String, T>> unfilteredExtensions(Class<T> extensionPoint) {
+        Map<Object, String> beanNames = new IdentityHashMap<>();
+        List<T> extensions =
+                lookupExtensions(extensionPoint, context, true, Collections.emptyList(), beanNames);
+        List<Map.Entry<String, T>> result = new ArrayList<>(extensions.size());
+        for (T extension : extensions) {
+            result.add(new AbstractMap.SimpleImmutableEntry<>(beanNames.get(extension), extension));
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if any of the given {@link ExtensionFilter}s, as returned by {@code
+     * extensions(ExtensionFilter.class)}, asks to exclude the bean
+     *
+     * @param beanId The bean id, or {@code null} if the bean is not coming from the application
+     *     context
+     */
+    public static boolean isExcluded(String beanId, Object bean, List<ExtensionFilter> filters) {
+        return excludeBean(beanId, bean, filters);
+    }
+
+    /**
+     * Looks up the extensions not excluded by the filters, sorted by {@link ExtensionPriority}. If
+     * not null, the bean names of the extensions coming from the application context are added to
+     * {@code beanNames}.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> lookupExtensions(
+            Class<T> extensionPoint,
+            ApplicationContext context,
+            boolean isGeoServerExtensionsContext,
+            List<ExtensionFilter> filters,
+            Map<Object, String> beanNames) {
+        Collection<String> names =
+                extensionNames(extensionPoint, context, isGeoServerExtensionsContext);
+
         // look up all the beans
         List<T> result = new ArrayList<>(names.size());
         for (String name : names) {
             Object bean = getBean(context, name, isGeoServerExtensionsContext);
-            if (!excludeBean(name, bean, filters)) result.add((T) bean);
+            if (!excludeBean(name, bean, filters)) {
+                result.add((T) bean);
+                if (beanNames != null) beanNames.put(bean, name);
+            }
         }
 
         // load from secondary extension providers
@@ -398,6 +467,7 @@ public void onApplicationEvent(ApplicationEvent event) {
         if (event instanceof ContextRefreshedEvent) {
             extensionsCache.clear();
             singletonBeanCache.clear();
+            generation.incrementAndGet();
         }
     }
 
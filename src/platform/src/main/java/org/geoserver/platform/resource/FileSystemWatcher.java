@@ -5,18 +5,30 @@
  */
 package org.geoserver.platform.resource;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -26,10 +38,13 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.resource.ResourceNotification.Kind;
 import org.geotools.util.logging.Logging;
 import org.springframework.beans.factory.DisposableBean;
@@ -38,9 +53,11 @@
 /**
  * Active object (using a ScheduledExecutorService) used to watch file system for changes.
  *
- * <p>This implementation currently polls the file system and should be updated with Java 7
- * WatchService when available. The internal design is similar to WatchService, WatchKey and
- * WatchEvent in order to facilitate this transition.
+ * <p>By default this implementation polls the file system. When the {@link #WATCH_SERVICE_KEY}
+ * property is set to true, the directories being watched are registered with a {@link
+ * WatchService} instead, and changes are computed from the events it delivers, without scanning
+ * the directory contents. Polling is still used for resources that cannot be registered (not yet
+ * existing, or on file systems that do not deliver change events, such as network shares).
  *
  * <p>This implementation makes a few concessions to being associated with ResourceStore, reporting
  * changes with resource paths rather than files.
@@ -51,6 +68,13 @@ public class FileSystemWatcher implements ResourceNotificationDispatcher, Dispos
 
     private static final Logger LOGGER = Logging.getLogger(FileSystemWatcher.class);
 
+    /** Property enabling the {@link WatchService} based change detection */
+    public static final String WATCH_SERVICE_KEY = "GEOSERVER_FILESYSTEM_WATCH_SERVICE";
+
+    /** File store types that are known not to deliver events for changes made by other hosts */
+    static final Set<String> UNWATCHABLE_FILE_STORES =
+            Set.of("nfs", "nfs4", "cifs", "smbfs", "smb2", "afs", "9p", "fuse.sshfs", "fuse.s3fs");
+
     /** Change to file system */
     static class Delta {
         /** Watched directory where changes occurred */
@@ -123,6 +147,12 @@ private class Watch implements Comparable<Watch> {
         private Set<File> children = null;
         private long childrenLastModifiedMax = 0L;
 
+        /** Key of the registered directory, if the watch is event driven, null if polled */
+        volatile WatchKey key;
+
+        /** Set when the directory cannot be registered, the watch will always be polled */
+        boolean pollOnly;
+
         public Watch(File file, String path) {
             Objects.requireNonNull(file);
             Objects.requireNonNull(path);
@@ -200,7 +230,7 @@ public int compareTo(Watch other) {
             return path.compareTo(other.path);
         }
 
-        public Delta changed(long now) {
+        public synchronized Delta changed(long now) {
             if (!file.exists()) {
                 return watchedFileRemoved(now);
             }
@@ -305,11 +335,141 @@ private Delta watchedFileRemoved(long now) {
             return delta;
         }
 
+        /**
+         * Computes the delta out of the events received for the registered directory, only the
+         * children mentioned in the events are checked
+         */
+        public synchronized Delta changed(List<WatchEvent<?>> events, long now) {
+            for (WatchEvent<?> event : events) {
+                if (event.kind() == OVERFLOW) {
+                    // events got lost, fall back on a full check
+                    return changed(now);
+                }
+            }
+            if (children == null) {
+                // single resource, only interested in events about it
+                String name = file.getName();
+                for (WatchEvent<?> event : events) {
+                    if (name.equals(String.valueOf(event.context()))) {
+                        return changed(now);
+                    }
+                }
+                return null;
+            }
+
+            Set<String> names = new LinkedHashSet<>();
+            for (WatchEvent<?> event : events) {
+                names.add(String.valueOf(event.context()));
+            }
+            List<String> created = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            List<String> modified = new ArrayList<>();
+            long childrenMaxLastModified = this.childrenLastModifiedMax;
+            for (String name : names) {
+                // compare known and current state, several events might have been coalesced
+                File child = new File(file, name);
+                boolean known = children.contains(child);
+                long lastModified = child.lastModified();
+                if (lastModified == 0L) {
+                    if (known) {
+                        children.remove(child);
+                        removed.add(name);
+                    }
+                    continue;
+                }
+                childrenMaxLastModified = Math.max(childrenMaxLastModified, lastModified);
+                if (known) {
+                    modified.add(name);
+                } else {
+                    children.add(child);
+                    created.add(name);
+                }
+            }
+            this.childrenLastModifiedMax = childrenMaxLastModified;
+            if (created.isEmpty() && removed.isEmpty() && modified.isEmpty()) {
+                return null;
+            }
+            Kind kind = this.exsists ? Kind.ENTRY_MODIFY : Kind.ENTRY_CREATE;
+            this.exsists = true;
+            this.last = file.lastModified();
+            return new Delta(file, kind, created, removed, modified);
+        }
+
+        /** The directory to register in order to receive events about this watch */
+        File getWatchedDirectory() {
+            return file.isDirectory() ? file : file.getParentFile();
+        }
+
         public boolean isMatch(File file, String path) {
             return this.file.equals(file) && this.path.equals(path);
         }
     }
 
+    /** Statistics about the notifications sent by a {@link FileSystemWatcher} */
+    public static class Metrics {
+
+        private final LongAdder notifications = new LongAdder();
+
+        private final LongAdder events = new LongAdder();
+
+        private final LongAdder totalLatency = new LongAdder();
+
+        private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0L);
+
+        private volatile long lastLatency;
+
+        void notified(ResourceNotification notification, long latencyNanos) {
+            notifications.increment();
+            events.add(Math.max(1, notification.events().size()));
+            totalLatency.add(latencyNanos);
+            maxLatency.accumulate(latencyNanos);
+            lastLatency = latencyNanos;
+        }
+
+        /** Number of notifications delivered to the listeners */
+        public long getNotificationCount() {
+            return notifications.sum();
+        }
+
+        /**
+         * Number of change events delivered to the listeners, a notification about a single
+         * resource counts as one event
+         */
+        public long getEventCount() {
+            return events.sum();
+        }
+
+        /**
+         * Average time, in milliseconds, between the change detection and the moment all the
+         * listeners have been notified
+         */
+        public double getAverageLatencyMillis() {
+            long count = notifications.sum();
+            return count == 0 ? 0 : totalLatency.sum() / (count * 1_000_000d);
+        }
+
+        /** Maximum notification latency, in milliseconds */
+        public double getMaxLatencyMillis() {
+            return maxLatency.get() / 1_000_000d;
+        }
+
+        /** Latency of the last notification, in milliseconds */
+        public double getLastLatencyMillis() {
+            return lastLatency / 1_000_000d;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ENGLISH,
+                    "Metrics [notifications=%d, events=%d, avgLatency=%.3fms, maxLatency=%.3fms]",
+                    getNotificationCount(),
+                    getEventCount(),
+                    getAverageLatencyMillis(),
+                    getMaxLatencyMillis());
+        }
+    }
+
     private ScheduledExecutorService pool;
 
     private final Function<String, File> fileExtractor;
@@ -331,6 +491,11 @@ public void run() {
                     for (Watch watch : watchers) {
                         if (watch.getListeners().isEmpty()) {
                             watchers.remove(watch);
+                            unregister(watch);
+                            continue;
+                        }
+                        if (watch.key != null) {
+                            // event driven, no need to poll
                             continue;
                         }
                         final boolean directory = watch.file.isDirectory();
@@ -358,55 +523,24 @@ public void run() {
                                             time, unit, watch.file));
                         }
                         if (delta != null) {
-                            notify(watch, delta);
+                            FileSystemWatcher.this.notify(watch, delta, start);
+                        }
+                        if (watchService != null && watch.exsists && !watch.pollOnly) {
+                            // it exists now, switch to events if possible
+                            register(watch);
                         }
                     }
                 }
-
-                private void notify(Watch watch, Delta delta) {
-                    if (LOGGER.isLoggable(Level.INFO)) {
-                        LOGGER.config(
-                                String.format(
-                                        "Notifying %s change on %s. Created: %,d, removed: %,d, modified: %,d",
-                                        delta.kind,
-                                        delta.context,
-                                        delta.created.size(),
-                                        delta.removed.size(),
-                                        delta.modified.size()));
-                    }
-                    // do not call listeners on the watch thread, they may take a
-                    // considerable amount of time to process the events
-                    CompletableFuture.runAsync(
-                            () -> {
-                                /** Created based on created/removed/modified files */
-                                List<ResourceNotification.Event> events =
-                                        ResourceNotification.delta(
-                                                watch.file,
-                                                delta.created,
-                                                delta.removed,
-                                                delta.modified);
-
-                                ResourceNotification notify =
-                                        new ResourceNotification(
-                                                watch.getPath(), delta.kind, watch.last, events);
-
-                                for (ResourceListener listener : watch.getListeners()) {
-                                    try {
-                                        listener.changed(notify);
-                                    } catch (Throwable t) {
-                                        Logger logger =
-                                                Logger.getLogger(
-                                                        listener.getClass().getPackage().getName());
-                                        logger.log(
-                                                Level.FINE,
-                                                "Unable to notify " + watch + ":" + t.getMessage(),
-                                                t);
-                                    }
-                                }
-                            });
-                }
             };
 
+    private final Metrics metrics = new Metrics();
+
+    /** Source of change events, null if only polling is used */
+    private WatchService watchService;
+
+    /** Thread processing the events, started on the first directory registration */
+    private Thread eventLoop;
+
     private ScheduledFuture<?> monitor;
 
     private TimeUnit unit = TimeUnit.SECONDS;
@@ -423,12 +557,192 @@ private void notify(Watch watch, Delta delta) {
     /**
      * FileSystemWatcher used to track file changes.
      *
-     * <p>Internally a single threaded schedule executor is used to monitor files.
+     * <p>Internally a single threaded schedule executor is used to monitor files, and a {@link
+     * WatchService} if the {@link #WATCH_SERVICE_KEY} property is set to true.
      */
     FileSystemWatcher(Function<String, File> fileExtractor) {
+        this(
+                fileExtractor,
+                Boolean.parseBoolean(GeoServerExtensions.getProperty(WATCH_SERVICE_KEY)));
+    }
+
+    /**
+     * FileSystemWatcher used to track file changes.
+     *
+     * @param fileExtractor maps resource paths to files
+     * @param useWatchService whether to use a {@link WatchService} for the directories that can be
+     *     registered, falling back on polling for the others
+     */
+    FileSystemWatcher(Function<String, File> fileExtractor, boolean useWatchService) {
         Objects.requireNonNull(fileExtractor);
         this.pool = Executors.newSingleThreadScheduledExecutor(tFactory);
         this.fileExtractor = fileExtractor;
+        if (useWatchService) {
+            this.watchService = createWatchService();
+        }
+    }
+
+    private static WatchService createWatchService() {
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            if (service.getClass().getSimpleName().startsWith("Polling")) {
+                // the JDK would poll anyways (e.g. on macOS), ours is more efficient
+                LOGGER.config("No native WatchService available, polling the file system");
+                service.close();
+                return null;
+            }
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.log(Level.WARNING, "WatchService not available, polling the file system", e);
+            return null;
+        }
+    }
+
+    /** Returns true if changes are detected using a {@link WatchService} where possible */
+    public boolean isWatchServiceEnabled() {
+        return watchService != null;
+    }
+
+    /** Returns the statistics about notifications sent so far */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sends the notification to the listeners of the watch. Listeners are not called on the
+     * watching thread, they may take a considerable amount of time to process the events
+     *
+     * @param start the {@link System#nanoTime()} at which the change detection started
+     */
+    private void notify(Watch watch, Delta delta, long start) {
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.config(
+                    String.format(
+                            "Notifying %s change on %s. Created: %,d, removed: %,d, modified: %,d",
+                            delta.kind,
+                            delta.context,
+                            delta.created.size(),
+                            delta.removed.size(),
+                            delta.modified.size()));
+        }
+        CompletableFuture.runAsync(
+                () -> {
+                    /** Created based on created/removed/modified files */
+                    List<ResourceNotification.Event> events =
+                            ResourceNotification.delta(
+                                    watch.file, delta.created, delta.removed, delta.modified);
+
+                    ResourceNotification notify =
+                            new ResourceNotification(
+                                    watch.getPath(), delta.kind, watch.last, events);
+
+                    for (ResourceListener listener : watch.getListeners()) {
+                        try {
+                            listener.changed(notify);
+                        } catch (Throwable t) {
+                            Logger logger =
+                                    Logger.getLogger(listener.getClass().getPackage().getName());
+                            logger.log(
+                                    Level.FINE,
+                                    "Unable to notify " + watch + ":" + t.getMessage(),
+                                    t);
+                        }
+                    }
+                    metrics.notified(notify, System.nanoTime() - start);
+                });
+    }
+
+    /**
+     * Registers the directory of the watch with the {@link WatchService}, if the file system
+     * supports it. On failure the watch will keep on being polled.
+     */
+    private synchronized void register(Watch watch) {
+        if (watchService == null
+                || watch.key != null
+                || watch.pollOnly
+                || !watchers.contains(watch)) {
+            return;
+        }
+        File directory = watch.getWatchedDirectory();
+        if (directory == null || !directory.isDirectory()) {
+            return;
+        }
+        if (!supportsEvents(directory)) {
+            watch.pollOnly = true;
+            return;
+        }
+        try {
+            // registering the same directory again returns the same key
+            watch.key =
+                    directory
+                            .toPath()
+                            .register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            if (eventLoop == null) {
+                eventLoop = tFactory.newThread(this::processEvents);
+                eventLoop.start();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Cannot register " + directory + ", will poll it instead", e);
+            watch.pollOnly = true;
+        }
+    }
+
+    /** Cancels the registration of the watch directory, if no other watch is using it */
+    private void unregister(Watch watch) {
+        WatchKey key = watch.key;
+        if (key == null) {
+            return;
+        }
+        watch.key = null;
+        if (watchers.stream().noneMatch(w -> w.key == key)) {
+            key.cancel();
+        }
+    }
+
+    /** Returns false for file systems that are known not to report all changes */
+    static boolean supportsEvents(File directory) {
+        try {
+            String type = java.nio.file.Files.getFileStore(directory.toPath()).type();
+            return type == null || !UNWATCHABLE_FILE_STORES.contains(type.toLowerCase());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Event loop, computes and dispatches the changes reported by the {@link WatchService} */
+    private void processEvents() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            long start = System.nanoTime();
+            long now = System.currentTimeMillis();
+            List<WatchEvent<?>> events = key.pollEvents();
+            boolean valid = key.reset();
+            for (Watch watch : watchers) {
+                if (watch.key != key) {
+                    continue;
+                }
+                Delta delta;
+                try {
+                    // an invalid key means the directory is gone, do a full check
+                    delta = valid ? watch.changed(events, now) : watch.changed(now);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Error processing events for " + watch.file, e);
+                    continue;
+                }
+                if (!valid) {
+                    // back to polling, until it can be registered again
+                    watch.key = null;
+                }
+                if (delta != null) {
+                    notify(watch, delta, start);
+                }
+            }
+        }
     }
 
     FileSystemWatcher() {
@@ -456,6 +770,9 @@ public synchronized void addListener(String path, ResourceListener listener) {
         if (watch == null) {
             watch = new Watch(file, path);
             watchers.add(watch);
+            if (watch.exsists) {
+                register(watch);
+            }
             if (monitor == null) {
                 monitor = pool.scheduleWithFixedDelay(sync, delay, delay, unit);
             }
@@ -475,6 +792,7 @@ public synchronized boolean removeListener(String path, ResourceListener listene
             watch.removeListener(listener);
             if (watch.getListeners().isEmpty()) {
                 removed = watchers.remove(watch);
+                unregister(watch);
             }
         }
         if (removed && watchers.isEmpty()) {
@@ -500,6 +818,12 @@ public void schedule(long delay, TimeUnit unit) {
     public void destroy() throws Exception {
         pool.shutdown();
         monitor = null;
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (eventLoop != null) {
+            eventLoop.interrupt();
+        }
     }
 
     @Override
@@ -0,0 +1,107 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.platform.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.awaitility.Awaitility;
+import org.geoserver.platform.resource.ResourceNotification.Event;
+import org.geoserver.platform.resource.ResourceNotification.Kind;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests the {@link java.nio.file.WatchService} based change detection of FileSystemWatcher */
+public class FileSystemWatcherTest {
+
+    private static final int MAX_WAIT_SEC = 20;
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    FileSystemWatcher watcher;
+
+    BlockingQueue<ResourceNotification> notifications = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws Exception {
+        folder.newFile("FileA");
+        File c = folder.newFolder("DirC");
+        new File(c, "FileD").createNewFile();
+        watcher = new FileSystemWatcher(path -> new File(folder.getRoot(), path), true);
+        assumeTrue("A native watch service is required", watcher.isWatchServiceEnabled());
+        // make sure polling does not kick in, only events should be delivered
+        watcher.schedule(1, TimeUnit.HOURS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        watcher.destroy();
+    }
+
+    @Test
+    public void testDirectoryEvents() throws Exception {
+        watcher.addListener(Paths.BASE, notifications::add);
+
+        assertTrue(new File(folder.getRoot(), "FileB").createNewFile());
+        ResourceNotification n = notifications.poll(MAX_WAIT_SEC, TimeUnit.SECONDS);
+        assertNotNull(n);
+        assertEquals(Kind.ENTRY_MODIFY, n.getKind());
+        assertEquals(1, n.events().size());
+        Event e = n.events().get(0);
+        assertEquals(Kind.ENTRY_CREATE, e.getKind());
+        assertEquals("FileB", e.getPath());
+
+        assertTrue(new File(folder.getRoot(), "FileA").delete());
+        n = notifications.poll(MAX_WAIT_SEC, TimeUnit.SECONDS);
+        assertNotNull(n);
+        e = n.events().get(0);
+        assertEquals(Kind.ENTRY_DELETE, e.getKind());
+        assertEquals("FileA", e.getPath());
+    }
+
+    @Test
+    public void testFileEvents() throws Exception {
+        File fileD = new File(folder.getRoot(), "DirC/FileD");
+        watcher.addListener("DirC/FileD", notifications::add);
+
+        assertTrue(fileD.setLastModified(fileD.lastModified() + 10_000));
+        ResourceNotification n = notifications.poll(MAX_WAIT_SEC, TimeUnit.SECONDS);
+        assertNotNull(n);
+        assertEquals("DirC/FileD", n.getPath());
+        assertEquals(Kind.ENTRY_MODIFY, n.getKind());
+        assertTrue(n.events().isEmpty());
+
+        assertTrue(fileD.delete());
+        n = notifications.poll(MAX_WAIT_SEC, TimeUnit.SECONDS);
+        assertNotNull(n);
+        assertEquals(Kind.ENTRY_DELETE, n.getKind());
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        FileSystemWatcher.Metrics metrics = watcher.getMetrics();
+        assertEquals(0, metrics.getNotificationCount());
+
+        watcher.addListener(Paths.BASE, notifications::add);
+        assertTrue(new File(folder.getRoot(), "FileB").createNewFile());
+        assertNotNull(notifications.poll(MAX_WAIT_SEC, TimeUnit.SECONDS));
+
+        // metrics are updated once all listeners have been called
+        Awaitility.await()
+                .atMost(MAX_WAIT_SEC, TimeUnit.SECONDS)
+                .until(() -> metrics.getNotificationCount() == 1);
+        assertEquals(1, metrics.getEventCount());
+        assertTrue(metrics.getMaxLatencyMillis() >= metrics.getAverageLatencyMillis());
+    }
+}
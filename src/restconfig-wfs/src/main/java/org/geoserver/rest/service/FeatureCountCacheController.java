@@ -0,0 +1,74 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest.service;
+
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.catalog.NamedMap;
+import org.geoserver.rest.util.MediaTypeExtensions;
+import org.geoserver.wfs.FeatureCountCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reports the configuration and statistics of the WFS feature count cache, allows clearing it and
+ * resetting the statistics
+ */
+@RestController
+@RequestMapping(path = RestBaseController.ROOT_PATH + "/services/wfs/countcache")
+public class FeatureCountCacheController {
+
+    static final String XML_ROOT_ELEM = "countCache";
+
+    FeatureCountCache cache;
+
+    @Autowired
+    public FeatureCountCacheController(
+            @Qualifier("wfsFeatureCountCache") FeatureCountCache cache) {
+        this.cache = cache;
+    }
+
+    @GetMapping(
+            produces = {
+                MediaType.APPLICATION_JSON_VALUE,
+                MediaTypeExtensions.TEXT_JSON_VALUE,
+                MediaType.APPLICATION_XML_VALUE,
+                MediaType.TEXT_XML_VALUE
+            })
+    @ResponseBody
+    public NamedMap<String, Object> cacheGet() {
+        NamedMap<String, Object> result = new NamedMap<>(XML_ROOT_ELEM);
+        result.put("enabled", cache.isEnabled());
+        result.put("async", cache.isAsync());
+        result.put("maxAge", cache.getMaxAge());
+        result.put("maxEntries", cache.getMaxEntries());
+        result.put("entries", cache.size());
+        result.put("hits", cache.getHits());
+        result.put("staleHits", cache.getStaleHits());
+        result.put("misses", cache.getMisses());
+        result.put("unknowns", cache.getUnknowns());
+        result.put("hitRatio", cache.getHitRatio());
+        result.put("counts", cache.getCounts());
+        result.put("averageCountTime", cache.getAverageCountTime());
+        result.put("maxCountTime", cache.getMaxCountTime());
+        return result;
+    }
+
+    @DeleteMapping
+    public void cacheDelete(
+            @RequestParam(name = "statistics", required = false) boolean statistics) {
+        if (statistics) {
+            cache.resetStatistics();
+        } else {
+            cache.clear();
+        }
+    }
+}
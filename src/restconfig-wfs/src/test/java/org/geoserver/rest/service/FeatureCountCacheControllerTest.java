@@ -0,0 +1,68 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest.service;
+
+import static org.custommonkey.xmlunit.XMLAssert.assertXpathEvaluatesTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import net.sf.json.JSONObject;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.catalog.CatalogRESTTestSupport;
+import org.geoserver.wfs.FeatureCountCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class FeatureCountCacheControllerTest extends CatalogRESTTestSupport {
+
+    static final String CACHE_URI = RestBaseController.ROOT_PATH + "/services/wfs/countcache";
+
+    static final String PAGE =
+            "wfs?request=GetFeature&typenames=cdf:Fifteen&version=2.0.0&service=wfs&count=5";
+
+    FeatureCountCache cache;
+
+    @Before
+    public void setupCache() throws Exception {
+        cache = applicationContext.getBean(FeatureCountCache.class);
+        cache.setEnabled(true);
+        assertEquals(200, deleteAsServletResponse(CACHE_URI).getStatus());
+        assertEquals(200, deleteAsServletResponse(CACHE_URI + "?statistics=true").getStatus());
+
+        getAsDOM(PAGE + "&startIndex=0");
+        getAsDOM(PAGE + "&startIndex=5");
+    }
+
+    @After
+    public void cleanup() {
+        cache.setEnabled(false);
+    }
+
+    @Test
+    public void testGetAsJSON() throws Exception {
+        JSONObject json = (JSONObject) getAsJSON(CACHE_URI + ".json");
+        JSONObject root = json.getJSONObject("countCache");
+        assertTrue(root.getBoolean("enabled"));
+        assertEquals(1, root.getInt("entries"));
+        assertEquals(1, root.getInt("hits"));
+        assertEquals(1, root.getInt("misses"));
+        assertEquals(0.5, root.getDouble("hitRatio"), 1e-6);
+        assertEquals(1, root.getInt("counts"));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        assertEquals(200, deleteAsServletResponse(CACHE_URI).getStatus());
+        Document dom = getAsDOM(CACHE_URI + ".xml");
+        assertXpathEvaluatesTo("0", "/countCache/entries", dom);
+        assertXpathEvaluatesTo("1", "/countCache/hits", dom);
+
+        assertEquals(200, deleteAsServletResponse(CACHE_URI + "?statistics=true").getStatus());
+        dom = getAsDOM(CACHE_URI + ".xml");
+        assertXpathEvaluatesTo("0", "/countCache/hits", dom);
+    }
+}
@@ -0,0 +1,117 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.RestException;
+import org.geoserver.rest.catalog.NamedMap;
+import org.geoserver.rest.util.MediaTypeExtensions;
+import org.geoserver.wms.dimension.DimensionDomainIndex;
+import org.geoserver.wms.dimension.DimensionDomainIndex.DimensionDomain;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reports the content of the vector dimension domain index, allows rebuilding it, as a whole or
+ * for a single layer, and clearing it
+ */
+@RestController
+@RequestMapping(path = RestBaseController.ROOT_PATH + "/services/wms/dimensionindex")
+public class DimensionDomainIndexController {
+
+    static final String XML_ROOT_ELEM = "dimensionIndex";
+
+    DimensionDomainIndex index;
+
+    Catalog catalog;
+
+    @Autowired
+    public DimensionDomainIndexController(
+            @Qualifier("dimensionDomainIndex") DimensionDomainIndex index,
+            @Qualifier("catalog") Catalog catalog) {
+        this.index = index;
+        this.catalog = catalog;
+    }
+
+    @GetMapping(
+            produces = {
+                MediaType.APPLICATION_JSON_VALUE,
+                MediaTypeExtensions.TEXT_JSON_VALUE,
+                MediaType.APPLICATION_XML_VALUE,
+                MediaType.TEXT_XML_VALUE
+            })
+    @ResponseBody
+    public NamedMap<String, Object> indexGet() {
+        NamedMap<String, Object> result = new NamedMap<>(XML_ROOT_ELEM);
+        result.put("enabled", index.isEnabled());
+        result.put("maxAge", index.getMaxAge());
+        result.put("maxValues", index.getMaxValues());
+
+        List<Map<String, Object>> domains = new ArrayList<>();
+        for (DimensionDomain domain : index.getDomains()) {
+            NamedMap<String, Object> entry = new NamedMap<>("domain");
+            entry.put("layer", domain.getLayerName());
+            entry.put("attribute", domain.getAttribute());
+            if (domain.getEndAttribute() != null) {
+                entry.put("endAttribute", domain.getEndAttribute());
+            }
+            if (domain.getMin() != null) {
+                entry.put("min", String.valueOf(domain.getMin()));
+                entry.put("max", String.valueOf(domain.getEndMax()));
+            }
+            entry.put("values", domain.getValueCount());
+            entry.put("builtAt", Instant.ofEpochMilli(domain.getBuiltAt()).toString());
+            entry.put("buildTime", domain.getBuildTime());
+            entry.put("updates", domain.getUpdates());
+            entry.put("invalid", domain.isInvalid());
+            domains.add(entry);
+        }
+        result.put("domains", domains);
+        return result;
+    }
+
+    @PostMapping
+    public void indexRebuild(@RequestParam(name = "layer", required = false) String layer)
+            throws IOException {
+        if (layer == null) {
+            index.rebuild();
+        } else {
+            FeatureTypeInfo typeInfo = catalog.getFeatureTypeByName(layer);
+            if (typeInfo == null) {
+                throw new RestException("No such vector layer: " + layer, HttpStatus.NOT_FOUND);
+            }
+            index.rebuild(typeInfo);
+        }
+    }
+
+    @DeleteMapping
+    public void indexDelete(@RequestParam(name = "layer", required = false) String layer) {
+        if (layer == null) {
+            index.clear();
+        } else {
+            FeatureTypeInfo typeInfo = catalog.getFeatureTypeByName(layer);
+            if (typeInfo == null) {
+                throw new RestException("No such vector layer: " + layer, HttpStatus.NOT_FOUND);
+            }
+            index.clear(typeInfo.getId());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.catalog.NamedMap;
+import org.geoserver.rest.util.MediaTypeExtensions;
+import org.geoserver.wms.map.QuickTileCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Reports the WMS meta-tile cache usage and statistics, allows clearing it */
+@RestController
+@RequestMapping(path = RestBaseController.ROOT_PATH + "/services/wms/metatilecache")
+public class MetaTileCacheController {
+
+    static final String XML_ROOT_ELEM = "metaTileCache";
+
+    QuickTileCache cache;
+
+    @Autowired
+    public MetaTileCacheController(@Qualifier("metaTileCache") QuickTileCache cache) {
+        this.cache = cache;
+    }
+
+    @GetMapping(
+            produces = {
+                MediaType.APPLICATION_JSON_VALUE,
+                MediaTypeExtensions.TEXT_JSON_VALUE,
+                MediaType.APPLICATION_XML_VALUE,
+                MediaType.TEXT_XML_VALUE
+            })
+    @ResponseBody
+    public NamedMap<String, Object> cacheGet() {
+        NamedMap<String, Object> result = new NamedMap<>(XML_ROOT_ELEM);
+        result.put("maxMemory", cache.getMaxMemory());
+        result.put("usedMemory", cache.getUsedMemory());
+        result.put("offHeap", cache.isOffHeap());
+        result.put("entries", cache.getSize());
+
+        List<Map<String, Object>> layers = new ArrayList<>();
+        for (Map.Entry<String, QuickTileCache.LayerStatistics> entry :
+                cache.getStatistics().entrySet()) {
+            QuickTileCache.LayerStatistics stats = entry.getValue();
+            NamedMap<String, Object> layer = new NamedMap<>("layer");
+            layer.put("name", entry.getKey());
+            layer.put("hits", stats.getHits());
+            layer.put("misses", stats.getMisses());
+            layer.put("evictions", stats.getEvictions());
+            layer.put("hitRatio", stats.getHitRatio());
+            layers.add(layer);
+        }
+        result.put("layers", layers);
+        return result;
+    }
+
+    @DeleteMapping
+    public void cacheDelete() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,83 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest.service;
+
+import static org.custommonkey.xmlunit.XMLAssert.assertXpathEvaluatesTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.geoserver.catalog.DimensionInfo;
+import org.geoserver.catalog.DimensionPresentation;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.impl.DimensionInfoImpl;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.catalog.CatalogRESTTestSupport;
+import org.geoserver.wms.WMS;
+import org.geoserver.wms.dimension.DimensionDomainIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class DimensionDomainIndexControllerTest extends CatalogRESTTestSupport {
+
+    static final String INDEX_URI = RestBaseController.ROOT_PATH + "/services/wms/dimensionindex";
+
+    DimensionDomainIndex index;
+
+    @Before
+    public void setupIndex() throws Exception {
+        index = applicationContext.getBean(DimensionDomainIndex.class);
+        index.setEnabled(true);
+        assertEquals(200, deleteAsServletResponse(INDEX_URI).getStatus());
+
+        FeatureTypeInfo lakes = getCatalog().getFeatureTypeByName("cite", "Lakes");
+        DimensionInfo dimension = new DimensionInfoImpl();
+        dimension.setEnabled(true);
+        dimension.setAttribute("FID");
+        dimension.setPresentation(DimensionPresentation.LIST);
+        lakes.getMetadata().put(ResourceInfo.CUSTOM_DIMENSION_PREFIX + "FID", dimension);
+        getCatalog().save(lakes);
+        applicationContext.getBean(WMS.class).getDimensionValues(lakes, dimension);
+    }
+
+    @After
+    public void cleanup() {
+        FeatureTypeInfo lakes = getCatalog().getFeatureTypeByName("cite", "Lakes");
+        lakes.getMetadata().remove(ResourceInfo.CUSTOM_DIMENSION_PREFIX + "FID");
+        getCatalog().save(lakes);
+        index.setEnabled(false);
+    }
+
+    @Test
+    public void testGetAsJSON() throws Exception {
+        JSONObject json = (JSONObject) getAsJSON(INDEX_URI + ".json");
+        JSONObject root = json.getJSONObject("dimensionIndex");
+        assertTrue(root.getBoolean("enabled"));
+        JSONArray domains = root.getJSONArray("domains");
+        assertEquals(1, domains.size());
+        JSONObject domain = domains.getJSONObject(0);
+        assertEquals("cite:Lakes", domain.getString("layer"));
+        assertEquals("FID", domain.getString("attribute"));
+        assertEquals(1, domain.getInt("values"));
+    }
+
+    @Test
+    public void testRebuildAndClear() throws Exception {
+        assertEquals(200, postAsServletResponse(INDEX_URI + "?layer=cite:Lakes", "").getStatus());
+        assertEquals(404, postAsServletResponse(INDEX_URI + "?layer=cite:Foo", "").getStatus());
+
+        Document dom = getAsDOM(INDEX_URI + ".xml");
+        assertXpathEvaluatesTo("1", "count(/dimensionIndex/domains/domain)", dom);
+        assertXpathEvaluatesTo("false", "/dimensionIndex/domains/domain/invalid", dom);
+
+        assertEquals(200, deleteAsServletResponse(INDEX_URI).getStatus());
+        dom = getAsDOM(INDEX_URI + ".xml");
+        assertXpathEvaluatesTo("0", "count(/dimensionIndex/domains/domain)", dom);
+    }
+}
@@ -0,0 +1,83 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest.service;
+
+import static org.custommonkey.xmlunit.XMLAssert.assertXpathEvaluatesTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.catalog.CatalogRESTTestSupport;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class MetaTileCacheControllerTest extends CatalogRESTTestSupport {
+
+    static final String CACHE_URI = RestBaseController.ROOT_PATH + "/services/wms/metatilecache";
+
+    static final String TILED_REQUEST =
+            "wms?LAYERS=cite%3ALakes&STYLES=&FORMAT=image%2Fpng&TILED=true&TILESORIGIN=0.0006%2C-0.0018"
+                    + "&SERVICE=WMS&VERSION=1.1.1&REQUEST=GetMap&SRS=EPSG%3A4326"
+                    + "&BBOX=0.0006,-0.0018,0.0031,0.0007&WIDTH=256&HEIGHT=256";
+
+    @Before
+    public void clearCache() throws Exception {
+        assertEquals(200, deleteAsServletResponse(CACHE_URI).getStatus());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        JSONObject cache = getCache();
+        assertEquals(0, cache.getInt("entries"));
+        assertEquals(0, cache.getLong("usedMemory"));
+        assertTrue(cache.getLong("maxMemory") > 0);
+        // statistics are cumulative, other tests might have used the layer already
+        long hits = getLayerStatistic(cache, "hits");
+        long misses = getLayerStatistic(cache, "misses");
+
+        // first request misses, second one hits the cached meta-tile
+        getAsImage(TILED_REQUEST, "image/png");
+        getAsImage(TILED_REQUEST, "image/png");
+
+        cache = getCache();
+        assertEquals(1, cache.getInt("entries"));
+        assertTrue(cache.getLong("usedMemory") > 0);
+        assertEquals(hits + 1, getLayerStatistic(cache, "hits"));
+        assertEquals(misses + 1, getLayerStatistic(cache, "misses"));
+    }
+
+    private JSONObject getCache() throws Exception {
+        JSONObject json = (JSONObject) getAsJSON(CACHE_URI + ".json");
+        return json.getJSONObject("metaTileCache");
+    }
+
+    private long getLayerStatistic(JSONObject cache, String statistic) {
+        JSONArray layers = cache.optJSONArray("layers");
+        for (int i = 0; layers != null && i < layers.size(); i++) {
+            JSONObject layer = layers.getJSONObject(i);
+            if ("cite:Lakes".equals(layer.getString("name"))) {
+                return layer.getLong(statistic);
+            }
+        }
+        return 0;
+    }
+
+    @Test
+    public void testGetAsXML() throws Exception {
+        getAsImage(TILED_REQUEST, "image/png");
+
+        Document dom = getAsDOM(CACHE_URI + ".xml");
+        assertEquals("metaTileCache", dom.getDocumentElement().getNodeName());
+        assertXpathEvaluatesTo("1", "/metaTileCache/entries", dom);
+
+        assertEquals(200, deleteAsServletResponse(CACHE_URI).getStatus());
+        dom = getAsDOM(CACHE_URI + ".xml");
+        assertXpathEvaluatesTo("0", "/metaTileCache/entries", dom);
+        assertXpathEvaluatesTo("0", "/metaTileCache/usedMemory", dom);
+    }
+}
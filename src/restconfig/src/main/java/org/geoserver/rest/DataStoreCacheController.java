@@ -0,0 +1,85 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.geoserver.catalog.DataStoreStatistics;
+import org.geoserver.catalog.ResourcePool;
+import org.geoserver.config.GeoServer;
+import org.geoserver.rest.catalog.NamedMap;
+import org.geoserver.rest.util.MediaTypeExtensions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reports the statistics of the data stores kept open by the {@link ResourcePool}, allows evicting
+ * the idle ones
+ */
+@RestController
+@RequestMapping(path = RestBaseController.ROOT_PATH + "/resourcepool/datastores")
+public class DataStoreCacheController extends AbstractGeoServerController {
+
+    static final String XML_ROOT_ELEM = "dataStoreCache";
+
+    @Autowired
+    public DataStoreCacheController(@Qualifier("geoServer") GeoServer geoServer) {
+        super(geoServer);
+    }
+
+    @GetMapping(
+            produces = {
+                MediaType.APPLICATION_JSON_VALUE,
+                MediaTypeExtensions.TEXT_JSON_VALUE,
+                MediaType.APPLICATION_XML_VALUE,
+                MediaType.TEXT_XML_VALUE
+            })
+    @ResponseBody
+    public NamedMap<String, Object> cacheGet() {
+        ResourcePool pool = geoServer.getCatalog().getResourcePool();
+        NamedMap<String, Object> result = new NamedMap<>(XML_ROOT_ELEM);
+        result.put("size", pool.getDataStoreCache().size());
+        result.put("maxSize", pool.getDataStoreMaxSize());
+        result.put("idleTimeout", pool.getDataStoreIdleTimeout());
+        result.put("idleEvictions", pool.getIdleDataStoreEvictions());
+        result.put("sizeEvictions", pool.getSizeDataStoreEvictions());
+
+        List<Map<String, Object>> stores = new ArrayList<>();
+        for (DataStoreStatistics stats : pool.getDataStoreStatistics()) {
+            NamedMap<String, Object> store = new NamedMap<>("dataStore");
+            store.put("id", stats.getId());
+            store.put("name", stats.getName());
+            store.put("openedAt", format(stats.getOpenedAt()));
+            store.put("openTime", stats.getOpenTime());
+            store.put("lastAccess", format(stats.getLastAccess()));
+            store.put("accesses", stats.getAccesses());
+            store.put("activeConnections", stats.getActiveConnections());
+            store.put("idleConnections", stats.getIdleConnections());
+            store.put("maxConnections", stats.getMaxConnections());
+            stores.add(store);
+        }
+        result.put("dataStores", stores);
+        return result;
+    }
+
+    private static String format(Date date) {
+        return DateTimeFormatter.ISO_INSTANT.format(date.toInstant());
+    }
+
+    /** Disposes the data stores that exceeded the idle timeout right away */
+    @DeleteMapping
+    public void cacheDelete() {
+        geoServer.getCatalog().getResourcePool().evictIdleDataStores();
+    }
+}
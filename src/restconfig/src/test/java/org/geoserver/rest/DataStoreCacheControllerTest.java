@@ -0,0 +1,77 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest;
+
+import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.ResourcePool;
+import org.geoserver.rest.catalog.CatalogRESTTestSupport;
+import org.junit.After;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class DataStoreCacheControllerTest extends CatalogRESTTestSupport {
+
+    static final String CACHE_URI = RestBaseController.ROOT_PATH + "/resourcepool/datastores";
+
+    @After
+    public void resetTimeout() {
+        getCatalog().getResourcePool().setDataStoreIdleTimeout(0);
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        DataStoreInfo sf = getCatalog().getDataStoreByName("sf", "sf");
+        getCatalog().getResourcePool().getDataStore(sf);
+        getCatalog().getResourcePool().getDataStore(sf);
+
+        JSONObject json = (JSONObject) getAsJSON(CACHE_URI + ".json");
+        JSONObject cache = json.getJSONObject("dataStoreCache");
+        assertTrue(cache.getInt("size") > 0);
+        JSONObject store = getStore(cache, sf.getId());
+        assertNotNull(store);
+        assertEquals("sf:sf", store.getString("name"));
+        assertTrue(store.getLong("accesses") >= 1);
+        assertTrue(store.getLong("openTime") >= 0);
+        // not a JDBC store, no pool statistics
+        assertEquals(-1, store.getInt("activeConnections"));
+
+        Document dom = getAsDOM(CACHE_URI + ".xml");
+        assertEquals("dataStoreCache", dom.getDocumentElement().getNodeName());
+        assertXpathExists("//dataStore[id='" + sf.getId() + "']", dom);
+    }
+
+    @Test
+    public void testEvictIdle() throws Exception {
+        ResourcePool pool = getCatalog().getResourcePool();
+        DataStoreInfo sf = getCatalog().getDataStoreByName("sf", "sf");
+        pool.getDataStore(sf);
+        pool.setDataStoreIdleTimeout(1);
+        Thread.sleep(10);
+
+        assertEquals(200, deleteAsServletResponse(CACHE_URI).getStatus());
+        JSONObject json = (JSONObject) getAsJSON(CACHE_URI + ".json");
+        JSONObject cache = json.getJSONObject("dataStoreCache");
+        assertNull(getStore(cache, sf.getId()));
+    }
+
+    private JSONObject getStore(JSONObject cache, String id) {
+        JSONArray stores = cache.optJSONArray("dataStores");
+        for (int i = 0; stores != null && i < stores.size(); i++) {
+            JSONObject store = stores.getJSONObject(i);
+            if (id.equals(store.getString("id"))) {
+                return store;
+            }
+        }
+        return null;
+    }
+}
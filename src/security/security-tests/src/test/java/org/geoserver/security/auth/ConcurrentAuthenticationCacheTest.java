@@ -0,0 +1,130 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.auth;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.geoserver.security.auth.ConcurrentAuthenticationCacheImpl.Statistics;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+/** Unit tests for the ConcurrentHashMap based AuthenticationCache implementation. */
+public class ConcurrentAuthenticationCacheTest extends BaseAuthenticationCacheTest {
+
+    protected static final int TIME_FAILURE = 1;
+
+    protected static final int TIME_CLEANUP = 3;
+
+    @Override
+    protected AuthenticationCache createAuthenticationCache() {
+        return new ConcurrentAuthenticationCacheImpl(
+                MAX_ENTRIES, TIME_IDLE, TIME_LIVE, TIME_FAILURE, TIME_CLEANUP);
+    }
+
+    @After
+    public void destroyCache() {
+        ((ConcurrentAuthenticationCacheImpl) cache).destroy();
+    }
+
+    private Statistics getStatistics() {
+        return ((ConcurrentAuthenticationCacheImpl) cache).getStatistics().get(SAMPLE_FILTER);
+    }
+
+    @Test
+    public void testCleanUp() throws InterruptedException {
+        putAuthenticationInCache();
+        await().atMost(TIME_CLEANUP + TIME_LIVE, SECONDS)
+                .until(() -> ((ConcurrentAuthenticationCacheImpl) cache).isEmpty());
+    }
+
+    @Test
+    public void testStatistics() throws InterruptedException {
+        // long live time, so that the entry expires by idle time only
+        cache.put(SAMPLE_FILTER, SAMPLE_CACHE_KEY, token("user"), TIME_IDLE, 60);
+        assertNotNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertNotNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertNull(cache.get(SAMPLE_FILTER, OTHER_CACHE_KEY));
+
+        Statistics stats = getStatistics();
+        assertEquals(1, stats.getPuts());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2d / 3, stats.getHitRatio(), 1e-6);
+
+        Thread.sleep((TIME_IDLE + 1) * 1000);
+        assertNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertEquals(1, stats.getIdleExpirations());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    public void testEviction() throws InterruptedException {
+        ConcurrentAuthenticationCacheImpl small =
+                new ConcurrentAuthenticationCacheImpl(10, 60, 60, 60, 60);
+        try {
+            for (int i = 0; i < 10; i++) {
+                small.put(SAMPLE_FILTER, "key" + i, token("user" + i));
+                // make sure the access times differ
+                Thread.sleep(2);
+            }
+            assertEquals(10, small.size());
+
+            // one more entry evicts the least recently used ones, down to 90% of the max
+            small.put(SAMPLE_FILTER, "key10", token("user10"));
+            assertEquals(9, small.size());
+            assertNull(small.get(SAMPLE_FILTER, "key0"));
+            assertNull(small.get(SAMPLE_FILTER, "key1"));
+            assertNotNull(small.get(SAMPLE_FILTER, "key2"));
+            assertNotNull(small.get(SAMPLE_FILTER, "key10"));
+            assertEquals(2, small.getStatistics().get(SAMPLE_FILTER).getEvictions());
+        } finally {
+            small.destroy();
+        }
+    }
+
+    @Test
+    public void testFailure() throws InterruptedException {
+        assertFalse(cache.isFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        cache.putFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY);
+        assertTrue(cache.isFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertFalse(cache.isFailure(SAMPLE_FILTER, OTHER_CACHE_KEY));
+        // a failure is not an authentication
+        assertNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+
+        Statistics stats = getStatistics();
+        assertEquals(1, stats.getFailures());
+        assertEquals(1, stats.getFailureHits());
+
+        Thread.sleep((TIME_FAILURE + 1) * 1000);
+        assertFalse(cache.isFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertEquals(1, stats.getLiveExpirations());
+    }
+
+    @Test
+    public void testSuccessReplacesFailure() {
+        cache.putFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY);
+        putAuthenticationInCache();
+        assertFalse(cache.isFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertNotNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+    }
+
+    @Test
+    public void testFailureDisabled() {
+        ((ConcurrentAuthenticationCacheImpl) cache).setFailureTimeToLiveSeconds(0);
+        cache.putFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY);
+        assertFalse(cache.isFailure(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+    }
+
+    private UsernamePasswordAuthenticationToken token(String user) {
+        return new UsernamePasswordAuthenticationToken(user, "password");
+    }
+}
@@ -0,0 +1,866 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs.responses;
+
+import java.awt.Rectangle;
+import java.awt.color.ColorSpace;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Deflater;
+
+/**
+ * Writes images as Cloud Optimized GeoTIFF: a tiled TIFF with overviews, where all the IFDs come
+ * first, followed by the tiles of the smallest overview, up to the tiles of the full resolution
+ * image, each level in row major order. Clients can thus read the whole file structure with a
+ * single range request, and then the tiles they need.
+ *
+ * <p>The tiles are compressed in parallel, and spooled in a temporary file, as the IFDs need to
+ * know the size of each tile before being written. A BigTIFF is written if the file would exceed 4
+ * GB.
+ */
+public class CogWriter {
+
+    /** The TIFF field types used by this writer */
+    public static final int TYPE_BYTE = 1;
+
+    public static final int TYPE_ASCII = 2;
+
+    public static final int TYPE_SHORT = 3;
+
+    public static final int TYPE_LONG = 4;
+
+    public static final int TYPE_UNDEFINED = 7;
+
+    public static final int TYPE_DOUBLE = 12;
+
+    public static final int TYPE_LONG8 = 16;
+
+    static final int TAG_NEW_SUBFILE_TYPE = 254;
+
+    static final int TAG_IMAGE_WIDTH = 256;
+
+    static final int TAG_IMAGE_LENGTH = 257;
+
+    static final int TAG_BITS_PER_SAMPLE = 258;
+
+    static final int TAG_COMPRESSION = 259;
+
+    static final int TAG_PHOTOMETRIC = 262;
+
+    static final int TAG_SAMPLES_PER_PIXEL = 277;
+
+    static final int TAG_PLANAR_CONFIGURATION = 284;
+
+    static final int TAG_PREDICTOR = 317;
+
+    static final int TAG_COLOR_MAP = 320;
+
+    static final int TAG_TILE_WIDTH = 322;
+
+    static final int TAG_TILE_LENGTH = 323;
+
+    static final int TAG_TILE_OFFSETS = 324;
+
+    static final int TAG_TILE_BYTE_COUNTS = 325;
+
+    static final int TAG_EXTRA_SAMPLES = 338;
+
+    static final int TAG_SAMPLE_FORMAT = 339;
+
+    /** Size of the classic TIFF and BigTIFF headers */
+    static final int HEADER_SIZE = 8;
+
+    static final int BIG_HEADER_SIZE = 16;
+
+    /** Describes the layout for the readers able to take advantage of it, e.g., GDAL */
+    static final String STRUCTURAL_METADATA =
+            "LAYOUT=IFDS_BEFORE_DATA\nBLOCK_ORDER=ROW_MAJOR\nKNOWN_INCOMPATIBLE_EDITION=NO\n";
+
+    /** The supported tile compressions */
+    public enum Compression {
+        NONE(1),
+        LZW(5),
+        DEFLATE(8);
+
+        final int code;
+
+        Compression(int code) {
+            this.code = code;
+        }
+    }
+
+    /** A TIFF field, holding the values as an int[] (SHORT), long[], double[] or byte[] */
+    public static class Field {
+
+        final int tag;
+
+        final int type;
+
+        final Object values;
+
+        public Field(int tag, int type, Object values) {
+            this.tag = tag;
+            this.type = type;
+            this.values = values;
+        }
+
+        public int getTag() {
+            return tag;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public Object getValues() {
+            return values;
+        }
+
+        int getCount() {
+            if (values instanceof int[]) {
+                return ((int[]) values).length;
+            } else if (values instanceof long[]) {
+                return ((long[]) values).length;
+            } else if (values instanceof double[]) {
+                return ((double[]) values).length;
+            } else {
+                return ((byte[]) values).length;
+            }
+        }
+
+        int getSize() {
+            return getCount() * getTypeSize(type);
+        }
+    }
+
+    private final ExecutorService executor;
+
+    private Compression compression = Compression.NONE;
+
+    private int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+
+    private boolean horizontalPredictor;
+
+    private int tileWidth = 512;
+
+    private int tileHeight = 512;
+
+    private boolean forceBigTiff;
+
+    private List<Field> geoFields = new ArrayList<>();
+
+    /**
+     * @param executor The executor compressing the tiles, or null to compress them in the calling
+     *     thread
+     */
+    public CogWriter(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    /** Sets the deflate compression level, between 1 and 9 */
+    public void setDeflateLevel(int deflateLevel) {
+        this.deflateLevel = deflateLevel;
+    }
+
+    /** Enables the horizontal differencing predictor, used only for integer samples */
+    public void setHorizontalPredictor(boolean horizontalPredictor) {
+        this.horizontalPredictor = horizontalPredictor;
+    }
+
+    /** Sets the tile size, the values should be multiples of 16 */
+    public void setTileSize(int tileWidth, int tileHeight) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+
+    /** Forces a BigTIFF to be written, regardless of the file size */
+    public void setForceBigTiff(boolean forceBigTiff) {
+        this.forceBigTiff = forceBigTiff;
+    }
+
+    /** Sets the georeferencing fields, written in the full resolution IFD only */
+    public void setGeoFields(List<Field> geoFields) {
+        this.geoFields = geoFields;
+    }
+
+    /**
+     * Writes the image and its overviews
+     *
+     * @param levels The full resolution image, followed by the overviews, in decreasing size
+     * @param output The destination, not closed by this method
+     */
+    public void write(List<RenderedImage> levels, OutputStream output) throws IOException {
+        int count = levels.size();
+        int[] tilesAcross = new int[count];
+        int[] tilesDown = new int[count];
+        long[][] byteCounts = new long[count][];
+        for (int i = 0; i < count; i++) {
+            RenderedImage level = levels.get(i);
+            tilesAcross[i] = (level.getWidth() + tileWidth - 1) / tileWidth;
+            tilesDown[i] = (level.getHeight() + tileHeight - 1) / tileHeight;
+            byteCounts[i] = new long[tilesAcross[i] * tilesDown[i]];
+        }
+
+        Path spool = Files.createTempFile("cog", ".tiles");
+        try {
+            // compress the tiles in the order they'll be written, smallest overview first, keeping
+            // a bounded number of them in flight, and spooling them as they complete, in order
+            long dataSize = 0;
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(spool))) {
+                ArrayDeque<PendingTile> pending = new ArrayDeque<>();
+                int window = 2 * Runtime.getRuntime().availableProcessors();
+                try {
+                    for (int i = count - 1; i >= 0; i--) {
+                        RenderedImage level = levels.get(i);
+                        int across = tilesAcross[i];
+                        for (int t = 0; t < byteCounts[i].length; t++) {
+                            if (pending.size() >= window) {
+                                dataSize += spool(pending.poll(), os, byteCounts);
+                            }
+                            Future<byte[]> future = compressTile(level, t % across, t / across);
+                            pending.add(new PendingTile(future, i, t));
+                        }
+                    }
+                    while (!pending.isEmpty()) {
+                        dataSize += spool(pending.poll(), os, byteCounts);
+                    }
+                } finally {
+                    for (PendingTile tile : pending) {
+                        tile.future.cancel(true);
+                    }
+                }
+            }
+
+            List<List<Field>> ifds = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                ifds.add(buildFields(levels.get(i), i > 0));
+            }
+            ByteBuffer header = buildHeader(ifds, byteCounts, false);
+            if (forceBigTiff || header.limit() + dataSize > 0xFFFFFFFFL) {
+                header = buildHeader(ifds, byteCounts, true);
+            }
+            output.write(header.array(), 0, header.limit());
+            Files.copy(spool, output);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private Future<byte[]> compressTile(RenderedImage image, int tileX, int tileY) {
+        if (executor != null) {
+            try {
+                return executor.submit(() -> encodeTile(image, tileX, tileY));
+            } catch (RejectedExecutionException e) {
+                // shutting down, compress the tile on the calling thread
+            }
+        }
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        try {
+            result.complete(encodeTile(image, tileX, tileY));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /** A tile being compressed */
+    private static class PendingTile {
+
+        final Future<byte[]> future;
+
+        final int level;
+
+        final int index;
+
+        PendingTile(Future<byte[]> future, int level, int index) {
+            this.future = future;
+            this.level = level;
+            this.index = index;
+        }
+    }
+
+    /** Waits for a tile to be compressed, writes it in the spool and records its size */
+    private long spool(PendingTile pending, OutputStream os, long[][] byteCounts)
+            throws IOException {
+        byte[] tile;
+        try {
+            tile = pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing the tiles", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress a tile", e.getCause());
+        }
+        byteCounts[pending.level][pending.index] = tile.length;
+        os.write(tile);
+        return tile.length;
+    }
+
+    /** Returns the fields describing an image, except for the tile offsets and byte counts */
+    List<Field> buildFields(RenderedImage image, boolean overview) {
+        SampleModel sm = image.getSampleModel();
+        ColorModel cm = image.getColorModel();
+        int bands = sm.getNumBands();
+        int bits = sm.getSampleSize(0);
+
+        int photometric;
+        int colorBands;
+        if (cm instanceof IndexColorModel && bands == 1) {
+            photometric = 3;
+            colorBands = 1;
+        } else if (cm != null
+                && cm.getColorSpace().getType() == ColorSpace.TYPE_RGB
+                && bands >= 3) {
+            photometric = 2;
+            colorBands = 3;
+        } else {
+            photometric = 1;
+            colorBands = 1;
+        }
+
+        List<Field> fields = new ArrayList<>();
+        fields.add(new Field(TAG_NEW_SUBFILE_TYPE, TYPE_LONG, new long[] {overview ? 1 : 0}));
+        fields.add(new Field(TAG_IMAGE_WIDTH, TYPE_LONG, new long[] {image.getWidth()}));
+        fields.add(new Field(TAG_IMAGE_LENGTH, TYPE_LONG, new long[] {image.getHeight()}));
+        fields.add(new Field(TAG_BITS_PER_SAMPLE, TYPE_SHORT, repeat(bits, bands)));
+        fields.add(new Field(TAG_COMPRESSION, TYPE_SHORT, new int[] {compression.code}));
+        fields.add(new Field(TAG_PHOTOMETRIC, TYPE_SHORT, new int[] {photometric}));
+        fields.add(new Field(TAG_SAMPLES_PER_PIXEL, TYPE_SHORT, new int[] {bands}));
+        fields.add(new Field(TAG_PLANAR_CONFIGURATION, TYPE_SHORT, new int[] {1}));
+        if (usePredictor(sm)) {
+            fields.add(new Field(TAG_PREDICTOR, TYPE_SHORT, new int[] {2}));
+        }
+        if (photometric == 3) {
+            int[] colorMap = buildColorMap((IndexColorModel) cm, bits);
+            fields.add(new Field(TAG_COLOR_MAP, TYPE_SHORT, colorMap));
+        }
+        fields.add(new Field(TAG_TILE_WIDTH, TYPE_LONG, new long[] {tileWidth}));
+        fields.add(new Field(TAG_TILE_LENGTH, TYPE_LONG, new long[] {tileHeight}));
+        if (bands > colorBands) {
+            int[] extra = new int[bands - colorBands];
+            if (cm != null && cm.hasAlpha()) {
+                extra[extra.length - 1] = cm.isAlphaPremultiplied() ? 1 : 2;
+            }
+            fields.add(new Field(TAG_EXTRA_SAMPLES, TYPE_SHORT, extra));
+        }
+        fields.add(new Field(TAG_SAMPLE_FORMAT, TYPE_SHORT, repeat(getSampleFormat(sm), bands)));
+        if (!overview) {
+            fields.addAll(geoFields);
+        }
+        return fields;
+    }
+
+    private static int[] repeat(int value, int count) {
+        int[] result = new int[count];
+        Arrays.fill(result, value);
+        return result;
+    }
+
+    private static int[] buildColorMap(IndexColorModel icm, int bits) {
+        int size = 1 << bits;
+        int[] map = new int[3 * size];
+        for (int i = 0; i < Math.min(size, icm.getMapSize()); i++) {
+            map[i] = icm.getRed(i) * 257;
+            map[size + i] = icm.getGreen(i) * 257;
+            map[2 * size + i] = icm.getBlue(i) * 257;
+        }
+        return map;
+    }
+
+    private static int getSampleFormat(SampleModel sm) {
+        switch (sm.getDataType()) {
+            case DataBuffer.TYPE_SHORT:
+            case DataBuffer.TYPE_INT:
+                return 2;
+            case DataBuffer.TYPE_FLOAT:
+            case DataBuffer.TYPE_DOUBLE:
+                return 3;
+            default:
+                return 1;
+        }
+    }
+
+    private boolean usePredictor(SampleModel sm) {
+        return horizontalPredictor
+                && compression != Compression.NONE
+                && getSampleFormat(sm) != 3
+                && !(sm instanceof MultiPixelPackedSampleModel);
+    }
+
+    /**
+     * Builds the header, the structural metadata and the IFDs, with the tile offsets pointing past
+     * them, to the tiles of the smallest overview, up to the full resolution ones
+     */
+    ByteBuffer buildHeader(List<List<Field>> ifds, long[][] byteCounts, boolean bigTiff) {
+        byte[] structural = getStructuralMetadata();
+        int headerSize = bigTiff ? BIG_HEADER_SIZE : HEADER_SIZE;
+
+        // compute the IFD sizes, the tile offsets do not change them
+        List<List<Field>> complete = new ArrayList<>();
+        long[][] offsets = new long[ifds.size()][];
+        int offsetType = bigTiff ? TYPE_LONG8 : TYPE_LONG;
+        long size = headerSize + structural.length;
+        for (int i = 0; i < ifds.size(); i++) {
+            offsets[i] = new long[byteCounts[i].length];
+            List<Field> fields = new ArrayList<>(ifds.get(i));
+            fields.add(new Field(TAG_TILE_OFFSETS, offsetType, offsets[i]));
+            fields.add(new Field(TAG_TILE_BYTE_COUNTS, offsetType, byteCounts[i]));
+            fields.sort((a, b) -> Integer.compare(a.tag, b.tag));
+            complete.add(fields);
+            size += getIFDSize(fields, bigTiff);
+        }
+
+        // the data comes right after the IFDs, smallest overview first
+        long offset = size;
+        for (int i = ifds.size() - 1; i >= 0; i--) {
+            for (int t = 0; t < offsets[i].length; t++) {
+                offsets[i][t] = offset;
+                offset += byteCounts[i][t];
+            }
+        }
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many tiles, the TIFF directories exceed 2GB");
+        }
+        ByteBuffer bb = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        bb.put((byte) 'I').put((byte) 'I');
+        long firstIFD = headerSize + structural.length;
+        if (bigTiff) {
+            bb.putShort((short) 43).putShort((short) 8).putShort((short) 0).putLong(firstIFD);
+        } else {
+            bb.putShort((short) 42).putInt((int) firstIFD);
+        }
+        bb.put(structural);
+        for (int i = 0; i < complete.size(); i++) {
+            List<Field> fields = complete.get(i);
+            long next = i < complete.size() - 1 ? bb.position() + getIFDSize(fields, bigTiff) : 0;
+            writeIFD(bb, fields, next, bigTiff);
+        }
+        bb.flip();
+        return bb;
+    }
+
+    private static byte[] getStructuralMetadata() {
+        String header =
+                String.format(
+                        "GDAL_STRUCTURAL_METADATA_SIZE=%06d bytes\n",
+                        STRUCTURAL_METADATA.length());
+        byte[] result = (header + STRUCTURAL_METADATA).getBytes(StandardCharsets.US_ASCII);
+        // keep the IFDs on a word boundary
+        return result.length % 2 == 0 ? result : Arrays.copyOf(result, result.length + 1);
+    }
+
+    static int getTypeSize(int type) {
+        switch (type) {
+            case TYPE_SHORT:
+                return 2;
+            case TYPE_LONG:
+                return 4;
+            case TYPE_DOUBLE:
+            case TYPE_LONG8:
+                return 8;
+            default:
+                return 1;
+        }
+    }
+
+    private static long getIFDSize(List<Field> fields, boolean bigTiff) {
+        int inline = bigTiff ? 8 : 4;
+        long size = bigTiff ? 8 + 20L * fields.size() + 8 : 2 + 12L * fields.size() + 4;
+        for (Field field : fields) {
+            int fieldSize = field.getSize();
+            if (fieldSize > inline) {
+                size += fieldSize + (fieldSize % 2);
+            }
+        }
+        return size;
+    }
+
+    private static void writeIFD(ByteBuffer bb, List<Field> fields, long next, boolean bigTiff) {
+        int inline = bigTiff ? 8 : 4;
+        int start = bb.position();
+        int entriesSize = bigTiff ? 8 + 20 * fields.size() + 8 : 2 + 12 * fields.size() + 4;
+        int valuesPosition = start + entriesSize;
+        if (bigTiff) {
+            bb.putLong(fields.size());
+        } else {
+            bb.putShort((short) fields.size());
+        }
+        for (Field field : fields) {
+            bb.putShort((short) field.tag);
+            bb.putShort((short) field.type);
+            if (bigTiff) {
+                bb.putLong(field.getCount());
+            } else {
+                bb.putInt(field.getCount());
+            }
+            int fieldSize = field.getSize();
+            if (fieldSize <= inline) {
+                int position = bb.position();
+                putValues(bb, field);
+                bb.position(position + inline);
+            } else {
+                if (bigTiff) {
+                    bb.putLong(valuesPosition);
+                } else {
+                    bb.putInt(valuesPosition);
+                }
+                int position = bb.position();
+                bb.position(valuesPosition);
+                putValues(bb, field);
+                valuesPosition += fieldSize + (fieldSize % 2);
+                bb.position(position);
+            }
+        }
+        if (bigTiff) {
+            bb.putLong(next);
+        } else {
+            bb.putInt((int) next);
+        }
+        bb.position(valuesPosition);
+    }
+
+    private static void putValues(ByteBuffer bb, Field field) {
+        Object values = field.values;
+        if (values instanceof int[]) {
+            for (int v : (int[]) values) {
+                bb.putShort((short) v);
+            }
+        } else if (values instanceof long[]) {
+            for (long v : (long[]) values) {
+                if (field.type == TYPE_LONG8) {
+                    bb.putLong(v);
+                } else {
+                    bb.putInt((int) v);
+                }
+            }
+        } else if (values instanceof double[]) {
+            for (double v : (double[]) values) {
+                bb.putDouble(v);
+            }
+        } else {
+            bb.put((byte[]) values);
+        }
+    }
+
+    /** Reads, pads, predicts and compresses a tile */
+    byte[] encodeTile(RenderedImage image, int tileX, int tileY) {
+        SampleModel sm = image.getSampleModel();
+        int bands = sm.getNumBands();
+        int x = image.getMinX() + tileX * tileWidth;
+        int y = image.getMinY() + tileY * tileHeight;
+        int w = Math.min(tileWidth, image.getMinX() + image.getWidth() - x);
+        int h = Math.min(tileHeight, image.getMinY() + image.getHeight() - y);
+        Raster raster = image.getData(new Rectangle(x, y, w, h));
+
+        byte[] data;
+        if (sm instanceof MultiPixelPackedSampleModel) {
+            data = packBits(raster, x, y, w, h, sm.getSampleSize(0));
+        } else {
+            data = interleave(raster, x, y, w, h, bands, sm.getDataType(), usePredictor(sm));
+        }
+
+        switch (compression) {
+            case DEFLATE:
+                return deflate(data, deflateLevel);
+            case LZW:
+                return new LZWEncoder().encode(data);
+            default:
+                return data;
+        }
+    }
+
+    /** Packs the samples of a single band image with less than 8 bits per pixel */
+    private byte[] packBits(Raster raster, int x, int y, int w, int h, int bits) {
+        int rowBytes = (tileWidth * bits + 7) / 8;
+        byte[] data = new byte[rowBytes * tileHeight];
+        int[] samples = raster.getSamples(x, y, w, h, 0, (int[]) null);
+        for (int row = 0; row < h; row++) {
+            for (int col = 0; col < w; col++) {
+                int bit = col * bits;
+                int shift = 8 - bits - (bit % 8);
+                data[row * rowBytes + bit / 8] |= (byte) (samples[row * w + col] << shift);
+            }
+        }
+        return data;
+    }
+
+    /** Returns the pixel interleaved, little endian samples of a full tile, padded with zeros */
+    private byte[] interleave(
+            Raster raster,
+            int x,
+            int y,
+            int w,
+            int h,
+            int bands,
+            int dataType,
+            boolean predictor) {
+        int sampleBytes = DataBuffer.getDataTypeSize(dataType) / 8;
+        int pixels = tileWidth * tileHeight;
+        ByteBuffer bb =
+                ByteBuffer.allocate(pixels * bands * sampleBytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int b = 0; b < bands; b++) {
+            if (dataType == DataBuffer.TYPE_FLOAT || dataType == DataBuffer.TYPE_DOUBLE) {
+                double[] samples = raster.getSamples(x, y, w, h, b, (double[]) null);
+                for (int row = 0; row < h; row++) {
+                    for (int col = 0; col < w; col++) {
+                        int position = ((row * tileWidth + col) * bands + b) * sampleBytes;
+                        if (dataType == DataBuffer.TYPE_FLOAT) {
+                            bb.putFloat(position, (float) samples[row * w + col]);
+                        } else {
+                            bb.putDouble(position, samples[row * w + col]);
+                        }
+                    }
+                }
+            } else {
+                int[] tile = new int[pixels];
+                int[] samples = raster.getSamples(x, y, w, h, b, (int[]) null);
+                for (int row = 0; row < h; row++) {
+                    System.arraycopy(samples, row * w, tile, row * tileWidth, w);
+                }
+                if (predictor) {
+                    for (int row = 0; row < tileHeight; row++) {
+                        int base = row * tileWidth;
+                        for (int col = tileWidth - 1; col > 0; col--) {
+                            tile[base + col] -= tile[base + col - 1];
+                        }
+                    }
+                }
+                for (int i = 0; i < pixels; i++) {
+                    int position = (i * bands + b) * sampleBytes;
+                    if (sampleBytes == 1) {
+                        bb.put(position, (byte) tile[i]);
+                    } else if (sampleBytes == 2) {
+                        bb.putShort(position, (short) tile[i]);
+                    } else {
+                        bb.putInt(position, tile[i]);
+                    }
+                }
+            }
+        }
+        return bb.array();
+    }
+
+    private static byte[] deflate(byte[] data, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 2 + 64);
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                bos.write(buffer, 0, count);
+            }
+            return bos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * TIFF flavored LZW encoder, with MSB first codes, and code width increased one code early, as
+     * expected by TIFF readers
+     */
+    static class LZWEncoder {
+
+        static final int CLEAR = 256;
+
+        static final int EOI = 257;
+
+        static final int FIRST = 258;
+
+        static final int MAX = 4094;
+
+        static final int HASH_SIZE = 9029;
+
+        /** Open addressing table, from prefix code and byte to code */
+        final int[] keys = new int[HASH_SIZE];
+
+        final short[] codes = new short[HASH_SIZE];
+
+        ByteArrayOutputStream out;
+
+        int bitBuffer;
+
+        int bitCount;
+
+        int bits;
+
+        int next;
+
+        byte[] encode(byte[] data) {
+            out = new ByteArrayOutputStream(data.length / 2 + 16);
+            reset();
+            emit(CLEAR);
+            if (data.length > 0) {
+                int prefix = data[0] & 0xFF;
+                for (int i = 1; i < data.length; i++) {
+                    int c = data[i] & 0xFF;
+                    int key = (prefix << 8) | c;
+                    int slot = find(key);
+                    if (keys[slot] == key) {
+                        prefix = codes[slot];
+                        continue;
+                    }
+                    emit(prefix);
+                    keys[slot] = key;
+                    codes[slot] = (short) next;
+                    increment();
+                    prefix = c;
+                }
+                emit(prefix);
+                // the decoder adds an entry for the last code too
+                next++;
+                if (next == MAX) {
+                    emit(CLEAR);
+                    bits = 9;
+                } else if (next > (1 << bits) - 1) {
+                    bits++;
+                }
+            }
+            emit(EOI);
+            if (bitCount > 0) {
+                out.write(bitBuffer << (8 - bitCount));
+            }
+            return out.toByteArray();
+        }
+
+        private void increment() {
+            next++;
+            if (next == MAX) {
+                emit(CLEAR);
+                reset();
+            } else if (next > (1 << bits) - 1) {
+                bits++;
+            }
+        }
+
+        private void reset() {
+            Arrays.fill(keys, -1);
+            bits = 9;
+            next = FIRST;
+        }
+
+        private int find(int key) {
+            int slot = (key * 31 + (key >>> 12)) % HASH_SIZE;
+            if (slot < 0) {
+                slot += HASH_SIZE;
+            }
+            while (keys[slot] != -1 && keys[slot] != key) {
+                slot = slot == HASH_SIZE - 1 ? 0 : slot + 1;
+            }
+            return slot;
+        }
+
+        private void emit(int code) {
+            bitBuffer = (bitBuffer << bits) | code;
+            bitCount += bits;
+            while (bitCount >= 8) {
+                out.write((bitBuffer >>> (bitCount - 8)) & 0xFF);
+                bitCount -= 8;
+            }
+            bitBuffer &= (1 << bitCount) - 1;
+        }
+    }
+
+    /**
+     * Reads the fields of all the IFDs of a TIFF or BigTIFF, in either byte order. Only the BYTE,
+     * ASCII, SHORT, LONG, UNDEFINED, DOUBLE and LONG8 fields are returned, the others are skipped.
+     *
+     * @return The fields of each IFD, by tag
+     */
+    public static List<Map<Integer, Field>> readIFDs(byte[] tiff) {
+        ByteBuffer bb = ByteBuffer.wrap(tiff);
+        bb.order(tiff[0] == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        boolean bigTiff = bb.getShort(2) == 43;
+        long offset = bigTiff ? bb.getLong(8) : bb.getInt(4) & 0xFFFFFFFFL;
+        List<Map<Integer, Field>> result = new ArrayList<>();
+        while (offset != 0) {
+            bb.position((int) offset);
+            long count = bigTiff ? bb.getLong() : bb.getShort() & 0xFFFF;
+            Map<Integer, Field> fields = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                int tag = bb.getShort() & 0xFFFF;
+                int type = bb.getShort() & 0xFFFF;
+                int valueCount = (int) (bigTiff ? bb.getLong() : bb.getInt() & 0xFFFFFFFFL);
+                int next = bb.position() + (bigTiff ? 8 : 4);
+                int size = valueCount * getTypeSize(type);
+                if (size > (bigTiff ? 8 : 4)) {
+                    bb.position((int) (bigTiff ? bb.getLong() : bb.getInt() & 0xFFFFFFFFL));
+                }
+                Object values = readValues(bb, type, valueCount);
+                if (values != null) {
+                    fields.put(tag, new Field(tag, type, values));
+                }
+                bb.position(next);
+            }
+            result.add(fields);
+            offset = bigTiff ? bb.getLong() : bb.getInt() & 0xFFFFFFFFL;
+        }
+        return result;
+    }
+
+    private static Object readValues(ByteBuffer bb, int type, int count) {
+        switch (type) {
+            case TYPE_BYTE:
+            case TYPE_ASCII:
+            case TYPE_UNDEFINED:
+                byte[] bytes = new byte[count];
+                bb.get(bytes);
+                return bytes;
+            case TYPE_SHORT:
+                int[] shorts = new int[count];
+                for (int i = 0; i < count; i++) {
+                    shorts[i] = bb.getShort() & 0xFFFF;
+                }
+                return shorts;
+            case TYPE_LONG:
+            case TYPE_LONG8:
+                long[] longs = new long[count];
+                for (int i = 0; i < count; i++) {
+                    longs[i] = type == TYPE_LONG ? bb.getInt() & 0xFFFFFFFFL : bb.getLong();
+                }
+                return longs;
+            case TYPE_DOUBLE:
+                double[] doubles = new double[count];
+                for (int i = 0; i < count; i++) {
+                    doubles[i] = bb.getDouble();
+                }
+                return doubles;
+            default:
+                return null;
+        }
+    }
+}
@@ -16,6 +16,10 @@
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import org.geoserver.config.GeoServer;
 import org.geoserver.platform.OWS20Exception;
@@ -28,6 +32,7 @@
 import org.geotools.gce.geotiff.GeoTiffWriteParams;
 import org.geotools.util.Utilities;
 import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
 import org.vfny.geoserver.wcs.WcsException;
 import org.vfny.geoserver.wcs.WcsException.WcsExceptionCode;
 
@@ -38,7 +43,7 @@
  * @author Simone Giannecchini, GeoSolutions SAS
  */
 public class GeoTIFFCoverageResponseDelegate extends BaseCoverageResponseDelegate
-        implements CoverageResponseDelegate {
+        implements CoverageResponseDelegate, DisposableBean {
 
     private static final Logger LOGGER =
             Logging.getLogger(GeoTIFFCoverageResponseDelegate.class.toString());
@@ -55,6 +60,15 @@ public class GeoTIFFCoverageResponseDelegate extends BaseCoverageResponseDelegat
     public static final String TILING = "tiling";
     /** Parameter controlling the compression type */
     public static final String COMPRESSION = "compression";
+    /** Boolean parameter used to enable the Cloud Optimized GeoTIFF output */
+    public static final String COG = "cog";
+    /** Parameter controlling the number of overviews of the Cloud Optimized GeoTIFF output */
+    public static final String OVERVIEWS = "overviews";
+    /** Default tile size of the Cloud Optimized GeoTIFF output */
+    static final int DEFAULT_COG_TILE_SIZE = 512;
+
+    /** Compresses the tiles of the COG outputs, see {@link #getCogExecutor()} */
+    private volatile ExecutorService cogExecutor;
 
     public GeoTIFFCoverageResponseDelegate(GeoServer geoserver) {
         super(
@@ -103,6 +117,9 @@ public void encode(
         // compression
         handleCompression(encodingParameters, writerHelper);
 
+        // cloud optimized output, before tiling as it changes the default tile size
+        handleCog(encodingParameters, writerHelper);
+
         // tiling
         handleTiling(encodingParameters, sourceCoverage, writerHelper);
 
@@ -157,6 +174,95 @@ private void handleInterleaving(
         }
     }
 
+    /**
+     * Handle the Cloud Optimized GeoTIFF encoding parameters for WCS.
+     *
+     * <p>Notice that only the LZW and Deflate compressions are supported for COG output, and that
+     * the overviews must be a non negative integer.
+     *
+     * @param encodingParameters a {@link Map} of {@link String} keys with {@link String} values to
+     *     hold the encoding parameters.
+     * @throws WcsException in case there are invalid or unsupported options.
+     */
+    private void handleCog(Map<String, String> encodingParameters, GeoTiffWriterHelper helper)
+            throws WcsException {
+        if (!Boolean.valueOf(encodingParameters.get(COG))) {
+            return;
+        }
+        helper.setCog(true);
+        helper.setCogExecutor(getCogExecutor());
+
+        GeoTiffWriteParams wp = helper.getImageIoWriteParams();
+        if (wp.getCompressionMode() == GeoTiffWriteParams.MODE_EXPLICIT) {
+            String compression = wp.getCompressionType();
+            if (!"LZW".equals(compression) && !"Deflate".equals(compression)) {
+                throw new OWS20Exception(
+                        "Provided compression is not supported for COG output",
+                        ows20Code(WcsExceptionCode.CompressionNotSupported),
+                        encodingParameters.get(COMPRESSION));
+            }
+        }
+
+        final String overviewsS = encodingParameters.get(OVERVIEWS);
+        if (overviewsS != null) {
+            int overviews = -1;
+            try {
+                overviews = Integer.parseInt(overviewsS);
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            if (overviews < 0) {
+                throw new OWS20Exception(
+                        "Provided number of overviews is invalid",
+                        ows20Code(WcsExceptionCode.InvalidParameterValue),
+                        overviewsS);
+            }
+            helper.setOverviews(overviews);
+        }
+
+        // COG readers fetch whole tiles, use a reasonably large default
+        wp.setTilingMode(GeoToolsWriteParams.MODE_EXPLICIT);
+        wp.setTiling(DEFAULT_COG_TILE_SIZE, DEFAULT_COG_TILE_SIZE);
+    }
+
+    /**
+     * Returns the pool compressing the tiles of the Cloud Optimized GeoTIFF outputs, shared by all
+     * requests and sized after the number of processors, creating it if needed
+     */
+    private ExecutorService getCogExecutor() {
+        if (cogExecutor == null) {
+            synchronized (this) {
+                if (cogExecutor == null) {
+                    AtomicInteger count = new AtomicInteger();
+                    cogExecutor =
+                            Executors.newFixedThreadPool(
+                                    Runtime.getRuntime().availableProcessors(),
+                                    r -> {
+                                        String name = "COGWriter-" + count.incrementAndGet();
+                                        Thread t = new Thread(r, name);
+                                        t.setDaemon(true);
+                                        return t;
+                                    });
+                }
+            }
+        }
+        return cogExecutor;
+    }
+
+    /** Shuts down the tile compression pool, if it was ever created */
+    @Override
+    public void destroy() throws Exception {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = cogExecutor;
+            cogExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
     /** All OWS 2.0 exceptions for the geotiff extension come with a 404 error code */
     private OWS20Exception.OWSExceptionCode ows20Code(WcsExceptionCode code) {
         return new OWS20Exception.OWSExceptionCode(code.toString(), 404);
@@ -299,6 +405,7 @@ private void handleCompression(
                             wp.setTIFFCompressor(
                                     new TIFFLZWCompressor(
                                             BaselineTIFFTagSet.PREDICTOR_HORIZONTAL_DIFFERENCING));
+                            helper.setHorizontalPredictor(true);
                         } else if (predictorS.equals("Floatingpoint")) {
                             // NOT SUPPORTED YET
                             throw new OWS20Exception(
@@ -4,31 +4,52 @@
  */
 package org.geoserver.wcs.responses;
 
+import it.geosolutions.jaiext.range.NoDataContainer;
+import it.geosolutions.jaiext.range.Range;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
 import java.awt.image.RenderedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import javax.media.jai.Interpolation;
 import javax.media.jai.OpImage;
+import javax.media.jai.ROI;
 import javax.media.jai.RenderedOp;
 import org.apache.commons.io.FileUtils;
 import org.geoserver.platform.ServiceException;
 import org.geotools.api.coverage.grid.GridEnvelope;
 import org.geotools.api.geometry.Bounds;
+import org.geotools.api.metadata.spatial.PixelOrientation;
 import org.geotools.api.parameter.GeneralParameterValue;
 import org.geotools.api.parameter.ParameterValueGroup;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.api.referencing.crs.EngineeringCRS;
+import org.geotools.api.referencing.datum.PixelInCell;
+import org.geotools.api.referencing.operation.MathTransform;
 import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.coverage.grid.GridEnvelope2D;
+import org.geotools.coverage.grid.GridGeometry2D;
 import org.geotools.coverage.grid.io.AbstractGridCoverage2DReader;
 import org.geotools.coverage.grid.io.AbstractGridCoverageWriter;
 import org.geotools.coverage.grid.io.AbstractGridFormat;
 import org.geotools.coverage.grid.io.imageio.GeoToolsWriteParams;
+import org.geotools.coverage.util.CoverageUtilities;
 import org.geotools.gce.geotiff.GeoTiffFormat;
 import org.geotools.gce.geotiff.GeoTiffReader;
 import org.geotools.gce.geotiff.GeoTiffWriteParams;
 import org.geotools.geometry.GeneralBounds;
 import org.geotools.image.ImageWorker;
 import org.geotools.image.util.ImageUtilities;
+import org.geotools.referencing.operation.transform.AffineTransform2D;
 
 /**
  * Support class setting up reasonable defaults on the write parameters and centralizing the write
@@ -42,6 +63,9 @@ public class GeoTiffWriterHelper {
 
     private static final GeoTiffFormat TIFF_FORMAT = new GeoTiffFormat();
 
+    /** The GeoTIFF and GDAL tags copied in the Cloud Optimized GeoTIFF output */
+    private static final int[] GEO_TAGS = {33550, 33922, 34264, 34735, 34736, 34737, 42112, 42113};
+
     private GridCoverage2D coverage;
 
     private File sourceFile;
@@ -50,6 +74,14 @@ public class GeoTiffWriterHelper {
 
     private ParameterValueGroup geotoolsWriteParams;
 
+    private boolean cog;
+
+    private int overviews = -1;
+
+    private boolean horizontalPredictor;
+
+    private ExecutorService cogExecutor;
+
     public GeoTiffWriterHelper(GridCoverage2D coverage) throws IOException {
         this.coverage = coverage;
 
@@ -139,8 +171,50 @@ public void disableSourceCopyOptimization() {
         this.sourceFile = null;
     }
 
+    /**
+     * Enables the Cloud Optimized GeoTIFF output, a tiled GeoTIFF with overviews, with all the
+     * IFDs before the image data. Only the LZW and Deflate compressions are supported in this mode.
+     */
+    public void setCog(boolean cog) {
+        this.cog = cog;
+        if (cog) {
+            disableSourceCopyOptimization();
+        }
+    }
+
+    public boolean isCog() {
+        return cog;
+    }
+
+    /**
+     * Sets the number of overviews of the Cloud Optimized GeoTIFF output, or -1 to halve the image
+     * until it fits in a single tile (the default)
+     */
+    public void setOverviews(int overviews) {
+        this.overviews = overviews;
+    }
+
+    /**
+     * Enables the horizontal differencing predictor in the Cloud Optimized GeoTIFF output (the
+     * standard output uses the compressor set in the write params instead)
+     */
+    public void setHorizontalPredictor(boolean horizontalPredictor) {
+        this.horizontalPredictor = horizontalPredictor;
+    }
+
+    /**
+     * Sets the executor compressing the tiles of the Cloud Optimized GeoTIFF output. The helper
+     * does not manage its lifecycle. If it is not set, the tiles are compressed in the calling
+     * thread.
+     */
+    public void setCogExecutor(ExecutorService cogExecutor) {
+        this.cogExecutor = cogExecutor;
+    }
+
     public void write(OutputStream stream) throws IOException {
-        if (sourceFile != null) {
+        if (cog) {
+            writeCog(stream);
+        } else if (sourceFile != null) {
             FileUtils.copyFile(sourceFile, stream);
         } else {
             CoordinateReferenceSystem crs = coverage.getCoordinateReferenceSystem();
@@ -191,6 +265,126 @@ public void write(OutputStream stream) throws IOException {
         }
     }
 
+    private void writeCog(OutputStream stream) throws IOException {
+        RenderedImage image = coverage.getRenderedImage();
+        // tile sizes must be multiples of 16 in a TIFF
+        int tileWidth = (imageIoWriteParams.getTileWidth() + 15) / 16 * 16;
+        int tileHeight = (imageIoWriteParams.getTileHeight() + 15) / 16 * 16;
+
+        CogWriter writer = new CogWriter(cogExecutor);
+        writer.setTileSize(tileWidth, tileHeight);
+        writer.setHorizontalPredictor(horizontalPredictor);
+        if (imageIoWriteParams.getCompressionMode() == GeoToolsWriteParams.MODE_EXPLICIT) {
+            String compression = imageIoWriteParams.getCompressionType();
+            if ("LZW".equals(compression)) {
+                writer.setCompression(CogWriter.Compression.LZW);
+            } else if ("Deflate".equals(compression)) {
+                writer.setCompression(CogWriter.Compression.DEFLATE);
+                // same mapping as the ImageIO deflate compressor
+                float quality = imageIoWriteParams.getCompressionQuality();
+                writer.setDeflateLevel(Math.round(1 + 8 * quality));
+            } else if (compression != null) {
+                throw new ServiceException(
+                        "Compression " + compression + " is not supported for COG output");
+            }
+        }
+
+        CoordinateReferenceSystem crs = coverage.getCoordinateReferenceSystem();
+        if (crs != null && !(crs instanceof EngineeringCRS)) {
+            writer.setGeoFields(getGeoFields(image));
+        }
+
+        // the overviews, each one half the size of the previous level. The interpolation skips
+        // the nodata pixels and the ones outside of the ROI, the output gets nodata in their place
+        List<RenderedImage> levels = new ArrayList<>();
+        levels.add(image);
+        Interpolation interpolation =
+                Interpolation.getInstance(
+                        image.getColorModel() instanceof IndexColorModel
+                                ? Interpolation.INTERP_NEAREST
+                                : Interpolation.INTERP_BILINEAR);
+        NoDataContainer noData = CoverageUtilities.getNoDataProperty(coverage);
+        Range noDataRange = noData != null ? noData.getAsRange() : null;
+        double[] background = null;
+        if (noData != null) {
+            background = new double[image.getSampleModel().getNumBands()];
+            Arrays.fill(background, noData.getAsSingleValue());
+        }
+        ROI roi = CoverageUtilities.getROIProperty(coverage);
+        AffineTransform halve = AffineTransform.getScaleInstance(0.5, 0.5);
+        RenderedImage level = image;
+        while ((overviews < 0
+                        ? level.getWidth() > tileWidth || level.getHeight() > tileHeight
+                        : levels.size() <= overviews)
+                && level.getWidth() > 1
+                && level.getHeight() > 1) {
+            ImageWorker worker = new ImageWorker(level);
+            worker.setNoData(noDataRange);
+            worker.setROI(roi);
+            level = worker.affine(halve, interpolation, background).getRenderedImage();
+            roi = roi != null ? roi.transform(halve) : null;
+            levels.add(level);
+        }
+
+        writer.write(levels, stream);
+    }
+
+    /**
+     * Returns the georeferencing tags of the coverage, as written by the GeoTools GeoTIFF writer,
+     * by encoding a single pixel coverage with the same georeferencing and properties
+     */
+    private List<CogWriter.Field> getGeoFields(RenderedImage image) throws IOException {
+        GridGeometry2D gg = coverage.getGridGeometry();
+        MathTransform g2w = gg.getGridToCRS2D(PixelOrientation.UPPER_LEFT);
+        if (!(g2w instanceof AffineTransform)) {
+            throw new ServiceException("COG output requires an affine grid to world transform");
+        }
+        AffineTransform at = new AffineTransform((AffineTransform) g2w);
+        GridEnvelope2D range = gg.getGridRange2D();
+        at.translate(range.x, range.y);
+        GridGeometry2D pixelGeometry =
+                new GridGeometry2D(
+                        new GridEnvelope2D(0, 0, 1, 1),
+                        PixelInCell.CELL_CORNER,
+                        new AffineTransform2D(at),
+                        coverage.getCoordinateReferenceSystem(),
+                        null);
+        GridCoverage2D pixel =
+                new GridCoverageFactory()
+                        .create(
+                                coverage.getName(),
+                                new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY),
+                                pixelGeometry,
+                                null,
+                                null,
+                                (Map<?, ?>) coverage.getProperties());
+
+        // same params (e.g., axis order), but without the tiling and compression
+        ParameterValueGroup params = geotoolsWriteParams.clone();
+        params.parameter(AbstractGridFormat.GEOTOOLS_WRITE_PARAMS.getName().toString())
+                .setValue(new GeoTiffWriteParams());
+        GeneralParameterValue[] wps =
+                params.values().toArray(new GeneralParameterValue[params.values().size()]);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        AbstractGridCoverageWriter writer =
+                (AbstractGridCoverageWriter) TIFF_FORMAT.getWriter(bos);
+        try {
+            writer.write(pixel, wps);
+        } finally {
+            writer.dispose();
+        }
+
+        Map<Integer, CogWriter.Field> ifd = CogWriter.readIFDs(bos.toByteArray()).get(0);
+        List<CogWriter.Field> result = new ArrayList<>();
+        for (int tag : GEO_TAGS) {
+            CogWriter.Field field = ifd.get(tag);
+            if (field != null) {
+                result.add(field);
+            }
+        }
+        return result;
+    }
+
     /** Returns true if the coverage has not been processed in any way since it has been read */
     private boolean isUnprocessed(GridCoverage2D coverage) {
         RenderedImage ri = coverage.getRenderedImage();
@@ -0,0 +1,285 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs.responses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Inflater;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.geoserver.wcs.responses.CogWriter.Compression;
+import org.geoserver.wcs.responses.CogWriter.Field;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CogWriterTest {
+
+    static ExecutorService executor;
+
+    @BeforeClass
+    public static void setupExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass
+    public static void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    private static BufferedImage rgb(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        WritableRaster raster = image.getRaster();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                raster.setPixel(x, y, new int[] {x % 256, y % 256, (x * y) % 256});
+            }
+        }
+        return image;
+    }
+
+    /** Halves the image size, taking every other pixel */
+    private static BufferedImage decimate(BufferedImage image) {
+        int width = (image.getWidth() + 1) / 2;
+        int height = (image.getHeight() + 1) / 2;
+        BufferedImage result = new BufferedImage(width, height, image.getType());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                result.setRGB(x, y, image.getRGB(x * 2, y * 2));
+            }
+        }
+        return result;
+    }
+
+    private static ImageReader getReader(byte[] tiff) throws Exception {
+        ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(tiff));
+        ImageReader reader = ImageIO.getImageReaders(iis).next();
+        reader.setInput(iis);
+        return reader;
+    }
+
+    private static void assertSamePixels(RenderedImage expected, RenderedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        Raster e = expected.getData();
+        Raster a = actual.getData();
+        for (int b = 0; b < e.getNumBands(); b++) {
+            assertArrayEquals(
+                    e.getSamples(0, 0, e.getWidth(), e.getHeight(), b, (int[]) null),
+                    a.getSamples(0, 0, a.getWidth(), a.getHeight(), b, (int[]) null));
+        }
+    }
+
+    private static long getValue(Map<Integer, Field> ifd, int tag) {
+        Object values = ifd.get(tag).getValues();
+        return values instanceof int[] ? ((int[]) values)[0] : ((long[]) values)[0];
+    }
+
+    @Test
+    public void testLayout() throws Exception {
+        BufferedImage image = rgb(300, 200);
+        BufferedImage overview1 = decimate(image);
+        BufferedImage overview2 = decimate(overview1);
+        CogWriter writer = new CogWriter(executor);
+        writer.setCompression(Compression.DEFLATE);
+        writer.setDeflateLevel(6);
+        writer.setHorizontalPredictor(true);
+        writer.setTileSize(128, 64);
+        Field ascii = new Field(34737, CogWriter.TYPE_ASCII, "WGS 84|\0".getBytes("US-ASCII"));
+        writer.setGeoFields(List.of(ascii));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.write(List.of(image, overview1, overview2), bos);
+        byte[] tiff = bos.toByteArray();
+
+        // the structural metadata right after the header
+        String ghost = new String(tiff, 8, 42, "US-ASCII");
+        assertEquals("GDAL_STRUCTURAL_METADATA_SIZE=000076 bytes", ghost);
+
+        // full resolution IFD first, with the georeferencing
+        List<Map<Integer, Field>> ifds = CogWriter.readIFDs(tiff);
+        assertEquals(3, ifds.size());
+        assertEquals(0, getValue(ifds.get(0), CogWriter.TAG_NEW_SUBFILE_TYPE));
+        assertEquals(300, getValue(ifds.get(0), CogWriter.TAG_IMAGE_WIDTH));
+        assertEquals(8, getValue(ifds.get(0), CogWriter.TAG_COMPRESSION));
+        assertEquals(2, getValue(ifds.get(0), CogWriter.TAG_PHOTOMETRIC));
+        assertEquals(2, getValue(ifds.get(0), CogWriter.TAG_PREDICTOR));
+        assertArrayEquals(
+                "WGS 84|\0".getBytes("US-ASCII"), (byte[]) ifds.get(0).get(34737).getValues());
+        for (int i = 1; i < 3; i++) {
+            assertEquals(1, getValue(ifds.get(i), CogWriter.TAG_NEW_SUBFILE_TYPE));
+            assertTrue(!ifds.get(i).containsKey(34737));
+        }
+        assertEquals(12, ((long[]) ifds.get(0).get(CogWriter.TAG_TILE_OFFSETS).getValues()).length);
+        assertEquals(4, ((long[]) ifds.get(1).get(CogWriter.TAG_TILE_OFFSETS).getValues()).length);
+        assertEquals(1, ((long[]) ifds.get(2).get(CogWriter.TAG_TILE_OFFSETS).getValues()).length);
+
+        // the tiles follow the IFDs, from the smallest overview, contiguous
+        long expected = -1;
+        for (int i = 2; i >= 0; i--) {
+            long[] offsets = (long[]) ifds.get(i).get(CogWriter.TAG_TILE_OFFSETS).getValues();
+            long[] counts = (long[]) ifds.get(i).get(CogWriter.TAG_TILE_BYTE_COUNTS).getValues();
+            for (int t = 0; t < offsets.length; t++) {
+                if (expected != -1) {
+                    assertEquals(expected, offsets[t]);
+                }
+                expected = offsets[t] + counts[t];
+            }
+        }
+        assertEquals(tiff.length, expected);
+
+        // and the content reads back as written
+        ImageReader reader = getReader(tiff);
+        try {
+            assertEquals(3, reader.getNumImages(true));
+            assertEquals(128, reader.getTileWidth(0));
+            assertEquals(64, reader.getTileHeight(0));
+            assertSamePixels(image, reader.read(0));
+            assertSamePixels(overview1, reader.read(1));
+            assertSamePixels(overview2, reader.read(2));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    @Test
+    public void testLZW() throws Exception {
+        // noise, to fill the code table several times, and a gradient, to get long strings
+        BufferedImage image = new BufferedImage(700, 300, BufferedImage.TYPE_USHORT_GRAY);
+        WritableRaster raster = image.getRaster();
+        Random random = new Random(0);
+        for (int y = 0; y < 300; y++) {
+            for (int x = 0; x < 700; x++) {
+                raster.setSample(x, y, 0, y < 150 ? random.nextInt(65536) : x * 10);
+            }
+        }
+        assertLZWRoundTrip(image, false);
+
+        // the predictor, tested on bytes, as not all readers support it for larger samples
+        assertLZWRoundTrip(rgb(700, 300), true);
+    }
+
+    private void assertLZWRoundTrip(BufferedImage image, boolean predictor) throws Exception {
+        CogWriter writer = new CogWriter(executor);
+        writer.setCompression(Compression.LZW);
+        writer.setHorizontalPredictor(predictor);
+        writer.setTileSize(256, 256);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.write(List.of(image), bos);
+
+        ImageReader reader = getReader(bos.toByteArray());
+        try {
+            RenderedImage read = reader.read(0);
+            assertEquals(
+                    image.getSampleModel().getDataType(), read.getSampleModel().getDataType());
+            assertSamePixels(image, read);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    @Test
+    public void testPackedPalette() throws Exception {
+        BufferedImage image = new BufferedImage(100, 50, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster raster = image.getRaster();
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 100; x++) {
+                raster.setSample(x, y, 0, (x / 3 + y) % 2);
+            }
+        }
+        CogWriter writer = new CogWriter(null);
+        writer.setCompression(Compression.DEFLATE);
+        writer.setTileSize(64, 32);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.write(List.of(image), bos);
+
+        Map<Integer, Field> ifd = CogWriter.readIFDs(bos.toByteArray()).get(0);
+        assertEquals(1, getValue(ifd, CogWriter.TAG_BITS_PER_SAMPLE));
+        assertEquals(3, getValue(ifd, CogWriter.TAG_PHOTOMETRIC));
+        ImageReader reader = getReader(bos.toByteArray());
+        try {
+            assertSamePixels(image, reader.read(0));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    @Test
+    public void testBigTiff() throws Exception {
+        BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_BYTE_GRAY);
+        WritableRaster raster = image.getRaster();
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 40; x++) {
+                raster.setSample(x, y, 0, x + y);
+            }
+        }
+        CogWriter writer = new CogWriter(executor);
+        writer.setCompression(Compression.DEFLATE);
+        writer.setTileSize(32, 32);
+        writer.setForceBigTiff(true);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.write(List.of(image), bos);
+        byte[] tiff = bos.toByteArray();
+
+        ByteBuffer bb = ByteBuffer.wrap(tiff).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(43, bb.getShort(2));
+        Map<Integer, Field> ifd = CogWriter.readIFDs(tiff).get(0);
+        Field offsets = ifd.get(CogWriter.TAG_TILE_OFFSETS);
+        Field counts = ifd.get(CogWriter.TAG_TILE_BYTE_COUNTS);
+        assertEquals(CogWriter.TYPE_LONG8, offsets.getType());
+        assertEquals(2, ((long[]) offsets.getValues()).length);
+
+        // inflate the second tile, padded on the right
+        long offset = ((long[]) offsets.getValues())[1];
+        long count = ((long[]) counts.getValues())[1];
+        Inflater inflater = new Inflater();
+        inflater.setInput(Arrays.copyOfRange(tiff, (int) offset, (int) (offset + count)));
+        byte[] tile = new byte[32 * 32];
+        assertEquals(tile.length, inflater.inflate(tile));
+        inflater.end();
+        for (int y = 0; y < 32; y++) {
+            for (int x = 0; x < 32; x++) {
+                int expected = y < 30 && x < 8 ? 32 + x + y : 0;
+                assertEquals(expected, tile[y * 32 + x] & 0xFF);
+            }
+        }
+    }
+
+    @Test
+    public void testShutdownExecutor() throws Exception {
+        // a pool shut down along with the application, the tiles are compressed in the caller
+        ExecutorService shutdown = Executors.newSingleThreadExecutor();
+        shutdown.shutdown();
+        BufferedImage image = rgb(100, 60);
+        CogWriter writer = new CogWriter(shutdown);
+        writer.setCompression(Compression.LZW);
+        writer.setTileSize(64, 32);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writer.write(List.of(image), bos);
+
+        ImageReader reader = getReader(bos.toByteArray());
+        try {
+            assertSamePixels(image, reader.read(0));
+        } finally {
+            reader.dispose();
+        }
+    }
+}
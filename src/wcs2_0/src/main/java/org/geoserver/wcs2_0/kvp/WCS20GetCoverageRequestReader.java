@@ -83,7 +83,9 @@ private void parseGeoTiffExtension(GetCoverageType gc, Map kvp) {
                         "interleave",
                         "tiling",
                         "tileheight",
-                        "tilewidth");
+                        "tilewidth",
+                        "cog",
+                        "overviews");
         parseSimpleContentList(gc, kvp, geoTiffParams, GEOTIFF_NS, null);
         // the current has the qualified as "geotiff:xyz"
         parseSimpleContentList(gc, kvp, geoTiffParams, GEOTIFF_NS, "geotiff");
@@ -19,6 +19,7 @@
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import javax.imageio.IIOException;
 import javax.imageio.metadata.IIOMetadataNode;
@@ -28,8 +29,11 @@
 import net.opengis.wcs20.GetCoverageType;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.geoserver.catalog.CoverageInfo;
 import org.geoserver.wcs.WCSInfo;
+import org.geoserver.wcs.responses.CogWriter;
 import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.io.GridCoverage2DReader;
 import org.geotools.coverage.util.CoverageUtilities;
 import org.geotools.gce.geotiff.GeoTiffReader;
 import org.geotools.geometry.GeneralBounds;
@@ -470,6 +474,84 @@ public void tiling() throws Exception {
         reader.dispose();
     }
 
+    @Test
+    public void cog() throws Exception {
+        MockHttpServletResponse response =
+                getAsServletResponse(
+                        "wcs?request=GetCoverage&service=WCS&version=2.0.1"
+                                + "&coverageId=wcs__BlueMarble&geotiff:cog=true"
+                                + "&geotiff:compression=Deflate&geotiff:tiling=true"
+                                + "&geotiff:tileheight=128&geotiff:tilewidth=128");
+
+        assertEquals("image/tiff", response.getContentType());
+        byte[] tiffContents = getBinary(response);
+
+        // the full resolution image and two overviews, 368 -> 184 -> 92, the IFDs come first,
+        // then the tiles of the smallest overview, up to the full resolution ones
+        List<Map<Integer, CogWriter.Field>> ifds = CogWriter.readIFDs(tiffContents);
+        assertEquals(3, ifds.size());
+        long previous = 0;
+        for (int i = ifds.size() - 1; i >= 0; i--) {
+            long[] offsets =
+                    (long[]) ifds.get(i).get(BaselineTIFFTagSet.TAG_TILE_OFFSETS).getValues();
+            for (long offset : offsets) {
+                assertTrue(offset > previous);
+                previous = offset;
+            }
+        }
+
+        File file = File.createTempFile("bm_cog", "bm_cog.tiff", new File("./target"));
+        FileUtils.writeByteArrayToFile(file, tiffContents);
+        final TIFFImageReader reader =
+                (TIFFImageReader) new TIFFImageReaderSpi().createReaderInstance();
+        try {
+            reader.setInput(new FileImageInputStream(file));
+            assertEquals(3, reader.getNumImages(true));
+            assertTrue(reader.isImageTiled(0));
+            assertEquals(128, reader.getTileWidth(0));
+            assertEquals(128, reader.getTileHeight(0));
+            assertEquals(368, reader.getWidth(0));
+            assertEquals(184, reader.getWidth(1));
+            assertEquals(92, reader.getWidth(2));
+        } finally {
+            reader.dispose();
+        }
+
+        // same georeferencing as the plain GeoTIFF output
+        GeoTiffReader readerTarget = new GeoTiffReader(file);
+        try {
+            CoverageInfo ci = getCatalog().getCoverageByName("BlueMarble");
+            GridCoverage2DReader source =
+                    (GridCoverage2DReader) ci.getGridCoverageReader(null, null);
+            GeneralBounds envelope = readerTarget.getOriginalEnvelope();
+            assertTrue(envelope.equals(source.getOriginalEnvelope(), 1e-9, false));
+            assertTrue(
+                    CRS.equalsIgnoreMetadata(
+                            source.getCoordinateReferenceSystem(),
+                            readerTarget.getCoordinateReferenceSystem()));
+        } finally {
+            readerTarget.dispose();
+        }
+
+        // unsupported compressions and invalid overviews
+        response =
+                getAsServletResponse(
+                        "wcs?request=GetCoverage&service=WCS&version=2.0.1"
+                                + "&coverageId=wcs__BlueMarble&geotiff:cog=true"
+                                + "&geotiff:compression=JPEG");
+        assertEquals("application/xml", response.getContentType());
+        checkOws20Exception(
+                response, 404, WcsExceptionCode.CompressionNotSupported.toString(), "JPEG");
+        response =
+                getAsServletResponse(
+                        "wcs?request=GetCoverage&service=WCS&version=2.0.1"
+                                + "&coverageId=wcs__BlueMarble&geotiff:cog=true"
+                                + "&geotiff:overviews=-2");
+        assertEquals("application/xml", response.getContentType());
+        checkOws20Exception(
+                response, 404, WcsExceptionCode.InvalidParameterValue.toString(), "-2");
+    }
+
     @Test
     public void overviewPolicy() throws Exception {
         // //
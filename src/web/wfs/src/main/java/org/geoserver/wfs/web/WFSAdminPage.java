@@ -81,6 +81,7 @@ protected void build(final IModel info, Form form) {
         // max features
         form.add(new TextField<Integer>("maxFeatures").add(RangeValidator.minimum(0)));
         form.add(new TextField<Integer>("maxNumberOfFeaturesForPreview"));
+        form.add(new TextField<Integer>("parallelQueries").add(RangeValidator.minimum(0)));
         TextField<String> dateFormatField = new TextField<>("csvDateFormat");
         dateFormatField.setModel(new PropertyModel<>(info, "csvDateFormat"));
         form.add(dateFormatField);
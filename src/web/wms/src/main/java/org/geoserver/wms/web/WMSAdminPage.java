@@ -261,6 +261,13 @@ public void onClick(AjaxRequestTarget target) {
                 new TextField<>("png.compression", pngCompression, Integer.class);
         pngCompressionField.add(new RangeValidator<>(0, 100));
         form.add(pngCompressionField);
+        form.add(
+                new CheckBox(
+                        "png.parallel",
+                        defaultedModel(
+                                metadataModel,
+                                WMS.PNG_PARALLEL_ENCODING,
+                                WMS.PNG_PARALLEL_ENCODING_DEFAULT)));
         // jpeg compression levels
         MapModel jpegCompression =
                 defaultedModel(metadataModel, WMS.JPEG_COMPRESSION, WMS.JPEG_COMPRESSION_DEFAULT);
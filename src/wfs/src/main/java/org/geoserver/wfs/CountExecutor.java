@@ -6,6 +6,7 @@
 package org.geoserver.wfs;
 
 import java.io.IOException;
+import org.geoserver.catalog.FeatureTypeInfo;
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Query;
 
@@ -26,11 +27,34 @@ class CountExecutor {
 
     int providedCount = COUNT_UNSET;
 
+    FeatureCountCache cache;
+
+    FeatureTypeInfo typeInfo;
+
+    boolean allowUnknown;
+
     public CountExecutor(FeatureSource source, Query query) {
         this.source = source;
         this.query = query;
     }
 
+    /**
+     * Builds an executor looking up the count in the given cache
+     *
+     * @param allowUnknown if true the cache can return -1 while computing the count in background
+     */
+    public CountExecutor(
+            FeatureSource source,
+            Query query,
+            FeatureCountCache cache,
+            FeatureTypeInfo typeInfo,
+            boolean allowUnknown) {
+        this(source, query);
+        this.cache = cache;
+        this.typeInfo = typeInfo;
+        this.allowUnknown = allowUnknown;
+    }
+
     public CountExecutor(int providedCount) {
         this.providedCount = providedCount;
     }
@@ -38,6 +62,8 @@ public CountExecutor(int providedCount) {
     public int getCount() throws IOException {
         if (isCountSet()) {
             return providedCount;
+        } else if (cache != null) {
+            return cache.getCount(typeInfo, source, query, allowUnknown);
         } else {
             // make sure we get a count by getting a feature colleciton
             // FeatureSource.getCount(...) can return -1
@@ -0,0 +1,565 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.namespace.QName;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.impl.GeoServerLifecycleHandler;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.security.AccessLimits;
+import org.geoserver.security.DataAccessLimits;
+import org.geoserver.security.VectorAccessLimits;
+import org.geoserver.security.decorators.SecuredFeatureTypeInfo;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wfs.request.TransactionResponse;
+import org.geotools.api.data.FeatureSource;
+import org.geotools.api.data.Query;
+import org.geotools.util.decorate.Wrapper;
+import org.geotools.util.factory.Hints;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Caches the feature counts used to compute the WFS 2.0 {@code numberMatched}, so that paging
+ * through a large result does not run the same count query on every page.
+ *
+ * <p>Counts are keyed by feature type, filter, view parameters, the current user and roles, and the
+ * read limits (filter and geometries) the secured feature type applies in the current request, so
+ * that changes to the security rules do not return counts computed under other limits. Entries are
+ * dropped when a WFS transaction touches the feature type, when the catalog configuration of a
+ * feature type, layer or store changes, and on reset/reload. Changes not going through WFS-T are
+ * not seen, the maximum age ({@link #MAX_AGE_KEY}) bounds the staleness.
+ *
+ * <p>In asynchronous mode ({@link #ASYNC_KEY}) paging requests do not wait for counts: a missing
+ * count is reported as unknown while it is computed in the background, and an expired count is
+ * returned while being refreshed. Hits requests still wait for a missing count.
+ *
+ * <p>The cache is disabled by default, enable it with {@link #ENABLED_KEY}.
+ */
+public class FeatureCountCache
+        implements TransactionCallback,
+                CatalogListener,
+                GeoServerLifecycleHandler,
+                DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(FeatureCountCache.class);
+
+    /** Property enabling the cache */
+    public static final String ENABLED_KEY = "GEOSERVER_WFS_COUNT_CACHE";
+
+    /** Property setting the maximum age of a cached count, in seconds */
+    public static final String MAX_AGE_KEY = "GEOSERVER_WFS_COUNT_CACHE_MAX_AGE";
+
+    /** Property setting the maximum number of cached counts */
+    public static final String MAX_ENTRIES_KEY = "GEOSERVER_WFS_COUNT_CACHE_SIZE";
+
+    /** Property enabling the asynchronous computation of the counts */
+    public static final String ASYNC_KEY = "GEOSERVER_WFS_COUNT_CACHE_ASYNC";
+
+    static final int DEFAULT_MAX_AGE = 300;
+
+    static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /** Number of threads, and queued counts, for the asynchronous mode */
+    static final int ASYNC_THREADS = 2;
+
+    static final int ASYNC_QUEUE = 100;
+
+    static final int UNKNOWN = -1;
+
+    /** The layers touched by the transaction running in the current thread */
+    static final ThreadLocal<Set<QName>> TRANSACTION_LAYERS = new ThreadLocal<>();
+
+    // Use a counter to ensure a unique name for each pool.
+    private static AtomicInteger poolCounter = new AtomicInteger();
+
+    private final Map<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<QName, AtomicLong> layerGenerations = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Set<List<Object>> pending = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean enabled;
+
+    private volatile boolean async;
+
+    private volatile long maxAge;
+
+    private volatile int maxEntries;
+
+    private ThreadPoolExecutor executor;
+
+    final LongAdder hits = new LongAdder();
+
+    final LongAdder staleHits = new LongAdder();
+
+    final LongAdder misses = new LongAdder();
+
+    final LongAdder unknowns = new LongAdder();
+
+    final LongAdder counts = new LongAdder();
+
+    final LongAdder countTime = new LongAdder();
+
+    final AtomicLong maxCountTime = new AtomicLong();
+
+    /** A cached count */
+    static final class Entry {
+        final QName typeName;
+
+        final int count;
+
+        final long computedAt;
+
+        Entry(QName typeName, int count) {
+            this.typeName = typeName;
+            this.count = count;
+            this.computedAt = System.currentTimeMillis();
+        }
+    }
+
+    public FeatureCountCache(GeoServer geoServer) {
+        this.enabled = Boolean.parseBoolean(GeoServerExtensions.getProperty(ENABLED_KEY));
+        this.async = Boolean.parseBoolean(GeoServerExtensions.getProperty(ASYNC_KEY));
+        this.maxAge = getLongProperty(MAX_AGE_KEY, DEFAULT_MAX_AGE) * 1000;
+        this.maxEntries = (int) getLongProperty(MAX_ENTRIES_KEY, DEFAULT_MAX_ENTRIES);
+        geoServer.getCatalog().addListener(this);
+    }
+
+    private static long getLongProperty(String key, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + key + ", expected a number but got " + value);
+            return defaultValue;
+        }
+    }
+
+    /** Returns true if the cache is used */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Enables or disables the cache, disabling it clears the cached counts */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) clear();
+    }
+
+    /** Returns true if the counts are computed in the background */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /** Enables or disables the background computation of the counts */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    /** Returns the maximum age of a cached count, in milliseconds */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /** Sets the maximum age of a cached count, in milliseconds */
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /** Returns the maximum number of cached counts */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /** Sets the maximum number of cached counts */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /** Number of cached counts */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of features matched by the query, from the cache if possible. In
+     * asynchronous mode returns -1 if the count is not available yet and an unknown count is
+     * allowed.
+     *
+     * @param typeInfo The feature type being queried
+     * @param source The feature source, already secured for the current user
+     * @param query The query, without paging
+     * @param allowUnknown Whether the caller can do without the count (not a hits request)
+     */
+    public int getCount(
+            FeatureTypeInfo typeInfo,
+            FeatureSource<?, ?> source,
+            Query query,
+            boolean allowUnknown)
+            throws IOException {
+        List<Object> key = enabled ? getKey(typeInfo, query) : null;
+        if (key == null) return count(source, query);
+
+        QName typeName = getTypeName(typeInfo);
+        Entry entry = entries.get(key);
+        if (entry != null && !isExpired(entry)) {
+            hits.increment();
+            return entry.count;
+        }
+        if (async && (entry != null || allowUnknown)) {
+            computeAsync(key, typeName, source, query);
+            if (entry != null) {
+                staleHits.increment();
+                return entry.count;
+            }
+            unknowns.increment();
+            return UNKNOWN;
+        }
+        misses.increment();
+        long[] generations = getGenerations(typeName);
+        int count = count(source, query);
+        store(key, typeName, count, generations);
+        return count;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return maxAge > 0 && entry.computedAt + maxAge < System.currentTimeMillis();
+    }
+
+    /** Returns the cache key, or null if the query cannot be cached */
+    private List<Object> getKey(FeatureTypeInfo typeInfo, Query query) {
+        if (typeInfo.getId() == null || (query.getJoins() != null && !query.getJoins().isEmpty())) {
+            return null;
+        }
+        Object viewParams =
+                query.getHints() != null
+                        ? query.getHints().get(Hints.VIRTUAL_TABLE_PARAMETERS)
+                        : null;
+        // the secured source applies the limits of the current user, they are part of the key
+        Authentication user = SecurityContextHolder.getContext().getAuthentication();
+        String userName = null;
+        List<String> roles = Collections.emptyList();
+        if (user != null) {
+            userName = user.getName();
+            roles = new ArrayList<>();
+            for (GrantedAuthority authority : user.getAuthorities()) {
+                roles.add(authority.getAuthority());
+            }
+            Collections.sort(roles);
+        }
+        return Arrays.asList(
+                typeInfo.getId(),
+                query.getFilter(),
+                query.getVersion(),
+                viewParams,
+                userName,
+                roles,
+                getReadLimits(typeInfo));
+    }
+
+    /**
+     * Returns the read filter and geometries limiting the features the current user can count, as
+     * the roles are not enough to tell, the rules can change, or depend on other criteria
+     */
+    private List<Object> getReadLimits(FeatureTypeInfo typeInfo) {
+        SecuredFeatureTypeInfo secured = null;
+        if (typeInfo instanceof SecuredFeatureTypeInfo) {
+            secured = (SecuredFeatureTypeInfo) typeInfo;
+        } else if (typeInfo instanceof Wrapper
+                && ((Wrapper) typeInfo).isWrapperFor(SecuredFeatureTypeInfo.class)) {
+            secured = ((Wrapper) typeInfo).unwrap(SecuredFeatureTypeInfo.class);
+        }
+        if (secured == null) return Collections.emptyList();
+        AccessLimits limits = secured.getReadPolicy().getLimits();
+        if (limits instanceof VectorAccessLimits) {
+            VectorAccessLimits vl = (VectorAccessLimits) limits;
+            return Arrays.asList(
+                    vl.getReadFilter(), vl.getClipVectorFilter(), vl.getIntersectVectorFilter());
+        } else if (limits instanceof DataAccessLimits) {
+            return Collections.singletonList(((DataAccessLimits) limits).getReadFilter());
+        }
+        return Collections.emptyList();
+    }
+
+    private QName getTypeName(FeatureTypeInfo typeInfo) {
+        return new QName(typeInfo.getNamespace().getURI(), typeInfo.getName());
+    }
+
+    private long[] getGenerations(QName typeName) {
+        return new long[] {generation.get(), getLayerGeneration(typeName).get()};
+    }
+
+    private AtomicLong getLayerGeneration(QName typeName) {
+        return layerGenerations.computeIfAbsent(typeName, n -> new AtomicLong());
+    }
+
+    /** Stores the count, unless the data or configuration changed while computing it */
+    private void store(List<Object> key, QName typeName, int count, long[] generations) {
+        if (count < 0 || !Arrays.equals(generations, getGenerations(typeName))) return;
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(this::isExpired);
+            // the keys come from the requests, protect from clients sending random filters
+            if (entries.size() >= maxEntries) entries.clear();
+        }
+        entries.put(key, new Entry(typeName, count));
+    }
+
+    private int count(FeatureSource<?, ?> source, Query query) throws IOException {
+        long start = System.nanoTime();
+        // make sure we get a count by getting a feature collection
+        // FeatureSource.getCount(...) can return -1
+        int count = source.getFeatures(query).size();
+        long elapsed = System.nanoTime() - start;
+        counts.increment();
+        countTime.add(elapsed);
+        maxCountTime.accumulateAndGet(elapsed, Math::max);
+        return count;
+    }
+
+    private void computeAsync(
+            List<Object> key, QName typeName, FeatureSource<?, ?> source, Query query) {
+        if (!pending.add(key)) return;
+        long[] generations = getGenerations(typeName);
+        SecurityContext context = SecurityContextHolder.getContext();
+        try {
+            getExecutor()
+                    .execute(
+                            () -> {
+                                SecurityContextHolder.setContext(context);
+                                try {
+                                    store(key, typeName, count(source, query), generations);
+                                } catch (Exception e) {
+                                    LOGGER.log(Level.FINE, "Background count failed", e);
+                                } finally {
+                                    pending.remove(key);
+                                    SecurityContextHolder.clearContext();
+                                }
+                            });
+        } catch (RuntimeException e) {
+            // queue full, will be tried again on the next request
+            pending.remove(key);
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            int id = poolCounter.getAndIncrement();
+            executor =
+                    new ThreadPoolExecutor(
+                            ASYNC_THREADS,
+                            ASYNC_THREADS,
+                            60,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(ASYNC_QUEUE),
+                            r -> {
+                                Thread t = new Thread(r, "FeatureCountCache-" + id);
+                                t.setDaemon(true);
+                                return t;
+                            });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /** Removes all the cached counts */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /** Removes the cached counts of the given feature type */
+    public void clear(QName typeName) {
+        getLayerGeneration(typeName).incrementAndGet();
+        entries.values().removeIf(e -> e.typeName.equals(typeName));
+    }
+
+    /** Resets the statistics */
+    public void resetStatistics() {
+        hits.reset();
+        staleHits.reset();
+        misses.reset();
+        unknowns.reset();
+        counts.reset();
+        countTime.reset();
+        maxCountTime.set(0);
+    }
+
+    /** Lookups answered with a fresh cached count */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Lookups answered with an expired count, while refreshing it (asynchronous mode) */
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    /** Lookups that had to wait for the count to be computed */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Lookups answered with an unknown count, while computing it (asynchronous mode) */
+    public long getUnknowns() {
+        return unknowns.sum();
+    }
+
+    /** Ratio of lookups answered without waiting for a count, or 0 if there were no lookups */
+    public double getHitRatio() {
+        long cached = getHits() + getStaleHits();
+        long total = cached + getMisses() + getUnknowns();
+        return total == 0 ? 0 : (double) cached / total;
+    }
+
+    /** Number of count queries run, in the request threads or in background */
+    public long getCounts() {
+        return counts.sum();
+    }
+
+    /** Average time taken by a count query, in milliseconds */
+    public double getAverageCountTime() {
+        long n = getCounts();
+        return n == 0 ? 0 : countTime.sum() / 1e6 / n;
+    }
+
+    /** Maximum time taken by a count query, in milliseconds */
+    public double getMaxCountTime() {
+        return maxCountTime.get() / 1e6;
+    }
+
+    @Override
+    public TransactionRequest beforeTransaction(TransactionRequest request) throws WFSException {
+        return request;
+    }
+
+    @Override
+    public void beforeCommit(TransactionRequest request) throws WFSException {
+        // nothing to do
+    }
+
+    @Override
+    public void afterTransaction(
+            TransactionRequest request, TransactionResponse result, boolean committed) {
+        // counts computed between the changes and the commit saw the old data, drop them again
+        Set<QName> layers = TRANSACTION_LAYERS.get();
+        TRANSACTION_LAYERS.remove();
+        if (layers != null && committed) {
+            layers.forEach(this::clear);
+        }
+    }
+
+    @Override
+    public void dataStoreChange(TransactionEvent event) throws WFSException {
+        QName layerName = event.getLayerName();
+        if (layerName == null) {
+            clear();
+            return;
+        }
+        Set<QName> layers = TRANSACTION_LAYERS.get();
+        if (layers == null) {
+            layers = new HashSet<>();
+            TRANSACTION_LAYERS.set(layers);
+        }
+        layers.add(layerName);
+        clear(layerName);
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+        // nothing to do
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+        handleCatalogChange(event.getSource());
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+        // nothing to do
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+        handleCatalogChange(event.getSource());
+    }
+
+    private void handleCatalogChange(CatalogInfo source) {
+        // filters, names, connection parameters might have changed, rare enough to clear all
+        if (source instanceof FeatureTypeInfo
+                || source instanceof LayerInfo
+                || source instanceof StoreInfo) {
+            clear();
+        }
+    }
+
+    @Override
+    public void reloaded() {
+        clear();
+    }
+
+    @Override
+    public void onReset() {
+        clear();
+    }
+
+    @Override
+    public void onDispose() {
+        clear();
+    }
+
+    @Override
+    public void beforeReload() {
+        // nothing to do
+    }
+
+    @Override
+    public void onReload() {
+        clear();
+    }
+
+    @Override
+    public synchronized void destroy() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -17,6 +17,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -333,184 +335,49 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
         List<FeatureCollection<? extends FeatureType, ? extends Feature>> results =
                 new ArrayList<>();
         final List<CountExecutor> totalCountExecutors = new ArrayList<>();
+        FeatureCountCache countCache = GeoServerExtensions.bean(FeatureCountCache.class);
+        // if so configured, plan and open the queries in parallel up front, the results are
+        // still consumed in order below, as the offset and limit of each query depend on the
+        // features returned by the previous ones
+        List<Future<QueryPlan>> plans = null;
+        if (wfs.getParallelQueries() > 1 && queries.size() > 1) {
+            plans =
+                    planQueries(
+                            request,
+                            queries,
+                            viewParams,
+                            maxFeatures,
+                            totalOffset,
+                            calculateSize && totalOffset <= 0);
+        }
         try {
             for (int i = 0; (i < queries.size()) && (count < maxFeatures); i++) {
 
                 Query query = queries.get(i);
                 try {
-                    // alias sanity check
-                    validateQueryAliases(request, query);
-
-                    List<FeatureTypeInfo> metas = new ArrayList<>();
-                    for (QName typeName : query.getTypeNames()) {
-                        metas.add(featureTypeInfo(typeName, request));
-                    }
-
-                    // first is the primary feature type
-                    FeatureTypeInfo meta = metas.get(0);
-
-                    // parse the requested property names and distribute among requested types
-                    List<List<String>> reqPropertyNames = parsePropertyNames(query, metas);
-
-                    NamespaceSupport ns = getNamespaceSupport();
-
-                    // set up joins (if specified)
-                    List<Join> joins = null;
-                    String primaryAlias = null;
-                    QName primaryTypeName = query.getTypeNames().get(0);
-                    FeatureTypeInfo primaryMeta = metas.get(0);
-
-                    // make sure filters are sane
-                    //
-                    // Validation of filters on non-simple feature types is not yet supported.
-                    // FIXME: Support validation of filters on non-simple feature types:
-                    // need to consider xpath properties and how to configure namespace prefixes in
-                    // GeoTools app-schema FeaturePropertyAccessorFactory.
-                    Filter filter = query.getFilter();
-
-                    if (filter == null && metas.size() > 1) {
-                        throw new WFSException(request, "Join query must specify a filter");
-                    }
-
-                    if (filter != null) {
-                        if (meta.getFeatureType() instanceof SimpleFeatureType) {
-                            if (metas.size() > 1) {
-                                // sanitize aliases, they must not conflict with feature type names
-                                // nor with their attributes
-                                query = AliasedQuery.fixAliases(metas, query);
-                                // the filter might have been rewritten
-                                filter = query.getFilter();
-
-                                // the join extracting visitor cannot handle negated filters,
-                                // the simplifier handles most common case removing the negation,
-                                // e.g., not(a < 10) -> a >= 10
-                                filter = SimplifyingFilterVisitor.simplify(filter);
-
-                                // join, need to separate the joining filter from other filters
-                                JoinExtractingVisitor extractor =
-                                        new JoinExtractingVisitor(metas, query.getAliases());
-                                extractor.setQueriedTypes(query.getTypeNames());
-                                filter.accept(extractor, null);
-
-                                primaryAlias = extractor.getPrimaryAlias();
-                                primaryMeta = extractor.getPrimaryFeatureType();
-                                metas = extractor.getFeatureTypes();
-                                primaryTypeName =
-                                        new QName(
-                                                primaryMeta.getNamespace().getURI(),
-                                                primaryMeta.getName());
-                                joins = extractor.getJoins();
-                                if (joins.size() != metas.size() - 1) {
-                                    throw new WFSException(
-                                            request,
-                                            String.format(
-                                                    "Query specified %d types but %d "
-                                                            + "join filters were found",
-                                                    metas.size(), extractor.getJoins().size()));
-                                }
-
-                                // validate the filter for each join, as well as the join filter
-                                for (int j = 1; j < metas.size(); j++) {
-                                    Join join = joins.get(j - 1);
-                                    validateJoin(request, query, filter, join, metas.get(j));
-                                }
-
-                                filter = extractor.getPrimaryFilter();
-                                if (filter != null) {
-                                    validateFilter(filter, query, primaryMeta, request);
-                                }
-                            } else {
-                                validateFilter(filter, query, meta, request);
-                            }
-                        } else {
-                            BBOXNamespaceSettingVisitor filterVisitor =
-                                    new BBOXNamespaceSettingVisitor(ns);
-                            filter.accept(filterVisitor, null);
-                        }
-                    }
-
-                    List<List<PropertyName>> propNames = new ArrayList<>();
-                    List<List<PropertyName>> allPropNames = new ArrayList<>();
-                    collectPropertyNames(
-                            request, metas, meta, reqPropertyNames, ns, propNames, allPropNames);
-
-                    // validate sortby if present
-                    List<SortBy> sortBy = query.getSortBy();
-                    if (sortBy != null
-                            && !sortBy.isEmpty()
-                            && meta.getFeatureType() instanceof SimpleFeatureType) {
-                        validateSortBy(sortBy, meta, request);
-                    }
-
-                    // load primary feature source
-                    Hints hints = null;
-                    if (joins != null) {
-                        hints = new Hints(ResourcePool.JOINS, joins);
-                    }
-
-                    // for remote reprojection in case of WFS-NG datastore ONLY
-                    if (meta.getStore()
-                                            .getConnectionParameters()
-                                            .get(WFSDataStoreFactory.USEDEFAULTSRS.key)
-                                    != null
-                            && meta.getMetadata().get(FeatureTypeInfo.OTHER_SRS) != null) {
-                        // if wfs-ng datastore is NOT set to use default srs
-                        // then find request SRS in OTHER_SRS list
-                        if (!Boolean.valueOf(
-                                        meta.getStore()
-                                                .getConnectionParameters()
-                                                .get(WFSDataStoreFactory.USEDEFAULTSRS.key)
-                                                .toString())
-                                && query.getSrsName() != null) {
-                            hints = setWFSCascadingReprojection(query, meta, hints);
-                        }
-                    }
-
-                    FeatureSource<? extends FeatureType, ? extends Feature> source =
-                            primaryMeta.getFeatureSource(null, hints);
-
-                    // handle local maximum
-                    int queryMaxFeatures = maxFeatures - count;
-                    int metaMaxFeatures = maxFeatures(metas);
-                    if (metaMaxFeatures > 0 && metaMaxFeatures < queryMaxFeatures) {
-                        queryMaxFeatures = metaMaxFeatures;
-                    }
                     Map<String, String> viewParam = viewParams != null ? viewParams.get(i) : null;
-                    org.geotools.api.data.Query gtQuery =
-                            toDataQuery(
-                                    query,
-                                    filter,
-                                    offset,
-                                    queryMaxFeatures,
-                                    source,
-                                    request,
-                                    allPropNames.get(0),
-                                    viewParam,
-                                    joins,
-                                    primaryTypeName,
-                                    primaryAlias);
-
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.fine("Query is " + query + "\n To gt2: " + gtQuery);
-                    }
-
-                    // allow extensions to alter the query being run
-                    GetFeatureContext context =
-                            new GetFeatureContext(request, meta, source, gtQuery);
-                    List<GetFeatureCallback> callbacks =
-                            GeoServerExtensions.extensions(GetFeatureCallback.class);
-                    if (!callbacks.isEmpty()) {
-                        for (GetFeatureCallback callback : callbacks) {
-                            callback.beforeQuerying(context);
-                        }
-                        if (gtQuery != context.getQuery() && LOGGER.isLoggable(Level.FINE)) {
-                            LOGGER.fine("Query after GetFeatureCallback changes: " + source);
-                        }
-                        gtQuery = context.getQuery();
-                    }
+                    QueryPlan plan =
+                            plans != null
+                                    ? getPlan(plans.get(i))
+                                    : planQuery(request, query, viewParam);
+                    query = plan.query;
+                    FeatureTypeInfo meta = plan.meta;
+                    FeatureTypeInfo primaryMeta = plan.primaryMeta;
+                    QName primaryTypeName = plan.primaryTypeName;
+                    String primaryAlias = plan.primaryAlias;
+                    Filter filter = plan.filter;
+                    List<Join> joins = plan.joins;
+                    List<List<PropertyName>> propNames = plan.propNames;
+                    List<List<PropertyName>> allPropNames = plan.allPropNames;
+                    FeatureSource<? extends FeatureType, ? extends Feature> source = plan.source;
 
+                    // handle local maximum
+                    int queryMaxFeatures = getQueryMaxFeatures(maxFeatures - count, plan.metas);
                     FeatureCollection<? extends FeatureType, ? extends Feature> features =
-                            getFeatures(request, source, gtQuery);
+                            plan.getFeatures(offset, queryMaxFeatures);
+                    if (features == null) {
+                        features = runQuery(request, plan, offset, queryMaxFeatures);
+                    }
 
                     // For complex features, we need the targetCrs and version in scenario where we
                     // have
@@ -537,7 +404,7 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
 
                     int size = 0;
                     if (calculateSize) {
-                        size = features.size();
+                        size = plan.getSize(features, offset, queryMaxFeatures);
                     }
 
                     // update the count
@@ -568,7 +435,13 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                                             joins,
                                             primaryTypeName,
                                             primaryAlias);
-                            totalCountExecutors.add(new CountExecutor(source, qTotal));
+                            totalCountExecutors.add(
+                                    new CountExecutor(
+                                            source,
+                                            qTotal,
+                                            countCache,
+                                            meta,
+                                            !request.isResultTypeHits()));
                         }
                     }
 
@@ -643,6 +516,11 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
         } catch (IOException | SchemaException e) {
             throw new WFSException(
                     request, "Error occurred getting features", e, request.getHandle());
+        } finally {
+            // the queries past the max features are not needed
+            if (plans != null) {
+                plans.forEach(p -> p.cancel(false));
+            }
         }
 
         return buildResults(
@@ -656,6 +534,263 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                 getFeatureById);
     }
 
+    /**
+     * Plans the queries in parallel. When {@code countAhead} is true the queries are also run, and
+     * their features counted, with the limit they would get if no other query returned features:
+     * the actual limits can only be lower, and the counts are adjusted accordingly.
+     */
+    private List<Future<QueryPlan>> planQueries(
+            GetFeatureRequest request,
+            List<Query> queries,
+            List<Map<String, String>> viewParams,
+            int maxFeatures,
+            int offset,
+            boolean countAhead) {
+        ParallelQueryExecutor executor = ParallelQueryExecutor.get(wfs.getParallelQueries());
+        List<Future<QueryPlan>> plans = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            Query query = queries.get(i);
+            Map<String, String> viewParam = viewParams != null ? viewParams.get(i) : null;
+            plans.add(
+                    executor.submit(
+                            () -> {
+                                QueryPlan plan = planQuery(request, query, viewParam);
+                                if (countAhead) {
+                                    int queryMaxFeatures =
+                                            getQueryMaxFeatures(maxFeatures, plan.metas);
+                                    plan.setFeatures(
+                                            runQuery(request, plan, offset, queryMaxFeatures),
+                                            offset,
+                                            queryMaxFeatures);
+                                }
+                                return plan;
+                            }));
+        }
+        return plans;
+    }
+
+    /** Waits for a query plan, unwrapping the exceptions thrown while planning */
+    private QueryPlan getPlan(Future<QueryPlan> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while planning the queries", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Validates the query and resolves the feature types, filters and property names it refers to,
+     * opening the primary feature source
+     */
+    private QueryPlan planQuery(
+            GetFeatureRequest request, Query query, Map<String, String> viewParam)
+            throws IOException {
+        // alias sanity check
+        validateQueryAliases(request, query);
+
+        List<FeatureTypeInfo> metas = new ArrayList<>();
+        for (QName typeName : query.getTypeNames()) {
+            metas.add(featureTypeInfo(typeName, request));
+        }
+
+        // first is the primary feature type
+        FeatureTypeInfo meta = metas.get(0);
+
+        // parse the requested property names and distribute among requested types
+        List<List<String>> reqPropertyNames = parsePropertyNames(query, metas);
+
+        NamespaceSupport ns = getNamespaceSupport();
+
+        // set up joins (if specified)
+        List<Join> joins = null;
+        String primaryAlias = null;
+        QName primaryTypeName = query.getTypeNames().get(0);
+        FeatureTypeInfo primaryMeta = metas.get(0);
+
+        // make sure filters are sane
+        //
+        // Validation of filters on non-simple feature types is not yet supported.
+        // FIXME: Support validation of filters on non-simple feature types:
+        // need to consider xpath properties and how to configure namespace prefixes in
+        // GeoTools app-schema FeaturePropertyAccessorFactory.
+        Filter filter = query.getFilter();
+
+        if (filter == null && metas.size() > 1) {
+            throw new WFSException(request, "Join query must specify a filter");
+        }
+
+        if (filter != null) {
+            if (meta.getFeatureType() instanceof SimpleFeatureType) {
+                if (metas.size() > 1) {
+                    // sanitize aliases, they must not conflict with feature type names
+                    // nor with their attributes
+                    query = AliasedQuery.fixAliases(metas, query);
+                    // the filter might have been rewritten
+                    filter = query.getFilter();
+
+                    // the join extracting visitor cannot handle negated filters,
+                    // the simplifier handles most common case removing the negation,
+                    // e.g., not(a < 10) -> a >= 10
+                    filter = SimplifyingFilterVisitor.simplify(filter);
+
+                    // join, need to separate the joining filter from other filters
+                    JoinExtractingVisitor extractor =
+                            new JoinExtractingVisitor(metas, query.getAliases());
+                    extractor.setQueriedTypes(query.getTypeNames());
+                    filter.accept(extractor, null);
+
+                    primaryAlias = extractor.getPrimaryAlias();
+                    primaryMeta = extractor.getPrimaryFeatureType();
+                    metas = extractor.getFeatureTypes();
+                    primaryTypeName =
+                            new QName(primaryMeta.getNamespace().getURI(), primaryMeta.getName());
+                    joins = extractor.getJoins();
+                    if (joins.size() != metas.size() - 1) {
+                        throw new WFSException(
+                                request,
+                                String.format(
+                                        "Query specified %d types but %d "
+                                                + "join filters were found",
+                                        metas.size(), extractor.getJoins().size()));
+                    }
+
+                    // validate the filter for each join, as well as the join filter
+                    for (int j = 1; j < metas.size(); j++) {
+                        Join join = joins.get(j - 1);
+                        validateJoin(request, query, filter, join, metas.get(j));
+                    }
+
+                    filter = extractor.getPrimaryFilter();
+                    if (filter != null) {
+                        validateFilter(filter, query, primaryMeta, request);
+                    }
+                } else {
+                    validateFilter(filter, query, meta, request);
+                }
+            } else {
+                BBOXNamespaceSettingVisitor filterVisitor = new BBOXNamespaceSettingVisitor(ns);
+                filter.accept(filterVisitor, null);
+            }
+        }
+
+        List<List<PropertyName>> propNames = new ArrayList<>();
+        List<List<PropertyName>> allPropNames = new ArrayList<>();
+        collectPropertyNames(request, metas, meta, reqPropertyNames, ns, propNames, allPropNames);
+
+        // validate sortby if present
+        List<SortBy> sortBy = query.getSortBy();
+        if (sortBy != null
+                && !sortBy.isEmpty()
+                && meta.getFeatureType() instanceof SimpleFeatureType) {
+            validateSortBy(sortBy, meta, request);
+        }
+
+        // load primary feature source
+        Hints hints = null;
+        if (joins != null) {
+            hints = new Hints(ResourcePool.JOINS, joins);
+        }
+
+        // for remote reprojection in case of WFS-NG datastore ONLY
+        if (meta.getStore()
+                                .getConnectionParameters()
+                                .get(WFSDataStoreFactory.USEDEFAULTSRS.key)
+                        != null
+                && meta.getMetadata().get(FeatureTypeInfo.OTHER_SRS) != null) {
+            // if wfs-ng datastore is NOT set to use default srs
+            // then find request SRS in OTHER_SRS list
+            if (!Boolean.valueOf(
+                            meta.getStore()
+                                    .getConnectionParameters()
+                                    .get(WFSDataStoreFactory.USEDEFAULTSRS.key)
+                                    .toString())
+                    && query.getSrsName() != null) {
+                hints = setWFSCascadingReprojection(query, meta, hints);
+            }
+        }
+
+        FeatureSource<? extends FeatureType, ? extends Feature> source =
+                primaryMeta.getFeatureSource(null, hints);
+
+        QueryPlan plan = new QueryPlan();
+        plan.query = query;
+        plan.metas = metas;
+        plan.meta = meta;
+        plan.primaryMeta = primaryMeta;
+        plan.primaryTypeName = primaryTypeName;
+        plan.primaryAlias = primaryAlias;
+        plan.filter = filter;
+        plan.joins = joins;
+        plan.propNames = propNames;
+        plan.allPropNames = allPropNames;
+        plan.viewParam = viewParam;
+        plan.source = source;
+        return plan;
+    }
+
+    /** Returns the features of a planned query, for the given offset and limit */
+    private FeatureCollection<? extends FeatureType, ? extends Feature> runQuery(
+            GetFeatureRequest request, QueryPlan plan, int offset, int queryMaxFeatures)
+            throws IOException {
+        org.geotools.api.data.Query gtQuery =
+                toDataQuery(
+                        plan.query,
+                        plan.filter,
+                        offset,
+                        queryMaxFeatures,
+                        plan.source,
+                        request,
+                        plan.allPropNames.get(0),
+                        plan.viewParam,
+                        plan.joins,
+                        plan.primaryTypeName,
+                        plan.primaryAlias);
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Query is " + plan.query + "\n To gt2: " + gtQuery);
+        }
+
+        // allow extensions to alter the query being run
+        GetFeatureContext context = new GetFeatureContext(request, plan.meta, plan.source, gtQuery);
+        List<GetFeatureCallback> callbacks =
+                GeoServerExtensions.extensions(GetFeatureCallback.class);
+        if (!callbacks.isEmpty()) {
+            for (GetFeatureCallback callback : callbacks) {
+                callback.beforeQuerying(context);
+            }
+            if (gtQuery != context.getQuery() && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Query after GetFeatureCallback changes: " + plan.source);
+            }
+            gtQuery = context.getQuery();
+        }
+
+        return getFeatures(request, plan.source, gtQuery);
+    }
+
+    /**
+     * Returns the limit of a query, given the number of features the request can still return and
+     * the limits of the feature types involved
+     */
+    private int getQueryMaxFeatures(int maxFeatures, List<FeatureTypeInfo> metas) {
+        int queryMaxFeatures = maxFeatures;
+        int metaMaxFeatures = maxFeatures(metas);
+        if (metaMaxFeatures > 0 && metaMaxFeatures < queryMaxFeatures) {
+            queryMaxFeatures = metaMaxFeatures;
+        }
+        return queryMaxFeatures;
+    }
+
     private void validateJoin(
             GetFeatureRequest request, Query query, Filter filter, Join join, FeatureTypeInfo meta)
             throws IOException {
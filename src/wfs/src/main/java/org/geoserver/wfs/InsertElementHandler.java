@@ -9,14 +9,17 @@
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.xml.namespace.QName;
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.config.GeoServer;
 import org.geoserver.feature.ReprojectingFeatureCollection;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wfs.request.Insert;
 import org.geoserver.wfs.request.TransactionElement;
@@ -52,6 +55,12 @@ public class InsertElementHandler extends AbstractTransactionElementHandler {
     /** logger */
     static Logger LOGGER = org.geotools.util.logging.Logging.getLogger("org.geoserver.wfs");
 
+    /** Property setting the number of features written in the store in one go */
+    public static final String BATCH_SIZE_KEY = "GEOSERVER_WFS_INSERT_BATCH_SIZE";
+
+    /** Batching is disabled by default, all the features of a type are written in one go */
+    static final int DEFAULT_BATCH_SIZE = 0;
+
     private FilterFactory filterFactory;
 
     public InsertElementHandler(GeoServer gs, FilterFactory filterFactory) {
@@ -85,19 +94,14 @@ public void execute(
 
         try {
             // group features by their schema
-            HashMap /* <SimpleFeatureType,FeatureCollection> */ schema2features = new HashMap();
+            Map<SimpleFeatureType, List<SimpleFeature>> schema2features = new LinkedHashMap<>();
 
             List featureList = insert.getFeatures();
             for (Object item : featureList) {
                 SimpleFeature feature = (SimpleFeature) item;
                 SimpleFeatureType schema = feature.getFeatureType();
-                ListFeatureCollection collection =
-                        (ListFeatureCollection) schema2features.get(schema);
-
-                if (collection == null) {
-                    collection = new ListFeatureCollection(schema);
-                    schema2features.put(schema, collection);
-                }
+                List<SimpleFeature> features =
+                        schema2features.computeIfAbsent(schema, k -> new ArrayList<>());
 
                 // do a check for idegen = useExisting, if set try to tell the datastore to use
                 // the provided fid
@@ -116,7 +120,7 @@ public void execute(
                     }
                 }
 
-                collection.add(feature);
+                features.add(feature);
             }
 
             // JD: change from set fo list because if inserting
@@ -127,9 +131,10 @@ public void execute(
             // as they were supplied
             Map<String, List<FeatureId>> schema2fids = new HashMap<>();
 
-            for (Object value : schema2features.values()) {
-                SimpleFeatureCollection collection = (SimpleFeatureCollection) value;
-                SimpleFeatureType schema = collection.getSchema();
+            for (Map.Entry<SimpleFeatureType, List<SimpleFeature>> entry :
+                    schema2features.entrySet()) {
+                SimpleFeatureType schema = entry.getKey();
+                List<SimpleFeature> features = entry.getValue();
 
                 final QName elementName =
                         new QName(schema.getName().getNamespaceURI(), schema.getTypeName());
@@ -141,81 +146,75 @@ public void execute(
                             request, "Could not locate FeatureStore for '" + elementName + "'");
                 }
 
-                if (collection != null) {
-                    // if we really need to, make sure we are inserting coordinates that do
-                    // match the CRS area of validity
-                    if (getInfo().isCiteCompliant()) {
-                        checkFeatureCoordinatesRange(collection);
-                    }
-
-                    // reprojection
-                    final GeometryDescriptor defaultGeometry =
-                            store.getSchema().getGeometryDescriptor();
-                    if (defaultGeometry != null) {
-                        CoordinateReferenceSystem target =
-                                defaultGeometry.getCoordinateReferenceSystem();
-                        if (target
-                                != null /* && !CRS.equalsIgnoreMetadata(collection.getSchema()
-                                        .getCoordinateReferenceSystem(), target) */) {
-                            collection = new ReprojectingFeatureCollection(collection, target);
-                        }
-                    }
+                // Need to use the namespace here for the
+                // lookup, due to our weird
+                // prefixed internal typenames. see
+                // https://osgeo-org.atlassian.net/browse/GEOS-143
+
+                // Once we get our datastores making features
+                // with the correct namespaces
+                // we can do something like this:
+                // FeatureTypeInfo typeInfo =
+                // catalog.getFeatureTypeInfo(schema.getTypeName(),
+                // schema.getNamespace());
+                // until then (when geos-144 is resolved) we're
+                // stuck with:
+                // QName qName = (QName) typeNames.get( i );
+                // FeatureTypeInfo typeInfo =
+                // catalog.featureType( qName.getPrefix(),
+                // qName.getLocalPart() );
+
+                // this is possible with the insert hack above.
+                LOGGER.finer("Use featureValidation to check contents of insert");
+
+                // featureValidation(
+                // typeInfo.getDataStore().getId(), schema,
+                // collection );
+                List<FeatureId> fids = schema2fids.get(schema.getTypeName());
+
+                if (fids == null) {
+                    fids = new LinkedList<>();
+                    schema2fids.put(schema.getTypeName(), fids);
+                }
 
-                    // Need to use the namespace here for the
-                    // lookup, due to our weird
-                    // prefixed internal typenames. see
-                    // https://osgeo-org.atlassian.net/browse/GEOS-143
-
-                    // Once we get our datastores making features
-                    // with the correct namespaces
-                    // we can do something like this:
-                    // FeatureTypeInfo typeInfo =
-                    // catalog.getFeatureTypeInfo(schema.getTypeName(),
-                    // schema.getNamespace());
-                    // until then (when geos-144 is resolved) we're
-                    // stuck with:
-                    // QName qName = (QName) typeNames.get( i );
-                    // FeatureTypeInfo typeInfo =
-                    // catalog.featureType( qName.getPrefix(),
-                    // qName.getLocalPart() );
-
-                    // this is possible with the insert hack above.
-                    LOGGER.finer("Use featureValidation to check contents of insert");
-
-                    // featureValidation(
-                    // typeInfo.getDataStore().getId(), schema,
-                    // collection );
-                    List<FeatureId> fids = schema2fids.get(schema.getTypeName());
-
-                    if (fids == null) {
-                        fids = new LinkedList<>();
-                        schema2fids.put(schema.getTypeName(), fids);
-                    }
+                SimpleFeatureCollection collection = new ListFeatureCollection(schema, features);
 
-                    // fire pre insert event
-                    TransactionEvent event =
-                            new TransactionEvent(
-                                    TransactionEventType.PRE_INSERT,
-                                    request,
-                                    elementName,
-                                    collection);
-                    event.setSource(Insert.WFS11.unadapt(insert));
-
-                    listener.dataStoreChange(event);
-                    fids.addAll(store.addFeatures(collection));
-
-                    // fire post insert event
-                    SimpleFeatureCollection features =
-                            store.getFeatures(filterFactory.id(new HashSet<>(fids)));
-                    event =
-                            new TransactionEvent(
-                                    TransactionEventType.POST_INSERT,
-                                    request,
-                                    elementName,
-                                    features,
-                                    Insert.WFS11.unadapt(insert));
-                    listener.dataStoreChange(event);
+                // if we really need to, make sure we are inserting coordinates that do
+                // match the CRS area of validity
+                if (getInfo().isCiteCompliant()) {
+                    checkFeatureCoordinatesRange(collection);
                 }
+
+                // reprojection
+                collection = reproject(collection, store);
+
+                // fire pre insert event
+                TransactionEvent event =
+                        new TransactionEvent(
+                                TransactionEventType.PRE_INSERT, request, elementName, collection);
+                event.setSource(Insert.WFS11.unadapt(insert));
+
+                listener.dataStoreChange(event);
+                long start = System.currentTimeMillis();
+                List<Long> batchTimes = new ArrayList<>();
+                List<FeatureId> added =
+                        addFeatures(store, collection, features, elementName, batchTimes);
+                long elapsed = System.currentTimeMillis() - start;
+                fids.addAll(added);
+
+                // fire post insert event
+                SimpleFeatureCollection insertedFeatures =
+                        store.getFeatures(filterFactory.id(new HashSet<>(added)));
+                event =
+                        new TransactionEvent(
+                                TransactionEventType.POST_INSERT,
+                                request,
+                                elementName,
+                                insertedFeatures,
+                                Insert.WFS11.unadapt(insert));
+                event.setElapsedTime(elapsed);
+                event.setBatchTimes(batchTimes);
+                listener.dataStoreChange(event);
             }
 
             // report back fids, we need to keep the same order the
@@ -243,6 +242,89 @@ public void execute(
         response.setTotalInserted(BigInteger.valueOf(inserted));
     }
 
+    /** Reprojects the collection to the native CRS of the store, if it has one */
+    private SimpleFeatureCollection reproject(
+            SimpleFeatureCollection collection, SimpleFeatureStore store) throws Exception {
+        final GeometryDescriptor defaultGeometry = store.getSchema().getGeometryDescriptor();
+        if (defaultGeometry != null) {
+            CoordinateReferenceSystem target = defaultGeometry.getCoordinateReferenceSystem();
+            if (target
+                    != null /* && !CRS.equalsIgnoreMetadata(collection.getSchema()
+                            .getCoordinateReferenceSystem(), target) */) {
+                return new ReprojectingFeatureCollection(collection, target);
+            }
+        }
+        return collection;
+    }
+
+    /**
+     * Writes the features in the store. When batching is enabled, and there are more features than
+     * the {@link #getBatchSize() batch size}, they are handed over to the store one batch at a
+     * time, otherwise the collection is written as is. Returns the identifiers of the inserted
+     * features, in insertion order, and adds the time taken by each write, in milliseconds, to the
+     * batch times.
+     */
+    List<FeatureId> addFeatures(
+            SimpleFeatureStore store,
+            SimpleFeatureCollection collection,
+            List<SimpleFeature> features,
+            QName elementName,
+            List<Long> batchTimes)
+            throws Exception {
+        int batchSize = getBatchSize();
+        if (batchSize <= 0 || features.size() <= batchSize) {
+            long start = System.currentTimeMillis();
+            List<FeatureId> fids = store.addFeatures(collection);
+            batchTimes.add(System.currentTimeMillis() - start);
+            return fids;
+        }
+
+        List<FeatureId> fids = new ArrayList<>(features.size());
+        for (int start = 0; start < features.size(); start += batchSize) {
+            List<SimpleFeature> batch =
+                    features.subList(start, Math.min(start + batchSize, features.size()));
+            long batchStart = System.currentTimeMillis();
+            fids.addAll(
+                    store.addFeatures(
+                            reproject(
+                                    new ListFeatureCollection(collection.getSchema(), batch),
+                                    store)));
+            long batchTime = System.currentTimeMillis() - batchStart;
+            batchTimes.add(batchTime);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(
+                        "Inserted "
+                                + batch.size()
+                                + " features in "
+                                + elementName
+                                + " in "
+                                + batchTime
+                                + "ms");
+            }
+        }
+        return fids;
+    }
+
+    /**
+     * Returns the number of features written in the store in one go, as configured by the {@link
+     * #BATCH_SIZE_KEY} property, zero or negative if the features are not to be split in batches
+     */
+    int getBatchSize() {
+        String batchSize = GeoServerExtensions.getProperty(BATCH_SIZE_KEY);
+        if (batchSize != null) {
+            try {
+                return Integer.parseInt(batchSize.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning(
+                        "Invalid value for "
+                                + BATCH_SIZE_KEY
+                                + ", expected a number of features but got "
+                                + batchSize);
+            }
+        }
+        return DEFAULT_BATCH_SIZE;
+    }
+
     /** Checks that all features coordinates are within the expected coordinate range */
     void checkFeatureCoordinatesRange(SimpleFeatureCollection collection)
             throws PointOutsideEnvelopeException {
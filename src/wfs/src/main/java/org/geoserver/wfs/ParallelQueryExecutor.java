@@ -0,0 +1,63 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+
+/**
+ * A bounded thread pool running the queries of a GetFeature request in parallel. Like the WMS
+ * rendering pool, it performs thread locals transfer using Spring registered {@link
+ * org.geoserver.threadlocals.ThreadLocalTransfer} when starting a new task. The pool is shared
+ * among all requests, tasks exceeding the pool size are queued, and idle threads are released after
+ * a minute.
+ */
+class ParallelQueryExecutor extends ThreadPoolExecutor {
+
+    private static ParallelQueryExecutor INSTANCE;
+
+    /**
+     * Returns the shared executor, resized to the given number of threads if the configuration
+     * changed since the last call
+     */
+    static synchronized ParallelQueryExecutor get(int threads) {
+        if (INSTANCE == null) {
+            INSTANCE = new ParallelQueryExecutor(threads);
+        } else if (INSTANCE.getMaximumPoolSize() != threads) {
+            // core size can never be greater than the max size, order the calls accordingly
+            if (threads > INSTANCE.getMaximumPoolSize()) {
+                INSTANCE.setMaximumPoolSize(threads);
+                INSTANCE.setCorePoolSize(threads);
+            } else {
+                INSTANCE.setCorePoolSize(threads);
+                INSTANCE.setMaximumPoolSize(threads);
+            }
+        }
+        return INSTANCE;
+    }
+
+    ParallelQueryExecutor(int threads) {
+        super(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        ThreadLocalsTransfer threadLocalTransfer = new ThreadLocalsTransfer();
+        return super.submit(
+                () -> {
+                    threadLocalTransfer.apply();
+                    try {
+                        return task.call();
+                    } finally {
+                        threadLocalTransfer.cleanup();
+                    }
+                });
+    }
+}
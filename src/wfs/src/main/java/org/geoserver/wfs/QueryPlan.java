@@ -0,0 +1,101 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import java.util.List;
+import java.util.Map;
+import javax.xml.namespace.QName;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.wfs.request.Query;
+import org.geotools.api.data.FeatureSource;
+import org.geotools.api.data.Join;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.feature.type.FeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.feature.FeatureCollection;
+
+/**
+ * The validated and resolved form of a GetFeature query, with its feature source open, ready to be
+ * turned into a data query once the offset and limits, which depend on the queries preceding it,
+ * are known. Optionally holds a feature collection and its size, computed ahead of time for a given
+ * offset and limit.
+ */
+class QueryPlan {
+
+    Query query;
+
+    List<FeatureTypeInfo> metas;
+
+    /** The first requested feature type */
+    FeatureTypeInfo meta;
+
+    /** The primary feature type, differs from {@link #meta} in join queries */
+    FeatureTypeInfo primaryMeta;
+
+    QName primaryTypeName;
+
+    String primaryAlias;
+
+    Filter filter;
+
+    List<Join> joins;
+
+    List<List<PropertyName>> propNames;
+
+    List<List<PropertyName>> allPropNames;
+
+    Map<String, String> viewParam;
+
+    FeatureSource<? extends FeatureType, ? extends Feature> source;
+
+    FeatureCollection<? extends FeatureType, ? extends Feature> features;
+
+    int featuresOffset;
+
+    int featuresMaxFeatures;
+
+    Integer featuresSize;
+
+    /** Stores features, and their size, computed ahead of time */
+    void setFeatures(
+            FeatureCollection<? extends FeatureType, ? extends Feature> features,
+            int offset,
+            int maxFeatures) {
+        this.features = features;
+        this.featuresOffset = offset;
+        this.featuresMaxFeatures = maxFeatures;
+        this.featuresSize = features.size();
+    }
+
+    /**
+     * Returns the features computed ahead of time, if they match the given offset and limit, null
+     * otherwise
+     */
+    FeatureCollection<? extends FeatureType, ? extends Feature> getFeatures(
+            int offset, int maxFeatures) {
+        if (features != null && featuresOffset == offset && featuresMaxFeatures == maxFeatures) {
+            return features;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the size of the features for the given offset and limit. When the size has been
+     * computed ahead of time for the same offset and a higher or equal limit, the size is derived
+     * from it, otherwise the features are counted.
+     */
+    int getSize(
+            FeatureCollection<? extends FeatureType, ? extends Feature> features,
+            int offset,
+            int maxFeatures) {
+        if (featuresSize != null
+                && featuresOffset == offset
+                && featuresMaxFeatures >= maxFeatures) {
+            return Math.min(featuresSize, maxFeatures);
+        }
+        return features.size();
+    }
+}
@@ -5,6 +5,8 @@
  */
 package org.geoserver.wfs;
 
+import java.util.Collections;
+import java.util.List;
 import javax.xml.namespace.QName;
 import net.opengis.wfs.DeleteElementType;
 import net.opengis.wfs.InsertElementType;
@@ -31,6 +33,8 @@ public class TransactionEvent {
     private QName layerName;
     private Object source;
     private final TransactionRequest request;
+    private long elapsedTime = -1;
+    private List<Long> batchTimes = Collections.emptyList();
 
     public TransactionEvent(
             TransactionEventType type,
@@ -92,6 +96,32 @@ public Object getSource() {
         return source;
     }
 
+    /**
+     * Time taken to write the affected features, in milliseconds. Available only on {@link
+     * TransactionEventType#POST_INSERT} events, -1 otherwise.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public void setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Time taken to write each batch of the affected features, in milliseconds, in write order. The
+     * features are split in batches only when {@link InsertElementHandler#BATCH_SIZE_KEY} is set,
+     * otherwise there is a single entry. Available only on {@link
+     * TransactionEventType#POST_INSERT} events, empty otherwise.
+     */
+    public List<Long> getBatchTimes() {
+        return batchTimes;
+    }
+
+    public void setBatchTimes(List<Long> batchTimes) {
+        this.batchTimes = batchTimes;
+    }
+
     public TransactionType getRequest() {
         return TransactionRequest.WFS11.unadapt(request);
     }
@@ -262,6 +262,18 @@ public static ServiceLevel get(int code) {
     /** Set the option to ignore the maximum feature limit for WFS hit counts */
     void setHitsIgnoreMaxFeatures(boolean hitsIgnoreMaxFeatures);
 
+    /**
+     * Get the number of threads used to plan and open the queries of a GetFeature request with
+     * multiple queries (e.g., multiple type names) in parallel. The threads are shared among all
+     * requests, a value of zero or one disables parallel execution.
+     *
+     * @return the number of threads used for parallel query execution
+     */
+    int getParallelQueries();
+
+    /** Set the number of threads used to execute multiple GetFeature queries in parallel */
+    void setParallelQueries(int parallelQueries);
+
     /**
      * Get the maximum number of features to be displayed in a layer preview. Can be defined by the
      * user. By default, 50.
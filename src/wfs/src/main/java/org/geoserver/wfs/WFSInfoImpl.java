@@ -23,6 +23,7 @@ public class WFSInfoImpl extends ServiceInfoImpl implements WFSInfo {
     protected boolean canonicalSchemaLocation = false;
     protected boolean encodeFeatureMember = false;
     protected boolean hitsIgnoreMaxFeatures = false;
+    protected int parallelQueries = 0;
     protected boolean includeWFSRequestDumpFile = true;
     protected List<String> srs = new ArrayList<>();
     protected Boolean allowGlobalQueries = true;
@@ -135,6 +136,16 @@ public void setHitsIgnoreMaxFeatures(boolean hitsIgnoreMaxFeatures) {
         this.hitsIgnoreMaxFeatures = hitsIgnoreMaxFeatures;
     }
 
+    @Override
+    public int getParallelQueries() {
+        return parallelQueries;
+    }
+
+    @Override
+    public void setParallelQueries(int parallelQueries) {
+        this.parallelQueries = parallelQueries;
+    }
+
     @Override
     public Integer getMaxNumberOfFeaturesForPreview() {
         Integer i = getMetadata().get("maxNumberOfFeaturesForPreview", Integer.class);
@@ -205,6 +216,7 @@ public int hashCode() {
         result = prime * result + (featureBounding ? 1231 : 1237);
         result = prime * result + ((gml == null) ? 0 : gml.hashCode());
         result = prime * result + (hitsIgnoreMaxFeatures ? 1231 : 1237);
+        result = prime * result + parallelQueries;
         result = prime * result + maxFeatures;
         result = prime * result + (includeWFSRequestDumpFile ? 1231 : 1237);
         result = prime * result + ((serviceLevel == null) ? 0 : serviceLevel.hashCode());
@@ -240,6 +252,7 @@ public boolean equals(Object obj) {
         } else if (!serviceLevel.equals(other.getServiceLevel())) return false;
         if (encodeFeatureMember != other.isEncodeFeatureMember()) return false;
         if (hitsIgnoreMaxFeatures != other.isHitsIgnoreMaxFeatures()) return false;
+        if (parallelQueries != other.getParallelQueries()) return false;
         if (includeWFSRequestDumpFile != other.getIncludeWFSRequestDumpFile()) return false;
         if (srs == null) {
             if (other.getSRS() != null) return false;
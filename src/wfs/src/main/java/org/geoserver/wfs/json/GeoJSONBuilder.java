@@ -111,7 +111,7 @@ public JSONBuilder writeGeom(Geometry geometry) throws JSONException {
         return this.endObject();
     }
 
-    private JSONBuilder writeGeomCollection(GeometryCollection collection) {
+    protected JSONBuilder writeGeomCollection(GeometryCollection collection) {
         this.key("geometries");
         this.array();
 
@@ -409,10 +409,20 @@ public void setAxisOrder(CRS.AxisOrder axisOrder) {
         this.axisOrder = axisOrder;
     }
 
+    /** Returns the axis order geometries are assumed to be provided in */
+    public CRS.AxisOrder getAxisOrder() {
+        return axisOrder;
+    }
+
     public void setNumberOfDecimals(int numberOfDecimals) {
         this.numDecimals = numberOfDecimals;
     }
 
+    /** Returns the number of decimals ordinates are rounded to */
+    public int getNumberOfDecimals() {
+        return numDecimals;
+    }
+
     /**
      * Sets if coordinates measures (M) should be encoded.
      *
@@ -421,4 +431,9 @@ public void setNumberOfDecimals(int numberOfDecimals) {
     public void setEncodeMeasures(boolean encodeMeasures) {
         this.encodeMeasures = encodeMeasures;
     }
+
+    /** Returns TRUE if coordinates measures (M) are encoded, FALSE otherwise */
+    public boolean isEncodeMeasures() {
+        return encodeMeasures;
+    }
 }
@@ -59,9 +59,18 @@ public class GeoJSONGetFeatureResponse extends WFSGetFeatureOutputFormat
         implements ComplexFeatureAwareFormat {
     private final Logger LOGGER = org.geotools.util.logging.Logging.getLogger(this.getClass());
 
+    /**
+     * Property that enables the {@link StreamingGeoJSONBuilder} for all the formats that do not
+     * configure it explicitly
+     */
+    public static final String STREAMING_ENCODER_KEY = "GEOSERVER_GEOJSON_STREAMING_ENCODER";
+
     // store the response type
     protected final boolean jsonp;
 
+    // use the streaming encoder, null means "follow the system property"
+    private Boolean streamingEncoder;
+
     public GeoJSONGetFeatureResponse(GeoServer gs, String format) {
         super(gs, format);
         jsonp = JSONType.isJsonpMimeType(format);
@@ -180,7 +189,7 @@ protected void write(
     /** Builds, configures and returns {@link GeoJSONBuilder} */
     protected GeoJSONBuilder getGeoJSONBuilder(
             FeatureCollectionResponse featureCollection, Writer outWriter) {
-        final GeoJSONBuilder jsonWriter = new GeoJSONBuilder(outWriter);
+        final GeoJSONBuilder jsonWriter = createGeoJSONBuilder(outWriter);
         int numDecimals = getNumDecimals(featureCollection.getFeature(), gs, gs.getCatalog());
         jsonWriter.setNumberOfDecimals(numDecimals);
         jsonWriter.setEncodeMeasures(
@@ -188,6 +197,37 @@ protected GeoJSONBuilder getGeoJSONBuilder(
         return jsonWriter;
     }
 
+    /**
+     * Creates the {@link GeoJSONBuilder}, either the classic one or the {@link
+     * StreamingGeoJSONBuilder}, depending on {@link #isStreamingEncoder()}
+     */
+    protected GeoJSONBuilder createGeoJSONBuilder(Writer outWriter) {
+        if (isStreamingEncoder()) {
+            return new StreamingGeoJSONBuilder(outWriter);
+        }
+        return new GeoJSONBuilder(outWriter);
+    }
+
+    /**
+     * Returns true if the {@link StreamingGeoJSONBuilder} should be used. Uses the value
+     * configured on this output format, if any, or the {@link #STREAMING_ENCODER_KEY} property
+     * otherwise.
+     */
+    public boolean isStreamingEncoder() {
+        if (streamingEncoder != null) {
+            return streamingEncoder;
+        }
+        return Boolean.parseBoolean(GeoServerExtensions.getProperty(STREAMING_ENCODER_KEY));
+    }
+
+    /**
+     * Enables or disables the {@link StreamingGeoJSONBuilder} for this output format, a null value
+     * falls back on the {@link #STREAMING_ENCODER_KEY} property
+     */
+    public void setStreamingEncoder(Boolean streamingEncoder) {
+        this.streamingEncoder = streamingEncoder;
+    }
+
     /** Is WFS configured to return feature and collection bounds? */
     protected boolean isFeatureBounding() {
         WFSInfo wfs = getInfo();
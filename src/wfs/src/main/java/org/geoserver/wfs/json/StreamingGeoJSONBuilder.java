@@ -0,0 +1,344 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import net.sf.json.JSONException;
+import net.sf.json.JSONString;
+import net.sf.json.util.JSONBuilder;
+import org.geotools.referencing.CRS;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * A {@link GeoJSONBuilder} that writes coordinates straight from the {@link CoordinateSequence}
+ * into a reusable character buffer, instead of going through the {@link JSONBuilder} state
+ * machine and a string conversion for each ordinate.
+ *
+ * <p>The output is the same as the one produced by {@link GeoJSONBuilder}: ordinates are rounded
+ * using {@link RoundingUtil} and formatted like json-lib would, the common case (plain notation,
+ * at most 15 significant digits) is handled with integer arithmetic only and does not allocate.
+ * Everything else about the document (keys, properties, nesting) is still handled by the parent
+ * builder.
+ */
+public class StreamingGeoJSONBuilder extends GeoJSONBuilder {
+
+    /**
+     * Empty JSON value, used to have the parent builder validate the position and write the
+     * separators, right before the actual value gets written directly to the output
+     */
+    private static final JSONString RAW_VALUE = () -> "";
+
+    /** Powers of ten used for the integer based formatting of ordinates */
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L
+    };
+
+    /** Largest scaled value that is guaranteed to round trip as a 15 digits decimal */
+    private static final long MAX_SCALED = 999_999_999_999_999L;
+
+    /** Minimum space to be available in the buffer before writing an ordinate */
+    private static final int ORDINATE_MAX_LENGTH = 32;
+
+    private final Writer writer;
+
+    private final char[] buffer;
+
+    private int count;
+
+    public StreamingGeoJSONBuilder(Writer w) {
+        this(w, 8192);
+    }
+
+    /**
+     * Builds a new streaming builder
+     *
+     * @param w The output writer
+     * @param bufferSize The size of the coordinate buffer, at least 64 chars will be used
+     */
+    public StreamingGeoJSONBuilder(Writer w, int bufferSize) {
+        super(w);
+        this.writer = w;
+        this.buffer = new char[Math.max(bufferSize, ORDINATE_MAX_LENGTH * 2)];
+    }
+
+    @Override
+    public JSONBuilder writeGeom(Geometry geometry) throws JSONException {
+        this.object();
+        this.key("type");
+        this.value(getGeometryName(geometry));
+
+        final int geometryType = getGeometryType(geometry);
+
+        if (geometryType != MULTIGEOMETRY) {
+            this.key("coordinates");
+            startRawValue();
+            switch (geometryType) {
+                case POINT:
+                    writeCoordinate(((Point) geometry).getCoordinateSequence(), 0);
+                    break;
+                case LINESTRING:
+                    writeCoordinates(((LineString) geometry).getCoordinateSequence());
+                    break;
+                case MULTIPOINT:
+                    append('[');
+                    for (int i = 0, n = geometry.getNumGeometries(); i < n; i++) {
+                        if (i > 0) append(',');
+                        Point point = (Point) geometry.getGeometryN(i);
+                        writeCoordinate(point.getCoordinateSequence(), 0);
+                    }
+                    append(']');
+                    break;
+                case POLYGON:
+                    writePolygon((Polygon) geometry);
+                    break;
+                case MULTILINESTRING:
+                    append('[');
+                    for (int i = 0, n = geometry.getNumGeometries(); i < n; i++) {
+                        if (i > 0) append(',');
+                        writeCoordinates(
+                                ((LineString) geometry.getGeometryN(i)).getCoordinateSequence());
+                    }
+                    append(']');
+                    break;
+                case MULTIPOLYGON:
+                    append('[');
+                    for (int i = 0, n = geometry.getNumGeometries(); i < n; i++) {
+                        if (i > 0) append(',');
+                        writePolygon((Polygon) geometry.getGeometryN(i));
+                    }
+                    append(']');
+                    break;
+            }
+            flushBuffer();
+        } else {
+            writeGeomCollection((GeometryCollection) geometry);
+        }
+
+        return this.endObject();
+    }
+
+    @Override
+    protected JSONBuilder writeBoundingBox(Envelope env) {
+        if (!isFinite(env.getMinX())
+                || !isFinite(env.getMinY())
+                || !isFinite(env.getMaxX())
+                || !isFinite(env.getMaxY())) {
+            // let the parent report the issue the usual way
+            return super.writeBoundingBox(env);
+        }
+        this.key("bbox");
+        startRawValue();
+        append('[');
+        if (getAxisOrder() == CRS.AxisOrder.NORTH_EAST) {
+            writeNumber(env.getMinY());
+            append(',');
+            writeNumber(env.getMinX());
+            append(',');
+            writeNumber(env.getMaxY());
+            append(',');
+            writeNumber(env.getMaxX());
+        } else {
+            writeNumber(env.getMinX());
+            append(',');
+            writeNumber(env.getMinY());
+            append(',');
+            writeNumber(env.getMaxX());
+            append(',');
+            writeNumber(env.getMaxY());
+        }
+        append(']');
+        flushBuffer();
+        return this;
+    }
+
+    /**
+     * Has the parent builder account for a value at the current position (writing a comma if
+     * needed, moving from key to value state), the actual value is then written in the buffer
+     */
+    private void startRawValue() {
+        super.value(RAW_VALUE);
+    }
+
+    private void writePolygon(Polygon polygon) {
+        append('[');
+        writeCoordinates(polygon.getExteriorRing().getCoordinateSequence());
+        for (int i = 0, n = polygon.getNumInteriorRing(); i < n; i++) {
+            append(',');
+            writeCoordinates(polygon.getInteriorRingN(i).getCoordinateSequence());
+        }
+        append(']');
+    }
+
+    private void writeCoordinates(CoordinateSequence coordinates) {
+        append('[');
+        for (int i = 0, n = coordinates.size(); i < n; i++) {
+            if (i > 0) append(',');
+            writeCoordinate(coordinates, i);
+        }
+        append(']');
+    }
+
+    /**
+     * Writes the i-th coordinate of the sequence, following the same rules as {@link
+     * GeoJSONBuilder}: axis order is respected, NaN values are skipped, Z is set to zero if a
+     * measure is available but Z is not.
+     */
+    private void writeCoordinate(CoordinateSequence coordinates, int i) {
+        double x = coordinates.getX(i);
+        double y = coordinates.getY(i);
+        double z = coordinates.getZ(i);
+        double m = isEncodeMeasures() ? coordinates.getM(i) : Double.NaN;
+        append('[');
+        boolean first;
+        if (getAxisOrder() == CRS.AxisOrder.NORTH_EAST) {
+            first = writeOrdinate(y, true);
+            first = writeOrdinate(x, first);
+        } else {
+            first = writeOrdinate(x, true);
+            first = writeOrdinate(y, first);
+        }
+        z = Double.isNaN(z) && !Double.isNaN(m) ? 0 : z;
+        first = writeOrdinate(z, first);
+        writeOrdinate(m, first);
+        append(']');
+    }
+
+    /**
+     * Writes an ordinate, skipping NaN and encoding infinite values as strings
+     *
+     * @return true if nothing has been written so far in the current coordinate
+     */
+    private boolean writeOrdinate(double value, boolean first) {
+        if (Double.isNaN(value)) {
+            return first;
+        }
+        if (!first) append(',');
+        if (Double.isInfinite(value)) {
+            append('"');
+            appendString(String.valueOf(value));
+            append('"');
+        } else {
+            writeNumber(value);
+        }
+        return false;
+    }
+
+    /** Writes a finite number, rounded to the configured number of decimals */
+    private void writeNumber(double value) {
+        ensureCapacity(ORDINATE_MAX_LENGTH);
+        double rounded = RoundingUtil.round(value, getNumberOfDecimals());
+        if (!writePlainNumber(rounded)) {
+            appendString(toJSONNumber(rounded));
+        }
+    }
+
+    /**
+     * Fast path for the common case, a number that {@link Double#toString(double)} would write in
+     * plain notation, and that can be represented exactly as a decimal with the configured number
+     * of decimals and no more than 15 significant digits. In this case the decimal representation
+     * is also the shortest one, and can be written with integer arithmetic.
+     *
+     * @return true if the number was written, false if the slow path needs to be used
+     */
+    private boolean writePlainNumber(double value) {
+        int numDecimals = getNumberOfDecimals();
+        if (numDecimals < 0 || numDecimals >= POW10.length) return false;
+        double abs = Math.abs(value);
+        // Double.toString switches to computerized scientific notation outside of this range
+        if (abs < 1e-3 || abs >= 1e7) return false;
+        long scale = POW10[numDecimals];
+        long scaled = Math.round(abs * scale);
+        if (scaled > MAX_SCALED || scaled / (double) scale != abs) return false;
+
+        if (value < 0) buffer[count++] = '-';
+        appendLong(scaled / scale);
+        long fraction = scaled % scale;
+        if (fraction != 0) {
+            // strip the trailing zeros, json-lib does the same
+            int digits = numDecimals;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            buffer[count++] = '.';
+            int end = count + digits;
+            for (int i = end - 1; i >= count; i--) {
+                buffer[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            count = end;
+        }
+        return true;
+    }
+
+    /** Writes a non negative long in the buffer */
+    private void appendLong(long value) {
+        if (value == 0) {
+            buffer[count++] = '0';
+            return;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) digits++;
+        int end = count + digits;
+        for (int i = end - 1; i >= count; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        count = end;
+    }
+
+    /**
+     * Slow path, mimics json-lib number formatting: {@link Double#toString(double)} with trailing
+     * zeros and dot removed, unless in scientific notation
+     */
+    static String toJSONNumber(double value) {
+        String s = Double.toString(value);
+        if (s.indexOf('.') > 0 && s.indexOf('e') < 0 && s.indexOf('E') < 0) {
+            int end = s.length();
+            while (s.charAt(end - 1) == '0') end--;
+            if (s.charAt(end - 1) == '.') end--;
+            s = s.substring(0, end);
+        }
+        return s;
+    }
+
+    private static boolean isFinite(double value) {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    private void append(char c) {
+        if (count == buffer.length) flushBuffer();
+        buffer[count++] = c;
+    }
+
+    private void appendString(String s) {
+        ensureCapacity(s.length());
+        s.getChars(0, s.length(), buffer, count);
+        count += s.length();
+    }
+
+    private void ensureCapacity(int length) {
+        if (count + length > buffer.length) flushBuffer();
+    }
+
+    /** Writes the buffer contents to the output */
+    private void flushBuffer() {
+        if (count > 0) {
+            try {
+                writer.write(buffer, 0, count);
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            count = 0;
+        }
+    }
+}
@@ -31,6 +31,7 @@
 import java.util.Properties;
 import java.util.SimpleTimeZone;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.xml.namespace.QName;
@@ -61,6 +62,7 @@
 import org.geotools.api.data.SimpleFeatureSource;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.data.DataUtilities;
 import org.geotools.data.collection.ListFeatureCollection;
 import org.geotools.data.shapefile.ShapefileDumper;
@@ -89,6 +91,10 @@ public class ShapeZipOutputFormat extends WFSGetFeatureOutputFormat
     public static final String GS_SHAPEFILE_CHARSET = "GS-SHAPEFILE-CHARSET";
     public static final String SHAPE_ZIP_DEFAULT_PRJ_IS_ESRI = "SHAPE-ZIP_DEFAULT_PRJ_IS_ESRI";
 
+    private static final String EMPTY_ZIP_WARNING =
+            "The query result is empty, and the geometric type of the features is unknown:"
+                    + "an empty point shapefile has been created to fill the zip file";
+
     private static final Configuration templateConfig = TemplateUtils.getSafeConfiguration();
 
     private ApplicationContext applicationContext;
@@ -96,6 +102,8 @@ public class ShapeZipOutputFormat extends WFSGetFeatureOutputFormat
     private GeoServerResourceLoader resourceLoader;
     private long maxShpSize = Long.getLong("GS_SHP_MAX_SIZE", Integer.MAX_VALUE);
     private long maxDbfSize = Long.getLong("GS_DBF_MAX_SIZE", Integer.MAX_VALUE);
+    private boolean streaming = Boolean.getBoolean("GS_SHP_STREAMING");
+    private long spillThreshold = Long.getLong("GS_SHP_SPILL_THRESHOLD", 16 * 1024 * 1024);
 
     public ShapeZipOutputFormat(
             GeoServer gs, Catalog catalog, GeoServerResourceLoader resourceLoader) {
@@ -183,6 +191,10 @@ public void write(
             OutputStream output,
             final GetFeatureRequest request)
             throws IOException, ServiceException {
+        if (streaming && writeStreaming(collections, charset, output, request)) {
+            return;
+        }
+
         // We might get multiple feature collections in our response (multiple queries?) so we need
         // to write out multiple shapefile sets, one for each query response.
         final File tempDir = IOUtils.createTempDirectory("shpziptemp");
@@ -265,6 +277,90 @@ protected void shapefileDumped(
         }
     }
 
+    /**
+     * Writes the shapefiles straight into the zip entries, without using a temporary directory.
+     *
+     * @return false if any of the collections cannot be written as a single streamed shapefile, in
+     *     which case nothing has been written to the output
+     */
+    private boolean writeStreaming(
+            List<SimpleFeatureCollection> collections,
+            Charset charset,
+            OutputStream output,
+            GetFeatureRequest request)
+            throws IOException {
+        StreamingShapefileWriter writer =
+                new StreamingShapefileWriter(charset, maxShpSize, maxDbfSize, spillThreshold);
+        FileNameSource nameSource = new FileNameSource(getClass());
+        List<StreamingShapefileWriter.Layout> layouts = new ArrayList<>();
+        List<String> shapeNames = new ArrayList<>();
+        for (SimpleFeatureCollection collection : collections) {
+            StreamingShapefileWriter.Layout layout = writer.prepare(collection);
+            if (layout == null) {
+                return false;
+            }
+            FeatureTypeInfo ftInfo = getFeatureTypeInfo(collection.getSchema());
+            String shapeName = nameSource.getShapeName(ftInfo, null, null);
+            if (shapeNames.contains(shapeName)) {
+                // the same type queried twice, let the dumper sort it out
+                return false;
+            }
+            layouts.add(layout);
+            shapeNames.add(shapeName);
+        }
+
+        ZipOutputStream zipOut = new ZipOutputStream(output);
+        for (int i = 0; i < layouts.size(); i++) {
+            StreamingShapefileWriter.Layout layout = layouts.get(i);
+            String shapeName = shapeNames.get(i);
+            long spilled = writer.write(layout, shapeName, zipOut);
+            LOGGER.fine(
+                    () ->
+                            "Streamed "
+                                    + layout.getCount()
+                                    + " features into "
+                                    + shapeName
+                                    + ", "
+                                    + spilled
+                                    + " bytes spilled to disk");
+
+            SimpleFeatureType schema = layout.getSchema();
+            CoordinateReferenceSystem crs = schema.getCoordinateReferenceSystem();
+            if (crs != null) {
+                String prj = null;
+                if (isESRIFormatRequested(request)) {
+                    try {
+                        prj = getESRIPrj(schema);
+                    } catch (FactoryException e) {
+                        throw new IOException("Failed to write out the ESRI style prj file", e);
+                    }
+                }
+                if (prj == null) {
+                    // same as the shapefile datastore, single line WKT
+                    prj = crs.toWKT().replaceAll("\n", "").replaceAll("  ", "");
+                }
+                writeZipEntry(zipOut, shapeName + ".prj", prj);
+            }
+            writeZipEntry(zipOut, shapeName + ".cst", charset.name());
+        }
+
+        if (layouts.isEmpty()) {
+            writeZipEntry(zipOut, "README.TXT", EMPTY_ZIP_WARNING);
+        }
+        if (this.gs.getService(WFSInfo.class).getIncludeWFSRequestDumpFile()) {
+            createRequestDump(zipOut, request, collections.get(0));
+        }
+        zipOut.finish();
+        return true;
+    }
+
+    private void writeZipEntry(ZipOutputStream zipOut, String name, String contents)
+            throws IOException {
+        zipOut.putNextEntry(new ZipEntry(name));
+        zipOut.write(contents.getBytes(StandardCharsets.UTF_8));
+        zipOut.closeEntry();
+    }
+
     /** Dumps the request */
     private void createRequestDump(
             File tempDir, GetFeatureRequest gft, SimpleFeatureCollection fc) {
@@ -279,6 +375,33 @@ private void createRequestDump(
         String fileName = new FileNameSource(getClass()).getRequestDumpName(ftInfo) + ".txt";
         File target = new File(tempDir, fileName);
 
+        try (FileOutputStream fos = new FileOutputStream(target)) {
+            writeRequestDump(request, gft, fos);
+        } catch (IOException e) {
+            throw new WFSException(gft, "Failed to dump the WFS request");
+        }
+    }
+
+    /** Dumps the request as a zip entry */
+    private void createRequestDump(
+            ZipOutputStream zipOut, GetFeatureRequest gft, SimpleFeatureCollection fc)
+            throws IOException {
+        final Request request = Dispatcher.REQUEST.get();
+        if (request == null || gft == null) {
+            // we're probably running in a unit test
+            return;
+        }
+
+        FeatureTypeInfo ftInfo = getFeatureTypeInfo(fc.getSchema());
+        String fileName = new FileNameSource(getClass()).getRequestDumpName(ftInfo) + ".txt";
+        zipOut.putNextEntry(new ZipEntry(fileName));
+        writeRequestDump(request, gft, zipOut);
+        zipOut.closeEntry();
+    }
+
+    /** Writes the GET request URL or the encoded POST request in the output stream */
+    private void writeRequestDump(Request request, GetFeatureRequest gft, OutputStream out)
+            throws IOException {
         try {
             if (request.isGet()) {
                 final HttpServletRequest httpRequest = request.getHttpRequest();
@@ -289,7 +412,7 @@ private void createRequestDump(
                 StringBuilder url = new StringBuilder();
                 String parameters = httpRequest.getQueryString();
                 url.append(mangledUrl).append("?").append(parameters);
-                FileUtils.writeStringToFile(target, url.toString(), "UTF-8");
+                out.write(url.toString().getBytes(StandardCharsets.UTF_8));
             } else {
                 org.geotools.xsd.Configuration cfg = null;
                 QName elementName = null;
@@ -300,12 +423,10 @@ private void createRequestDump(
                     cfg = new WFSConfiguration_1_0();
                     elementName = org.geotools.wfs.v1_0.WFS.GetFeature;
                 }
-                try (FileOutputStream fos = new FileOutputStream(target)) {
-                    Encoder encoder = new Encoder(cfg);
-                    encoder.setIndenting(true);
-                    encoder.setIndentSize(2);
-                    encoder.encode(gft, elementName, fos);
-                }
+                Encoder encoder = new Encoder(cfg);
+                encoder.setIndenting(true);
+                encoder.setIndentSize(2);
+                encoder.encode(gft, elementName, out);
             }
         } catch (IOException e) {
             throw new WFSException(gft, "Failed to dump the WFS request");
@@ -314,9 +435,7 @@ private void createRequestDump(
 
     private void createEmptyZipWarning(File tempDir) throws IOException {
         try (PrintWriter pw = new PrintWriter(new File(tempDir, "README.TXT"))) {
-            pw.print(
-                    "The query result is empty, and the geometric type of the features is unknown:"
-                            + "an empty point shapefile has been created to fill the zip file");
+            pw.print(EMPTY_ZIP_WARNING);
         }
     }
 
@@ -352,12 +471,16 @@ private void changeWKTFormatIfFileFormatIsESRI(
             String fileName,
             SimpleFeatureType remappedSchema)
             throws FactoryException, IOException, FileNotFoundException {
+        if (isESRIFormatRequested(request)) {
+            replaceOGCPrjFileByESRIPrjFile(tempDir, fileName, remappedSchema);
+        }
+    }
 
-        boolean useEsriFormat = false;
-
+    /** Checks if the request, or the service configuration, asks for ESRI WKT prj files */
+    private boolean isESRIFormatRequested(GetFeatureRequest request) {
         // if the request originates from the WPS we won't actually have any GetFeatureType request
         if (request == null) {
-            return;
+            return false;
         }
 
         Map<String, ?> formatOptions = request.getFormatOptions();
@@ -366,19 +489,33 @@ private void changeWKTFormatIfFileFormatIsESRI(
             WFSInfo bean = gs.getService(WFSInfo.class);
             MetadataMap metadata = bean.getMetadata();
             Boolean defaultIsEsri = metadata.get(SHAPE_ZIP_DEFAULT_PRJ_IS_ESRI, Boolean.class);
-            useEsriFormat = defaultIsEsri != null && defaultIsEsri.booleanValue();
+            return defaultIsEsri != null && defaultIsEsri.booleanValue();
         } else {
-            useEsriFormat = "ESRI".equalsIgnoreCase(requestedPrjFileFormat);
-        }
-
-        if (useEsriFormat) {
-            replaceOGCPrjFileByESRIPrjFile(tempDir, fileName, remappedSchema);
+            return "ESRI".equalsIgnoreCase(requestedPrjFileFormat);
         }
     }
 
     private void replaceOGCPrjFileByESRIPrjFile(
             File tempDir, String fileName, SimpleFeatureType remappedSchema)
             throws FactoryException, IOException, FileNotFoundException {
+        String data = getESRIPrj(remappedSchema);
+        if (data != null) {
+            File prjShapeFile = new File(tempDir, fileName + ".prj");
+            prjShapeFile.delete();
+
+            try (BufferedWriter out = new BufferedWriter(new FileWriter(prjShapeFile))) {
+                out.write(data);
+            }
+        }
+    }
+
+    /**
+     * Looks up the ESRI WKT for the schema CRS in user_projections/esri.properties
+     *
+     * @return the ESRI WKT, or null if not found
+     */
+    private String getESRIPrj(SimpleFeatureType remappedSchema)
+            throws FactoryException, IOException {
         // The ESRI replacement property file is keyed by code only, so it's ok to simply
         // lookup the code for the remapped schema, if not found the WKT1 will be just dumped as is
         final Integer epsgCode =
@@ -387,7 +524,7 @@ private void replaceOGCPrjFileByESRIPrjFile(
                         true);
         if (epsgCode == null) {
             LOGGER.info("Can't find the EPSG code for the shapefile CRS");
-            return;
+            return null;
         }
         Resource file = resourceLoader.get("user_projections/esri.properties");
 
@@ -399,22 +536,17 @@ private void replaceOGCPrjFileByESRIPrjFile(
 
             String data = (String) properties.get(epsgCode.toString());
 
-            if (data != null) {
-                File prjShapeFile = new File(tempDir, fileName + ".prj");
-                prjShapeFile.delete();
-
-                try (BufferedWriter out = new BufferedWriter(new FileWriter(prjShapeFile))) {
-                    out.write(data);
-                }
-            } else {
+            if (data == null) {
                 LOGGER.info(
                         "Requested shapefile with ESRI WKT .prj format but couldn't find an entry for ESPG code "
                                 + epsgCode
                                 + " in esri.properties");
             }
+            return data;
         } else {
             LOGGER.info(
                     "Requested shapefile with ESRI WKT .prj format but the esri.properties file does not exist in the user_projections directory");
+            return null;
         }
     }
 
@@ -462,6 +594,31 @@ public void setMaxDbfSize(long maxDbfSize) {
         this.maxDbfSize = maxDbfSize;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Enables writing the shapefiles directly in the zip output, without a temporary directory.
+     * Collections that would need to be split in multiple shapefiles are still written via a
+     * temporary directory.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public long getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    /**
+     * Sets how many bytes of the .shx and .dbf files are kept in memory, while streaming, before
+     * spilling them to a temporary file (16MB by default)
+     */
+    public void setSpillThreshold(long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
     class FileNameSource {
 
         private Class<?> clazz;
@@ -0,0 +1,587 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.data.shapefile.dbf.DbaseFileHeader;
+import org.geotools.data.shapefile.dbf.DbaseFileWriter;
+import org.geotools.data.shapefile.shp.JTSUtilities;
+import org.geotools.data.shapefile.shp.ShapeHandler;
+import org.geotools.data.shapefile.shp.ShapeType;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.FeatureTypes;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Writes a feature collection as a shapefile directly into the entries of a {@link
+ * ZipOutputStream}, without going through a temporary directory.
+ *
+ * <p>Shapefile headers contain the record count, the file length and the bounds, which are known
+ * only once all features have been seen. The collection is hence read twice: a first pass computes
+ * the header contents, the second one streams the .shp records straight into the zip entry. The
+ * .shx and .dbf files, that have to follow in the zip, are accumulated in a {@link SpillBuffer}
+ * that keeps the first bytes in memory and spills to a temporary file only past a configurable
+ * threshold.
+ *
+ * <p>Only collections that map to a single shapefile can be streamed, that is, a single geometry
+ * attribute of a concrete type, no measures, and output sizes within the configured limits. {@link
+ * #prepare(SimpleFeatureCollection)} returns null for anything else, and the caller is expected to
+ * fall back on the {@link org.geotools.data.shapefile.ShapefileDumper}.
+ */
+class StreamingShapefileWriter {
+
+    static final Logger LOGGER = Logging.getLogger(StreamingShapefileWriter.class);
+
+    /** Size of the shapefile main and index file headers */
+    static final int HEADER_LENGTH = 100;
+
+    /** Size of a record header in the main file, and of a record in the index file */
+    static final int RECORD_HEADER_LENGTH = 8;
+
+    static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    Charset charset;
+
+    long maxShpSize;
+
+    long maxDbfSize;
+
+    long spillThreshold;
+
+    public StreamingShapefileWriter(
+            Charset charset, long maxShpSize, long maxDbfSize, long spillThreshold) {
+        this.charset = charset;
+        this.maxShpSize = maxShpSize;
+        this.maxDbfSize = maxDbfSize;
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Scans the collection and computes the shapefile headers
+     *
+     * @return the layout of the shapefile, or null if the collection cannot be written as a single
+     *     streamed shapefile
+     */
+    public Layout prepare(SimpleFeatureCollection collection) throws IOException {
+        SimpleFeatureType schema = collection.getSchema();
+        ShapeType baseType = getShapeType(schema);
+        if (baseType == null) {
+            return null;
+        }
+        ShapeType zType = toZ(baseType);
+        ShapeHandler baseHandler = baseType.getShapeHandler(GEOMETRY_FACTORY);
+        ShapeHandler zHandler = zType.getShapeHandler(GEOMETRY_FACTORY);
+
+        // lengths are accumulated for both the 2D and 3D types, the dimension is known at the end
+        DimensionsFilter dimensions = new DimensionsFilter();
+        Envelope bounds = new Envelope();
+        long baseLength = HEADER_LENGTH;
+        long zLength = HEADER_LENGTH;
+        int count = 0;
+        try (SimpleFeatureIterator it = collection.features()) {
+            while (it.hasNext()) {
+                Geometry g = (Geometry) it.next().getDefaultGeometry();
+                count++;
+                if (g == null || g.isEmpty()) {
+                    baseLength += RECORD_HEADER_LENGTH + 4;
+                    zLength += RECORD_HEADER_LENGTH + 4;
+                    continue;
+                }
+                if (!isCompatible(g, baseType)) {
+                    LOGGER.fine(
+                            () ->
+                                    "Cannot stream "
+                                            + schema.getTypeName()
+                                            + ", found a "
+                                            + g.getGeometryType()
+                                            + " in a "
+                                            + baseType
+                                            + " collection");
+                    return null;
+                }
+                g.apply(dimensions);
+                if (dimensions.measures) {
+                    LOGGER.fine(() -> "Cannot stream " + schema.getTypeName() + ", has measures");
+                    return null;
+                }
+                Geometry converted = JTSUtilities.convertToCollection(g, baseType);
+                bounds.expandToInclude(converted.getEnvelopeInternal());
+                baseLength += RECORD_HEADER_LENGTH + baseHandler.getLength(converted);
+                zLength += RECORD_HEADER_LENGTH + zHandler.getLength(converted);
+            }
+        }
+
+        Layout layout = new Layout();
+        layout.collection = collection;
+        layout.count = count;
+        layout.bounds = bounds;
+        if (dimensions.hasZ) {
+            layout.shapeType = zType;
+            layout.handler = zHandler;
+            layout.shpLength = zLength;
+            layout.minZ = dimensions.minZ;
+            layout.maxZ = dimensions.maxZ;
+        } else {
+            layout.shapeType = baseType;
+            layout.handler = baseHandler;
+            layout.shpLength = baseLength;
+        }
+        layout.dbfHeader = createDbaseHeader(schema, layout);
+        layout.dbfLength =
+                layout.dbfHeader.getHeaderLength()
+                        + (long) count * layout.dbfHeader.getRecordLength()
+                        + 1;
+        if (layout.shpLength > maxShpSize || layout.dbfLength > maxDbfSize) {
+            LOGGER.fine(
+                    () ->
+                            "Cannot stream "
+                                    + schema.getTypeName()
+                                    + ", the output would be split in multiple shapefiles");
+            return null;
+        }
+        return layout;
+    }
+
+    /**
+     * Writes the .shp, .shx and .dbf entries of the shapefile. The .prj and .cst files are left to
+     * the caller.
+     *
+     * @return the number of bytes that had to be spilled to disk
+     */
+    public long write(Layout layout, String shapeName, ZipOutputStream zip) throws IOException {
+        SpillBuffer shx = new SpillBuffer(spillThreshold);
+        SpillBuffer dbf = new SpillBuffer(spillThreshold);
+        try {
+            zip.putNextEntry(new ZipEntry(shapeName + ".shp"));
+            zip.write(header(layout, (int) (layout.shpLength / 2)));
+            shx.write(header(layout, (HEADER_LENGTH + RECORD_HEADER_LENGTH * layout.count) / 2));
+
+            SimpleFeatureType schema = layout.collection.getSchema();
+            DbaseFileWriter dbfWriter =
+                    new DbaseFileWriter(layout.dbfHeader, Channels.newChannel(dbf), charset);
+            Object[] values = new Object[layout.attributes.size()];
+            ByteBuffer record = ByteBuffer.allocate(1024);
+            long offset = HEADER_LENGTH;
+            int written = 0;
+            try (SimpleFeatureIterator it = layout.collection.features()) {
+                while (it.hasNext()) {
+                    SimpleFeature feature = it.next();
+                    if (++written > layout.count) {
+                        throw new IOException(
+                                "The contents of " + schema.getTypeName() + " changed while writing");
+                    }
+
+                    // the .shp record
+                    Geometry g = (Geometry) feature.getDefaultGeometry();
+                    if (g != null && !g.isEmpty()) {
+                        g = JTSUtilities.convertToCollection(g, layout.shapeType);
+                    } else {
+                        g = null;
+                    }
+                    int length = g == null ? 4 : layout.handler.getLength(g);
+                    if (record.capacity() < RECORD_HEADER_LENGTH + length) {
+                        record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + length);
+                    }
+                    record.clear();
+                    record.order(ByteOrder.BIG_ENDIAN);
+                    record.putInt(written);
+                    record.putInt(length / 2);
+                    record.order(ByteOrder.LITTLE_ENDIAN);
+                    if (g == null) {
+                        record.putInt(ShapeType.NULL.id);
+                    } else {
+                        record.putInt(layout.shapeType.id);
+                        layout.handler.write(record, g);
+                    }
+                    zip.write(record.array(), 0, record.position());
+
+                    // the .shx record
+                    ByteBuffer index = ByteBuffer.allocate(RECORD_HEADER_LENGTH);
+                    index.putInt((int) (offset / 2));
+                    index.putInt(length / 2);
+                    shx.write(index.array());
+                    offset += RECORD_HEADER_LENGTH + length;
+
+                    // the .dbf record
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = toDbaseValue(feature.getAttribute(layout.attributes.get(i)));
+                    }
+                    dbfWriter.write(values);
+                }
+            }
+            dbfWriter.close();
+            if (written != layout.count || offset != layout.shpLength) {
+                throw new IOException(
+                        "The contents of " + schema.getTypeName() + " changed while writing");
+            }
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry(shapeName + ".shx"));
+            shx.writeTo(zip);
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry(shapeName + ".dbf"));
+            dbf.writeTo(zip);
+            zip.closeEntry();
+
+            return shx.spilled() + dbf.spilled();
+        } finally {
+            shx.dispose();
+            dbf.dispose();
+        }
+    }
+
+    /** Returns the shape type for the schema default geometry, or null if it's not a concrete one */
+    static ShapeType getShapeType(SimpleFeatureType schema) {
+        GeometryDescriptor gd = schema.getGeometryDescriptor();
+        if (gd == null) {
+            return null;
+        }
+        // the dumper handles the extra geometries, no point replicating that logic here
+        for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
+            if (ad instanceof GeometryDescriptor && ad != gd) {
+                return null;
+            }
+        }
+        Class<?> binding = gd.getType().getBinding();
+        if (Point.class.equals(binding)) {
+            return ShapeType.POINT;
+        } else if (MultiPoint.class.equals(binding)) {
+            return ShapeType.MULTIPOINT;
+        } else if (LineString.class.equals(binding) || MultiLineString.class.equals(binding)) {
+            return ShapeType.ARC;
+        } else if (Polygon.class.equals(binding) || MultiPolygon.class.equals(binding)) {
+            return ShapeType.POLYGON;
+        }
+        return null;
+    }
+
+    private static ShapeType toZ(ShapeType type) {
+        if (type == ShapeType.POINT) {
+            return ShapeType.POINTZ;
+        } else if (type == ShapeType.MULTIPOINT) {
+            return ShapeType.MULTIPOINTZ;
+        } else if (type == ShapeType.ARC) {
+            return ShapeType.ARCZ;
+        } else {
+            return ShapeType.POLYGONZ;
+        }
+    }
+
+    private static boolean isCompatible(Geometry g, ShapeType type) {
+        if (type == ShapeType.POINT) {
+            return g instanceof Point;
+        } else if (type == ShapeType.MULTIPOINT) {
+            return g instanceof Point || g instanceof MultiPoint;
+        } else if (type == ShapeType.ARC) {
+            return g instanceof LineString || g instanceof MultiLineString;
+        } else {
+            return g instanceof Polygon || g instanceof MultiPolygon;
+        }
+    }
+
+    private byte[] header(Layout layout, int lengthInWords) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(9994);
+        for (int i = 0; i < 5; i++) {
+            buffer.putInt(0);
+        }
+        buffer.putInt(lengthInWords);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(1000);
+        buffer.putInt(layout.shapeType.id);
+        Envelope bounds = layout.bounds;
+        if (bounds.isNull()) {
+            buffer.putDouble(0).putDouble(0).putDouble(0).putDouble(0);
+        } else {
+            buffer.putDouble(bounds.getMinX());
+            buffer.putDouble(bounds.getMinY());
+            buffer.putDouble(bounds.getMaxX());
+            buffer.putDouble(bounds.getMaxY());
+        }
+        buffer.putDouble(layout.minZ);
+        buffer.putDouble(layout.maxZ);
+        // no measures
+        buffer.putDouble(0);
+        buffer.putDouble(0);
+        return buffer.array();
+    }
+
+    /**
+     * Builds the DBF header, with the same column types used by the shapefile datastore, and the
+     * same attribute name remapping performed by the shapefile dumper
+     */
+    private DbaseFileHeader createDbaseHeader(SimpleFeatureType schema, Layout layout)
+            throws IOException {
+        DbaseFileHeader header = new DbaseFileHeader();
+        Set<String> names = new HashSet<>();
+        List<String> attributes = new ArrayList<>();
+        for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
+            if (ad instanceof GeometryDescriptor) {
+                continue;
+            }
+            String name = getColumnName(ad.getLocalName(), names);
+            Class<?> binding = ad.getType().getBinding();
+            if (String.class.equals(binding)) {
+                int length = FeatureTypes.getFieldLength(ad);
+                header.addColumn(name, 'C', length <= 0 || length > 254 ? 254 : length, 0);
+            } else if (Integer.class.equals(binding)
+                    || Short.class.equals(binding)
+                    || Byte.class.equals(binding)) {
+                header.addColumn(name, 'N', 9, 0);
+            } else if (Long.class.equals(binding)) {
+                header.addColumn(name, 'N', 19, 0);
+            } else if (BigInteger.class.equals(binding)) {
+                header.addColumn(name, 'N', 33, 0);
+            } else if (Number.class.isAssignableFrom(binding)) {
+                header.addColumn(name, 'N', 33, 15);
+            } else if (java.util.Date.class.isAssignableFrom(binding)) {
+                header.addColumn(name, 'D', 8, 0);
+            } else if (Boolean.class.equals(binding)) {
+                header.addColumn(name, 'L', 1, 0);
+            } else {
+                header.addColumn(name, 'C', 254, 0);
+            }
+            attributes.add(ad.getLocalName());
+        }
+        header.setNumRecords(layout.count);
+        layout.attributes = attributes;
+        return header;
+    }
+
+    /** Reduces the name to the DBF limit of 10 chars, using counters to avoid conflicts */
+    private static String getColumnName(String name, Set<String> used) {
+        String result = name.length() > 10 ? name.substring(0, 10) : name;
+        int counter = 0;
+        while (used.contains(result.toUpperCase(Locale.ENGLISH))) {
+            String suffix = String.valueOf(counter++);
+            result = name.substring(0, Math.min(name.length(), 10 - suffix.length())) + suffix;
+        }
+        used.add(result.toUpperCase(Locale.ENGLISH));
+        return result;
+    }
+
+    private static Object toDbaseValue(Object value) {
+        if (value == null
+                || value instanceof String
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof java.util.Date) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    /** The information collected during the first pass, needed to write out the shapefile */
+    static class Layout {
+        SimpleFeatureCollection collection;
+
+        ShapeType shapeType;
+
+        ShapeHandler handler;
+
+        int count;
+
+        Envelope bounds;
+
+        double minZ;
+
+        double maxZ;
+
+        long shpLength;
+
+        DbaseFileHeader dbfHeader;
+
+        long dbfLength;
+
+        List<String> attributes;
+
+        public SimpleFeatureType getSchema() {
+            return collection.getSchema();
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getShpLength() {
+            return shpLength;
+        }
+
+        public long getDbfLength() {
+            return dbfLength;
+        }
+    }
+
+    /** Collects the Z range and checks for measures while visiting the geometry coordinates */
+    static class DimensionsFilter implements CoordinateSequenceFilter {
+
+        boolean hasZ;
+
+        boolean measures;
+
+        double minZ = Double.POSITIVE_INFINITY;
+
+        double maxZ = Double.NEGATIVE_INFINITY;
+
+        @Override
+        public void filter(CoordinateSequence seq, int i) {
+            if (seq.hasM()) {
+                measures = true;
+            }
+            if (seq.hasZ()) {
+                double z = seq.getZ(i);
+                if (!Double.isNaN(z)) {
+                    hasZ = true;
+                    minZ = Math.min(minZ, z);
+                    maxZ = Math.max(maxZ, z);
+                }
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public boolean isGeometryChanged() {
+            return false;
+        }
+    }
+
+    /**
+     * An output stream keeping its contents in memory up to a threshold, and spilling them to a
+     * temporary file beyond it. Closing the stream only makes it read only, {@link #dispose()}
+     * releases the temporary file, if any.
+     */
+    static class SpillBuffer extends OutputStream {
+
+        long threshold;
+
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+        File file;
+
+        OutputStream out = memory;
+
+        long size;
+
+        SpillBuffer(long threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkSpill(1);
+            out.write(b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkSpill(len);
+            out.write(b, off, len);
+            size += len;
+        }
+
+        private void checkSpill(int len) throws IOException {
+            if (file == null && size + len > threshold) {
+                file = File.createTempFile("shpzip", ".spill");
+                out = new FileOutputStream(file);
+                memory.writeTo(out);
+                memory = null;
+                LOGGER.fine(() -> "Spilling shapefile contents to " + file);
+            }
+        }
+
+        /** The number of bytes written so far */
+        public long size() {
+            return size;
+        }
+
+        /** The number of bytes written to disk so far */
+        public long spilled() {
+            return file == null ? 0 : size;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+            if (file != null) {
+                out.close();
+            }
+        }
+
+        /** Copies the contents of the buffer into the target stream */
+        public void writeTo(OutputStream target) throws IOException {
+            if (file == null) {
+                memory.writeTo(target);
+            } else {
+                out.close();
+                try (InputStream is = new FileInputStream(file)) {
+                    is.transferTo(target);
+                }
+            }
+        }
+
+        /** Releases the buffer resources */
+        public void dispose() {
+            memory = null;
+            if (file != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Failed to close the spill file", e);
+                }
+                if (!file.delete()) {
+                    LOGGER.warning("Could not delete spill file " + file.getAbsolutePath());
+                }
+            }
+        }
+    }
+}
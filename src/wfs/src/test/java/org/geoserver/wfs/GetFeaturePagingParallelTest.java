@@ -0,0 +1,43 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import static org.junit.Assert.assertTrue;
+
+import org.custommonkey.xmlunit.XMLAssert;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.wfs.v2_0.GetFeaturePagingTest;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+/**
+ * Runs the paging tests with parallel query execution enabled, making sure the output order and
+ * the count/startIndex semantics are preserved
+ */
+public class GetFeaturePagingParallelTest extends GetFeaturePagingTest {
+
+    @Override
+    protected void setUpInternal(SystemTestData data) throws Exception {
+        super.setUpInternal(data);
+        WFSInfo wfs = getGeoServer().getService(WFSInfo.class);
+        wfs.setParallelQueries(4);
+        getGeoServer().save(wfs);
+    }
+
+    @Test
+    public void testCountMultipleTypes() throws Exception {
+        long tasks = ParallelQueryExecutor.get(4).getTaskCount();
+        Document doc =
+                getAsDOM(
+                        "/wfs?request=GetFeature&version=2.0.0&service=wfs"
+                                + "&typenames=gs:Fifteen,gs:Seven&count=20");
+        XMLAssert.assertXpathEvaluatesTo("22", "/wfs:FeatureCollection/@numberMatched", doc);
+        XMLAssert.assertXpathEvaluatesTo("15", "count(//gs:Fifteen)", doc);
+        XMLAssert.assertXpathEvaluatesTo("5", "count(//gs:Seven)", doc);
+        // features are returned in query order
+        XMLAssert.assertXpathEvaluatesTo("15", "count((//gs:Seven)[1]/preceding::gs:Fifteen)", doc);
+        assertTrue(ParallelQueryExecutor.get(4).getTaskCount() >= tasks + 2);
+    }
+}
@@ -0,0 +1,107 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.namespace.QName;
+import org.geoserver.config.GeoServer;
+import org.geotools.api.data.SimpleFeatureStore;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.FeatureIterator;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.After;
+import org.junit.Test;
+
+public class InsertElementHandlerTest {
+
+    SimpleFeatureType schema;
+
+    List<SimpleFeature> features = new ArrayList<>();
+
+    /** The sizes of the collections handed over to the store */
+    List<Integer> writes = new ArrayList<>();
+
+    @After
+    public void clearBatchSize() {
+        System.clearProperty(InsertElementHandler.BATCH_SIZE_KEY);
+    }
+
+    private SimpleFeatureStore mockStore() throws Exception {
+        schema = DataUtilities.createType("test", "name:String");
+        for (int i = 0; i < 5; i++) {
+            features.add(SimpleFeatureBuilder.build(schema, new Object[] {"f" + i}, "test." + i));
+        }
+
+        SimpleFeatureStore store = mock(SimpleFeatureStore.class);
+        when(store.getSchema()).thenReturn(schema);
+        when(store.addFeatures(any()))
+                .thenAnswer(
+                        invocation -> {
+                            FeatureCollection<SimpleFeatureType, SimpleFeature> collection =
+                                    invocation.getArgument(0);
+                            List<FeatureId> fids = new ArrayList<>();
+                            try (FeatureIterator<SimpleFeature> it = collection.features()) {
+                                while (it.hasNext()) {
+                                    fids.add(it.next().getIdentifier());
+                                }
+                            }
+                            writes.add(fids.size());
+                            return fids;
+                        });
+        return store;
+    }
+
+    private List<FeatureId> addFeatures(SimpleFeatureStore store, List<Long> batchTimes)
+            throws Exception {
+        InsertElementHandler handler =
+                new InsertElementHandler(
+                        mock(GeoServer.class), CommonFactoryFinder.getFilterFactory());
+        return handler.addFeatures(
+                store,
+                new ListFeatureCollection(schema, features),
+                features,
+                new QName("test"),
+                batchTimes);
+    }
+
+    @Test
+    public void testBatchSplit() throws Exception {
+        SimpleFeatureStore store = mockStore();
+        System.setProperty(InsertElementHandler.BATCH_SIZE_KEY, "2");
+        List<Long> batchTimes = new ArrayList<>();
+        List<FeatureId> fids = addFeatures(store, batchTimes);
+
+        assertEquals(List.of(2, 2, 1), writes);
+        assertEquals(3, batchTimes.size());
+        assertEquals(5, fids.size());
+        for (int i = 0; i < fids.size(); i++) {
+            assertEquals("test." + i, fids.get(i).getID());
+        }
+    }
+
+    @Test
+    public void testNoBatching() throws Exception {
+        SimpleFeatureStore store = mockStore();
+        List<Long> batchTimes = new ArrayList<>();
+        List<FeatureId> fids = addFeatures(store, batchTimes);
+
+        // disabled by default, a single write
+        assertEquals(List.of(5), writes);
+        assertEquals(1, batchTimes.size());
+        assertEquals(5, fids.size());
+    }
+}
@@ -179,4 +179,50 @@ public void testUpdate() throws Exception {
 
         assertEquals(2, listener.features.size());
     }
+
+    @Test
+    public void testInsertBatches() throws Exception {
+        StringBuilder insert =
+                new StringBuilder(
+                        "<wfs:Transaction service=\"WFS\" version=\"1.0.0\" "
+                                + "xmlns:cgf=\"http://www.opengis.net/cite/geometry\" "
+                                + "xmlns:ogc=\"http://www.opengis.net/ogc\" "
+                                + "xmlns:wfs=\"http://www.opengis.net/wfs\" "
+                                + "xmlns:gml=\"http://www.opengis.net/gml\"> "
+                                + "<wfs:Insert > ");
+        for (int i = 0; i < 3; i++) {
+            insert.append("<cgf:Lines>")
+                    .append("<cgf:lineStringProperty>")
+                    .append("<gml:LineString>")
+                    .append("<gml:coordinates decimal=\".\" cs=\",\" ts=\" \">")
+                    .append("494475.71056415,5433016.8189323 494982.70115662,5435041.95096618")
+                    .append("</gml:coordinates>")
+                    .append("</gml:LineString>")
+                    .append("</cgf:lineStringProperty>")
+                    .append("<cgf:id>b000" + i + "</cgf:id>")
+                    .append("</cgf:Lines>");
+        }
+        insert.append("</wfs:Insert></wfs:Transaction>");
+
+        System.setProperty(InsertElementHandler.BATCH_SIZE_KEY, "2");
+        try {
+            Document dom = postAsDOM("wfs", insert.toString());
+            assertEquals(3, dom.getElementsByTagName("ogc:FeatureId").getLength());
+        } finally {
+            System.clearProperty(InsertElementHandler.BATCH_SIZE_KEY);
+        }
+
+        // written in two batches, still a single pre and post insert event for the type
+        assertEquals(2, listener.events.size());
+        TransactionEvent pre = listener.events.get(0);
+        assertEquals(TransactionEventType.PRE_INSERT, pre.getType());
+        assertEquals(3, pre.getAffectedFeatures().size());
+        assertEquals(-1, pre.getElapsedTime());
+        TransactionEvent post = listener.events.get(1);
+        assertEquals(TransactionEventType.POST_INSERT, post.getType());
+        assertEquals(3, post.getAffectedFeatures().size());
+        assertTrue(post.getElapsedTime() >= 0);
+        assertTrue(pre.getBatchTimes().isEmpty());
+        assertEquals(2, post.getBatchTimes().size());
+    }
 }
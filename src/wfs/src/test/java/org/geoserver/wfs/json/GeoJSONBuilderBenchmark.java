@@ -0,0 +1,123 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.json;
+
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link GeoJSONBuilder} and {@link StreamingGeoJSONBuilder} encoding a feature
+ * collection shaped document. Not run as part of the build, launch it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.geoserver.wfs.json.GeoJSONBuilderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class GeoJSONBuilderBenchmark {
+
+    @Param({"1000000"})
+    int features;
+
+    @Param({"Point", "LineString", "Polygon"})
+    String geometryType;
+
+    Geometry[] geometries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GeometryFactory gf = new GeometryFactory();
+        Random random = new Random(0);
+        // share a limited number of geometries among the features, to keep memory under control
+        geometries = new Geometry[Math.min(features, 10000)];
+        for (int i = 0; i < geometries.length; i++) {
+            double x = random.nextDouble() * 360 - 180;
+            double y = random.nextDouble() * 180 - 90;
+            switch (geometryType) {
+                case "Point":
+                    geometries[i] = gf.createPoint(new Coordinate(x, y));
+                    break;
+                case "LineString":
+                    geometries[i] = gf.createLineString(randomWalk(random, x, y, 20, false));
+                    break;
+                default:
+                    geometries[i] = gf.createPolygon(randomWalk(random, x, y, 20, true));
+            }
+        }
+    }
+
+    private Coordinate[] randomWalk(Random random, double x, double y, int n, boolean closed) {
+        Coordinate[] coordinates = new Coordinate[n];
+        for (int i = 0; i < n; i++) {
+            coordinates[i] = new Coordinate(x, y);
+            x += random.nextDouble() * 0.01;
+            y += random.nextDouble() * 0.01;
+        }
+        if (closed) {
+            coordinates[n - 1] = coordinates[0];
+        }
+        return coordinates;
+    }
+
+    @Benchmark
+    public void classic() {
+        encode(new GeoJSONBuilder(Writer.nullWriter()));
+    }
+
+    @Benchmark
+    public void streaming() {
+        encode(new StreamingGeoJSONBuilder(Writer.nullWriter()));
+    }
+
+    private void encode(GeoJSONBuilder builder) {
+        builder.object().key("type").value("FeatureCollection");
+        builder.key("features").array();
+        for (int i = 0; i < features; i++) {
+            Geometry geometry = geometries[i % geometries.length];
+            builder.object();
+            builder.key("type").value("Feature");
+            builder.key("id").value("f." + i);
+            builder.key("geometry");
+            builder.writeGeom(geometry);
+            builder.key("properties").object().key("fid").value(i).endObject();
+            builder.endObject();
+        }
+        builder.endArray();
+        builder.endObject();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options =
+                new OptionsBuilder()
+                        .include(GeoJSONBuilderBenchmark.class.getSimpleName())
+                        .build();
+        new Runner(options).run();
+    }
+}
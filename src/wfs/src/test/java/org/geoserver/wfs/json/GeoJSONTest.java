@@ -750,6 +750,37 @@ public void testGetFeatureWhereLayerHasDecimalPointsSet() throws Exception {
         assertThat(aCRS, encodesCRS(expectedCrs));
     }
 
+    @Test
+    public void testGetFeatureStreamingEncoder() throws Exception {
+        GeoJSONGetFeatureResponse format =
+                applicationContext.getBean(
+                        "geoJSONGetFeatureResponse", GeoJSONGetFeatureResponse.class);
+        String request =
+                "wfs?request=GetFeature&version=1.0.0&typename="
+                        + getLayerId(POINT_REDUCED)
+                        + "&outputformat="
+                        + JSONType.json;
+        JSONObject classic = (JSONObject) getAsJSON(request);
+        format.setStreamingEncoder(true);
+        try {
+            JSONObject streaming = (JSONObject) getAsJSON(request);
+            // the time stamp is the only expected difference
+            classic.remove("timeStamp");
+            streaming.remove("timeStamp");
+            assertEquals(classic, streaming);
+
+            JSONArray coords =
+                    streaming
+                            .getJSONArray("features")
+                            .getJSONObject(0)
+                            .getJSONObject("geometry")
+                            .getJSONArray("coordinates");
+            assertThat((Iterable<?>) coords, contains(120.12, 0.56));
+        } finally {
+            format.setStreamingEncoder(null);
+        }
+    }
+
     @Test
     public void testGetFeatureAxisSwap() throws Exception {
         // Check that a NORTH_EAST source is swapped
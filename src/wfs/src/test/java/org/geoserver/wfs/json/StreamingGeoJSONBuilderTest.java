@@ -0,0 +1,148 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+import java.util.Random;
+import org.geotools.referencing.CRS;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateXYZM;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.io.WKTReader;
+
+public class StreamingGeoJSONBuilderTest {
+
+    private static final GeometryFactory GF = new GeometryFactory();
+
+    @Test
+    public void testGeometryTypes() throws Exception {
+        String[] wkts = {
+            "POINT(1 2)",
+            "POINT(1.5 -2.25)",
+            "POINT Z(1 2 3)",
+            "LINESTRING(0 0, 1 1, 10.123456789 -0.0001)",
+            "POLYGON((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))",
+            "MULTIPOINT((1 2), (3 4))",
+            "MULTILINESTRING((0 0, 1 1), (2 2, 3 3))",
+            "MULTIPOLYGON(((0 0, 10 0, 10 10, 0 0)), ((20 20, 30 20, 30 30, 20 20)))",
+            "GEOMETRYCOLLECTION(POINT(1 2), LINESTRING(0 0, 1 1))",
+            "POINT(123456789.123456 0.00012345)",
+        };
+        for (String wkt : wkts) {
+            Geometry g = new WKTReader().read(wkt);
+            assertSameOutput(g, CRS.AxisOrder.EAST_NORTH, 6, false);
+            assertSameOutput(g, CRS.AxisOrder.NORTH_EAST, 6, false);
+            assertSameOutput(g, CRS.AxisOrder.EAST_NORTH, 2, false);
+        }
+    }
+
+    @Test
+    public void testMeasures() throws Exception {
+        LineString line =
+                GF.createLineString(
+                        new Coordinate[] {
+                            new CoordinateXYZM(1, 2, Double.NaN, 4),
+                            new CoordinateXYZM(1, 2, 3, 4),
+                            new CoordinateXYZM(1, 2, 3, Double.NaN)
+                        });
+        assertSameOutput(line, CRS.AxisOrder.EAST_NORTH, 6, true);
+        assertSameOutput(line, CRS.AxisOrder.EAST_NORTH, 6, false);
+    }
+
+    @Test
+    public void testInfinite() throws Exception {
+        Geometry point =
+                GF.createPoint(
+                        new Coordinate(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1));
+        assertSameOutput(point, CRS.AxisOrder.EAST_NORTH, 6, false);
+    }
+
+    @Test
+    public void testRandomOrdinates() throws Exception {
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            Coordinate[] coordinates = new Coordinate[10];
+            double range = Math.pow(10, random.nextInt(12) - 4);
+            for (int j = 0; j < coordinates.length; j++) {
+                coordinates[j] =
+                        new Coordinate(
+                                (random.nextDouble() - 0.5) * range,
+                                (random.nextDouble() - 0.5) * range);
+            }
+            LineString line = GF.createLineString(coordinates);
+            assertSameOutput(line, CRS.AxisOrder.EAST_NORTH, random.nextInt(10), false);
+        }
+    }
+
+    @Test
+    public void testEmbeddedInDocument() throws Exception {
+        Geometry g = new WKTReader().read("LINESTRING(0 0, 1.123 1.456789)");
+        Envelope envelope = g.getEnvelopeInternal();
+
+        StringWriter expected = new StringWriter();
+        writeDocument(new GeoJSONBuilder(expected), g, envelope);
+        StringWriter actual = new StringWriter();
+        writeDocument(new StreamingGeoJSONBuilder(actual), g, envelope);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testSmallBuffer() throws Exception {
+        Geometry g = new WKTReader().read("POINT(1 2)").buffer(10, 32);
+
+        StringWriter expected = new StringWriter();
+        new GeoJSONBuilder(expected).writeGeom(g);
+        StringWriter actual = new StringWriter();
+        new StreamingGeoJSONBuilder(actual, 0).writeGeom(g);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private void writeDocument(GeoJSONBuilder builder, Geometry g, Envelope envelope) {
+        builder.object();
+        builder.key("features").array();
+        for (int i = 0; i < 3; i++) {
+            builder.object();
+            builder.key("id").value(i);
+            builder.key("geometry");
+            builder.writeGeom(g);
+            builder.key("properties").object().key("name").value("test").endObject();
+            builder.writeBoundingBox(envelope);
+            builder.endObject();
+        }
+        builder.endArray();
+        builder.writeBoundingBox(envelope);
+        builder.endObject();
+    }
+
+    private void assertSameOutput(
+            Geometry g, CRS.AxisOrder axisOrder, int numDecimals, boolean measures) {
+        StringWriter expected = new StringWriter();
+        GeoJSONBuilder classic = new GeoJSONBuilder(expected);
+        configure(classic, axisOrder, numDecimals, measures);
+        classic.writeGeom(g);
+
+        StringWriter actual = new StringWriter();
+        GeoJSONBuilder streaming = new StreamingGeoJSONBuilder(actual);
+        configure(streaming, axisOrder, numDecimals, measures);
+        streaming.writeGeom(g);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private void configure(
+            GeoJSONBuilder builder, CRS.AxisOrder axisOrder, int numDecimals, boolean measures) {
+        builder.setAxisOrder(axisOrder);
+        builder.setNumberOfDecimals(numDecimals);
+        builder.setEncodeMeasures(measures);
+    }
+}
@@ -0,0 +1,214 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.response;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.geoserver.util.IOUtils;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.data.shapefile.ShapefileDumper;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares writing a zipped shapefile through a temporary directory, as the {@link
+ * ShapeZipOutputFormat} does by default, with the {@link StreamingShapefileWriter}. The "firstByte"
+ * benchmarks stop at the first byte sent to the output, measuring the time to first byte, the
+ * others write the whole zip. The disk usage of both approaches is printed before running the
+ * benchmarks. Not run as part of the build, launch it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.geoserver.wfs.response.ShapeZipBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ShapeZipBenchmark {
+
+    @Param({"100000"})
+    int features;
+
+    /** Spill threshold for the streaming writer, the default one */
+    @Param({"16777216"})
+    long spillThreshold;
+
+    SimpleFeatureCollection collection;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        collection = createCollection(features);
+    }
+
+    static SimpleFeatureCollection createCollection(int features) throws Exception {
+        SimpleFeatureType type =
+                DataUtilities.createType(
+                        "bench", "geom:Polygon:srid=4326,name:String,value:Double,code:Integer");
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        GeometryFactory gf = new GeometryFactory();
+        Random random = new Random(0);
+        List<SimpleFeature> list = new ArrayList<>(features);
+        for (int i = 0; i < features; i++) {
+            double x = random.nextDouble() * 360 - 180;
+            double y = random.nextDouble() * 180 - 90;
+            Coordinate[] ring = new Coordinate[21];
+            for (int j = 0; j < 20; j++) {
+                double angle = -2 * Math.PI * j / 20;
+                ring[j] = new Coordinate(x + Math.cos(angle) * 0.1, y + Math.sin(angle) * 0.1);
+            }
+            ring[20] = ring[0];
+            fb.add(gf.createPolygon(ring));
+            fb.add("feature " + i);
+            fb.add(random.nextDouble());
+            fb.add(i);
+            list.add(fb.buildFeature("bench." + i));
+        }
+        return new ListFeatureCollection(type, list);
+    }
+
+    @Benchmark
+    public long tempDirectory() throws IOException {
+        CountingOutputStream out = new CountingOutputStream(false);
+        writeTempDirectory(collection, out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long streaming() throws IOException {
+        CountingOutputStream out = new CountingOutputStream(false);
+        writeStreaming(collection, spillThreshold, out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long tempDirectoryFirstByte() throws IOException {
+        try {
+            writeTempDirectory(collection, new CountingOutputStream(true));
+        } catch (FirstByteException e) {
+            return 1;
+        }
+        return 0;
+    }
+
+    @Benchmark
+    public long streamingFirstByte() throws IOException {
+        try {
+            writeStreaming(collection, spillThreshold, new CountingOutputStream(true));
+        } catch (FirstByteException e) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /** Writes via the dumper and a temp directory, returns the disk space used */
+    static long writeTempDirectory(SimpleFeatureCollection collection, OutputStream out)
+            throws IOException {
+        File tempDir = IOUtils.createTempDirectory("shpziptemp");
+        try {
+            ShapefileDumper dumper = new ShapefileDumper(tempDir);
+            dumper.setCharset(StandardCharsets.ISO_8859_1);
+            dumper.dump(collection);
+            long used = FileUtils.sizeOfDirectory(tempDir);
+            ZipOutputStream zip = new ZipOutputStream(out);
+            IOUtils.zipDirectory(tempDir, zip, null);
+            zip.finish();
+            return used;
+        } finally {
+            FileUtils.deleteDirectory(tempDir);
+        }
+    }
+
+    /** Writes via the streaming writer, returns the disk space used */
+    static long writeStreaming(
+            SimpleFeatureCollection collection, long spillThreshold, OutputStream out)
+            throws IOException {
+        StreamingShapefileWriter writer =
+                new StreamingShapefileWriter(
+                        StandardCharsets.ISO_8859_1,
+                        Integer.MAX_VALUE,
+                        Integer.MAX_VALUE,
+                        spillThreshold);
+        StreamingShapefileWriter.Layout layout = writer.prepare(collection);
+        ZipOutputStream zip = new ZipOutputStream(out);
+        long used = writer.write(layout, "bench", zip);
+        zip.finish();
+        return used;
+    }
+
+    /** Counts the bytes written, eventually interrupting the write at the first one */
+    static class CountingOutputStream extends OutputStream {
+
+        boolean stopAtFirstByte;
+
+        long count;
+
+        CountingOutputStream(boolean stopAtFirstByte) {
+            this.stopAtFirstByte = stopAtFirstByte;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (stopAtFirstByte && len > 0) {
+                throw new FirstByteException();
+            }
+            count += len;
+        }
+    }
+
+    static class FirstByteException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimpleFeatureCollection collection = createCollection(100000);
+        System.out.println(
+                "Disk usage, temp directory: "
+                        + writeTempDirectory(collection, new CountingOutputStream(false))
+                        + " bytes, streaming: "
+                        + writeStreaming(collection, 16777216, new CountingOutputStream(false))
+                        + " bytes");
+
+        Options options =
+                new OptionsBuilder().include(ShapeZipBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
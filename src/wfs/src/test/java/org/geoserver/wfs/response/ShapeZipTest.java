@@ -596,6 +596,97 @@ public void testIncludeWFSRequestDumpFile() throws Exception {
                                 + "&outputFormat=SHAPE-ZIP");
         checkForWFSRequestDumpFile(getBinaryInputStream(response), true);
     }
+    @Test
+    public void testStreaming() throws Exception {
+        FeatureCollection fc = getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures();
+        byte[] zip = writeOutStreaming(fc, Long.MAX_VALUE);
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+        checkFieldsAreNotEmpty(new ByteArrayInputStream(zip));
+        // same .shp as the one written via the temp directory
+        assertArrayEquals(getShpOnlyBytes(writeOut(fc)), getShpOnlyBytes(zip));
+    }
+
+    @Test
+    public void testStreamingSpill() throws Exception {
+        FeatureCollection fc = getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures();
+        // force the .shx and .dbf on disk
+        byte[] zip = writeOutStreaming(fc, 10);
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+        checkFieldsAreNotEmpty(new ByteArrayInputStream(zip));
+    }
+
+    @Test
+    public void testStreamingLongNames() throws Exception {
+        byte[] zip = writeOutStreaming(getFeatureSource(LONGNAMES).getFeatures(), Long.MAX_VALUE);
+
+        SimpleFeatureType schema = checkFieldsAreNotEmpty(new ByteArrayInputStream(zip));
+        checkLongNamesSchema(schema);
+    }
+
+    @Test
+    public void testStreamingNullGeometries() throws Exception {
+        byte[] zip = writeOutStreaming(getFeatureSource(NULLGEOM).getFeatures(), Long.MAX_VALUE);
+
+        checkShapefileIntegrity(new String[] {"nullgeom"}, new ByteArrayInputStream(zip));
+    }
+
+    @Test
+    public void testStreamingEmptyResult() throws Exception {
+        byte[] zip =
+                writeOutStreaming(
+                        getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures(Filter.EXCLUDE),
+                        Long.MAX_VALUE);
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+    }
+
+    @Test
+    public void testStreamingFallback() throws Exception {
+        // multiple geometry types, cannot be streamed, falls back on the dumper
+        byte[] zip = writeOutStreaming(getFeatureSource(ALL_TYPES).getFeatures(), Long.MAX_VALUE);
+
+        final String[] expectedTypes = {
+            "AllTypesPoint", "AllTypesMPoint", "AllTypesPolygon", "AllTypesLine"
+        };
+        checkShapefileIntegrity(expectedTypes, new ByteArrayInputStream(zip));
+    }
+
+    @Test
+    public void testStreamingESRIFormat() throws Exception {
+        setupESRIPropertyFile();
+        Map options = new HashMap();
+        options.put("PRJFILEFORMAT", "ESRI");
+        gft.setFormatOptions(options);
+
+        byte[] zip =
+                writeOutStreaming(
+                        getFeatureSource(SystemTestData.BASIC_POLYGONS).getFeatures(),
+                        Long.MAX_VALUE);
+
+        checkShapefileIntegrity(new String[] {"BasicPolygons"}, new ByteArrayInputStream(zip));
+        checkFileContent(
+                "BasicPolygons.prj", new ByteArrayInputStream(zip), get4326_ESRI_WKTContent());
+    }
+
+    /**
+     * Saves the feature source contents into a zipped shapefile, without using a temp directory,
+     * returns the output as a byte array
+     */
+    byte[] writeOutStreaming(FeatureCollection fc, long spillThreshold) throws IOException {
+        ShapeZipOutputFormat zip =
+                new ShapeZipOutputFormat(getGeoServer(), getCatalog(), getResourceLoader());
+        zip.setStreaming(true);
+        zip.setSpillThreshold(spillThreshold);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        FeatureCollectionResponse fct =
+                FeatureCollectionResponse.adapt(WfsFactory.eINSTANCE.createFeatureCollectionType());
+        fct.getFeature().add(fc);
+        zip.write(fct, bos, op);
+        return bos.toByteArray();
+    }
+
     /**
      * Saves the feature source contents into a zipped shapefile, returns the output as a byte array
      */
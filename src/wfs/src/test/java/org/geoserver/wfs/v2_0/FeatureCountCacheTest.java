@@ -0,0 +1,131 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.v2_0;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.security.CatalogMode;
+import org.geoserver.security.VectorAccessLimits;
+import org.geoserver.security.WrapperPolicy;
+import org.geoserver.security.decorators.SecuredFeatureTypeInfo;
+import org.geoserver.wfs.FeatureCountCache;
+import org.geoserver.wfs.TransactionEvent;
+import org.geoserver.wfs.TransactionEventType;
+import org.geotools.api.data.Query;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.factory.CommonFactoryFinder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class FeatureCountCacheTest extends WFS20TestSupport {
+
+    static final String PAGE =
+            "wfs?request=GetFeature&typenames=cdf:Fifteen&version=2.0.0&service=wfs&count=5";
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    FeatureCountCache cache;
+
+    @Before
+    public void enableCache() {
+        cache = GeoServerExtensions.bean(FeatureCountCache.class);
+        cache.setEnabled(true);
+        cache.clear();
+        cache.resetStatistics();
+    }
+
+    @After
+    public void disableCache() {
+        cache.setAsync(false);
+        cache.setEnabled(false);
+    }
+
+    private String getNumberMatched(String request) throws Exception {
+        Document dom = getAsDOM(request);
+        return dom.getDocumentElement().getAttribute("numberMatched");
+    }
+
+    @Test
+    public void testPaging() throws Exception {
+        assertEquals("15", getNumberMatched(PAGE + "&startIndex=0"));
+        assertEquals("15", getNumberMatched(PAGE + "&startIndex=5"));
+        assertEquals("15", getNumberMatched(PAGE + "&startIndex=10"));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getCounts());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testTransactionInvalidates() throws Exception {
+        assertEquals("15", getNumberMatched(PAGE));
+        assertEquals(1, cache.size());
+
+        cache.dataStoreChange(
+                new TransactionEvent(
+                        TransactionEventType.PRE_DELETE, null, SystemTestData.FIFTEEN, null));
+        cache.afterTransaction(null, null, true);
+        assertEquals(0, cache.size());
+
+        assertEquals("15", getNumberMatched(PAGE));
+        assertEquals(2, cache.getCounts());
+    }
+
+    @Test
+    public void testCatalogChangeInvalidates() throws Exception {
+        assertEquals("15", getNumberMatched(PAGE));
+        assertEquals(1, cache.size());
+
+        getCatalog().save(getCatalog().getFeatureTypeByName("cdf", "Fifteen"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testReadLimitsInKey() throws Exception {
+        FeatureTypeInfo fifteen = getCatalog().getFeatureTypeByName("cdf", "Fifteen");
+        Query query = new Query(fifteen.getName());
+        assertEquals(15, count(fifteen, Filter.INCLUDE, query));
+
+        // same user, the rules changed or depend on something else than the roles
+        Filter twoFids = FF.id(FF.featureId("Fifteen.1"), FF.featureId("Fifteen.2"));
+        assertEquals(2, count(fifteen, twoFids, query));
+        assertEquals(15, count(fifteen, Filter.INCLUDE, query));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getCounts());
+    }
+
+    private int count(FeatureTypeInfo typeInfo, Filter readFilter, Query query) throws Exception {
+        VectorAccessLimits limits =
+                new VectorAccessLimits(CatalogMode.HIDE, null, readFilter, null, null);
+        FeatureTypeInfo secured =
+                new SecuredFeatureTypeInfo(typeInfo, WrapperPolicy.readOnlyHide(limits));
+        return cache.getCount(secured, secured.getFeatureSource(null, null), query, false);
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        cache.setAsync(true);
+
+        // not known yet, computed in background
+        assertEquals("unknown", getNumberMatched(PAGE + "&startIndex=5"));
+        await().atMost(5, SECONDS).until(() -> cache.size() == 1);
+        assertEquals("15", getNumberMatched(PAGE + "&startIndex=5"));
+        assertEquals(1, cache.getUnknowns());
+        assertEquals(1, cache.getHits());
+
+        // hits requests wait for the count
+        cache.clear();
+        assertEquals("15", getNumberMatched(PAGE + "&startIndex=5&resultType=hits"));
+    }
+}
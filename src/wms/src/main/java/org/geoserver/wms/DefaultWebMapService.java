@@ -17,6 +17,7 @@
 import org.geoserver.wms.capabilities.Capabilities_1_3_0_Transformer;
 import org.geoserver.wms.capabilities.GetCapabilitiesTransformer;
 import org.geoserver.wms.describelayer.DescribeLayerModel;
+import org.geoserver.wms.map.png.PNGJWriter;
 import org.geotools.api.style.Style;
 import org.geotools.api.style.StyledLayerDescriptor;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -354,5 +355,6 @@ public void destroy() throws Exception {
             RENDERING_POOL.awaitTermination(10, TimeUnit.SECONDS);
             RENDERING_POOL = null;
         }
+        PNGJWriter.dispose();
     }
 }
@@ -48,14 +48,18 @@
 import org.geoserver.catalog.WMSLayerInfo;
 import org.geoserver.catalog.WMTSLayerInfo;
 import org.geoserver.catalog.impl.AdvertisedCatalog;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.catalog.impl.CatalogSnapshot;
 import org.geoserver.catalog.util.ReaderDimensionsAccessor;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.JAIInfo;
 import org.geoserver.data.DimensionFilterBuilder;
 import org.geoserver.data.util.CoverageUtils;
+import org.geoserver.ows.LocalWorkspace;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.security.SecureCatalogImpl;
 import org.geoserver.util.DimensionWarning;
 import org.geoserver.util.NearestMatchFinder;
 import org.geoserver.wms.WMSInfo.WMSInterpolation;
@@ -63,6 +67,8 @@
 import org.geoserver.wms.capabilities.DimensionHelper;
 import org.geoserver.wms.dimension.DimensionDefaultValueSelectionStrategy;
 import org.geoserver.wms.dimension.DimensionDefaultValueSelectionStrategyFactory;
+import org.geoserver.wms.dimension.DimensionDomainIndex;
+import org.geoserver.wms.dimension.DimensionDomainIndex.DimensionDomain;
 import org.geoserver.wms.featureinfo.GetFeatureInfoOutputFormat;
 import org.geoserver.wms.map.RenderedImageMapOutputFormat;
 import org.geoserver.wms.map.RenderedImageMapResponse;
@@ -134,6 +140,10 @@ public class WMS implements ApplicationContextAware {
 
     public static final int PNG_COMPRESSION_DEFAULT = 25;
 
+    public static final String PNG_PARALLEL_ENCODING = "pngParallelEncoding";
+
+    public static final Boolean PNG_PARALLEL_ENCODING_DEFAULT = Boolean.FALSE;
+
     public static final String SCALEHINT_MAPUNITS_PIXEL = "scalehintMapunitsPixel";
 
     public static final Boolean SCALEHINT_MAPUNITS_PIXEL_DEFAULT = Boolean.FALSE;
@@ -252,6 +262,8 @@ public class WMS implements ApplicationContextAware {
 
     private DimensionDefaultValueSelectionStrategyFactory defaultDimensionValueFactory;
 
+    private DimensionDomainIndex dimensionDomainIndex;
+
     public WMS(GeoServer geoserver) {
         this.geoserver = geoserver;
     }
@@ -265,10 +277,46 @@ public WMSInfo getServiceInfo() {
     }
 
     public Style getStyleByName(String styleName) throws IOException {
-        StyleInfo styleInfo = getCatalog().getStyleByName(styleName);
+        StyleInfo styleInfo = getSnapshotStyle(styleName);
+        if (styleInfo == null) {
+            styleInfo = getCatalog().getStyleByName(styleName);
+        }
         return styleInfo == null ? null : styleInfo.getStyle();
     }
 
+    /**
+     * Looks up the style in the catalog snapshot, avoiding the proxy wrapping of the catalog
+     * lookup. Only used outside of workspace specific services, when the catalog is the default
+     * secured one, and for styles outside of isolated workspaces, returns null in all other cases
+     * so that the caller falls back on the catalog. Failures building the snapshot are logged and
+     * also result in a fall back on the catalog.
+     */
+    private StyleInfo getSnapshotStyle(String styleName) {
+        Catalog catalog = getCatalog();
+        if (styleName == null
+                || LocalWorkspace.get() != null
+                || !(catalog instanceof Wrapper)
+                || !((Wrapper) catalog).isWrapperFor(SecureCatalogImpl.class)) {
+            return null;
+        }
+        SecureCatalogImpl secure = ((Wrapper) catalog).unwrap(SecureCatalogImpl.class);
+        if (!secure.isWrapperFor(CatalogImpl.class)) {
+            return null;
+        }
+        StyleInfo style;
+        try {
+            CatalogSnapshot snapshot = secure.unwrap(CatalogImpl.class).getSnapshot();
+            style = snapshot.getStyleByName(styleName);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to build the catalog snapshot", e);
+            return null;
+        }
+        if (style == null || (style.getWorkspace() != null && style.getWorkspace().isIsolated())) {
+            return null;
+        }
+        return secure.checkAccess(style);
+    }
+
     public LayerInfo getLayerByName(String layerName) {
         return getCatalog().getLayerByName(layerName);
     }
@@ -640,6 +688,15 @@ public int getPngCompression() {
                 serviceInfo.getMetadata(), PNG_COMPRESSION, PNG_COMPRESSION_DEFAULT);
     }
 
+    /**
+     * Returns true if PNG images should be encoded compressing bands of rows in parallel (only
+     * used by the PNGJ encoder)
+     */
+    public boolean isPngParallelEncoding() {
+        return getMetadataValue(
+                PNG_PARALLEL_ENCODING, PNG_PARALLEL_ENCODING_DEFAULT, Boolean.class);
+    }
+
     public int getJpegCompression() {
         WMSInfo serviceInfo = getServiceInfo();
         return getMetadataPercentage(
@@ -895,6 +952,9 @@ public void setApplicationContext(final ApplicationContext applicationContext)
                 GeoServerExtensions.extensions(DimensionDefaultValueSelectionStrategyFactory.class)
                         .get(0);
 
+        // the vector dimension domain index, optional
+        dimensionDomainIndex = GeoServerExtensions.bean(DimensionDomainIndex.class);
+
         // enable/disable map wrapping
         if (ENABLE_MAP_WRAPPING == null) {
             String wrapping =
@@ -1402,8 +1462,6 @@ public TreeSet<Date> getFeatureTypeTimes(FeatureTypeInfo typeInfo) throws IOExce
                     "Layer " + typeInfo.prefixedName() + " does not have time support enabled");
         }
 
-        FeatureCollection collection = getDimensionCollection(typeInfo, time);
-
         TreeSet<Date> result = new TreeSet<>();
 
         String startValue = time.getStartValue();
@@ -1416,6 +1474,27 @@ public TreeSet<Date> getFeatureTypeTimes(FeatureTypeInfo typeInfo) throws IOExce
             return result;
         }
 
+        DimensionDomain domain = getIndexedDomain(typeInfo, time);
+        if (domain != null) {
+            if (time.getPresentation() == DimensionPresentation.LIST) {
+                TreeSet<Object> values = domain.getValues();
+                if (values != null) {
+                    if (values.isEmpty()) return null;
+                    for (Object value : values) {
+                        result.add((Date) value);
+                    }
+                    return result;
+                }
+            } else {
+                if (domain.getMin() != null) {
+                    result.add((Date) domain.getMin());
+                    result.add((Date) domain.getEndMax());
+                }
+                return result;
+            }
+        }
+
+        FeatureCollection collection = getDimensionCollection(typeInfo, time);
         if (time.getPresentation() == DimensionPresentation.LIST) {
             final UniqueVisitor visitor = new UniqueVisitor(time.getAttribute());
             collection.accepts(visitor, null);
@@ -1494,8 +1573,6 @@ public TreeSet<Double> getFeatureTypeElevations(FeatureTypeInfo typeInfo) throws
                             + " does not have elevation support enabled");
         }
 
-        FeatureCollection collection = getDimensionCollection(typeInfo, elevation);
-
         TreeSet<Double> result = new TreeSet<>();
 
         String startValue = elevation.getStartValue();
@@ -1507,6 +1584,26 @@ public TreeSet<Double> getFeatureTypeElevations(FeatureTypeInfo typeInfo) throws
             result.add(Double.parseDouble(endValue));
             return result;
         }
+
+        DimensionDomain domain = getIndexedDomain(typeInfo, elevation);
+        if (domain != null) {
+            TreeSet<Object> values = domain.getValues();
+            if (values != null) {
+                if (values.isEmpty()) return null;
+                for (Object value : values) {
+                    result.add(((Number) value).doubleValue());
+                }
+                return result;
+            } else if (!DimensionDomainIndex.needsValues(elevation)) {
+                if (domain.getMin() != null) {
+                    result.add(((Number) domain.getMin()).doubleValue());
+                    result.add(((Number) domain.getEndMax()).doubleValue());
+                }
+                return result;
+            }
+        }
+
+        FeatureCollection collection = getDimensionCollection(typeInfo, elevation);
         if (elevation.getPresentation() == DimensionPresentation.LIST
                 || (elevation.getPresentation() == DimensionPresentation.DISCRETE_INTERVAL
                         && elevation.getResolution() == null)) {
@@ -1691,6 +1788,16 @@ FeatureCollection getDimensionCollection(FeatureTypeInfo typeInfo, DimensionInfo
         return source.getFeatures(dimQuery);
     }
 
+    /**
+     * Returns the domain of the dimension from the {@link DimensionDomainIndex}, or null if the
+     * index is not available or disabled
+     */
+    DimensionDomain getIndexedDomain(FeatureTypeInfo typeInfo, DimensionInfo dimension)
+            throws IOException {
+        if (dimensionDomainIndex == null || !dimensionDomainIndex.isEnabled()) return null;
+        return dimensionDomainIndex.getDomain(typeInfo, dimension);
+    }
+
     /** Returns the feature source for the given feature type */
     FeatureSource getFeatureSource(FeatureTypeInfo typeInfo) {
         // grab the feature source
@@ -2163,13 +2270,30 @@ public static boolean isWmsExposable(LayerInfo lyr) {
      */
     public TreeSet<Object> getDimensionValues(FeatureTypeInfo typeInfo, DimensionInfo dimensionInfo)
             throws IOException {
-        final FeatureCollection fcollection = getDimensionCollection(typeInfo, dimensionInfo);
-
         final TreeSet<Object> result = new TreeSet<>();
 
         String startValue = dimensionInfo.getStartValue();
         String endValue = dimensionInfo.getEndValue();
+        boolean fixedRange =
+                dimensionInfo.getPresentation() != DimensionPresentation.LIST
+                        && !StringUtils.isEmpty(startValue)
+                        && !StringUtils.isEmpty(endValue);
+
+        DimensionDomain domain = fixedRange ? null : getIndexedDomain(typeInfo, dimensionInfo);
+        if (domain != null) {
+            TreeSet<Object> values = domain.getValues();
+            if (values != null) {
+                return values;
+            } else if (!DimensionDomainIndex.needsValues(dimensionInfo)) {
+                if (domain.getMin() != null) {
+                    result.add(domain.getMin());
+                    result.add(domain.getEndMax());
+                }
+                return result;
+            }
+        }
 
+        final FeatureCollection fcollection = getDimensionCollection(typeInfo, dimensionInfo);
         if (dimensionInfo.getPresentation() != DimensionPresentation.LIST
                 && !StringUtils.isEmpty(startValue)
                 && !StringUtils.isEmpty(endValue)) {
@@ -11,7 +11,9 @@
 import java.util.logging.Logger;
 import org.geoserver.catalog.DimensionInfo;
 import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.wms.dimension.DimensionDomainIndex.DimensionDomain;
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Query;
 import org.geotools.feature.FeatureCollection;
@@ -55,6 +57,21 @@ protected CalcResult getCalculatedResult(
         return retval;
     }
 
+    /**
+     * Returns the domain of the given dimension from the {@link DimensionDomainIndex}, or null if
+     * the index is not available, disabled, or failed to build the domain
+     */
+    protected DimensionDomain getIndexedDomain(FeatureTypeInfo typeInfo, DimensionInfo dimension) {
+        DimensionDomainIndex index = GeoServerExtensions.bean(DimensionDomainIndex.class);
+        if (index == null || !index.isEnabled()) return null;
+        try {
+            return index.getDomain(typeInfo, dimension);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINER, e.getMessage(), e);
+            return null;
+        }
+    }
+
     private FeatureCollection<?, ?> getDimensionCollection(
             FeatureTypeInfo typeInfo, DimensionInfo dimension) throws IOException {
         // grab the feature source
@@ -0,0 +1,885 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.dimension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.namespace.QName;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.DimensionInfo;
+import org.geoserver.catalog.DimensionPresentation;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.impl.GeoServerLifecycleHandler;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.security.AccessLevel;
+import org.geoserver.security.AccessLimits;
+import org.geoserver.security.DataAccessLimits;
+import org.geoserver.security.SecureCatalogImpl;
+import org.geoserver.security.VectorAccessLimits;
+import org.geoserver.security.WrapperPolicy;
+import org.geoserver.security.decorators.SecuredFeatureTypeInfo;
+import org.geoserver.wfs.TransactionEvent;
+import org.geoserver.wfs.TransactionEventType;
+import org.geoserver.wfs.TransactionCallback;
+import org.geoserver.wfs.WFSException;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wfs.request.TransactionResponse;
+import org.geotools.api.data.FeatureSource;
+import org.geotools.api.data.Query;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.FeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.visitor.Aggregate;
+import org.geotools.feature.visitor.CalcResult;
+import org.geotools.feature.visitor.GroupByVisitor;
+import org.geotools.feature.visitor.GroupByVisitorBuilder;
+import org.geotools.feature.visitor.MaxVisitor;
+import org.geotools.feature.visitor.MinVisitor;
+import org.geotools.util.Converters;
+import org.geotools.util.decorate.Wrapper;
+import org.geotools.util.factory.GeoTools;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Keeps the domain of the vector dimensions (time, elevation, custom ones) in memory, so that
+ * GetCapabilities and the default value strategies do not need to scan the data on each request.
+ *
+ * <p>Each indexed dimension keeps the minimum and maximum values and, for the presentations listing
+ * all values, the distinct values along with their number of occurrences. The occurrences allow to
+ * update the index incrementally as WFS transactions insert, update and delete features, without
+ * rescanning the data. When the distinct values exceed {@link #MAX_VALUES_KEY} only the extremes
+ * are kept, and a change removing one of them marks the dimension for rebuild.
+ *
+ * <p>The changes of a transaction are collected in the request, and applied to the index only once
+ * the transaction is committed, a rolled back transaction leaves the index untouched. Only the
+ * features matching the feature type CQL filter, if any, are taken into account.
+ *
+ * <p>Changes not going through WFS-T are not seen, staleness can be controlled with a maximum age
+ * ({@link #MAX_AGE_KEY}), after which the domain is rebuilt on the next access, and a background
+ * refresh ({@link #REFRESH_INTERVAL_KEY}) rebuilding the expired and invalidated entries ahead of
+ * the requests.
+ *
+ * <p>The index is shared among users, so it is built out of the raw feature types, and it is not
+ * used for users whose access limits hide part of the dimension data (read filters, geometry
+ * filters, hidden dimension attributes), their requests keep scanning the secured data.
+ *
+ * <p>The index is disabled by default, enable it with {@link #ENABLED_KEY}.
+ */
+public class DimensionDomainIndex
+        implements TransactionCallback,
+                CatalogListener,
+                GeoServerLifecycleHandler,
+                DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(DimensionDomainIndex.class);
+
+    /** Property enabling the index */
+    public static final String ENABLED_KEY = "GEOSERVER_DIMENSION_INDEX";
+
+    /** Property setting the maximum age of an indexed domain, in seconds */
+    public static final String MAX_AGE_KEY = "GEOSERVER_DIMENSION_INDEX_MAX_AGE";
+
+    /** Property setting the interval of the background refresh, in seconds */
+    public static final String REFRESH_INTERVAL_KEY = "GEOSERVER_DIMENSION_INDEX_REFRESH";
+
+    /** Property setting the maximum number of distinct values kept for a dimension */
+    public static final String MAX_VALUES_KEY = "GEOSERVER_DIMENSION_INDEX_MAX_VALUES";
+
+    static final int DEFAULT_MAX_VALUES = 100000;
+
+    /** Key of the domain changes collected in the transaction request extended properties */
+    static final String TRANSACTION_CHANGES = "DIMENSION_INDEX_CHANGES";
+
+    private final GeoServer geoServer;
+
+    private final Catalog rawCatalog;
+
+    private final Map<String, DimensionDomain> domains = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    private volatile long maxAge;
+
+    private volatile int maxValues = DEFAULT_MAX_VALUES;
+
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> refreshTask;
+
+    public DimensionDomainIndex(GeoServer geoServer, Catalog rawCatalog) {
+        this.geoServer = geoServer;
+        this.rawCatalog = rawCatalog;
+        this.enabled = Boolean.parseBoolean(GeoServerExtensions.getProperty(ENABLED_KEY));
+        this.maxAge = getLongProperty(MAX_AGE_KEY, 0) * 1000;
+        this.maxValues = (int) getLongProperty(MAX_VALUES_KEY, DEFAULT_MAX_VALUES);
+        setRefreshInterval(getLongProperty(REFRESH_INTERVAL_KEY, 0) * 1000);
+        geoServer.getCatalog().addListener(this);
+    }
+
+    private static long getLongProperty(String key, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + key + ", expected a number but got " + value);
+            return defaultValue;
+        }
+    }
+
+    /** Returns true if the index is used */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Enables or disables the index, disabling it clears the indexed domains */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) clear();
+    }
+
+    /** Returns the maximum age of an indexed domain, in milliseconds, zero if unlimited */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /** Sets the maximum age of an indexed domain, in milliseconds, zero or less for unlimited */
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /** Returns the maximum number of distinct values kept for a dimension */
+    public int getMaxValues() {
+        return maxValues;
+    }
+
+    /** Sets the maximum number of distinct values kept for a dimension */
+    public void setMaxValues(int maxValues) {
+        this.maxValues = maxValues;
+    }
+
+    /**
+     * Sets the interval of the background refresh of the expired and invalidated domains, in
+     * milliseconds, zero or less disables it
+     */
+    public synchronized void setRefreshInterval(long interval) {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+        if (interval > 0) {
+            if (scheduler == null) {
+                scheduler =
+                        Executors.newSingleThreadScheduledExecutor(
+                                r -> {
+                                    Thread t = new Thread(r, "DimensionDomainIndexRefresh");
+                                    t.setDaemon(true);
+                                    return t;
+                                });
+            }
+            refreshTask =
+                    scheduler.scheduleWithFixedDelay(
+                            this::refreshStale, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the indexed domain for the given dimension, building it if missing, invalidated or
+     * expired. Returns null if the index is disabled, or if the access limits of the current user
+     * on the feature type hide part of the dimension data.
+     *
+     * @param typeInfo The feature type, possibly secured
+     * @param dimension The dimension configuration
+     */
+    public DimensionDomain getDomain(FeatureTypeInfo typeInfo, DimensionInfo dimension)
+            throws IOException {
+        if (!enabled || typeInfo.getId() == null) return null;
+        SecuredFeatureTypeInfo secured = getSecured(typeInfo);
+        if (secured != null) {
+            if (isReadRestricted(secured.getReadPolicy(), dimension)) return null;
+            typeInfo = (FeatureTypeInfo) SecureCatalogImpl.unwrap(secured);
+        }
+        String key = key(typeInfo, dimension);
+        DimensionDomain domain = domains.get(key);
+        if (domain != null && !isStale(domain)) return domain;
+
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            domain = domains.get(key);
+            if (domain == null || isStale(domain)) {
+                domain = build(typeInfo, dimension);
+                domains.put(key, domain);
+            }
+            return domain;
+        }
+    }
+
+    private static SecuredFeatureTypeInfo getSecured(FeatureTypeInfo typeInfo) {
+        if (typeInfo instanceof SecuredFeatureTypeInfo) {
+            return (SecuredFeatureTypeInfo) typeInfo;
+        } else if (typeInfo instanceof Wrapper
+                && ((Wrapper) typeInfo).isWrapperFor(SecuredFeatureTypeInfo.class)) {
+            return ((Wrapper) typeInfo).unwrap(SecuredFeatureTypeInfo.class);
+        }
+        return null;
+    }
+
+    /** Returns true if the policy hides part of the data the dimension domain is built from */
+    static boolean isReadRestricted(WrapperPolicy policy, DimensionInfo dimension) {
+        // the regular code path will report the lack of access
+        if (policy.getAccessLevel() == AccessLevel.METADATA) return true;
+        AccessLimits limits = policy.getLimits();
+        if (limits instanceof DataAccessLimits) {
+            Filter readFilter = ((DataAccessLimits) limits).getReadFilter();
+            if (readFilter != null && readFilter != Filter.INCLUDE) return true;
+        }
+        if (limits instanceof VectorAccessLimits) {
+            VectorAccessLimits vectorLimits = (VectorAccessLimits) limits;
+            if (vectorLimits.getClipVectorFilter() != null
+                    || vectorLimits.getIntersectVectorFilter() != null) {
+                return true;
+            }
+            List<PropertyName> attributes = vectorLimits.getReadAttributes();
+            if (attributes != null) {
+                Set<String> names = new HashSet<>();
+                for (PropertyName attribute : attributes) {
+                    names.add(attribute.getPropertyName());
+                }
+                if (!names.contains(dimension.getAttribute())
+                        || (isEndIndexed(dimension)
+                                && !names.contains(dimension.getEndAttribute()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Returns a snapshot of the indexed domains */
+    public List<DimensionDomain> getDomains() {
+        return new ArrayList<>(domains.values());
+    }
+
+    /** Rebuilds the indexed domains of the given feature type */
+    public void rebuild(FeatureTypeInfo typeInfo) throws IOException {
+        for (Map.Entry<String, DimensionDomain> entry : domains.entrySet()) {
+            if (entry.getValue().getFeatureTypeId().equals(typeInfo.getId())) {
+                entry.getValue().invalidate();
+            }
+        }
+        for (DimensionInfo dimension : getDimensions(typeInfo)) {
+            getDomain(typeInfo, dimension);
+        }
+    }
+
+    /** Rebuilds all the indexed domains */
+    public void rebuild() {
+        for (DimensionDomain domain : domains.values()) {
+            domain.invalidate();
+        }
+        refreshStale();
+    }
+
+    /** Drops all the indexed domains, they will be rebuilt on demand */
+    public void clear() {
+        domains.clear();
+        locks.clear();
+    }
+
+    /** Drops the indexed domains of the given feature type */
+    public void clear(String featureTypeId) {
+        domains.values().removeIf(d -> d.getFeatureTypeId().equals(featureTypeId));
+    }
+
+    /** Rebuilds the stale domains, called periodically when the refresh interval is set */
+    void refreshStale() {
+        for (DimensionDomain domain : getDomains()) {
+            if (!isStale(domain)) continue;
+            // runs in the background, without a user
+            FeatureTypeInfo typeInfo = rawCatalog.getFeatureType(domain.featureTypeId);
+            if (typeInfo == null) {
+                clear(domain.featureTypeId);
+                continue;
+            }
+            try {
+                for (DimensionInfo dimension : getDimensions(typeInfo)) {
+                    if (key(typeInfo, dimension).equals(domain.key)) {
+                        getDomain(typeInfo, dimension);
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Failed to refresh the dimension domain of " + typeInfo.prefixedName(),
+                        e);
+            }
+        }
+    }
+
+    private List<DimensionInfo> getDimensions(FeatureTypeInfo typeInfo) {
+        List<DimensionInfo> result = new ArrayList<>();
+        for (Object value : typeInfo.getMetadata().values()) {
+            if (value instanceof DimensionInfo && ((DimensionInfo) value).isEnabled()) {
+                result.add((DimensionInfo) value);
+            }
+        }
+        return result;
+    }
+
+    private boolean isStale(DimensionDomain domain) {
+        return domain.invalid
+                || (maxAge > 0 && System.currentTimeMillis() - domain.builtAt > maxAge);
+    }
+
+    /** Values are needed when all of them are going to be listed */
+    static boolean needsValues(DimensionInfo dimension) {
+        return dimension.getPresentation() == DimensionPresentation.LIST
+                || (dimension.getPresentation() == DimensionPresentation.DISCRETE_INTERVAL
+                        && dimension.getResolution() == null);
+    }
+
+    /** The end attribute is used only by the presentations not listing the values */
+    static boolean isEndIndexed(DimensionInfo dimension) {
+        return dimension.getEndAttribute() != null
+                && dimension.getPresentation() != DimensionPresentation.LIST;
+    }
+
+    private static String key(FeatureTypeInfo typeInfo, DimensionInfo dimension) {
+        return typeInfo.getId()
+                + "|"
+                + dimension.getAttribute()
+                + "|"
+                + (isEndIndexed(dimension) ? dimension.getEndAttribute() : "")
+                + "|"
+                + needsValues(dimension);
+    }
+
+    DimensionDomain build(FeatureTypeInfo typeInfo, DimensionInfo dimension) throws IOException {
+        long start = System.currentTimeMillis();
+        FeatureSource<?, ?> source = typeInfo.getFeatureSource(null, GeoTools.getDefaultHints());
+        FeatureType schema = source.getSchema();
+        String attribute = dimension.getAttribute();
+        String endAttribute = dimension.getEndAttribute();
+        boolean values = needsValues(dimension);
+
+        DimensionDomain domain =
+                new DimensionDomain(
+                        key(typeInfo, dimension),
+                        typeInfo.getId(),
+                        typeInfo.prefixedName(),
+                        new QName(typeInfo.getNamespace().getURI(), typeInfo.getName()),
+                        attribute,
+                        endAttribute);
+        Filter filter = typeInfo.filter();
+        domain.filter = filter != null ? filter : Filter.INCLUDE;
+        domain.start = buildAttribute(source, schema, attribute, values);
+        if (isEndIndexed(dimension)) {
+            domain.end = buildAttribute(source, schema, endAttribute, false);
+        }
+        domain.builtAt = start;
+        domain.buildTime = System.currentTimeMillis() - start;
+        LOGGER.fine(
+                () ->
+                        "Built dimension domain for "
+                                + typeInfo.prefixedName()
+                                + "/"
+                                + attribute
+                                + " in "
+                                + domain.buildTime
+                                + "ms");
+        return domain;
+    }
+
+    private AttributeDomain buildAttribute(
+            FeatureSource<?, ?> source, FeatureType schema, String attribute, boolean values)
+            throws IOException {
+        Class<?> binding = Object.class;
+        if (schema.getDescriptor(attribute) instanceof AttributeDescriptor) {
+            AttributeDescriptor descriptor = (AttributeDescriptor) schema.getDescriptor(attribute);
+            binding = descriptor.getType().getBinding();
+        }
+        AttributeDomain result = new AttributeDomain(attribute, binding, maxValues);
+
+        Query query = new Query(schema.getName().getLocalPart());
+        query.setPropertyNames(attribute);
+        FeatureCollection<?, ?> collection = source.getFeatures(query);
+        if (values) {
+            Expression property = CommonFactoryFinder.getFilterFactory().property(attribute);
+            GroupByVisitorBuilder builder = new GroupByVisitorBuilder();
+            builder.withAggregateVisitor(Aggregate.COUNT);
+            builder.withGroupByAttribute(property);
+            builder.withAggregateAttribute(property);
+            GroupByVisitor visitor = builder.build();
+            collection.accepts(visitor, null);
+            Map<List<Object>, Object> groups = visitor.getResult().toMap();
+            result.counts = new TreeMap<>();
+            for (Map.Entry<List<Object>, Object> group : groups.entrySet()) {
+                Object value = result.convert(group.getKey().get(0));
+                if (value != null) {
+                    result.counts.merge(value, ((Number) group.getValue()).longValue(), Long::sum);
+                }
+            }
+            result.updateExtremes();
+        } else {
+            MinVisitor min = new MinVisitor(attribute);
+            collection.accepts(min, null);
+            if (min.getResult() != CalcResult.NULL_RESULT) {
+                result.min = result.convert(min.getMin());
+                MaxVisitor max = new MaxVisitor(attribute);
+                collection.accepts(max, null);
+                result.max = result.convert(max.getMax());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public TransactionRequest beforeTransaction(TransactionRequest request) throws WFSException {
+        return request;
+    }
+
+    @Override
+    public void beforeCommit(TransactionRequest request) throws WFSException {
+        // nothing to do
+    }
+
+    /** Applies the changes collected during the transaction, if it got committed */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterTransaction(
+            TransactionRequest request, TransactionResponse result, boolean committed) {
+        Map<String, List<DomainChange>> changes =
+                (Map<String, List<DomainChange>>)
+                        request.getExtendedProperties().remove(TRANSACTION_CHANGES);
+        if (changes == null || !committed) return;
+        for (Map.Entry<String, List<DomainChange>> entry : changes.entrySet()) {
+            // the domain might have been dropped or rebuilt in the meantime, a rebuild did not
+            // see the uncommitted changes, so they apply to the new one as well
+            DimensionDomain domain = domains.get(entry.getKey());
+            if (domain != null) {
+                domain.apply(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Collects the dimension values removed and added by the transaction, they are applied on
+     * commit
+     */
+    @Override
+    public void dataStoreChange(TransactionEvent event) throws WFSException {
+        if (!enabled || domains.isEmpty()) return;
+        TransactionEventType type = event.getType();
+        boolean add =
+                type == TransactionEventType.POST_INSERT
+                        || type == TransactionEventType.POST_UPDATE;
+        boolean remove =
+                type == TransactionEventType.PRE_UPDATE
+                        || type == TransactionEventType.PRE_DELETE;
+        if (!add && !remove) return;
+
+        QName layerName = event.getLayerName();
+        Map<String, List<DomainChange>> changes = null;
+        for (DimensionDomain domain : domains.values()) {
+            if (!domain.typeName.getLocalPart().equals(layerName.getLocalPart())
+                    || !Objects.equals(
+                            domain.typeName.getNamespaceURI(), layerName.getNamespaceURI())) {
+                continue;
+            }
+            if (changes == null) {
+                changes = getTransactionChanges(event);
+            }
+            List<DomainChange> domainChanges =
+                    changes.computeIfAbsent(domain.key, k -> new ArrayList<>());
+            if (!domainChanges.isEmpty() && domainChanges.get(0) == DomainChange.INVALIDATE) {
+                // already giving up on this one
+                continue;
+            }
+            SimpleFeatureCollection features = event.getAffectedFeatures();
+            if (features == null) {
+                // we cannot tell what happened
+                invalidateOnCommit(domainChanges);
+                continue;
+            }
+            try (SimpleFeatureIterator it = features.features()) {
+                while (it.hasNext()) {
+                    SimpleFeature feature = it.next();
+                    if (!domain.filter.evaluate(feature)) continue;
+                    if (domainChanges.size() >= maxValues) {
+                        // too many changes to keep around, a rebuild is cheaper
+                        invalidateOnCommit(domainChanges);
+                        break;
+                    }
+                    domainChanges.add(domain.toChange(feature, add));
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Could not collect the dimension domain changes", e);
+                invalidateOnCommit(domainChanges);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<DomainChange>> getTransactionChanges(TransactionEvent event) {
+        Map<Object, Object> properties =
+                TransactionRequest.adapt(event.getRequest()).getExtendedProperties();
+        return (Map<String, List<DomainChange>>)
+                properties.computeIfAbsent(TRANSACTION_CHANGES, k -> new HashMap<>());
+    }
+
+    private static void invalidateOnCommit(List<DomainChange> changes) {
+        changes.clear();
+        changes.add(DomainChange.INVALIDATE);
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+        // nothing to do
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+        if (event.getSource() instanceof FeatureTypeInfo) {
+            clear(((FeatureTypeInfo) event.getSource()).getId());
+        }
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+        // nothing to do
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+        // the dimension configuration might have changed
+        if (event.getSource() instanceof FeatureTypeInfo) {
+            clear(((FeatureTypeInfo) event.getSource()).getId());
+        }
+    }
+
+    @Override
+    public void reloaded() {
+        clear();
+    }
+
+    @Override
+    public void onReset() {
+        // data might have changed in the meantime
+        clear();
+    }
+
+    @Override
+    public void onDispose() {
+        clear();
+    }
+
+    @Override
+    public void beforeReload() {
+        // nothing to do
+    }
+
+    @Override
+    public void onReload() {
+        clear();
+    }
+
+    @Override
+    public synchronized void destroy() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /** The indexed domain of a single dimension */
+    public static class DimensionDomain {
+
+        final String key;
+
+        final String featureTypeId;
+
+        final String layerName;
+
+        final QName typeName;
+
+        final String attribute;
+
+        final String endAttribute;
+
+        /** The feature type CQL filter, the domain is built out of the features matching it */
+        Filter filter = Filter.INCLUDE;
+
+        AttributeDomain start;
+
+        AttributeDomain end;
+
+        long builtAt;
+
+        long buildTime;
+
+        long updates;
+
+        volatile boolean invalid;
+
+        DimensionDomain(
+                String key,
+                String featureTypeId,
+                String layerName,
+                QName typeName,
+                String attribute,
+                String endAttribute) {
+            this.key = key;
+            this.featureTypeId = featureTypeId;
+            this.layerName = layerName;
+            this.typeName = typeName;
+            this.attribute = attribute;
+            this.endAttribute = endAttribute;
+        }
+
+        DomainChange toChange(SimpleFeature feature, boolean add) {
+            Object endValue = end != null ? feature.getAttribute(endAttribute) : null;
+            return new DomainChange(feature.getAttribute(attribute), endValue, add);
+        }
+
+        synchronized void apply(List<DomainChange> changes) {
+            for (DomainChange change : changes) {
+                apply(change);
+                if (invalid) return;
+            }
+        }
+
+        private void apply(DomainChange change) {
+            if (change == DomainChange.INVALIDATE) {
+                invalid = true;
+                return;
+            }
+            if (start.update(change.value, change.add)) invalid = true;
+            if (end != null && end.update(change.endValue, change.add)) {
+                invalid = true;
+            }
+            updates++;
+        }
+
+        void invalidate() {
+            invalid = true;
+        }
+
+        public String getFeatureTypeId() {
+            return featureTypeId;
+        }
+
+        /** The prefixed layer name */
+        public String getLayerName() {
+            return layerName;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public String getEndAttribute() {
+            return endAttribute;
+        }
+
+        /** The minimum value of the dimension attribute, or null if there is no data */
+        public synchronized Object getMin() {
+            return start.min;
+        }
+
+        /** The maximum value of the dimension attribute, or null if there is no data */
+        public synchronized Object getMax() {
+            return start.max;
+        }
+
+        /**
+         * The maximum value of the end attribute if configured and indexed, otherwise the maximum
+         * of the dimension attribute
+         */
+        public synchronized Object getEndMax() {
+            return end != null ? end.max : start.max;
+        }
+
+        /**
+         * Returns the distinct values of the dimension attribute, or null if they are not indexed
+         * (presentation not listing the values, or too many of them)
+         */
+        public synchronized TreeSet<Object> getValues() {
+            return start.counts != null ? new TreeSet<>(start.counts.keySet()) : null;
+        }
+
+        /** Returns the number of distinct values, or -1 if not indexed */
+        public synchronized int getValueCount() {
+            return start.counts != null ? start.counts.size() : -1;
+        }
+
+        /**
+         * Returns the indexed value nearest to the given one. Only available for dates and numbers
+         * when the values are indexed, returns null if the values are not indexed, not dates or
+         * numbers, or if there is no data.
+         */
+        public synchronized Object getNearest(Object value) {
+            if (start.counts == null) return null;
+            Object reference = start.convert(value);
+            if (!(reference instanceof Date) && !(reference instanceof Number)) return null;
+            Object below = start.counts.floorKey(reference);
+            Object above = start.counts.ceilingKey(reference);
+            if (below == null) return above;
+            if (above == null) return below;
+            double toBelow = distance(reference, below);
+            double toAbove = distance(below, above) - toBelow;
+            return toAbove < toBelow ? above : below;
+        }
+
+        private static double distance(Object v1, Object v2) {
+            if (v1 instanceof Date) {
+                return Math.abs(((Date) v2).getTime() - ((Date) v1).getTime());
+            }
+            return Math.abs(((Number) v2).doubleValue() - ((Number) v1).doubleValue());
+        }
+
+        /** When the domain has been built, in milliseconds since the epoch */
+        public long getBuiltAt() {
+            return builtAt;
+        }
+
+        /** How long it took to build the domain, in milliseconds */
+        public long getBuildTime() {
+            return buildTime;
+        }
+
+        /** Number of features applied incrementally since the domain was built */
+        public synchronized long getUpdates() {
+            return updates;
+        }
+
+        /** True if the domain has been invalidated and will be rebuilt on next access */
+        public boolean isInvalid() {
+            return invalid;
+        }
+    }
+
+    /** A value added or removed by a transaction, or the need to rebuild the domain */
+    static class DomainChange {
+
+        static final DomainChange INVALIDATE = new DomainChange(null, null, false);
+
+        final Object value;
+
+        final Object endValue;
+
+        final boolean add;
+
+        DomainChange(Object value, Object endValue, boolean add) {
+            this.value = value;
+            this.endValue = endValue;
+            this.add = add;
+        }
+    }
+
+    /** Domain of a single attribute, with the occurrences of each value if available */
+    static class AttributeDomain {
+
+        final String attribute;
+
+        final Class<?> binding;
+
+        final int maxValues;
+
+        TreeMap<Object, Long> counts;
+
+        Object min;
+
+        Object max;
+
+        AttributeDomain(String attribute, Class<?> binding, int maxValues) {
+            this.attribute = attribute;
+            this.binding = binding;
+            this.maxValues = maxValues;
+        }
+
+        Object convert(Object value) {
+            if (value == null || binding == Object.class || binding.isInstance(value)) {
+                return value instanceof Comparable ? value : null;
+            }
+            Object converted = Converters.convert(value, binding);
+            return converted instanceof Comparable ? converted : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static int compare(Object v1, Object v2) {
+            return ((Comparable<Object>) v1).compareTo(v2);
+        }
+
+        void updateExtremes() {
+            if (counts == null) return;
+            if (counts.size() > maxValues) {
+                counts = null;
+            } else if (counts.isEmpty()) {
+                min = max = null;
+            } else {
+                min = counts.firstKey();
+                max = counts.lastKey();
+            }
+        }
+
+        /**
+         * Adds or removes an occurrence of the value, returns true if the domain cannot be updated
+         * incrementally and needs to be rebuilt
+         */
+        boolean update(Object rawValue, boolean add) {
+            Object value = convert(rawValue);
+            if (value == null) return false;
+            if (add) {
+                if (counts != null) counts.merge(value, 1L, Long::sum);
+                if (min == null || compare(value, min) < 0) min = value;
+                if (max == null || compare(value, max) > 0) max = value;
+                updateExtremes();
+                return false;
+            } else if (counts != null) {
+                Long count = counts.get(value);
+                if (count == null) return true;
+                if (count <= 1) counts.remove(value);
+                else counts.put(value, count - 1);
+                updateExtremes();
+                return false;
+            } else {
+                // without occurrences we cannot tell if the extremes are still there
+                return value.equals(min) || value.equals(max);
+            }
+        }
+    }
+}
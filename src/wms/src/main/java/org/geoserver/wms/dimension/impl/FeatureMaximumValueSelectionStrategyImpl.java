@@ -9,6 +9,7 @@
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.wms.dimension.AbstractFeatureAttributeVisitorSelectionStrategy;
+import org.geoserver.wms.dimension.DimensionDomainIndex.DimensionDomain;
 import org.geotools.feature.visitor.CalcResult;
 import org.geotools.feature.visitor.MaxVisitor;
 import org.geotools.util.Converters;
@@ -28,6 +29,10 @@ public FeatureMaximumValueSelectionStrategyImpl() {}
     @Override
     public Object getDefaultValue(
             ResourceInfo resource, String dimensionName, DimensionInfo dimension, Class<?> clz) {
+        DimensionDomain domain = getIndexedDomain((FeatureTypeInfo) resource, dimension);
+        if (domain != null) {
+            return Converters.convert(domain.getMax(), clz);
+        }
         final MaxVisitor max = new MaxVisitor(dimension.getAttribute());
         CalcResult res = getCalculatedResult((FeatureTypeInfo) resource, dimension, max);
         if (res.equals(CalcResult.NULL_RESULT)) {
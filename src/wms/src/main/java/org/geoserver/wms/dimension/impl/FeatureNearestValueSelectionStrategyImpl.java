@@ -9,6 +9,7 @@
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.wms.dimension.AbstractFeatureAttributeVisitorSelectionStrategy;
+import org.geoserver.wms.dimension.DimensionDomainIndex.DimensionDomain;
 import org.geotools.api.filter.FilterFactory;
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.visitor.CalcResult;
@@ -42,6 +43,12 @@ public FeatureNearestValueSelectionStrategyImpl(Object toMatch, String capabilit
     @Override
     public Object getDefaultValue(
             ResourceInfo resource, String dimensionName, DimensionInfo dimension, Class<?> clz) {
+        DimensionDomain domain = getIndexedDomain((FeatureTypeInfo) resource, dimension);
+        // values not indexed, not a date or number, or no data, scan the data
+        Object indexed = domain != null ? domain.getNearest(toMatch) : null;
+        if (indexed != null) {
+            return Converters.convert(indexed, clz);
+        }
         final FeatureCalc nearest =
                 new NearestVisitor(ff.property(dimension.getAttribute()), this.toMatch);
 
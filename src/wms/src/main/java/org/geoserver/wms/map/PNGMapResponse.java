@@ -98,7 +98,9 @@ public void formatImageOutputStream(
         float quality = (100 - wms.getPngCompression()) / 100.0f;
         JAIInfo.PngEncoderType encoder = wms.getPNGEncoderType();
         if (encoder == JAIInfo.PngEncoderType.PNGJ) {
-            image = new PNGJWriter().writePNG(image, outStream, quality, mapContent);
+            image =
+                    new PNGJWriter(wms.isPngParallelEncoding())
+                            .writePNG(image, outStream, quality, mapContent);
             RasterCleaner.addImage(image);
         } else {
             Boolean PNGNativeAcc = (encoder == JAIInfo.PngEncoderType.NATIVE);
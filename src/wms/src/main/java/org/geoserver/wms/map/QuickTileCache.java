@@ -7,36 +7,74 @@
 
 import java.awt.Point;
 import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.ResourcePool;
 import org.geoserver.config.ConfigurationListenerAdapter;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.ServiceInfo;
 import org.geoserver.config.impl.GeoServerLifecycleHandler;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wfs.TransactionEvent;
 import org.geoserver.wfs.TransactionListener;
 import org.geoserver.wfs.WFSException;
 import org.geoserver.wms.GetMapRequest;
+import org.geoserver.wms.MapLayerInfo;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.gml2.SrsSyntax;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.CRS.AxisOrder;
 import org.geotools.util.CanonicalSet;
+import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.Envelope;
 
+/**
+ * Meta-tile cache used by the WMS tiled requests that are not going through the integrated
+ * GeoWebCache. Meta-tiles are kept in a least recently used cache bounded by memory, which can be
+ * configured with the {@link #MAX_MEMORY_KEY} property. Setting {@link #OFF_HEAP_KEY} to true will
+ * have the tile pixels stored in direct buffers, outside of the Java heap, whenever the tiles are
+ * byte based (the common case for PNG and JPEG maps).
+ */
 public class QuickTileCache implements TransactionListener, GeoServerLifecycleHandler {
+
+    static final Logger LOGGER = Logging.getLogger(QuickTileCache.class);
+
+    /** Property setting the maximum memory used by the cache, in megabytes */
+    public static final String MAX_MEMORY_KEY = "GEOSERVER_METATILE_CACHE_MAX_MEMORY";
+
+    /** Property enabling off-heap storage for the cached tiles */
+    public static final String OFF_HEAP_KEY = "GEOSERVER_METATILE_CACHE_OFF_HEAP";
+
+    /** Default maximum memory used by the cache, in bytes */
+    static final long DEFAULT_MAX_MEMORY = 64 * 1024 * 1024;
+
     /**
      * Set of parameters that we can ignore, since they do not define a map, are either unrelated,
      * or define the tiling instead
@@ -58,9 +96,35 @@ public class QuickTileCache implements TransactionListener, GeoServerLifecycleHa
     /** Canonicalizer used to return the same object when two threads ask for the same meta-tile */
     private CanonicalSet<MetaTileKey> metaTileKeys = CanonicalSet.newInstance(MetaTileKey.class);
 
-    private WeakHashMap<MetaTileKey, CacheElement> tileCache = new WeakHashMap<>();
+    /** The cached meta-tiles, in access order */
+    private LinkedHashMap<MetaTileKey, CacheElement> tileCache =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Memory used by the cached tiles, in bytes */
+    private long usedMemory;
+
+    private long maxMemory = DEFAULT_MAX_MEMORY;
+
+    private boolean offHeap;
+
+    /** Hits, misses and evictions, by layer name */
+    private final Map<String, LayerStatistics> statistics = new ConcurrentHashMap<>();
 
     public QuickTileCache(GeoServer geoServer) {
+        this();
+        String maxMemoryProperty = GeoServerExtensions.getProperty(MAX_MEMORY_KEY);
+        if (maxMemoryProperty != null) {
+            try {
+                setMaxMemory(Long.parseLong(maxMemoryProperty.trim()) * 1024 * 1024);
+            } catch (NumberFormatException e) {
+                LOGGER.warning(
+                        "Invalid value for "
+                                + MAX_MEMORY_KEY
+                                + ", expected a number of megabytes but got "
+                                + maxMemoryProperty);
+            }
+        }
+        setOffHeap(Boolean.parseBoolean(GeoServerExtensions.getProperty(OFF_HEAP_KEY)));
         geoServer.addListener(
                 new ConfigurationListenerAdapter() {
                     @Override
@@ -69,7 +133,7 @@ public void handleGlobalChange(
                             List<String> propertyNames,
                             List<Object> oldValues,
                             List<Object> newValues) {
-                        tileCache.clear();
+                        clear();
                     }
 
                     @Override
@@ -78,12 +142,12 @@ public void handleServiceChange(
                             List<String> propertyNames,
                             List<Object> oldValues,
                             List<Object> newValues) {
-                        tileCache.clear();
+                        clear();
                     }
 
                     @Override
                     public void reloaded() {
-                        tileCache.clear();
+                        clear();
                     }
                 });
     }
@@ -91,6 +155,51 @@ public void reloaded() {
     /** For testing only */
     QuickTileCache() {}
 
+    /** Returns the maximum memory used by the cached tiles, in bytes */
+    public synchronized long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Sets the maximum memory used by the cached tiles, in bytes. Zero or a negative value disable
+     * the cache.
+     */
+    public synchronized void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+        evict();
+    }
+
+    /** Returns true if tiles are stored outside of the Java heap, when possible */
+    public synchronized boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /** Enables or disables off-heap storage, applies only to meta-tiles cached afterwards */
+    public synchronized void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    /** Returns the memory currently used by the cached tiles, in bytes */
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /** Returns the number of cached meta-tiles */
+    public synchronized int getSize() {
+        return tileCache.size();
+    }
+
+    /** Returns the cache statistics, by layer name */
+    public Map<String, LayerStatistics> getStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<>(statistics));
+    }
+
+    /** Drops all the cached meta-tiles */
+    public synchronized void clear() {
+        tileCache.clear();
+        usedMemory = 0;
+    }
+
     /**
      * Given a tiled request, builds a key that can be used to access the cache looking for a
      * specific meta-tile, and also as a synchronization tool to avoid multiple requests to trigger
@@ -122,6 +231,7 @@ public MetaTileKey getMetaTileKey(GetMapRequest request) {
         Point metaTileCoords = getMetaTileCoordinates(tileCoords);
         ReferencedEnvelope metaTileEnvelope = getMetaTileEnvelope(bbox, tileCoords, metaTileCoords);
         MetaTileKey key = new MetaTileKey(mapKey, metaTileCoords, metaTileEnvelope);
+        key.layers = getLayerNames(request);
 
         // since this will be used for thread synchronization, we have to make
         // sure two thread asking for the same meta tile will get the same key
@@ -194,6 +304,22 @@ static double normalize(double d) {
         return Math.round(d * 10e6) / 10e6;
     }
 
+    /**
+     * Extracts the names of the catalog layers in the request, used to collect statistics. The raw
+     * LAYERS parameter is not used, so that the statistics are bounded by the catalog contents
+     * regardless of what clients send.
+     */
+    private String[] getLayerNames(GetMapRequest request) {
+        List<String> names = new ArrayList<>();
+        for (MapLayerInfo layer : request.getLayers()) {
+            LayerInfo info = layer.getLayerInfo();
+            if (info != null) {
+                names.add(info.prefixedName());
+            }
+        }
+        return names.toArray(new String[names.size()]);
+    }
+
     /** Turns the request back into a sort of GET request (not url-encoded) for fast comparison */
     private String buildMapDefinition(Map<String, String> map) {
         StringBuffer sb = new StringBuffer();
@@ -279,6 +405,9 @@ static class MetaTileKey {
 
         ReferencedEnvelope metaTileEnvelope;
 
+        /** Names of the layers in the map, not part of the identity */
+        String[] layers = new String[0];
+
         public MetaTileKey(
                 MapKey mapKey, Point metaTileCoords, ReferencedEnvelope metaTileEnvelope) {
             super();
@@ -333,14 +462,19 @@ public String toString() {
     }
 
     /** Gathers a tile from the cache, if available */
-    public synchronized RenderedImage getTile(MetaTileKey key, GetMapRequest request) {
-        CacheElement ce = tileCache.get(key);
+    public RenderedImage getTile(MetaTileKey key, GetMapRequest request) {
+        CacheElement ce;
+        synchronized (this) {
+            ce = tileCache.get(key);
+        }
 
         if (ce == null) {
+            record(key.layers, s -> s.misses.increment());
             return null;
         }
+        record(key.layers, s -> s.hits.increment());
 
-        return getTile(key, request, ce.tiles);
+        return getTile(key, request, ce.getTiles());
     }
 
     /** */
@@ -358,15 +492,173 @@ public RenderedImage getTile(MetaTileKey key, GetMapRequest request, RenderedIma
     /**
      * Puts the specified tile array in the cache, and returns the tile the request was looking for
      */
-    public synchronized void storeTiles(MetaTileKey key, RenderedImage[] tiles) {
-        tileCache.put(key, new CacheElement(tiles));
+    public void storeTiles(MetaTileKey key, RenderedImage[] tiles) {
+        // copying off heap can be expensive, do it outside of the lock
+        CacheElement element = new CacheElement(tiles, key.layers, isOffHeap());
+        synchronized (this) {
+            if (element.size > maxMemory) {
+                // would not fit anyways
+                return;
+            }
+            CacheElement previous = tileCache.put(key, element);
+            if (previous != null) {
+                usedMemory -= previous.size;
+            }
+            usedMemory += element.size;
+            evict();
+        }
     }
 
-    class CacheElement {
+    /** Drops the least recently used meta-tiles until the cache fits in the memory bounds */
+    private synchronized void evict() {
+        Iterator<CacheElement> it = tileCache.values().iterator();
+        while (usedMemory > maxMemory && it.hasNext()) {
+            CacheElement eldest = it.next();
+            it.remove();
+            usedMemory -= eldest.size;
+            record(eldest.layers, s -> s.evictions.increment());
+        }
+    }
+
+    private void record(String[] layers, Consumer<LayerStatistics> action) {
+        for (String layer : layers) {
+            action.accept(statistics.computeIfAbsent(layer, l -> new LayerStatistics()));
+        }
+    }
+
+    /** Hits, misses and evictions of the meta-tiles of a layer */
+    public static class LayerStatistics {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        /** Ratio between hits and total lookups, or zero if no lookup happened */
+        public double getHitRatio() {
+            long h = hits.sum();
+            long total = h + misses.sum();
+            return total == 0 ? 0 : (double) h / total;
+        }
+    }
+
+    static class CacheElement {
+        /** The tiles, when kept in the heap */
         RenderedImage[] tiles;
 
+        /** The tiles, when kept outside of the heap */
+        OffHeapTile[] offHeapTiles;
+
+        /** Estimated memory used by the tiles, in bytes */
+        final long size;
+
+        final String[] layers;
+
         public CacheElement(RenderedImage[] tiles) {
-            this.tiles = tiles;
+            this(tiles, new String[0], false);
+        }
+
+        CacheElement(RenderedImage[] tiles, String[] layers, boolean offHeap) {
+            this.layers = layers;
+            if (offHeap) {
+                this.offHeapTiles = OffHeapTile.copy(tiles);
+            }
+            long size = 0;
+            if (offHeapTiles != null) {
+                for (OffHeapTile tile : offHeapTiles) {
+                    size += tile.data.capacity();
+                }
+            } else {
+                this.tiles = tiles;
+                for (RenderedImage tile : tiles) {
+                    size += estimateSize(tile);
+                }
+            }
+            this.size = size;
+        }
+
+        RenderedImage[] getTiles() {
+            if (tiles != null) {
+                return tiles;
+            }
+            RenderedImage[] result = new RenderedImage[offHeapTiles.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = offHeapTiles[i].toImage();
+            }
+            return result;
+        }
+
+        static long estimateSize(RenderedImage image) {
+            if (image == null) {
+                return 0;
+            }
+            SampleModel sm = image.getSampleModel();
+            long pixelBits = 0;
+            for (int size : sm.getSampleSize()) {
+                pixelBits += size;
+            }
+            return (long) image.getWidth() * image.getHeight() * pixelBits / 8;
+        }
+    }
+
+    /** A tile whose pixels are stored in a direct buffer */
+    static class OffHeapTile {
+        final ColorModel colorModel;
+        final SampleModel sampleModel;
+        final ByteBuffer data;
+
+        OffHeapTile(ColorModel colorModel, SampleModel sampleModel, ByteBuffer data) {
+            this.colorModel = colorModel;
+            this.sampleModel = sampleModel;
+            this.data = data;
+        }
+
+        /**
+         * Copies the tiles off heap, returns null if any of the tiles is not byte based, or lacks a
+         * color model
+         */
+        static OffHeapTile[] copy(RenderedImage[] tiles) {
+            OffHeapTile[] result = new OffHeapTile[tiles.length];
+            for (int i = 0; i < tiles.length; i++) {
+                RenderedImage tile = tiles[i];
+                if (tile == null
+                        || tile.getColorModel() == null
+                        || tile.getSampleModel().getDataType() != DataBuffer.TYPE_BYTE) {
+                    return null;
+                }
+                Raster raster = tile.getData();
+                DataBuffer buffer = raster.getDataBuffer();
+                if (!(buffer instanceof DataBufferByte)
+                        || buffer.getNumBanks() != 1
+                        || buffer.getOffset() != 0) {
+                    return null;
+                }
+                byte[] bytes = ((DataBufferByte) buffer).getData();
+                ByteBuffer data = ByteBuffer.allocateDirect(bytes.length);
+                data.put(bytes).flip();
+                result[i] = new OffHeapTile(tile.getColorModel(), raster.getSampleModel(), data);
+            }
+            return result;
+        }
+
+        /** Rebuilds the tile as an in memory image */
+        RenderedImage toImage() {
+            byte[] bytes = new byte[data.capacity()];
+            data.duplicate().get(bytes);
+            WritableRaster raster =
+                    Raster.createWritableRaster(
+                            sampleModel, new DataBufferByte(bytes, bytes.length), new Point(0, 0));
+            return new BufferedImage(colorModel, raster, colorModel.isAlphaPremultiplied(), null);
         }
     }
 
@@ -376,18 +668,18 @@ public void dataStoreChange(TransactionEvent event) throws WFSException {
         // contains a string with part of the map request where the layer
         // name is included, but we would have to parse it and consider
         // also that the namespace may be missing in the getmap request
-        tileCache.clear();
+        clear();
     }
 
     @Override
     public void onReset() {
         // data might have changed in the meantime
-        tileCache.clear();
+        clear();
     }
 
     @Override
     public void onDispose() {
-        tileCache.clear();
+        clear();
     }
 
     @Override
@@ -397,6 +689,6 @@ public void beforeReload() {
 
     @Override
     public void onReload() {
-        tileCache.clear();
+        clear();
     }
 }
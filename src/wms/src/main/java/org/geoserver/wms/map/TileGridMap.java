@@ -0,0 +1,74 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map;
+
+import java.util.List;
+import org.geoserver.wms.WMSMapContent;
+import org.geoserver.wms.WebMap;
+
+/**
+ * A map made of a grid of tiles sharing the same map content, produced by a {@link
+ * TileGridMapOutputFormat}. Disposing the grid disposes the map content, the tiles do not need to
+ * be disposed on their own.
+ */
+public class TileGridMap extends WebMap {
+
+    private static final ThreadLocal<int[]> REQUESTED_GRID = new ThreadLocal<>();
+
+    private final List<WebMap> tiles;
+
+    private final int tilesX;
+
+    private final int tilesY;
+
+    /**
+     * @param mapContent the map content shared by the tiles
+     * @param tiles the tiles, by row, starting from the top left one
+     * @param tilesX the number of tiles along the horizontal axis
+     * @param tilesY the number of tiles along the vertical axis
+     */
+    public TileGridMap(WMSMapContent mapContent, List<WebMap> tiles, int tilesX, int tilesY) {
+        super(mapContent);
+        if (tiles.size() != tilesX * tilesY) {
+            throw new IllegalArgumentException(
+                    "Expected " + tilesX * tilesY + " tiles, got " + tiles.size());
+        }
+        this.tiles = tiles;
+        this.tilesX = tilesX;
+        this.tilesY = tilesY;
+        setMimeType(tiles.get(0).getMimeType());
+    }
+
+    public int getTilesX() {
+        return tilesX;
+    }
+
+    public int getTilesY() {
+        return tilesY;
+    }
+
+    /** Returns the tile at the given column and row, counted from the top left corner */
+    public WebMap getTile(int column, int row) {
+        return tiles.get(row * tilesX + column);
+    }
+
+    /**
+     * Asks the {@link TileGridMapOutputFormat} producing a map in the current thread to return a
+     * grid of tiles instead. Must be followed by {@link #clearRequestedGrid()} once the map is
+     * produced.
+     */
+    public static void setRequestedGrid(int tilesX, int tilesY) {
+        REQUESTED_GRID.set(new int[] {tilesX, tilesY});
+    }
+
+    /** Returns the grid requested by the current thread, as tiles along x and y, or null */
+    public static int[] getRequestedGrid() {
+        return REQUESTED_GRID.get();
+    }
+
+    public static void clearRequestedGrid() {
+        REQUESTED_GRID.remove();
+    }
+}
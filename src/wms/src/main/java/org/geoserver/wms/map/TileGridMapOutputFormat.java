@@ -0,0 +1,34 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map;
+
+import java.io.IOException;
+import java.util.List;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.wms.GetMapOutputFormat;
+import org.geoserver.wms.WMSMapContent;
+import org.geoserver.wms.WebMap;
+
+/**
+ * A {@link GetMapOutputFormat} that can produce a grid of tiles out of a single map content,
+ * reading the data only once. Used by tile producers to build meta tiles in formats that cannot be
+ * split once encoded, like vector tiles.
+ *
+ * <p>When a grid has been requested with {@link TileGridMap#setRequestedGrid(int, int)}, {@link
+ * #produceMap(WMSMapContent)} is expected to return a {@link TileGridMap}.
+ */
+public interface TileGridMapOutputFormat extends GetMapOutputFormat {
+
+    /**
+     * Produces the tiles of a grid covering the map content area
+     *
+     * @param mapContent the map content, its size must be a multiple of the number of tiles
+     * @param tilesX the number of tiles along the horizontal axis
+     * @param tilesY the number of tiles along the vertical axis
+     * @return the tiles, by row, starting from the top left one
+     */
+    List<WebMap> produceMaps(WMSMapContent mapContent, int tilesX, int tilesY)
+            throws ServiceException, IOException;
+}
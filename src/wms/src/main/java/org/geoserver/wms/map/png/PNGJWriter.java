@@ -24,10 +24,38 @@
  */
 public class PNGJWriter {
 
+    boolean parallel;
+
+    public PNGJWriter() {
+        this(false);
+    }
+
+    /**
+     * @param parallel if true, supported images are encoded filtering and compressing bands of rows
+     *     in parallel, see {@link ParallelPNGEncoder}
+     */
+    public PNGJWriter(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /** Releases the threads used by the parallel encoding, if any, called on WMS shutdown */
+    public static void dispose() throws InterruptedException {
+        ParallelPNGEncoder.shutdown();
+    }
+
     public RenderedImage writePNG(
             RenderedImage image, OutputStream outStream, float quality, WMSMapContent mapContent) {
         // what kind of scaline filtering are we going to use?
         FilterType filterType = getFilterType(mapContent);
+        if (parallel && ParallelPNGEncoder.isSupported(image)) {
+            int level = Math.round(9 * (1 - Math.max(0f, Math.min(1f, quality))));
+            try {
+                new ParallelPNGEncoder(image, level, filterType).encode(outStream);
+            } catch (Exception e) {
+                throw new ServiceException("Failed to encode the PNG", e);
+            }
+            return image;
+        }
         // Creation of a new PNGWriter object
         PNGWriter writer = new PNGWriter();
         // Check if a Scanline is supported by the writer
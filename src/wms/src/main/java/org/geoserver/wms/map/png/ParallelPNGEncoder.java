@@ -0,0 +1,615 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import ar.com.hjg.pngj.FilterType;
+import java.awt.Rectangle;
+import java.awt.color.ColorSpace;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * PNG encoder splitting the image in bands of rows that are filtered and deflated in parallel, and
+ * then stitched together in a single zlib stream, following the same approach as pigz: each band
+ * is compressed as a raw deflate stream ended by a sync flush, using the last 32KB of the previous
+ * band as a preset dictionary, so that the compression ratio is almost the same as a sequential
+ * encoding. The per band checksums are combined in the final Adler32.
+ *
+ * <p>Supports 8 bits per sample images, either paletted or gray/RGB with optional alpha, see
+ * {@link #isSupported(RenderedImage)}. Bands are encoded by a shared pool sized after the number of
+ * processors, whose threads keep their deflater and buffers around between requests. The pool is
+ * created on first use, and shut down along with the WMS, see {@link PNGJWriter#dispose()}.
+ */
+class ParallelPNGEncoder {
+
+    static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+
+    /** The deflate window size, the largest useful dictionary */
+    static final int WINDOW_SIZE = 32 * 1024;
+
+    /** Target amount of uncompressed bytes per band */
+    static final int BAND_SIZE = 512 * 1024;
+
+    static final int COLOR_GRAY = 0;
+
+    static final int COLOR_RGB = 2;
+
+    static final int COLOR_PALETTE = 3;
+
+    static final int COLOR_GRAY_ALPHA = 4;
+
+    static final int COLOR_RGB_ALPHA = 6;
+
+    static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** The pool encoding the bands, see {@link #getExecutor()} */
+    static volatile ExecutorService executor;
+
+    final RenderedImage image;
+
+    final int level;
+
+    final int filter;
+
+    final int width;
+
+    final int height;
+
+    final int bytesPerPixel;
+
+    final int rowBytes;
+
+    final int rowsPerBand;
+
+    /**
+     * @param image the image to encode, must be supported
+     * @param level the deflate compression level, between 0 and 9
+     * @param filterType the scanline filter type, adaptive filters are not supported and will be
+     *     replaced by {@link FilterType#FILTER_PAETH}
+     */
+    ParallelPNGEncoder(RenderedImage image, int level, FilterType filterType) {
+        this.image = image;
+        this.level = level;
+        this.filter =
+                filterType.val >= 0 && filterType.val <= 4
+                        ? filterType.val
+                        : FilterType.FILTER_PAETH.val;
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.bytesPerPixel = image.getSampleModel().getNumBands();
+        this.rowBytes = width * bytesPerPixel;
+        this.rowsPerBand = Math.max(1, BAND_SIZE / (rowBytes + 1));
+    }
+
+    /**
+     * Returns true if the image can be encoded, that is, it has 8 bits samples and either an
+     * {@link IndexColorModel} or a non premultiplied gray/RGB color model
+     */
+    static boolean isSupported(RenderedImage image) {
+        SampleModel sm = image.getSampleModel();
+        ColorModel cm = image.getColorModel();
+        int bands = sm.getNumBands();
+        if (cm == null || bands < 1 || bands > 4 || image.getWidth() <= 0) {
+            return false;
+        }
+        for (int size : sm.getSampleSize()) {
+            if (size != 8) {
+                return false;
+            }
+        }
+        if (cm instanceof IndexColorModel) {
+            return bands == 1 && ((IndexColorModel) cm).getMapSize() <= 256;
+        }
+        if (cm.isAlphaPremultiplied() || cm.getNumComponents() != bands) {
+            return false;
+        }
+        boolean alpha = bands == 2 || bands == 4;
+        int csType = bands <= 2 ? ColorSpace.TYPE_GRAY : ColorSpace.TYPE_RGB;
+        return cm.hasAlpha() == alpha && cm.getColorSpace().getType() == csType;
+    }
+
+    /** Encodes the image into the stream */
+    void encode(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.write(SIGNATURE);
+        writeHeader(out);
+        if (image.getColorModel() instanceof IndexColorModel) {
+            writePalette(out, (IndexColorModel) image.getColorModel());
+        }
+
+        int bands = (height + rowsPerBand - 1) / rowsPerBand;
+        long adler = 1;
+        if (bands == 1) {
+            // not worth going parallel
+            EncodedBand band = new BandEncoder(0, height, true).call();
+            adler = writeBand(out, band, adler);
+        } else {
+            // keep a bounded number of bands in flight to control memory usage
+            Deque<Future<EncodedBand>> pending = new ArrayDeque<>();
+            int next = 0;
+            try {
+                while (next < bands || !pending.isEmpty()) {
+                    while (next < bands && pending.size() < THREADS * 2) {
+                        int y = next * rowsPerBand;
+                        int rows = Math.min(rowsPerBand, height - y);
+                        pending.add(submit(new BandEncoder(y, rows, next == bands - 1)));
+                        next++;
+                    }
+                    adler = writeBand(out, pending.poll().get(), adler);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while encoding the PNG", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to encode the PNG", e.getCause());
+            } finally {
+                for (Future<EncodedBand> future : pending) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        writeChunk(out, "IEND", new byte[0], 0, null);
+        out.flush();
+    }
+
+    /** Returns the shared encoding pool, creating it if needed */
+    static ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (ParallelPNGEncoder.class) {
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(THREADS, new EncoderThreadFactory());
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Shuts down the shared encoding pool, if it was created, waiting for the bands being encoded
+     * to complete. A later encoding will create a new pool.
+     */
+    static void shutdown() throws InterruptedException {
+        ExecutorService pool;
+        synchronized (ParallelPNGEncoder.class) {
+            pool = executor;
+            executor = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Future<EncodedBand> submit(BandEncoder encoder) {
+        try {
+            return getExecutor().submit(encoder);
+        } catch (RejectedExecutionException e) {
+            // the pool is being shut down, encode on the calling thread
+            FutureTask<EncodedBand> task = new FutureTask<>(encoder);
+            task.run();
+            return task;
+        }
+    }
+
+    private void writeHeader(DataOutputStream out) throws IOException {
+        ColorModel cm = image.getColorModel();
+        int colorType;
+        if (cm instanceof IndexColorModel) {
+            colorType = COLOR_PALETTE;
+        } else if (bytesPerPixel == 1) {
+            colorType = COLOR_GRAY;
+        } else if (bytesPerPixel == 2) {
+            colorType = COLOR_GRAY_ALPHA;
+        } else if (bytesPerPixel == 3) {
+            colorType = COLOR_RGB;
+        } else {
+            colorType = COLOR_RGB_ALPHA;
+        }
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8; // bit depth
+        header[9] = (byte) colorType;
+        // compression, filter method and interlace are all 0
+        writeChunk(out, "IHDR", header, header.length, null);
+    }
+
+    private void writePalette(DataOutputStream out, IndexColorModel icm) throws IOException {
+        int size = icm.getMapSize();
+        byte[] palette = new byte[size * 3];
+        byte[] alphas = new byte[size];
+        int lastTranslucent = -1;
+        for (int i = 0; i < size; i++) {
+            palette[i * 3] = (byte) icm.getRed(i);
+            palette[i * 3 + 1] = (byte) icm.getGreen(i);
+            palette[i * 3 + 2] = (byte) icm.getBlue(i);
+            alphas[i] = (byte) icm.getAlpha(i);
+            if (icm.getAlpha(i) != 255) {
+                lastTranslucent = i;
+            }
+        }
+        writeChunk(out, "PLTE", palette, palette.length, null);
+        if (lastTranslucent >= 0) {
+            writeChunk(out, "tRNS", alphas, lastTranslucent + 1, null);
+        }
+    }
+
+    /** Writes the band as a IDAT chunk, returning the updated Adler32 checksum */
+    private long writeBand(DataOutputStream out, EncodedBand band, long adler) throws IOException {
+        adler = combineAdler32(adler, band.adler, band.rawLength);
+        byte[] trailer = null;
+        if (band.last) {
+            trailer = new byte[4];
+            putInt(trailer, 0, (int) adler);
+        }
+        writeChunk(out, "IDAT", band.data, band.length, trailer);
+        return adler;
+    }
+
+    private static void writeChunk(
+            DataOutputStream out, String type, byte[] data, int length, byte[] trailer)
+            throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        out.writeInt(length + (trailer != null ? trailer.length : 0));
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        if (trailer != null) {
+            crc.update(trailer);
+            out.write(trailer);
+        }
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Combines the Adler32 of two consecutive blocks of data, given the length of the second one
+     * (port of zlib adler32_combine)
+     */
+    static long combineAdler32(long adler1, long adler2, long length2) {
+        final long base = 65521;
+        long rem = length2 % base;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % base;
+        sum1 += (adler2 & 0xffff) + base - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + base - rem;
+        if (sum1 >= base) sum1 -= base;
+        if (sum1 >= base) sum1 -= base;
+        if (sum2 >= (base << 1)) sum2 -= (base << 1);
+        if (sum2 >= base) sum2 -= base;
+        return sum1 | (sum2 << 16);
+    }
+
+    /** Header of the zlib stream, the window is always 32KB */
+    private byte[] zlibHeader() {
+        int cmf = 0x78;
+        int flevel = level < 2 ? 0 : level < 6 ? 1 : level == 6 ? 2 : 3;
+        int flg = flevel << 6;
+        int check = (cmf * 256 + flg) % 31;
+        if (check != 0) {
+            flg += 31 - check;
+        }
+        return new byte[] {(byte) cmf, (byte) flg};
+    }
+
+    /** The result of the compression of a band */
+    static class EncodedBand {
+        byte[] data;
+
+        int length;
+
+        long adler;
+
+        int rawLength;
+
+        boolean last;
+    }
+
+    /** Filters and compresses a band of rows */
+    class BandEncoder implements Callable<EncodedBand> {
+
+        final int y;
+
+        final int rows;
+
+        final boolean last;
+
+        BandEncoder(int y, int rows, boolean last) {
+            this.y = y;
+            this.rows = rows;
+            this.last = last;
+        }
+
+        @Override
+        public EncodedBand call() throws IOException {
+            Thread thread = Thread.currentThread();
+            boolean pooled = thread instanceof EncoderThread;
+            EncoderBuffers buffers =
+                    pooled ? ((EncoderThread) thread).buffers : new EncoderBuffers();
+            try {
+                return encode(buffers);
+            } finally {
+                if (!pooled) {
+                    buffers.dispose();
+                }
+            }
+        }
+
+        private EncodedBand encode(EncoderBuffers buffers) throws IOException {
+            // the rows of the previous band feeding the dictionary, plus one for the filters
+            // referring to the row above
+            int lineBytes = rowBytes + 1;
+            int dictionaryRows = Math.min(y, (WINDOW_SIZE + lineBytes - 1) / lineBytes);
+            int firstRow = y - dictionaryRows;
+            boolean needsAbove = filter >= FilterType.FILTER_UP.val && firstRow > 0;
+            int readFrom = needsAbove ? firstRow - 1 : firstRow;
+            int readRows = y + rows - readFrom;
+
+            byte[] raw = buffers.raw(readRows * rowBytes);
+            readRows(readFrom, readRows, raw);
+
+            int filteredRows = dictionaryRows + rows;
+            byte[] filtered = buffers.filtered(filteredRows * lineBytes);
+            int rawOffset = needsAbove ? rowBytes : 0;
+            for (int r = 0; r < filteredRows; r++) {
+                int current = rawOffset + r * rowBytes;
+                int above = current - rowBytes;
+                filterRow(raw, current, above >= 0 ? above : -1, filtered, r * lineBytes);
+            }
+
+            int dataOffset = dictionaryRows * lineBytes;
+            int dataLength = rows * lineBytes;
+            Adler32 adler = buffers.adler;
+            adler.reset();
+            adler.update(filtered, dataOffset, dataLength);
+
+            int strategy =
+                    filter == FilterType.FILTER_NONE.val
+                            ? Deflater.DEFAULT_STRATEGY
+                            : Deflater.FILTERED;
+            Deflater deflater = buffers.deflater(level, strategy);
+            if (dataOffset > 0) {
+                int dictionaryLength = Math.min(WINDOW_SIZE, dataOffset);
+                deflater.setDictionary(filtered, dataOffset - dictionaryLength, dictionaryLength);
+            }
+            deflater.setInput(filtered, dataOffset, dataLength);
+
+            byte[] out = new byte[Math.max(1024, dataLength / 4)];
+            int length = 0;
+            if (y == 0) {
+                byte[] header = zlibHeader();
+                System.arraycopy(header, 0, out, 0, header.length);
+                length = header.length;
+            }
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (length == out.length) {
+                        out = Arrays.copyOf(out, out.length * 2);
+                    }
+                    length += deflater.deflate(out, length, out.length - length);
+                }
+            } else {
+                // sync flush so that the next band starts on a byte boundary
+                int written;
+                do {
+                    if (length == out.length) {
+                        out = Arrays.copyOf(out, out.length * 2);
+                    }
+                    int available = out.length - length;
+                    written = deflater.deflate(out, length, available, Deflater.SYNC_FLUSH);
+                    length += written;
+                } while (length == out.length);
+            }
+
+            EncodedBand result = new EncodedBand();
+            result.data = out;
+            result.length = length;
+            result.adler = adler.getValue();
+            result.rawLength = dataLength;
+            result.last = last;
+            return result;
+        }
+    }
+
+    /** Reads the rows of the image as packed 8 bit samples, in band order */
+    void readRows(int y, int rows, byte[] dest) {
+        int minX = image.getMinX();
+        int minY = image.getMinY() + y;
+        Raster raster = image.getData(new Rectangle(minX, minY, width, rows));
+        SampleModel sm = raster.getSampleModel();
+        DataBuffer db = raster.getDataBuffer();
+        int tx = minX - raster.getSampleModelTranslateX();
+        int ty = minY - raster.getSampleModelTranslateY();
+        if (sm instanceof ComponentSampleModel && db instanceof DataBufferByte) {
+            ComponentSampleModel csm = (ComponentSampleModel) sm;
+            int[] bankIndices = csm.getBankIndices();
+            int[] offsets = db.getOffsets();
+            int pixelStride = csm.getPixelStride();
+            boolean packed = pixelStride == bytesPerPixel && db.getNumBanks() == 1;
+            for (int b = 0; b < bytesPerPixel && packed; b++) {
+                packed = csm.getBandOffsets()[b] == b;
+            }
+            for (int r = 0; r < rows; r++) {
+                int destOffset = r * rowBytes;
+                if (packed) {
+                    int offset = offsets[0] + csm.getOffset(tx, ty + r, 0);
+                    byte[] data = ((DataBufferByte) db).getData();
+                    System.arraycopy(data, offset, dest, destOffset, rowBytes);
+                } else {
+                    for (int b = 0; b < bytesPerPixel; b++) {
+                        byte[] data = ((DataBufferByte) db).getData(bankIndices[b]);
+                        int offset = offsets[bankIndices[b]] + csm.getOffset(tx, ty + r, b);
+                        for (int x = 0, d = destOffset + b; x < width; x++, d += bytesPerPixel) {
+                            dest[d] = data[offset];
+                            offset += pixelStride;
+                        }
+                    }
+                }
+            }
+        } else {
+            int[] pixels = new int[rowBytes];
+            for (int r = 0; r < rows; r++) {
+                raster.getPixels(minX, minY + r, width, 1, pixels);
+                int destOffset = r * rowBytes;
+                for (int i = 0; i < rowBytes; i++) {
+                    dest[destOffset + i] = (byte) pixels[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Filters a row, writing the filter type byte followed by the filtered samples
+     *
+     * @param above the offset of the row above in raw, or -1 if this is the first row of the image
+     */
+    void filterRow(byte[] raw, int current, int above, byte[] dest, int destOffset) {
+        int bpp = bytesPerPixel;
+        dest[destOffset++] = (byte) filter;
+        if (filter == FilterType.FILTER_NONE.val) {
+            System.arraycopy(raw, current, dest, destOffset, rowBytes);
+        } else if (filter == FilterType.FILTER_SUB.val) {
+            System.arraycopy(raw, current, dest, destOffset, bpp);
+            for (int i = bpp; i < rowBytes; i++) {
+                dest[destOffset + i] = (byte) (raw[current + i] - raw[current + i - bpp]);
+            }
+        } else {
+            for (int i = 0; i < rowBytes; i++) {
+                int value = raw[current + i] & 0xff;
+                int left = i >= bpp ? raw[current + i - bpp] & 0xff : 0;
+                int up = above >= 0 ? raw[above + i] & 0xff : 0;
+                int predictor;
+                if (filter == FilterType.FILTER_UP.val) {
+                    predictor = up;
+                } else if (filter == FilterType.FILTER_AVERAGE.val) {
+                    predictor = (left + up) >>> 1;
+                } else {
+                    int upLeft = i >= bpp && above >= 0 ? raw[above + i - bpp] & 0xff : 0;
+                    predictor = paeth(left, up, upLeft);
+                }
+                dest[destOffset + i] = (byte) (value - predictor);
+            }
+        }
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    /** Buffers reused across bands by the pool threads */
+    static class EncoderBuffers {
+        Deflater deflater;
+
+        int level;
+
+        int strategy;
+
+        final Adler32 adler = new Adler32();
+
+        byte[] raw = new byte[0];
+
+        byte[] filtered = new byte[0];
+
+        /**
+         * Returns a raw deflater, reset and ready for use. The level and strategy are applied
+         * eagerly when the deflater is created, the JDK applies them lazily on the next deflate
+         * call, which would happen after setting the dictionary and corrupt the stream.
+         */
+        Deflater deflater(int level, int strategy) {
+            if (deflater == null || this.level != level || this.strategy != strategy) {
+                dispose();
+                deflater = new Deflater(level, true);
+                deflater.setStrategy(strategy);
+                deflater.deflate(new byte[0]);
+                this.level = level;
+                this.strategy = strategy;
+            }
+            deflater.reset();
+            return deflater;
+        }
+
+        void dispose() {
+            if (deflater != null) {
+                deflater.end();
+                deflater = null;
+            }
+        }
+
+        byte[] raw(int size) {
+            if (raw.length < size) {
+                raw = new byte[size];
+            }
+            return raw;
+        }
+
+        byte[] filtered(int size) {
+            if (filtered.length < size) {
+                filtered = new byte[size];
+            }
+            return filtered;
+        }
+    }
+
+    static class EncoderThread extends Thread {
+        final EncoderBuffers buffers = new EncoderBuffers();
+
+        EncoderThread(Runnable target, String name) {
+            super(target, name);
+            setDaemon(true);
+        }
+    }
+
+    static class EncoderThreadFactory implements ThreadFactory {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new EncoderThread(r, "PNGEncoder-" + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.dimension;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import net.opengis.wfs.WfsFactory;
+import org.geoserver.catalog.DimensionInfo;
+import org.geoserver.catalog.DimensionPresentation;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.security.CatalogMode;
+import org.geoserver.security.VectorAccessLimits;
+import org.geoserver.security.WrapperPolicy;
+import org.geoserver.security.decorators.SecuredFeatureTypeInfo;
+import org.geoserver.wfs.TransactionEvent;
+import org.geoserver.wfs.TransactionEventType;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wms.WMSDimensionsTestSupport;
+import org.geoserver.wms.dimension.DimensionDomainIndex.DimensionDomain;
+import org.geoserver.wms.dimension.impl.FeatureMaximumValueSelectionStrategyImpl;
+import org.geoserver.wms.dimension.impl.FeatureNearestValueSelectionStrategyImpl;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DimensionDomainIndexTest extends WMSDimensionsTestSupport {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    DimensionDomainIndex index;
+
+    @Before
+    public void enableIndex() {
+        index = GeoServerExtensions.bean(DimensionDomainIndex.class);
+        index.clear();
+        index.setEnabled(true);
+    }
+
+    @After
+    public void disableIndex() {
+        index.setEnabled(false);
+    }
+
+    private TransactionRequest newTransaction() {
+        return TransactionRequest.adapt(WfsFactory.eINSTANCE.createTransactionType());
+    }
+
+    private FeatureTypeInfo getTimeElevation() {
+        return getCatalog().getFeatureTypeByName(V_TIME_ELEVATION.getLocalPart());
+    }
+
+    @Test
+    public void testElevationList() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.ELEVATION,
+                "elevation",
+                DimensionPresentation.LIST,
+                null,
+                UNITS,
+                UNIT_SYMBOL);
+
+        TreeSet<Double> elevations = getWMS().getFeatureTypeElevations(getTimeElevation());
+        assertEquals(Arrays.asList(0d, 1d, 2d, 3d), List.copyOf(elevations));
+
+        List<DimensionDomain> domains = index.getDomains();
+        assertEquals(1, domains.size());
+        DimensionDomain domain = domains.get(0);
+        assertEquals("sf:TimeElevation", domain.getLayerName());
+        assertEquals(4, domain.getValueCount());
+        assertEquals(0d, domain.getMin());
+        assertEquals(3d, domain.getMax());
+
+        // the second lookup is served by the index
+        getWMS().getFeatureTypeElevations(getTimeElevation());
+        assertSame(domain, index.getDomains().get(0));
+    }
+
+    @Test
+    public void testTransactionUpdates() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.ELEVATION,
+                "elevation",
+                DimensionPresentation.LIST,
+                null,
+                UNITS,
+                UNIT_SYMBOL);
+        FeatureTypeInfo typeInfo = getTimeElevation();
+        getWMS().getFeatureTypeElevations(typeInfo);
+        DimensionDomain domain = index.getDomains().get(0);
+
+        SimpleFeatureSource source = (SimpleFeatureSource) typeInfo.getFeatureSource(null, null);
+        SimpleFeatureBuilder builder = new SimpleFeatureBuilder(source.getSchema());
+        builder.set("elevation", 5d);
+        SimpleFeatureCollection inserted = DataUtilities.collection(builder.buildFeature("new"));
+        TransactionRequest request = newTransaction();
+        index.dataStoreChange(
+                new TransactionEvent(
+                        TransactionEventType.POST_INSERT, request, V_TIME_ELEVATION, inserted));
+        SimpleFeatureCollection deleted =
+                source.getFeatures(FF.id(FF.featureId("TimeElevation.0")));
+        index.dataStoreChange(
+                new TransactionEvent(
+                        TransactionEventType.PRE_DELETE, request, V_TIME_ELEVATION, deleted));
+
+        // nothing applied until the commit
+        assertEquals(0, domain.getUpdates());
+        index.afterTransaction(request, null, true);
+        assertFalse(domain.isInvalid());
+        assertEquals(2, domain.getUpdates());
+        TreeSet<Double> elevations = getWMS().getFeatureTypeElevations(typeInfo);
+        assertEquals(Arrays.asList(1d, 2d, 3d, 5d), List.copyOf(elevations));
+        assertSame(domain, index.getDomains().get(0));
+    }
+
+    @Test
+    public void testMinMaxInvalidation() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.ELEVATION,
+                "elevation",
+                DimensionPresentation.CONTINUOUS_INTERVAL,
+                null,
+                UNITS,
+                UNIT_SYMBOL);
+        FeatureTypeInfo typeInfo = getTimeElevation();
+        TreeSet<Double> elevations = getWMS().getFeatureTypeElevations(typeInfo);
+        assertEquals(Arrays.asList(0d, 3d), List.copyOf(elevations));
+        DimensionDomain domain = index.getDomains().get(0);
+        assertEquals(-1, domain.getValueCount());
+
+        // removing an extreme cannot be handled without the values, the domain gets rebuilt
+        SimpleFeatureSource source = (SimpleFeatureSource) typeInfo.getFeatureSource(null, null);
+        SimpleFeatureCollection deleted =
+                source.getFeatures(FF.id(FF.featureId("TimeElevation.3")));
+        TransactionRequest request = newTransaction();
+        index.dataStoreChange(
+                new TransactionEvent(
+                        TransactionEventType.PRE_DELETE, request, V_TIME_ELEVATION, deleted));
+        index.afterTransaction(request, null, true);
+        assertTrue(domain.isInvalid());
+
+        elevations = getWMS().getFeatureTypeElevations(typeInfo);
+        assertEquals(Arrays.asList(0d, 3d), List.copyOf(elevations));
+        DimensionDomain rebuilt = index.getDomains().get(0);
+        assertNotSame(domain, rebuilt);
+        assertFalse(rebuilt.isInvalid());
+    }
+
+    @Test
+    public void testRolledBackTransaction() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.ELEVATION,
+                "elevation",
+                DimensionPresentation.LIST,
+                null,
+                UNITS,
+                UNIT_SYMBOL);
+        FeatureTypeInfo typeInfo = getTimeElevation();
+        getWMS().getFeatureTypeElevations(typeInfo);
+        DimensionDomain domain = index.getDomains().get(0);
+
+        // an insert and a delete, then the transaction fails and gets rolled back
+        SimpleFeatureSource source = (SimpleFeatureSource) typeInfo.getFeatureSource(null, null);
+        SimpleFeatureBuilder builder = new SimpleFeatureBuilder(source.getSchema());
+        builder.set("elevation", 5d);
+        SimpleFeatureCollection inserted = DataUtilities.collection(builder.buildFeature("new"));
+        TransactionRequest request = newTransaction();
+        index.dataStoreChange(
+                new TransactionEvent(
+                        TransactionEventType.POST_INSERT, request, V_TIME_ELEVATION, inserted));
+        SimpleFeatureCollection deleted =
+                source.getFeatures(FF.id(FF.featureId("TimeElevation.0")));
+        index.dataStoreChange(
+                new TransactionEvent(
+                        TransactionEventType.PRE_DELETE, request, V_TIME_ELEVATION, deleted));
+        index.afterTransaction(request, null, false);
+
+        // the domain is unchanged
+        assertFalse(domain.isInvalid());
+        assertEquals(0, domain.getUpdates());
+        TreeSet<Double> elevations = getWMS().getFeatureTypeElevations(typeInfo);
+        assertEquals(Arrays.asList(0d, 1d, 2d, 3d), List.copyOf(elevations));
+        assertSame(domain, index.getDomains().get(0));
+        assertNull(request.getExtendedProperties().get(DimensionDomainIndex.TRANSACTION_CHANGES));
+    }
+
+    @Test
+    public void testCqlFilter() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.ELEVATION,
+                "elevation",
+                DimensionPresentation.LIST,
+                null,
+                UNITS,
+                UNIT_SYMBOL);
+        FeatureTypeInfo typeInfo = getTimeElevation();
+        typeInfo.setCqlFilter("elevation < 3");
+        getCatalog().save(typeInfo);
+        try {
+            typeInfo = getTimeElevation();
+            TreeSet<Double> elevations = getWMS().getFeatureTypeElevations(typeInfo);
+            assertEquals(Arrays.asList(0d, 1d, 2d), List.copyOf(elevations));
+            DimensionDomain domain = index.getDomains().get(0);
+
+            // features not matching the filter are not part of the domain
+            SimpleFeatureSource source =
+                    (SimpleFeatureSource) typeInfo.getFeatureSource(null, null);
+            SimpleFeatureBuilder builder = new SimpleFeatureBuilder(source.getSchema());
+            builder.set("elevation", 5d);
+            SimpleFeature filtered = builder.buildFeature("filtered");
+            builder.set("elevation", 1.5d);
+            SimpleFeature matching = builder.buildFeature("matching");
+            TransactionRequest request = newTransaction();
+            index.dataStoreChange(
+                    new TransactionEvent(
+                            TransactionEventType.POST_INSERT,
+                            request,
+                            V_TIME_ELEVATION,
+                            DataUtilities.collection(filtered, matching)));
+            index.afterTransaction(request, null, true);
+
+            elevations = getWMS().getFeatureTypeElevations(typeInfo);
+            assertEquals(Arrays.asList(0d, 1d, 1.5d, 2d), List.copyOf(elevations));
+            assertSame(domain, index.getDomains().get(0));
+        } finally {
+            typeInfo = getTimeElevation();
+            typeInfo.setCqlFilter(null);
+            getCatalog().save(typeInfo);
+        }
+    }
+
+    @Test
+    public void testCatalogChangeClears() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.TIME, "time", DimensionPresentation.LIST, null, null, null);
+        FeatureTypeInfo typeInfo = getTimeElevation();
+        assertEquals(4, getWMS().getFeatureTypeTimes(typeInfo).size());
+        assertEquals(1, index.getDomains().size());
+
+        typeInfo.setTitle("Modified title");
+        getCatalog().save(typeInfo);
+        assertTrue(index.getDomains().isEmpty());
+    }
+
+    @Test
+    public void testAccessLimits() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.ELEVATION,
+                "elevation",
+                DimensionPresentation.LIST,
+                null,
+                UNITS,
+                UNIT_SYMBOL);
+        FeatureTypeInfo typeInfo = getTimeElevation();
+        DimensionInfo dimension =
+                typeInfo.getMetadata().get(ResourceInfo.ELEVATION, DimensionInfo.class);
+
+        // a user that can only read part of the data does not use the index
+        VectorAccessLimits filtered =
+                new VectorAccessLimits(
+                        CatalogMode.HIDE,
+                        null,
+                        FF.less(FF.property("elevation"), FF.literal(2)),
+                        null,
+                        null);
+        FeatureTypeInfo secured =
+                new SecuredFeatureTypeInfo(typeInfo, WrapperPolicy.readOnlyHide(filtered));
+        assertNull(index.getDomain(secured, dimension));
+        TreeSet<Double> elevations = getWMS().getFeatureTypeElevations(secured);
+        assertEquals(Arrays.asList(0d, 1d), List.copyOf(elevations));
+        assertTrue(index.getDomains().isEmpty());
+
+        // same for hidden dimension attributes
+        VectorAccessLimits hidden =
+                new VectorAccessLimits(
+                        CatalogMode.HIDE,
+                        Arrays.asList(FF.property("time")),
+                        Filter.INCLUDE,
+                        null,
+                        null);
+        secured = new SecuredFeatureTypeInfo(typeInfo, WrapperPolicy.readOnlyHide(hidden));
+        assertNull(index.getDomain(secured, dimension));
+
+        // an unrestricted user shares the domain built from the raw data
+        VectorAccessLimits unrestricted =
+                new VectorAccessLimits(CatalogMode.HIDE, null, Filter.INCLUDE, null, null);
+        secured = new SecuredFeatureTypeInfo(typeInfo, WrapperPolicy.readOnlyHide(unrestricted));
+        DimensionDomain domain = index.getDomain(secured, dimension);
+        assertEquals(4, domain.getValueCount());
+        assertSame(domain, index.getDomain(typeInfo, dimension));
+    }
+
+    @Test
+    public void testDefaultValueStrategies() throws Exception {
+        setupVectorDimension(
+                ResourceInfo.ELEVATION,
+                "elevation",
+                DimensionPresentation.LIST,
+                null,
+                UNITS,
+                UNIT_SYMBOL);
+        FeatureTypeInfo typeInfo = getTimeElevation();
+        DimensionInfo dimension =
+                typeInfo.getMetadata().get(ResourceInfo.ELEVATION, DimensionInfo.class);
+
+        String name = ResourceInfo.ELEVATION;
+        AbstractFeatureAttributeVisitorSelectionStrategy strategy =
+                new FeatureNearestValueSelectionStrategyImpl(1.4d);
+        assertEquals(1d, strategy.getDefaultValue(typeInfo, name, dimension, Double.class));
+        strategy = new FeatureMaximumValueSelectionStrategyImpl();
+        assertEquals(3d, strategy.getDefaultValue(typeInfo, name, dimension, Double.class));
+        assertEquals(1, index.getDomains().size());
+    }
+}
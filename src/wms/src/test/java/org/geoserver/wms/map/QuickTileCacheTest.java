@@ -5,10 +5,17 @@
  */
 package org.geoserver.wms.map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.awt.Point;
 import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.RenderedImage;
+import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.junit.Test;
 import org.locationtech.jts.geom.Envelope;
 
@@ -68,4 +75,83 @@ public void testInnerTileOffsets() {
         assertEquals(new Point(0, 2), cache.getTileOffsetsInMeta(box1, meta));
         assertEquals(new Point(1, 2), cache.getTileOffsetsInMeta(box2, meta));
     }
+
+    @Test
+    public void testMemoryBoundedEviction() {
+        // each meta-tile is 9 tiles of 256x256 single byte pixels
+        long metaTileSize = 9 * 256 * 256;
+        cache.setMaxMemory(metaTileSize * 2);
+
+        QuickTileCache.MetaTileKey k1 = metaTileKey(0, "topp:states");
+        QuickTileCache.MetaTileKey k2 = metaTileKey(1, "topp:states");
+        QuickTileCache.MetaTileKey k3 = metaTileKey(2, "topp:roads");
+        cache.storeTiles(k1, tiles(BufferedImage.TYPE_BYTE_GRAY));
+        cache.storeTiles(k2, tiles(BufferedImage.TYPE_BYTE_GRAY));
+        assertEquals(2, cache.getSize());
+        assertEquals(metaTileSize * 2, cache.getUsedMemory());
+
+        // the third one pushes out the least recently used one
+        cache.storeTiles(k3, tiles(BufferedImage.TYPE_BYTE_GRAY));
+        assertEquals(2, cache.getSize());
+        assertEquals(metaTileSize * 2, cache.getUsedMemory());
+        assertEquals(1, cache.getStatistics().get("topp:states").getEvictions());
+        assertEquals(0, cache.getStatistics().get("topp:roads").getEvictions());
+
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getUsedMemory());
+    }
+
+    @Test
+    public void testTooLarge() {
+        cache.setMaxMemory(1024);
+        cache.storeTiles(metaTileKey(0, "topp:states"), tiles(BufferedImage.TYPE_BYTE_GRAY));
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getUsedMemory());
+    }
+
+    @Test
+    public void testOffHeap() {
+        RenderedImage[] tiles = tiles(BufferedImage.TYPE_BYTE_INDEXED);
+        ((BufferedImage) tiles[4]).getRaster().setSample(10, 20, 0, 3);
+        QuickTileCache.CacheElement element =
+                new QuickTileCache.CacheElement(tiles, new String[0], true);
+        assertNotNull(element.offHeapTiles);
+        assertNull(element.tiles);
+        assertEquals(9 * 256 * 256, element.size);
+
+        RenderedImage[] copies = element.getTiles();
+        assertEquals(tiles.length, copies.length);
+        for (int i = 0; i < tiles.length; i++) {
+            assertEquals(tiles[i].getColorModel(), copies[i].getColorModel());
+            assertArrayEquals(
+                    ((DataBufferByte) tiles[i].getData().getDataBuffer()).getData(),
+                    ((DataBufferByte) copies[i].getData().getDataBuffer()).getData());
+        }
+
+        // not byte based, stays in the heap
+        element =
+                new QuickTileCache.CacheElement(
+                        tiles(BufferedImage.TYPE_INT_ARGB), new String[0], true);
+        assertNull(element.offHeapTiles);
+        assertEquals(9 * 256 * 256 * 4, element.size);
+    }
+
+    private QuickTileCache.MetaTileKey metaTileKey(int x, String layer) {
+        QuickTileCache.MapKey mapKey =
+                new QuickTileCache.MapKey("layers=" + layer, 1, new Point2D.Double(0, 0));
+        QuickTileCache.MetaTileKey key =
+                new QuickTileCache.MetaTileKey(
+                        mapKey, new Point(x, 0), new ReferencedEnvelope(0, 1, 0, 1, null));
+        key.layers = new String[] {layer};
+        return key;
+    }
+
+    private RenderedImage[] tiles(int type) {
+        RenderedImage[] tiles = new RenderedImage[9];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new BufferedImage(256, 256, type);
+        }
+        return tiles;
+    }
 }
@@ -0,0 +1,106 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.geotools.image.ImageWorker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the sequential and parallel modes of {@link PNGJWriter} on a map like RGBA image and
+ * its paletted version, at the default compression level. Not run as part of the build, launch it
+ * from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.geoserver.wms.map.png.PNGEncoderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class PNGEncoderBenchmark {
+
+    /** Same as the default 25% PNG compression in the WMS configuration */
+    static final float QUALITY = 0.75f;
+
+    @Param({"1024", "4096"})
+    int size;
+
+    @Param({"rgba", "paletted"})
+    String imageType;
+
+    BufferedImage image;
+
+    OutputStream output = OutputStream.nullOutputStream();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BufferedImage rgba = new BufferedImage(size, size, BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D graphics = rgba.createGraphics();
+        graphics.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setPaint(
+                new GradientPaint(0, 0, new Color(200, 230, 200), size, size, Color.WHITE));
+        graphics.fillRect(0, 0, size, size);
+        // something resembling a road network
+        Random random = new Random(0);
+        graphics.setStroke(new BasicStroke(3));
+        for (int i = 0; i < size; i++) {
+            graphics.setColor(new Color(random.nextInt(256), 100, 50, 200));
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            graphics.drawLine(x, y, x + random.nextInt(200) - 100, y + random.nextInt(200) - 100);
+        }
+        graphics.dispose();
+
+        if ("paletted".equals(imageType)) {
+            image = new ImageWorker(rgba).forceIndexColorModelForGIF(true).getBufferedImage();
+        } else {
+            image = rgba;
+        }
+    }
+
+    @Benchmark
+    public Object sequential() {
+        return new PNGJWriter(false).writePNG(image, output, QUALITY, null);
+    }
+
+    @Benchmark
+    public Object parallel() {
+        return new PNGJWriter(true).writePNG(image, output, QUALITY, null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options =
+                new OptionsBuilder().include(PNGEncoderBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
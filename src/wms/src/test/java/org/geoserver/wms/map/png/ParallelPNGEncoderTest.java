@@ -0,0 +1,168 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import ar.com.hjg.pngj.FilterType;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Adler32;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+public class ParallelPNGEncoderTest {
+
+    @Test
+    public void testSupported() {
+        assertTrue(ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_4BYTE_ABGR)));
+        assertTrue(ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_INT_ARGB)));
+        assertTrue(ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_3BYTE_BGR)));
+        assertTrue(ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_BYTE_GRAY)));
+        assertTrue(ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_BYTE_INDEXED)));
+        assertFalse(
+                ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_INT_ARGB_PRE)));
+        assertFalse(ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_USHORT_GRAY)));
+        assertFalse(ParallelPNGEncoder.isSupported(image(10, 10, BufferedImage.TYPE_BYTE_BINARY)));
+    }
+
+    @Test
+    public void testCombineAdler32() {
+        byte[] data = new byte[100000];
+        new Random(0).nextBytes(data);
+        Adler32 all = new Adler32();
+        all.update(data);
+        Adler32 first = new Adler32();
+        first.update(data, 0, 30000);
+        Adler32 second = new Adler32();
+        second.update(data, 30000, 70000);
+        long combined =
+                ParallelPNGEncoder.combineAdler32(first.getValue(), second.getValue(), 70000);
+        assertEquals(all.getValue(), combined);
+        assertEquals(first.getValue(), ParallelPNGEncoder.combineAdler32(1, first.getValue(), 30000));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        int[] types = {
+            BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_BYTE_INDEXED
+        };
+        FilterType[] filters = {
+            FilterType.FILTER_NONE,
+            FilterType.FILTER_SUB,
+            FilterType.FILTER_UP,
+            FilterType.FILTER_AVERAGE,
+            FilterType.FILTER_PAETH
+        };
+        for (int type : types) {
+            // large enough to be split in several bands
+            BufferedImage image = image(700, 900, type);
+            for (FilterType filter : filters) {
+                assertRoundTrip(image, filter, 6);
+            }
+            assertRoundTrip(image, FilterType.FILTER_SUB, 0);
+            assertRoundTrip(image, FilterType.FILTER_SUB, 9);
+        }
+        // a single band one
+        assertRoundTrip(image(20, 10, BufferedImage.TYPE_4BYTE_ABGR), FilterType.FILTER_SUB, 6);
+    }
+
+    @Test
+    public void testTranslucentPalette() throws Exception {
+        byte[] r = {0, (byte) 255, 0};
+        byte[] g = {0, 0, (byte) 255};
+        byte[] b = {0, 0, 0};
+        byte[] a = {0, (byte) 128, (byte) 255};
+        IndexColorModel icm = new IndexColorModel(8, 3, r, g, b, a);
+        BufferedImage image = new BufferedImage(300, 2000, BufferedImage.TYPE_BYTE_INDEXED, icm);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.getRaster().setSample(x, y, 0, (x + y) % 3);
+            }
+        }
+        BufferedImage decoded = assertRoundTrip(image, FilterType.FILTER_NONE, 6);
+        assertTrue(decoded.getColorModel().hasAlpha());
+    }
+
+    @Test
+    public void testWriter() throws Exception {
+        BufferedImage image = image(500, 1200, BufferedImage.TYPE_4BYTE_ABGR);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new PNGJWriter(true).writePNG(image, bos, 0.75f, null);
+        assertSamePixels(image, ImageIO.read(new ByteArrayInputStream(bos.toByteArray())));
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        BufferedImage image = image(500, 1200, BufferedImage.TYPE_4BYTE_ABGR);
+        assertRoundTrip(image, FilterType.FILTER_PAETH, 6);
+        ExecutorService pool = ParallelPNGEncoder.executor;
+        assertNotNull(pool);
+
+        PNGJWriter.dispose();
+        assertTrue(pool.isTerminated());
+        assertNull(ParallelPNGEncoder.executor);
+
+        // a new pool is created on demand
+        assertRoundTrip(image, FilterType.FILTER_PAETH, 6);
+        assertNotNull(ParallelPNGEncoder.executor);
+        assertNotSame(pool, ParallelPNGEncoder.executor);
+    }
+
+    private BufferedImage assertRoundTrip(BufferedImage image, FilterType filter, int level)
+            throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ParallelPNGEncoder(image, level, filter).encode(bos);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bos.toByteArray()));
+        assertSamePixels(image, decoded);
+        return decoded;
+    }
+
+    private void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+                    assertEquals(
+                            "Pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    /** An image with gradients and noise, to exercise the filters */
+    private BufferedImage image(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(
+                new GradientPaint(0, 0, new Color(255, 0, 0, 50), width, height, Color.BLUE));
+        graphics.fillRect(0, 0, width, height);
+        Random random = new Random(width * height);
+        for (int i = 0; i < 200; i++) {
+            graphics.setColor(new Color(random.nextInt(), true));
+            graphics.fillOval(random.nextInt(width), random.nextInt(height), 30, 20);
+        }
+        graphics.dispose();
+        return image;
+    }
+}